@@ -3,12 +3,11 @@ package org.eclipse.microprofile.logging;
 import io.opentracing.Span;
 import io.opentracing.Tracer;
 import io.opentracing.log.Fields;
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import javax.enterprise.inject.spi.CDI;
-import javax.json.bind.Jsonb;
-import javax.json.bind.JsonbBuilder;
 
 /**
  * Base class containing convenience methods for basic logging methods as well
@@ -26,20 +25,136 @@ public abstract class AbstractLogger<T extends LogEvent> implements Logger<T> {
 
   private final Supplier<T> supplier;
   private final String name;
-  private final Jsonb jsonB;
   
   private Tracer tracer;
   
+  /** The Tracer of the last CDI container looked up, see {@link #resolveTracer()} */
+  private static volatile ResolvedTracer resolvedTracer;
+  
+  private volatile AsyncDispatcher dispatcher;
+  
+  private volatile LogLimiter limiter;
+  
+  private volatile LogDeduplicator deduplicator;
+  
+  /** Metrics of this Logger, null when {@link LoggingMetrics} are disabled */
+  private volatile LoggingMetrics.LoggerMetrics metrics;
+  
+  /** Cached int value of the Level resolved by {@link Configuration#getLevel(java.lang.String)} */
+  private volatile int level;
+  
+  /** Cached {@link Configuration#SPAN_LEVEL} */
+  private volatile Level spanLevel;
+  
+  /** Cached int value of {@link Configuration#SPAN_IMPLICIT_LEVEL} */
+  private volatile int spanImplicitLevel;
+  
+  /** Has this Logger been registered for configuration changes, see {@link #register()} */
+  private final AtomicBoolean registered = new AtomicBoolean();
+  
   public AbstractLogger(final String name, Supplier<T> supplier) {
+    this(name, supplier, null);
+  }
+  
+  /**
+   * Create a Logger using the given Tracer for Span logging.
+   * 
+   * @param name The name of the Logger.
+   * @param supplier The supplier of {@link LogEvent} instances.
+   * @param tracer The Tracer to use, or null to look up the Tracer through CDI.
+   */
+  protected AbstractLogger(final String name, Supplier<T> supplier, Tracer tracer) {
     this.name = name;
     this.supplier = supplier;
-    this.jsonB = JsonbBuilder.create();
+    this.tracer = tracer;
     initTracer();
+    refreshConfiguration();
   }
   
   public Supplier<T> getSupplier() {
     return supplier;
   }
+  
+  /**
+   * Get the {@link AsyncDispatcher} used to write {@link LogEvent}s.
+   * 
+   * @return The dispatcher, or null if events are written on the logging thread.
+   */
+  public AsyncDispatcher getDispatcher() {
+    return dispatcher;
+  }
+  
+  /**
+   * Write {@link LogEvent}s on the consumer thread of the given {@link AsyncDispatcher}
+   * instead of the logging thread.
+   * 
+   * <p>
+   * When a dispatcher is set, {@link #writeLog(org.eclipse.microprofile.logging.Level, org.eclipse.microprofile.logging.LogEvent)}
+   * may be called from a different thread than the log statement, after the log method has returned.
+   * Span logging is always performed on the logging thread.
+   * </p>
+   * 
+   * @param dispatcher The dispatcher to use, or null to write events synchronously.
+   */
+  public void setDispatcher(AsyncDispatcher dispatcher) {
+    this.dispatcher = dispatcher;
+  }
+
+  /**
+   * Get the {@link LogLimiter} applied to log statements.
+   * 
+   * @return The limiter, or null if all events are emitted.
+   */
+  public LogLimiter getLimiter() {
+    return limiter;
+  }
+  
+  /**
+   * Sample and/or rate limit the events emitted by this Logger.
+   * 
+   * @param limiter The limiter to use, or null to emit all events.
+   */
+  public void setLimiter(LogLimiter limiter) {
+    this.limiter = limiter;
+  }
+
+  /**
+   * Get the {@link LogDeduplicator} applied to log statements.
+   * 
+   * @return The deduplicator, or null if identical events are all written.
+   */
+  public LogDeduplicator getDeduplicator() {
+    return deduplicator;
+  }
+  
+  /**
+   * Collapse bursts of identical events emitted by this Logger.
+   * 
+   * @param deduplicator The deduplicator to use, or null to write all events.
+   */
+  public void setDeduplicator(LogDeduplicator deduplicator) {
+    this.deduplicator = deduplicator;
+  }
+
+  /**
+   * Is the Level enabled by the hierarchical Level configuration of this Logger's name,
+   * see {@link Configuration#getLevel(java.lang.String)}?
+   * 
+   * <p>
+   * The resolved Level is cached, so this does not query the configuration. Implementations
+   * may override this method to defer to the Level configuration of the Logging Framework.
+   * </p>
+   * 
+   * @param lvl The level to check.
+   * 
+   * @return true if the log statement will be logged.
+   */
+  @Override
+  public boolean isLoggable(Level lvl) {
+    register();
+    final int threshold = level;
+    return threshold != Level.OFF.intValue() && lvl.intValue() >= threshold;
+  }
 
   @Override
   public void debug(LogFunction<T> f) {
@@ -74,27 +189,129 @@ public abstract class AbstractLogger<T extends LogEvent> implements Logger<T> {
   @Override
   public void log(Level lvl, LogFunction<T> f) {
     if (isLoggable(lvl)) {
-      final T event = getSupplier().get();
+      final T event = newEvent(f);
+      if (event == null) {
+        return;
+      }
       
       // If the log will go to the Span, initialise
       // the log event with the Span ID before calling
-      // the log function.
-      if (isSpanImplicitLoggable(lvl)) {
-        final Span span = tracer.activeSpan();
+      // the log function. The Span is resolved once
+      // for the whole statement.
+      final Span span = getImplicitSpan(lvl);
+      if (span != null) {
         event.spanId = span.context().toSpanId();
+        event.traceId = span.context().toTraceId();
       }
       
-      // Invoke the log function
-      event.message = f.log(event);
+      // Invoke the log function, the event is not
+      // handed over if it throws.
+      try {
+        event.message = f.log(event);
+      } catch (RuntimeException re) {
+        release(event);
+        throw re;
+      }
       
-      writeLog(lvl, event);
+      // Span logging happens first as the event is
+      // owned by the dispatcher once handed over.
+      if (span != null) {
+        writeSpan(span, event);
+      }
       
-      if (isSpanImplicitLoggable(lvl)) {
-        writeSpan(event);
+      if (accept(lvl, f, event)) {
+        dispatch(lvl, event, null, null);
       }
     }
   }
   
+  /**
+   * {@inheritDoc}
+   * 
+   * <p>
+   * When the Logger has an {@link AsyncDispatcher} and the event is not logged to a Span,
+   * the function is called on the consumer thread of the dispatcher, just before the event
+   * is written. Otherwise the function is called on the calling thread.
+   * </p>
+   */
+  @Override
+  public <A> void log(Level lvl, A args, CapturingLogFunction<T, A> f) {
+    if (isLoggable(lvl)) {
+      final T event = newEvent(f);
+      if (event == null) {
+        return;
+      }
+      
+      final Span span = getImplicitSpan(lvl);
+      if (span == null) {
+        dispatch(lvl, event, f, args);
+        return;
+      }
+      
+      // The Span needs the message now.
+      event.spanId = span.context().toSpanId();
+      event.traceId = span.context().toTraceId();
+      try {
+        event.message = f.log(event, args);
+      } catch (RuntimeException re) {
+        release(event);
+        throw re;
+      }
+      writeSpan(span, event);
+      if (accept(lvl, f, event)) {
+        dispatch(lvl, event, null, null);
+      }
+    }
+  }
+  
+  /**
+   * Obtain the event for a log statement, unless it is suppressed by the {@link LogLimiter}.
+   * 
+   * <p>
+   * Sampling and rate limiting happen before the event is obtained
+   * and the log function called.
+   * </p>
+   * 
+   * @param f The log function of the statement, identifying its call site.
+   * @return The event, or null if the statement is suppressed.
+   */
+  private T newEvent(Object f) {
+    register();
+    final LogLimiter logLimiter = limiter;
+    long suppressed = 0;
+    if (logLimiter != null) {
+      suppressed = logLimiter.acquire(f);
+      if (suppressed < 0) {
+        final LoggingMetrics.LoggerMetrics loggerMetrics = metrics;
+        if (loggerMetrics != null) {
+          loggerMetrics.suppressed();
+        }
+        return null;
+      }
+    }
+    
+    final T event = getSupplier().get();
+    if (suppressed > 0) {
+      event.suppressed = suppressed;
+    }
+    // Captured on the logging thread, the event may be completed and written on another
+    event.context = LogContext.active();
+    event.timestamp = LogEvent.currentTimeNanos();
+    return event;
+  }
+  
+  /**
+   * Count an event handed to the logging framework.
+   * 
+   * @param lvl The Level of the event.
+   */
+  private void emitted(Level lvl) {
+    final LoggingMetrics.LoggerMetrics loggerMetrics = metrics;
+    if (loggerMetrics != null) {
+      loggerMetrics.emitted(lvl);
+    }
+  }
+  
   /**
    * Perform Span Logging.
    * 
@@ -105,27 +322,42 @@ public abstract class AbstractLogger<T extends LogEvent> implements Logger<T> {
    * @param f Log function
    */
   private void privateSpan(LogFunction<T> f) {
+    register();
     final T event = getSupplier().get();
+    event.timestamp = LogEvent.currentTimeNanos();
     
     // Although this method has been called, Span
     // logging may not be available as a Tracer
     // may not exist.
     boolean logFunctionCalled = false;
-    if (isSpanAvailable()) {
+    final Span span = tracer != null ? tracer.activeSpan() : null;
+    if (span != null) {
       logFunctionCalled = true;
-      final Span span = tracer.activeSpan();
       event.spanId = span.context().toSpanId();
-      event.message = f.log(event);
-      writeSpan(event);
+      event.traceId = span.context().toTraceId();
+      try {
+        event.message = f.log(event);
+      } catch (RuntimeException re) {
+        release(event);
+        throw re;
+      }
+      writeSpan(span, event);
     } 
     
     final Level spanLevel = getSpanLevel();
     if (isLoggable(spanLevel)) {
       if (!logFunctionCalled) {
-        event.message = f.log(event);
+        try {
+          event.message = f.log(event);
+        } catch (RuntimeException re) {
+          release(event);
+          throw re;
+        }
       }
       
-      writeLog(spanLevel, event);
+      dispatch(spanLevel, event, null, null);
+    } else {
+      release(event);
     }
   }
   
@@ -142,7 +374,36 @@ public abstract class AbstractLogger<T extends LogEvent> implements Logger<T> {
    * @return The event as a JSON String.
    */
   public String getJsonString(T event) {
-    return jsonB.toJson(event);
+    final LoggingMetrics.LoggerMetrics loggerMetrics = metrics;
+    if (loggerMetrics == null) {
+      return JsonEncoder.toJson(event);
+    }
+    final long start = System.nanoTime();
+    final String json = JsonEncoder.toJson(event);
+    loggerMetrics.serialized(System.nanoTime() - start);
+    return json;
+  }
+  
+  /**
+   * Append the UTF-8 encoded JSON form of the supplied {@link LogEvent} to a buffer.
+   * 
+   * <p>
+   * This produces the same JSON as {@link #getJsonString(org.eclipse.microprofile.logging.LogEvent)}
+   * without creating an intermediate String.
+   * </p>
+   * 
+   * @param event The event to convert to JSON.
+   * @param buffer The buffer to append the JSON to.
+   */
+  public void writeJson(T event, Utf8Buffer buffer) {
+    final LoggingMetrics.LoggerMetrics loggerMetrics = metrics;
+    if (loggerMetrics == null) {
+      JsonEncoder.encode(event, buffer);
+      return;
+    }
+    final long start = System.nanoTime();
+    JsonEncoder.encode(event, buffer);
+    loggerMetrics.serialized(System.nanoTime() - start);
   }
   
   /**
@@ -155,64 +416,198 @@ public abstract class AbstractLogger<T extends LogEvent> implements Logger<T> {
   public abstract void writeLog(Level lvl, T event);
   
   /**
-   * Is Span logging enabled for the given Level
+   * Does {@link #writeLog(org.eclipse.microprofile.logging.Level, org.eclipse.microprofile.logging.LogEvent)} keep a
+   * reference to the {@link LogEvent} after returning?
+   * 
+   * <p>
+   * If the Supplier is a {@link LogEventPool}, events are released for re-use as soon as
+   * {@code writeLog} returns. Implementations which hold on to events, for example to serialize
+   * them later on a background thread, must return true and call {@link #release(org.eclipse.microprofile.logging.LogEvent)}
+   * once they have finished with each event.
+   * </p>
    * 
-   * @param lvl The level to compare
-   * @return true The level is sufficient and Tracing is available.
+   * @return true if events are retained, and released, by the implementation.
    */
-  private boolean isSpanAvailable() {
-    return tracer != null &&
-           tracer.activeSpan() != null;
+  protected boolean isRetainingEvents() {
+    return false;
   }
   
   /**
-   * Is Span logging enabled for the given Level
+   * Return a {@link LogEvent} to the {@link LogEventPool} it came from, if the Supplier
+   * of this Logger is a pool. Otherwise, this method does nothing.
    * 
-   * @param lvl The level to compare
-   * @return true The level is sufficient and Tracing is available.
+   * <p>
+   * The event MUST NOT be used by the caller afterwards.
+   * </p>
+   * 
+   * @param event The event which is no longer used.
    */
-  private boolean isSpanImplicitLoggable(Level lvl) {
-    return lvl.intValue() >= getSpanImplicitLevel().intValue() &&
-           tracer != null &&
-           tracer.activeSpan() != null;
+  @SuppressWarnings("unchecked")
+  public void release(T event) {
+    if (supplier instanceof LogEventPool) {
+      ((LogEventPool<T>) supplier).release(event);
+    }
   }
   
   /**
-   * Write the {@link LogEvent} to Span Logging.
+   * Hand the {@link LogEvent} to the {@link AsyncDispatcher}, if one is set,
+   * otherwise write it directly.
+   * 
+   * @param <A> The type of the captured arguments.
+   * @param lvl The Level of the log statement.
+   * @param event The log data.
+   * @param deferred Function completing the event before it is written, or null if the event is complete.
+   * @param args The arguments of the deferred function.
+   */
+  private <A> void dispatch(Level lvl, T event, CapturingLogFunction<? super T, A> deferred, A args) {
+    emitted(lvl);
+    final AsyncDispatcher asyncDispatcher = dispatcher;
+    if (asyncDispatcher == null || !asyncDispatcher.dispatch(this, lvl, event, deferred, args)) {
+      if (deferred == null || complete(lvl, event, deferred, args)) {
+        write(lvl, event);
+      }
+    }
+  }
+  
+  /**
+   * Build the message of an event whose {@link CapturingLogFunction} was deferred.
+   * 
+   * @param <A> The type of the captured arguments.
+   * @param lvl The Level of the log statement.
+   * @param event The log data.
+   * @param f The deferred function.
+   * @param args The arguments of the function.
+   * 
+   * @return false if the event is a duplicate, which has been released and must not be written.
+   */
+  <A> boolean complete(Level lvl, T event, CapturingLogFunction<? super T, A> f, A args) {
+    try {
+      event.message = f.log(event, args);
+    } catch (RuntimeException re) {
+      release(event);
+      throw re;
+    }
+    return accept(lvl, f, event);
+  }
+  
+  /**
+   * Consult the {@link LogDeduplicator}, if one is set, releasing duplicate events.
+   * 
+   * @param lvl The Level of the log statement.
+   * @param callSite The log function of the statement.
+   * @param event The log data.
+   * 
+   * @return false if the event is a duplicate and must not be written.
+   */
+  private boolean accept(Level lvl, Object callSite, T event) {
+    final LogDeduplicator logDeduplicator = deduplicator;
+    if (logDeduplicator == null || logDeduplicator.accept(this, lvl, callSite, event)) {
+      return true;
+    }
+    final LoggingMetrics.LoggerMetrics loggerMetrics = metrics;
+    if (loggerMetrics != null) {
+      loggerMetrics.suppressed();
+    }
+    release(event);
+    return false;
+  }
+  
+  /**
+   * Write the summary of a window of identical events of a {@link LogDeduplicator}
+   * which is not reported by a later identical event.
+   * 
+   * @param lvl The Level of the events.
+   * @param message The message of the first event of the window.
+   * @param occurrences The number of events in the window.
+   * @param first The time of the first event.
+   * @param last The time of the last event.
+   */
+  void writeSummary(Level lvl, String message, long occurrences, long first, long last) {
+    final T event = getSupplier().get();
+    event.message = message;
+    event.occurrences = occurrences;
+    event.firstOccurrence = first;
+    event.lastOccurrence = last;
+    event.timestamp = LogEvent.currentTimeNanos();
+    dispatch(lvl, event, null, null);
+  }
+  
+  /**
+   * Called on the consumer thread of the {@link AsyncDispatcher} once it has written a batch
+   * of events, I.e. when its buffer has run empty, for each Logger with events in the batch.
    * 
    * <p>
-   * Note: This method expects Tracing to be available. As such, a call
-   * to this method must be wrapped in {@link #isSpanLoggable(org.eclipse.microprofile.logging.Level)}
+   * Implementations whose output benefits from batching, E.g. sharing one flush or
+   * {@code force()} between many events, can defer that work from
+   * {@link #writeLog(org.eclipse.microprofile.logging.Level, org.eclipse.microprofile.logging.LogEvent)}
+   * to this method while {@link #isWritingBatch()} is true. A Logger may be called more than once for a batch.
    * </p>
+   */
+  protected void endOfBatch() {
+    // Nothing to complete by default
+  }
+  
+  /**
+   * Is the calling thread writing a batch of events of the {@link AsyncDispatcher},
+   * I.e. will {@link #endOfBatch()} be called once the current event has been written?
    * 
+   * @return true if called on the consumer thread of this Logger's dispatcher.
+   */
+  protected boolean isWritingBatch() {
+    final AsyncDispatcher asyncDispatcher = dispatcher;
+    return asyncDispatcher != null && asyncDispatcher.isConsumerThread();
+  }
+  
+  /**
+   * Write the {@link LogEvent} and release it afterwards unless the
+   * implementation retains events, even if writing it fails.
+   * 
+   * @param lvl The Level of the log statement.
    * @param event The log data.
    */
-  private void writeSpan(T event) {
-    final Map<String, ?> fields = build(event);
-    final Span span = tracer.activeSpan();
-    span.log(fields);
+  void write(Level lvl, T event) {
+    try {
+      final LoggingMetrics.LoggerMetrics loggerMetrics = metrics;
+      if (loggerMetrics == null) {
+        writeLog(lvl, event);
+      } else {
+        final long start = System.nanoTime();
+        writeLog(lvl, event);
+        loggerMetrics.written(System.nanoTime() - start);
+      }
+    } finally {
+      if (!isRetainingEvents()) {
+        release(event);
+      }
+    }
   }
   
+  /**
+   * Get the Span that a log statement at the given Level is also sent to.
+   * 
+   * @param lvl The level of the log statement.
+   * @return The active Span, or null if the level is insufficient or Tracing is not available.
+   */
+  private Span getImplicitSpan(Level lvl) {
+    return lvl.intValue() >= spanImplicitLevel && tracer != null ? tracer.activeSpan() : null;
+  }
   
-
   /**
-   * Convert the {@link LogEvent} data into Span log data.
+   * Write the {@link LogEvent} to Span Logging, or add it to the
+   * {@link SpanLogBatch} open on the current thread.
    * 
-   * @param event The event to convert.
-   * @return The Span log data.
+   * @param span The active Span.
+   * @param event The log data.
    */
-  private Map<String, ?> build(LogEvent event) {
-    final Map<String, Object> fields = new HashMap<>();
-    final Throwable thrown = event.throwable;
-    if (thrown != null) {
-      fields.put(Fields.EVENT, "error");
-      fields.put(Fields.ERROR_KIND, "Exception");
-      fields.put(Fields.ERROR_OBJECT, thrown);
-      fields.put(Fields.MESSAGE, thrown.getMessage());
+  private void writeSpan(Span span, T event) {
+    final SpanLogBatch batch = SpanLogBatch.current();
+    if (batch != null) {
+      batch.add(span, event);
+    } else if (event.throwable == null) {
+      span.log(Collections.singletonMap(Fields.MESSAGE, event.message));
     } else {
-      fields.put(Fields.MESSAGE, event.message);
+      span.log(SpanFields.of(event));
     }
-    return fields;
   }
   
   /**
@@ -222,17 +617,38 @@ public abstract class AbstractLogger<T extends LogEvent> implements Logger<T> {
    * @return The configured Span Log Level.
    */
   private Level getSpanLevel() {
-    return Configuration.get(Configuration.SPAN_LEVEL);
+    return spanLevel;
+  }
+  
+  /**
+   * Register this Logger with {@link Configuration} on first use.
+   * 
+   * <p>
+   * Registering from the constructor would publish the Logger before the fields of
+   * sub-classes are set. The configuration is read again once registered, as it may
+   * have changed since the Logger was created.
+   * </p>
+   */
+  private void register() {
+    if (!registered.get() && registered.compareAndSet(false, true)) {
+      Configuration.register(this);
+      refreshConfiguration();
+    }
   }
   
   /**
-   * Get the configured Logging Level at which standard log methods such as debug(), warn(), etc.
-   * should also perform span logging.
+   * Update the cached configuration values.
    * 
-   * @return The configured Span Implicit Log Level.
+   * <p>
+   * This is called by {@link Configuration} whenever the configuration changes,
+   * and when {@link LoggingMetrics} are enabled or disabled.
+   * </p>
    */
-  private Level getSpanImplicitLevel() {
-    return Configuration.get(Configuration.SPAN_IMPLICIT_LEVEL);
+  void refreshConfiguration() {
+    level = Configuration.getLevel(name).intValue();
+    spanLevel = Configuration.SPAN_LEVEL.getLevel();
+    spanImplicitLevel = Configuration.SPAN_IMPLICIT_LEVEL.getLevel().intValue();
+    metrics = LoggingMetrics.forLogger(name);
   }
   
   /**
@@ -240,12 +656,52 @@ public abstract class AbstractLogger<T extends LogEvent> implements Logger<T> {
    */
   private void initTracer() {
     if (tracer == null) {
-      try {
-        tracer = CDI.current().select(Tracer.class).get();
-      } catch (Throwable ise) {
-        // Tracer not available. This can be quite likely so,
-        // this isn't an issue.
-      }
+      tracer = resolveTracer();
+    }
+  }
+  
+  /**
+   * Look up the Tracer through CDI once per container, rather than once per Logger,
+   * as the lookup may block on the container.
+   * 
+   * @return The Tracer, or null if not available.
+   */
+  private static Tracer resolveTracer() {
+    final CDI<Object> container;
+    try {
+      container = CDI.current();
+    } catch (Throwable ise) {
+      // CDI not available.
+      return null;
+    }
+    
+    final ResolvedTracer resolved = resolvedTracer;
+    if (resolved != null && resolved.container.get() == container) {
+      return resolved.tracer;
+    }
+    
+    Tracer found = null;
+    try {
+      found = container.select(Tracer.class).get();
+    } catch (Throwable ise) {
+      // Tracer not available. This can be quite likely so,
+      // this isn't an issue.
+    }
+    resolvedTracer = new ResolvedTracer(container, found);
+    return found;
+  }
+  
+  /**
+   * The Tracer resolved from a CDI container.
+   */
+  private static final class ResolvedTracer {
+    
+    private final WeakReference<CDI<Object>> container;
+    private final Tracer tracer;
+    
+    ResolvedTracer(CDI<Object> container, Tracer tracer) {
+      this.container = new WeakReference<>(container);
+      this.tracer = tracer;
     }
   }
 }
@@ -0,0 +1,403 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands {@link LogEvent} instances from the logging threads to a dedicated
+ * consumer thread which performs the actual {@link AbstractLogger#writeLog(org.eclipse.microprofile.logging.Level, org.eclipse.microprofile.logging.LogEvent)}.
+ *
+ * <p>
+ * Events are stored in a bounded, lock-free, multi-producer ring buffer. The buffer
+ * slots are allocated once so handing an event over does not allocate. When the
+ * buffer is full the configured {@link OverflowPolicy} decides what happens to the event.
+ * </p>
+ *
+ * <p>
+ * A single dispatcher can be shared by any number of loggers, see
+ * {@link AbstractLogger#setDispatcher(org.eclipse.microprofile.logging.AsyncDispatcher)}.
+ * Events are delivered in the order in which they were accepted by the buffer.
+ * </p>
+ */
+public final class AsyncDispatcher implements AutoCloseable {
+
+  /**
+   * What to do with an event when the ring buffer is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * Wait for the consumer to free up a slot.
+     */
+    BLOCK,
+
+    /**
+     * Discard the event being logged.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Discard the oldest event in the buffer to make room for the event being logged.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Write the event on the calling thread.
+     *
+     * <p>
+     * Note: Events written this way may be written before events which are still in the buffer.
+     * </p>
+     */
+    SYNCHRONOUS
+  }
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  /**
+   * Maximum time the idle consumer sleeps before re-checking the buffer. Producers wake the consumer
+   * through the {@code parked} flag, so this is only a safety net and the idle consumer does not poll.
+   */
+  private static final long IDLE_PARK_NANOS = 1_000_000_000L;
+
+  /** Time a producer waits before re-trying when using {@link OverflowPolicy#BLOCK}. */
+  private static final long BLOCK_PARK_NANOS = 10_000L;
+
+  private final OverflowPolicy policy;
+  private final int mask;
+  private final Slot[] slots;
+  private final AtomicLongArray sequences;
+  private final AtomicLong enqueuePosition = new AtomicLong();
+  private final AtomicLong dequeuePosition = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final Thread consumer;
+
+  /** Loggers written by the consumer thread since the end of the previous batch, only accessed by that thread */
+  private final List<AbstractLogger<?>> batchLoggers = new ArrayList<>();
+  private int batchSize;
+
+  private volatile boolean parked;
+  private volatile boolean running = true;
+
+  /**
+   * Create and start a dispatcher.
+   *
+   * @param capacity The number of events the buffer can hold. This is rounded up to the next power of two,
+   *                 and to at least two as a single slot cannot tell a full buffer from an empty one.
+   * @param policy What to do with an event when the buffer is full.
+   */
+  public AsyncDispatcher(int capacity, OverflowPolicy policy) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive \"" + capacity + "\"");
+    }
+    if (policy == null) {
+      throw new IllegalArgumentException("An OverflowPolicy is required");
+    }
+
+    final int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+    this.policy = policy;
+    this.mask = size - 1;
+    this.slots = new Slot[size];
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      slots[i] = new Slot();
+      sequences.set(i, i);
+    }
+
+    LoggingMetrics.register(this);
+
+    consumer = new Thread(this::consume, "mp-logging-async-" + THREAD_COUNT.incrementAndGet());
+    consumer.setDaemon(true);
+    consumer.start();
+  }
+
+  /**
+   * Hand the event to the consumer thread, which calls the function to complete
+   * the event before writing it.
+   *
+   * @param <T> The LogEvent type.
+   * @param <A> The type of the captured arguments.
+   * @param logger The logger which will write the event.
+   * @param lvl The Level of the log statement.
+   * @param event The log data.
+   * @param function The deferred log function, or null if the event is complete.
+   * @param args The arguments of the function.
+   *
+   * @return false if the event was not accepted and the caller must complete and write it itself.
+   */
+  <T extends LogEvent, A> boolean dispatch(AbstractLogger<T> logger, Level lvl, T event,
+                                           CapturingLogFunction<? super T, A> function, A args) {
+    if (!running) {
+      return false;
+    }
+
+    while (!offer(logger, lvl, event, function, args)) {
+      switch (policy) {
+        case BLOCK:
+          if (isConsumerThread()) {
+            // A Logger logging while it writes, only the consumer
+            // itself could free up a slot.
+            return false;
+          }
+          LockSupport.parkNanos(BLOCK_PARK_NANOS);
+          if (!running) {
+            return false;
+          }
+          break;
+        case DROP_NEWEST:
+          dropped.incrementAndGet();
+          logger.release(event);
+          return true;
+        case DROP_OLDEST:
+          poll(false);
+          break;
+        default:
+          return false;
+      }
+    }
+
+    if (parked) {
+      LockSupport.unpark(consumer);
+    } else if (!running) {
+      // Closed while the event was being offered, the consumer
+      // may already have finished draining.
+      while (poll(true)) {
+        // keep draining
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Get the overflow policy of this dispatcher.
+   *
+   * @return The policy.
+   */
+  public OverflowPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Get the number of events the buffer can hold.
+   *
+   * @return The capacity.
+   */
+  public int getCapacity() {
+    return slots.length;
+  }
+
+  /**
+   * Get the (approximate) number of events waiting to be written.
+   *
+   * @return The number of queued events.
+   */
+  public int size() {
+    final long size = enqueuePosition.get() - dequeuePosition.get();
+    return (int) Math.max(0, Math.min(size, slots.length));
+  }
+
+  /**
+   * Get the number of events discarded because the buffer was full.
+   *
+   * @return The number of dropped events.
+   */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  /**
+   * Get the number of times a Logger failed with an exception while writing
+   * an event or completing a batch.
+   *
+   * @return The number of failures.
+   */
+  public long getFailedCount() {
+    return failed.get();
+  }
+
+  /**
+   * Stop accepting events, write all queued events and stop the consumer thread.
+   *
+   * <p>
+   * Loggers using a closed dispatcher write their events synchronously.
+   * </p>
+   */
+  @Override
+  public void close() {
+    running = false;
+    LockSupport.unpark(consumer);
+    if (Thread.currentThread() != consumer) {
+      boolean interrupted = false;
+      while (consumer.isAlive()) {
+        try {
+          consumer.join();
+        } catch (InterruptedException ie) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private boolean offer(AbstractLogger<?> logger, Level lvl, LogEvent event,
+                        CapturingLogFunction<?, ?> function, Object args) {
+    long position = enqueuePosition.get();
+    for (;;) {
+      final int index = (int) (position & mask);
+      final long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (enqueuePosition.compareAndSet(position, position + 1)) {
+          final Slot slot = slots[index];
+          slot.logger = logger;
+          slot.level = lvl;
+          slot.event = event;
+          slot.function = function;
+          slot.args = args;
+          sequences.lazySet(index, position + 1);
+          return true;
+        }
+        position = enqueuePosition.get();
+      } else if (difference < 0) {
+        // The buffer is full
+        return false;
+      } else {
+        position = enqueuePosition.get();
+      }
+    }
+  }
+
+  /**
+   * Remove the oldest event from the buffer.
+   *
+   * @param write true to write the event, false to discard it.
+   * @return true if an event was removed.
+   */
+  @SuppressWarnings("unchecked")
+  private boolean poll(boolean write) {
+    long position = dequeuePosition.get();
+    for (;;) {
+      final int index = (int) (position & mask);
+      final long difference = sequences.get(index) - (position + 1);
+      if (difference == 0) {
+        if (dequeuePosition.compareAndSet(position, position + 1)) {
+          final Slot slot = slots[index];
+          final AbstractLogger<LogEvent> logger = (AbstractLogger<LogEvent>) slot.logger;
+          final Level lvl = slot.level;
+          final LogEvent event = slot.event;
+          final CapturingLogFunction<LogEvent, Object> function = (CapturingLogFunction<LogEvent, Object>) slot.function;
+          final Object args = slot.args;
+          slot.logger = null;
+          slot.level = null;
+          slot.event = null;
+          slot.function = null;
+          slot.args = null;
+          sequences.lazySet(index, position + mask + 1);
+
+          if (write) {
+            write(logger, lvl, event, function, args);
+          } else {
+            dropped.incrementAndGet();
+            logger.release(event);
+          }
+          return true;
+        }
+        position = dequeuePosition.get();
+      } else if (difference < 0) {
+        // The buffer is empty
+        return false;
+      } else {
+        position = dequeuePosition.get();
+      }
+    }
+  }
+
+  private void write(AbstractLogger<LogEvent> logger, Level lvl, LogEvent event,
+                     CapturingLogFunction<LogEvent, Object> function, Object args) {
+    if (Thread.currentThread() == consumer) {
+      // Consecutive events of the same logger are the common case,
+      // a logger may still appear more than once in a batch.
+      final int size = batchLoggers.size();
+      if (size == 0 || batchLoggers.get(size - 1) != logger) {
+        batchLoggers.add(logger);
+      }
+      batchSize++;
+    }
+    try {
+      if (function == null || logger.complete(lvl, event, function, args)) {
+        logger.write(lvl, event);
+      }
+    } catch (RuntimeException re) {
+      // A failing sink must not stop the delivery of events for
+      // every other logger, the event has been released regardless.
+      failed.incrementAndGet();
+    }
+  }
+
+  /**
+   * Is the calling thread the consumer thread of this dispatcher?
+   *
+   * @return true if called while writing an event of a batch.
+   */
+  boolean isConsumerThread() {
+    return Thread.currentThread() == consumer;
+  }
+
+  /**
+   * Tell the loggers written since the previous batch that the batch is complete.
+   */
+  private void endBatch() {
+    for (int i = 0; i < batchLoggers.size(); i++) {
+      try {
+        batchLoggers.get(i).endOfBatch();
+      } catch (RuntimeException re) {
+        // As for write, a failing sink must not stop the consumer.
+        failed.incrementAndGet();
+      }
+    }
+    batchLoggers.clear();
+    batchSize = 0;
+  }
+
+  private void consume() {
+    while (running) {
+      if (batchSize >= slots.length) {
+        // Bound the batch when the buffer never runs empty
+        endBatch();
+      }
+      if (!poll(true)) {
+        if (batchSize > 0) {
+          endBatch();
+        }
+        parked = true;
+        // Re-check after publishing the parked flag so a
+        // producer cannot slip an event in unnoticed.
+        if (size() == 0 && running) {
+          LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        parked = false;
+      }
+    }
+
+    // Drain whatever was accepted before closing.
+    while (poll(true)) {
+      // keep draining
+    }
+    endBatch();
+  }
+
+  /**
+   * A pre-allocated entry of the ring buffer.
+   */
+  private static final class Slot {
+    private AbstractLogger<?> logger;
+    private Level level;
+    private LogEvent event;
+    private CapturingLogFunction<?, ?> function;
+    private Object args;
+  }
+}
@@ -0,0 +1,157 @@
+package org.eclipse.microprofile.logging;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Finds the class that asked for a {@link Logger}, I.e. the first class on the
+ * stack that is not part of the logging infrastructure.
+ *
+ * <p>
+ * On Java 9 and later the stack is walked lazily with {@code java.lang.StackWalker},
+ * stopping at the calling frame. On Java 8 the class context of the stack is used.
+ * Either way, the frames are identified by their classes rather than a fixed depth,
+ * so additional layers within a {@link LoggerFactoryProvider} do not affect the result.
+ * </p>
+ */
+abstract class CallerResolver {
+
+  private static final CallerResolver INSTANCE = create();
+
+  /**
+   * Get the calling class.
+   *
+   * @return The first non-logging class on the stack, or null if it cannot be determined.
+   */
+  static Class<?> getCaller() {
+    return INSTANCE.findCaller();
+  }
+
+  /**
+   * Is the class part of the logging infrastructure, rather than the class asking for a Logger?
+   *
+   * @param type The class of a stack frame.
+   * @return true if the frame should be skipped.
+   */
+  static boolean isInfrastructure(Class<?> type) {
+    if (type == LoggerRegistry.class || type == LoggerFactory.class
+        || LoggerRegistry.class.isAssignableFrom(type)
+        || LoggerFactoryProvider.class.isAssignableFrom(type)
+        || CallerResolver.class.isAssignableFrom(type) || type == ClassContext.class) {
+      return true;
+    }
+    final String name = type.getName();
+    return name.startsWith("java.lang.reflect.")
+           || name.startsWith("sun.reflect.")
+           || name.startsWith("jdk.internal.reflect.");
+  }
+
+  abstract Class<?> findCaller();
+
+  private static CallerResolver create() {
+    try {
+      return new StackWalkerResolver();
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Not Java 9 or later.
+    }
+    try {
+      return new ClassContextResolver();
+    } catch (RuntimeException e) {
+      // Not permitted to create a SecurityManager.
+    }
+    return new NullResolver();
+  }
+
+  /**
+   * Resolver using {@code java.lang.StackWalker}, accessed reflectively as the API targets Java 8.
+   */
+  private static final class StackWalkerResolver extends CallerResolver {
+
+    private final MethodHandle walk;
+    private final MethodHandle declaringClass;
+    private final Function<Stream<Object>, Class<?>> findFirst;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    StackWalkerResolver() throws ReflectiveOperationException {
+      final Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+      final Class<? extends Enum> optionClass = (Class<? extends Enum>) Class.forName("java.lang.StackWalker$Option");
+      final Class<?> frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+
+      final Object walker = walkerClass.getMethod("getInstance", optionClass)
+                                       .invoke(null, Enum.valueOf(optionClass, "RETAIN_CLASS_REFERENCE"));
+
+      final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      this.walk = lookup.findVirtual(walkerClass, "walk", MethodType.methodType(Object.class, Function.class))
+                        .bindTo(walker);
+      this.declaringClass = lookup.findVirtual(frameClass, "getDeclaringClass", MethodType.methodType(Class.class))
+                                  .asType(MethodType.methodType(Class.class, Object.class));
+      this.findFirst = frames -> frames.map(this::getDeclaringClass)
+                                       .filter(type -> !isInfrastructure(type))
+                                       .findFirst()
+                                       .orElse(null);
+    }
+
+    @Override
+    Class<?> findCaller() {
+      try {
+        return (Class<?>) walk.invoke(findFirst);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        return null;
+      }
+    }
+
+    private Class<?> getDeclaringClass(Object frame) {
+      try {
+        return (Class<?>) declaringClass.invokeExact(frame);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new IllegalStateException(t);
+      }
+    }
+  }
+
+  /**
+   * Resolver for Java 8, using the class context exposed to {@link SecurityManager} sub-classes.
+   */
+  private static final class ClassContextResolver extends CallerResolver {
+
+    private final ClassContext context = new ClassContext();
+
+    @Override
+    Class<?> findCaller() {
+      for (Class<?> type : context.getContext()) {
+        if (!isInfrastructure(type)) {
+          return type;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Exposes {@link SecurityManager#getClassContext()}. The instance is never installed.
+   */
+  private static final class ClassContext extends SecurityManager {
+
+    Class<?>[] getContext() {
+      return getClassContext();
+    }
+  }
+
+  /**
+   * Resolver used when the caller cannot be determined.
+   */
+  private static final class NullResolver extends CallerResolver {
+
+    @Override
+    Class<?> findCaller() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package org.eclipse.microprofile.logging;
+
+/**
+ * Variant of {@link LogFunction} which receives the data it formats as an
+ * explicit argument, rather than capturing it from the enclosing scope.
+ * 
+ * <p>
+ * As the function only depends on the {@link LogEvent} and the arguments, a Logger
+ * may defer calling it, E.g. to the consumer thread of an {@link AsyncDispatcher}, so that
+ * building the message does not take place on the thread executing the log statement.
+ * For this to be safe the arguments MUST be an immutable snapshot of the data to log,
+ * and the function MUST NOT capture mutable state itself.
+ * </p>
+ * 
+ * <p>
+ * E.g.
+ * <ul>
+ *   <li>{@code log.log(Level.INFO, orderId, (e, id) -> "Order " + id + " shipped");}</li>
+ * </ul>
+ * </p>
+ * 
+ * @param <T> The Type of {@link LogEvent} this function will expose to the implementation.
+ * @param <A> The Type of the captured arguments.
+ */
+@FunctionalInterface
+public interface CapturingLogFunction<T extends LogEvent, A> {
+  
+  String log(T event, A args);
+}
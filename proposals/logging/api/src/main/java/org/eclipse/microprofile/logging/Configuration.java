@@ -1,13 +1,66 @@
 package org.eclipse.microprofile.logging;
 
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
 
 /**
  * Logging Configuration Items.
+ * 
+ * <p>
+ * Resolved values are cached by each {@link AbstractLogger} so that checking a level
+ * during a log statement does not query MicroProfile Config. The cached values are
+ * updated when {@link #refresh()} is called, E.g. after the MicroProfile Config sources
+ * have changed, or when a value is pushed with {@link #set(org.eclipse.microprofile.logging.Configuration.Item, org.eclipse.microprofile.logging.Level)}.
+ * </p>
+ * 
+ * <p>
+ * The Level of each Logger is configured hierarchically by Logger name prefix, E.g.
+ * <ul>
+ *  <li>{@code mp.logging.level=WARN}</li>
+ *  <li>{@code mp.logging.level.com.example=INFO}</li>
+ *  <li>{@code mp.logging.level.com.example.orders=DEBUG}</li>
+ * </ul>
+ * A Logger takes the Level of the longest configured prefix of its name, see {@link #getLevel(java.lang.String)}.
+ * </p>
  */
 public class Configuration {
+  
+  /** Loggers to notify of configuration changes */
+  private static final Queue<WeakReference<AbstractLogger<?>>> LOGGERS = new ConcurrentLinkedQueue<>();
+  
+  /** Prefix of the keys configuring the Level of Logger name prefixes */
+  private static final String LEVEL_PREFIX = "mp.logging.level.";
+  
+  /** Levels set via {@link #setLevel(java.lang.String, org.eclipse.microprofile.logging.Level)} */
+  private static final Map<String, Level> LEVEL_OVERRIDES = new ConcurrentHashMap<>();
+  
+  /** The Levels of the Logger name prefixes, built on first use */
+  private static volatile LevelTree levels;
+  
+  /** Guards building {@link #levels}, a ReentrantLock so virtual threads waiting for Config are not pinned */
+  private static final ReentrantLock LEVELS_LOCK = new ReentrantLock();
+  
+  /**
+   * The logging level of Loggers whose name does not match any configured prefix.
+   * 
+   * <p>
+   * This item's:
+   * <ul>
+   *  <li>Key: {@code mp.logging.level}</li>
+   *  <li>Default Value: {@link Level#INFO}.</li>
+   * </ul>
+   * </p>
+   */
+  public static final Item LEVEL = new Item("mp.logging.level", Level.INFO);
 
   /**
    * The logging level at which calls to {@link Logger#span(org.eclipse.microprofile.logging.LogFunction)}
@@ -64,14 +117,182 @@ public class Configuration {
     return returnLevel;
   }
   
+  /**
+   * Re-read all Configuration Items from MicroProfile Config and update the
+   * values cached by the Loggers.
+   * 
+   * <p>
+   * Values pushed with {@link #set(org.eclipse.microprofile.logging.Configuration.Item, org.eclipse.microprofile.logging.Level)}
+   * take precedence over MicroProfile Config.
+   * </p>
+   */
+  public static void refresh() {
+    SPAN_LEVEL.resolve();
+    SPAN_IMPLICIT_LEVEL.resolve();
+    LEVEL.resolve();
+    rebuildLevels();
+    notifyLoggers();
+  }
+  
+  /**
+   * Get the logging level of a Logger, I.e. the Level configured for the
+   * longest prefix of its name or {@link #LEVEL} if no prefix is configured.
+   * 
+   * <p>
+   * The prefixes are read from MicroProfile Config once, on first use and
+   * on {@link #refresh()}, so resolving a name does not query MicroProfile Config.
+   * </p>
+   * 
+   * @param loggerName The name of the Logger.
+   * 
+   * @return The Level of the Logger.
+   */
+  public static Level getLevel(String loggerName) {
+    LevelTree tree = levels;
+    if (tree == null) {
+      LEVELS_LOCK.lock();
+      try {
+        tree = levels;
+        if (tree == null) {
+          tree = buildLevels();
+          levels = tree;
+        }
+      } finally {
+        LEVELS_LOCK.unlock();
+      }
+    }
+    return tree.resolve(loggerName);
+  }
+  
+  /**
+   * Set the logging level of a Logger name prefix, E.g. from a management API,
+   * and update the Levels cached by the Loggers.
+   * 
+   * @param prefix The Logger name prefix, E.g. a package name.
+   * @param lvl The new value, or null to revert to the value from MicroProfile Config.
+   */
+  public static void setLevel(String prefix, Level lvl) {
+    if (lvl == null) {
+      LEVEL_OVERRIDES.remove(prefix);
+    } else {
+      LEVEL_OVERRIDES.put(prefix, lvl);
+    }
+    rebuildLevels();
+    notifyLoggers();
+  }
+  
+  /**
+   * Rebuild the Levels after a change of the configuration.
+   */
+  private static void rebuildLevels() {
+    LEVELS_LOCK.lock();
+    try {
+      levels = buildLevels();
+    } finally {
+      LEVELS_LOCK.unlock();
+    }
+  }
+  
+  /**
+   * Read the Levels of the Logger name prefixes from MicroProfile Config and
+   * apply the values pushed with {@link #setLevel(java.lang.String, org.eclipse.microprofile.logging.Level)}.
+   * 
+   * @return The trie of the Levels.
+   */
+  private static LevelTree buildLevels() {
+    final Map<String, Level> prefixes = new HashMap<>();
+    try {
+      Config config = ConfigProvider.getConfig();
+      for (String key : config.getPropertyNames()) {
+        if (key.startsWith(LEVEL_PREFIX) && key.length() > LEVEL_PREFIX.length()) {
+          config.getOptionalValue(key, String.class).ifPresent(value -> {
+            try {
+              prefixes.put(key.substring(LEVEL_PREFIX.length()), Level.parse(value));
+            } catch (IllegalArgumentException iae) {
+              // Unable to find level with configured name
+            }
+          });
+        }
+      }
+    } catch (Throwable t) {
+      // Do nothing as MP Config is an optional component.
+    }
+    prefixes.putAll(LEVEL_OVERRIDES);
+    return new LevelTree(LEVEL.getLevel(), prefixes);
+  }
+  
+  /**
+   * Set the value of a Configuration Item, E.g. from a management API, and update
+   * the values cached by the Loggers.
+   * 
+   * @param configItem The Configuration Item to set.
+   * @param lvl The new value, or null to revert to the value from MicroProfile Config.
+   */
+  public static void set(Configuration.Item configItem, Level lvl) {
+    configItem.override = lvl;
+    configItem.resolve();
+    if (configItem == LEVEL) {
+      rebuildLevels();
+    }
+    notifyLoggers();
+  }
+  
+  /**
+   * Register a Logger to be updated when the configuration changes.
+   * 
+   * @param logger The Logger.
+   */
+  static void register(AbstractLogger<?> logger) {
+    LOGGERS.add(new WeakReference<>(logger));
+  }
+  
+  /**
+   * Ask all Loggers to update their cached configuration.
+   */
+  static void notifyLoggers() {
+    final Iterator<WeakReference<AbstractLogger<?>>> loggerIt = LOGGERS.iterator();
+    while (loggerIt.hasNext()) {
+      final AbstractLogger<?> logger = loggerIt.next().get();
+      if (logger == null) {
+        loggerIt.remove();
+      } else {
+        logger.refreshConfiguration();
+      }
+    }
+  }
+  
   public static class Item {
     private final String key;
     private final Level defaultVal;
+    
+    /** Value set via {@link Configuration#set(org.eclipse.microprofile.logging.Configuration.Item, org.eclipse.microprofile.logging.Level)} */
+    private volatile Level override;
+    
+    /** Snapshot of the current value, resolved on first use */
+    private volatile Level current;
   
     private Item(String key, Level defaultVal) {
       this.key = key;
       this.defaultVal = defaultVal;
     }
+    
+    /**
+     * Get the current value of this item without querying MicroProfile Config
+     * again, unless this is the first access.
+     * 
+     * @return The configuration value (or its default).
+     */
+    public Level getLevel() {
+      final Level lvl = current;
+      return lvl != null ? lvl : resolve();
+    }
+    
+    private Level resolve() {
+      final Level overrideLevel = override;
+      final Level lvl = overrideLevel != null ? overrideLevel : Configuration.get(this);
+      current = lvl;
+      return lvl;
+    }
 
     public String getKey() {
       return key;
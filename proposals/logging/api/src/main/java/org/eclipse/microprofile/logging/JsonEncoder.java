@@ -0,0 +1,617 @@
+package org.eclipse.microprofile.logging;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.json.bind.annotation.JsonbProperty;
+import javax.json.bind.annotation.JsonbTransient;
+
+/**
+ * Serializes {@link LogEvent} instances (and any other objects they contain) to
+ * UTF-8 JSON in a {@link Utf8Buffer}.
+ *
+ * <p>
+ * The properties of each class are resolved once, following the JSON-B default mapping:
+ * public fields and public getters, getters taking precedence, {@link JsonbTransient}
+ * and {@link JsonbProperty} honoured, {@code null} values omitted unless nillable and
+ * properties in lexicographical order, super-class properties first. Property values
+ * are read through {@link MethodHandle}s and written without an intermediate String.
+ * </p>
+ *
+ * <p>
+ * Classes whose hierarchy, members or package carry any other JSON-B annotation, E.g.
+ * {@code @JsonbDateFormat}, {@code @JsonbNumberFormat}, {@code @JsonbTypeAdapter} or
+ * {@code @JsonbPropertyOrder}, are serialized by JSON-B as a whole, so the annotations are honoured.
+ * </p>
+ *
+ * <p>
+ * Values of types the encoder does not handle itself, such as {@code java.time} types, are
+ * serialized with JSON-B.
+ * </p>
+ */
+public final class JsonEncoder {
+
+  /** Nesting depth after which values are written as null, to guard against cycles */
+  private static final int MAX_DEPTH = 32;
+
+  private static final String JSONB_ANNOTATIONS = JsonbProperty.class.getPackage().getName() + ".";
+
+  private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+  /** Buffer of each thread for {@link #toJson(Object)}, null while in use */
+  private static final ThreadLocal<Utf8Buffer> BUFFER = ThreadLocal.withInitial(Utf8Buffer::new);
+
+  private static final ClassValue<JsonEncoder> ENCODERS = new ClassValue<JsonEncoder>() {
+    @Override
+    protected JsonEncoder computeValue(Class<?> type) {
+      return new JsonEncoder(type);
+    }
+  };
+
+  private final Class<?> type;
+  private final Property[] properties;
+
+  private JsonEncoder(Class<?> type) {
+    this.type = type;
+    this.properties = resolveProperties(type);
+  }
+
+  /**
+   * Get the encoder for a class.
+   *
+   * @param type The class of the objects to encode.
+   *
+   * @return The encoder, created on first use.
+   */
+  public static JsonEncoder forClass(Class<?> type) {
+    return ENCODERS.get(type);
+  }
+
+  /**
+   * Serialize an object to a JSON String.
+   *
+   * @param value The object.
+   *
+   * @return The JSON.
+   */
+  public static String toJson(Object value) {
+    // Not Utf8Buffer.local(), which the caller may be writing to. A getter
+    // serializing another object while this one is encoded gets a new buffer.
+    final Utf8Buffer local = BUFFER.get();
+    final Utf8Buffer buffer = local != null ? local.reset() : new Utf8Buffer();
+    BUFFER.set(null);
+    try {
+      encodeValue(value, buffer, 0);
+      return buffer.toString();
+    } finally {
+      if (local == null) {
+        BUFFER.set(null);
+      } else if (local.isRetained()) {
+        BUFFER.set(local);
+      } else {
+        BUFFER.remove();
+      }
+    }
+  }
+
+  /**
+   * Append an object as JSON.
+   *
+   * @param value The object.
+   * @param buffer The buffer to write to.
+   */
+  public static void encode(Object value, Utf8Buffer buffer) {
+    encodeValue(value, buffer, 0);
+  }
+
+  /**
+   * Get the class this encoder serializes.
+   *
+   * @return The class.
+   */
+  public Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * Append the object as a JSON object.
+   *
+   * @param value An instance of {@link #getType()}.
+   * @param buffer The buffer to write to.
+   */
+  public void encodeObject(Object value, Utf8Buffer buffer) {
+    encodeObject(value, buffer, 0);
+  }
+
+  /**
+   * Get the number of serialized properties of {@link #getType()}.
+   *
+   * @return The number of properties, or -1 if the class is serialized by JSON-B as a whole.
+   */
+  public int getPropertyCount() {
+    return properties != null ? properties.length : -1;
+  }
+
+  /**
+   * Get the serialized name of a property.
+   *
+   * @param index The index of the property, in serialization order.
+   *
+   * @return The name.
+   */
+  public String getPropertyName(int index) {
+    return properties[index].name;
+  }
+
+  /**
+   * Is a null value of a property serialized?
+   *
+   * @param index The index of the property, in serialization order.
+   *
+   * @return true if null values are written.
+   */
+  public boolean isPropertyNillable(int index) {
+    return properties[index].nillable;
+  }
+
+  /**
+   * Pass the property values of an object to a visitor, in serialization order.
+   *
+   * <p>
+   * This allows other output formats to share the property layout of the JSON
+   * without boxing primitive values. Null values are passed to the visitor as well.
+   * </p>
+   *
+   * @param value An instance of {@link #getType()}.
+   * @param visitor The visitor.
+   *
+   * @return false if the class is serialized by JSON-B as a whole and nothing was visited.
+   */
+  public boolean visit(Object value, PropertyVisitor visitor) {
+    if (properties == null) {
+      return false;
+    }
+    for (int i = 0; i < properties.length; i++) {
+      properties[i].visit(value, i, visitor);
+    }
+    return true;
+  }
+
+  private void encodeObject(Object value, Utf8Buffer buffer, int depth) {
+    if (properties == null) {
+      Fallback.encode(value, buffer);
+      return;
+    }
+
+    buffer.append((byte) '{');
+    boolean first = true;
+    for (Property property : properties) {
+      first = property.encode(value, buffer, first, depth);
+    }
+    buffer.append((byte) '}');
+  }
+
+  /**
+   * Append a double, NaN and the infinities, which are not valid JSON numbers,
+   * as Strings as JSON-B does.
+   */
+  private static void appendDouble(double value, Utf8Buffer buffer) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      buffer.appendJsonString(Double.toString(value));
+    } else {
+      buffer.append(Double.toString(value));
+    }
+  }
+
+  private static void appendFloat(float value, Utf8Buffer buffer) {
+    if (Float.isNaN(value) || Float.isInfinite(value)) {
+      buffer.appendJsonString(Float.toString(value));
+    } else {
+      buffer.append(Float.toString(value));
+    }
+  }
+
+  static void encodeValue(Object value, Utf8Buffer buffer, int depth) {
+    if (value == null || depth > MAX_DEPTH) {
+      buffer.append(NULL);
+    } else if (value instanceof CharSequence) {
+      buffer.appendJsonString((CharSequence) value);
+    } else if (value instanceof Integer || value instanceof Long
+               || value instanceof Short || value instanceof Byte) {
+      buffer.append(((Number) value).longValue());
+    } else if (value instanceof Boolean) {
+      buffer.append((Boolean) value ? TRUE : FALSE);
+    } else if (value instanceof Double) {
+      appendDouble((Double) value, buffer);
+    } else if (value instanceof Float) {
+      appendFloat((Float) value, buffer);
+    } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+      buffer.append(value.toString());
+    } else if (value instanceof Character) {
+      buffer.appendJsonString((Character) value);
+    } else if (value instanceof Enum) {
+      buffer.appendJsonString(((Enum<?>) value).name());
+    } else if (value instanceof URI || value instanceof URL || value instanceof UUID) {
+      buffer.appendJsonString(value.toString());
+    } else if (value instanceof LogContext) {
+      ((LogContext) value).encode(buffer);
+    } else if (value instanceof Optional) {
+      encodeValue(((Optional<?>) value).orElse(null), buffer, depth);
+    } else if (value instanceof Collection) {
+      buffer.append((byte) '[');
+      boolean first = true;
+      for (Object element : (Collection<?>) value) {
+        if (!first) {
+          buffer.append((byte) ',');
+        }
+        first = false;
+        encodeValue(element, buffer, depth + 1);
+      }
+      buffer.append((byte) ']');
+    } else if (value instanceof Map) {
+      buffer.append((byte) '{');
+      boolean first = true;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        if (!first) {
+          buffer.append((byte) ',');
+        }
+        first = false;
+        buffer.appendJsonString(String.valueOf(entry.getKey())).append((byte) ':');
+        encodeValue(entry.getValue(), buffer, depth + 1);
+      }
+      buffer.append((byte) '}');
+    } else if (value.getClass().isArray()) {
+      buffer.append((byte) '[');
+      final int length = Array.getLength(value);
+      for (int i = 0; i < length; i++) {
+        if (i > 0) {
+          buffer.append((byte) ',');
+        }
+        encodeValue(Array.get(value, i), buffer, depth + 1);
+      }
+      buffer.append((byte) ']');
+    } else if (isPlatformType(value.getClass())) {
+      Fallback.encode(value, buffer);
+    } else {
+      forClass(value.getClass()).encodeObject(value, buffer, depth + 1);
+    }
+  }
+
+  private static boolean isPlatformType(Class<?> type) {
+    final String name = type.getName();
+    return name.startsWith("java.") || name.startsWith("javax.");
+  }
+
+  /**
+   * Resolve the serialized properties of a class.
+   *
+   * @return The properties in serialization order, or null if the class must be serialized by JSON-B.
+   */
+  private static Property[] resolveProperties(Class<?> type) {
+    if (isPlatformType(type) || hasCustomizations(type)) {
+      return null;
+    }
+
+    try {
+      final Map<String, AccessibleObject> members = new TreeMap<>();
+      for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+        for (Field field : current.getDeclaredFields()) {
+          final int modifiers = field.getModifiers();
+          if (Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers)
+              && !field.isSynthetic() && !members.containsKey(field.getName())) {
+            members.put(field.getName(), field);
+          }
+        }
+      }
+      for (Method method : type.getMethods()) {
+        final String propertyName = getPropertyName(method);
+        if (propertyName != null) {
+          // Getters take precedence over fields
+          members.put(propertyName, method);
+        }
+      }
+
+      final MethodHandles.Lookup lookup = MethodHandles.lookup();
+      final List<Property> resolved = new ArrayList<>();
+      for (Map.Entry<String, AccessibleObject> member : members.entrySet()) {
+        final AccessibleObject accessible = member.getValue();
+        if (isTransient(accessible, type, member.getKey())) {
+          continue;
+        }
+
+        final JsonbProperty jsonbProperty = getJsonbProperty(accessible, type, member.getKey());
+        final String name = jsonbProperty != null && !jsonbProperty.value().isEmpty() ? jsonbProperty.value() : member.getKey();
+        final boolean nillable = jsonbProperty != null && jsonbProperty.nillable();
+
+        accessible.setAccessible(true);
+        final MethodHandle handle;
+        final Class<?> valueType;
+        if (accessible instanceof Field) {
+          handle = lookup.unreflectGetter((Field) accessible);
+          valueType = ((Field) accessible).getType();
+        } else {
+          handle = lookup.unreflect((Method) accessible);
+          valueType = ((Method) accessible).getReturnType();
+        }
+        final Field field = findField(type, member.getKey());
+        final Class<?> owner = field != null ? field.getDeclaringClass() : ((Method) accessible).getDeclaringClass();
+        resolved.add(new Property(name, valueType, handle, nillable, depthOf(owner)));
+      }
+
+      // As per JSON-B, the properties of each class in the hierarchy are sorted,
+      // starting with the top-most super-class.
+      resolved.sort((a, b) -> a.owner != b.owner ? Integer.compare(a.owner, b.owner) : a.name.compareTo(b.name));
+      return resolved.toArray(new Property[resolved.size()]);
+    } catch (IllegalAccessException | RuntimeException e) {
+      // Fall back to JSON-B for anything that cannot be accessed directly.
+      return null;
+    }
+  }
+
+  /**
+   * Does the class use a JSON-B annotation other than those the encoder handles itself?
+   */
+  private static boolean hasCustomizations(Class<?> type) {
+    for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+      if (hasCustomization(current.getAnnotations())
+          || current.getPackage() != null && hasCustomization(current.getPackage().getAnnotations())) {
+        return true;
+      }
+      for (Field field : current.getDeclaredFields()) {
+        if (hasCustomization(field.getAnnotations())) {
+          return true;
+        }
+      }
+      for (Method method : current.getDeclaredMethods()) {
+        if (hasCustomization(method.getAnnotations())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasCustomization(Annotation[] annotations) {
+    for (Annotation annotation : annotations) {
+      final Class<? extends Annotation> annotationType = annotation.annotationType();
+      if (annotationType != JsonbTransient.class && annotationType != JsonbProperty.class
+          && annotationType.getName().startsWith(JSONB_ANNOTATIONS)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int depthOf(Class<?> type) {
+    int depth = 0;
+    for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+      depth++;
+    }
+    return depth;
+  }
+
+  private static String getPropertyName(Method method) {
+    if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+        || method.getDeclaringClass() == Object.class || method.isSynthetic() || method.isBridge()) {
+      return null;
+    }
+
+    final String methodName = method.getName();
+    if (methodName.startsWith("get") && methodName.length() > 3 && method.getReturnType() != void.class) {
+      return decapitalize(methodName.substring(3));
+    } else if (methodName.startsWith("is") && methodName.length() > 2
+               && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+      return decapitalize(methodName.substring(2));
+    }
+    return null;
+  }
+
+  private static String decapitalize(String name) {
+    return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+  }
+
+  private static boolean isTransient(AccessibleObject accessible, Class<?> type, String propertyName) {
+    if (accessible.isAnnotationPresent(JsonbTransient.class)) {
+      return true;
+    }
+    final Field field = findField(type, propertyName);
+    return field != null && field.isAnnotationPresent(JsonbTransient.class);
+  }
+
+  private static JsonbProperty getJsonbProperty(AccessibleObject accessible, Class<?> type, String propertyName) {
+    final JsonbProperty annotation = accessible.getAnnotation(JsonbProperty.class);
+    if (annotation != null) {
+      return annotation;
+    }
+    final Field field = findField(type, propertyName);
+    return field != null ? field.getAnnotation(JsonbProperty.class) : null;
+  }
+
+  private static Field findField(Class<?> type, String name) {
+    for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        if (field.getName().equals(name)) {
+          return field;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * A serialized property, with a pre-encoded name and a type specific accessor.
+   */
+  private static final class Property {
+
+    private static final int OBJECT = 0;
+    private static final int LONG = 1;
+    private static final int BOOLEAN = 2;
+    private static final int DOUBLE = 3;
+    private static final int FLOAT = 4;
+    private static final int CHAR = 5;
+
+    private final String name;
+    private final int owner;
+    private final byte[] encodedName;
+    private final int kind;
+    private final MethodHandle accessor;
+    private final boolean nillable;
+
+    Property(String name, Class<?> valueType, MethodHandle handle, boolean nillable, int owner) {
+      this.name = name;
+      this.owner = owner;
+      this.nillable = nillable;
+      this.encodedName = new Utf8Buffer(name.length() + 3).appendJsonString(name).append((byte) ':').toString()
+                                                          .getBytes(StandardCharsets.UTF_8);
+      if (valueType == int.class || valueType == long.class || valueType == short.class || valueType == byte.class) {
+        kind = LONG;
+        accessor = handle.asType(MethodType.methodType(long.class, Object.class));
+      } else if (valueType == boolean.class) {
+        kind = BOOLEAN;
+        accessor = handle.asType(MethodType.methodType(boolean.class, Object.class));
+      } else if (valueType == double.class) {
+        kind = DOUBLE;
+        accessor = handle.asType(MethodType.methodType(double.class, Object.class));
+      } else if (valueType == float.class) {
+        kind = FLOAT;
+        accessor = handle.asType(MethodType.methodType(float.class, Object.class));
+      } else if (valueType == char.class) {
+        kind = CHAR;
+        accessor = handle.asType(MethodType.methodType(char.class, Object.class));
+      } else {
+        kind = OBJECT;
+        accessor = handle.asType(MethodType.methodType(Object.class, Object.class));
+      }
+    }
+
+    /**
+     * Append the property to the buffer.
+     *
+     * @return false if anything was written, otherwise the supplied value of first.
+     */
+    boolean encode(Object target, Utf8Buffer buffer, boolean first, int depth) {
+      try {
+        switch (kind) {
+          case LONG:
+            name(buffer, first).append((long) accessor.invokeExact(target));
+            return false;
+          case BOOLEAN:
+            name(buffer, first).append((boolean) accessor.invokeExact(target) ? TRUE : FALSE);
+            return false;
+          case DOUBLE:
+            appendDouble((double) accessor.invokeExact(target), name(buffer, first));
+            return false;
+          case FLOAT:
+            appendFloat((float) accessor.invokeExact(target), name(buffer, first));
+            return false;
+          case CHAR:
+            name(buffer, first).appendJsonString((char) accessor.invokeExact(target));
+            return false;
+          default:
+            final Object value = (Object) accessor.invokeExact(target);
+            if (value == null && !nillable) {
+              return first;
+            }
+            encodeValue(value, name(buffer, first), depth);
+            return false;
+        }
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new IllegalStateException("Unable to read property \"" + name + "\"", t);
+      }
+    }
+
+    void visit(Object target, int index, PropertyVisitor visitor) {
+      try {
+        switch (kind) {
+          case LONG:
+            visitor.visitLong(index, (long) accessor.invokeExact(target));
+            break;
+          case BOOLEAN:
+            visitor.visitBoolean(index, (boolean) accessor.invokeExact(target));
+            break;
+          case DOUBLE:
+            visitor.visitDouble(index, (double) accessor.invokeExact(target));
+            break;
+          case FLOAT:
+            visitor.visitFloat(index, (float) accessor.invokeExact(target));
+            break;
+          case CHAR:
+            visitor.visitChar(index, (char) accessor.invokeExact(target));
+            break;
+          default:
+            visitor.visitObject(index, (Object) accessor.invokeExact(target));
+        }
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new IllegalStateException("Unable to read property \"" + name + "\"", t);
+      }
+    }
+
+    private Utf8Buffer name(Utf8Buffer buffer, boolean first) {
+      if (!first) {
+        buffer.append((byte) ',');
+      }
+      return buffer.append(encodedName);
+    }
+  }
+
+  /**
+   * Receives the property values of an object, see {@link JsonEncoder#visit(java.lang.Object, org.eclipse.microprofile.logging.JsonEncoder.PropertyVisitor)}.
+   *
+   * <p>
+   * The index identifies the property, see {@link JsonEncoder#getPropertyName(int)}.
+   * Integral values are widened to long.
+   * </p>
+   */
+  public interface PropertyVisitor {
+
+    void visitLong(int index, long value);
+
+    void visitBoolean(int index, boolean value);
+
+    void visitDouble(int index, double value);
+
+    void visitFloat(int index, float value);
+
+    void visitChar(int index, char value);
+
+    void visitObject(int index, Object value);
+  }
+
+  /**
+   * Lazily created, shared JSON-B instance for the types not handled by the encoder.
+   */
+  private static final class Fallback {
+
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
+    static void encode(Object value, Utf8Buffer buffer) {
+      buffer.append(JSONB.toJson(value));
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, using power of two buckets.
+ *
+ * <p>
+ * Recording a value is a few atomic additions without allocation. Percentiles are
+ * approximate: the upper bound of the bucket containing the percentile is returned.
+ * </p>
+ */
+final class LatencyHistogram {
+
+  private static final int BUCKETS = 64;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder total = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Record a duration.
+   *
+   * @param nanos The duration in nanoseconds.
+   */
+  void record(long nanos) {
+    final long value = Math.max(0, nanos);
+    buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(value) - 1 + (value == 0 ? 1 : 0));
+    count.increment();
+    total.add(value);
+
+    long current = max.get();
+    while (value > current && !max.compareAndSet(current, value)) {
+      current = max.get();
+    }
+  }
+
+  long getCount() {
+    return count.sum();
+  }
+
+  double getMean() {
+    final long n = count.sum();
+    return n == 0 ? 0 : (double) total.sum() / n;
+  }
+
+  long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Get the approximate value below which the given fraction of the durations fall.
+   *
+   * @param fraction E.g. 0.99 for the 99th percentile.
+   * @return The upper bound of the bucket containing the percentile, capped at the maximum.
+   */
+  long getPercentile(double fraction) {
+    final long[] snapshot = new long[BUCKETS];
+    long n = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = buckets.get(i);
+      n += snapshot[i];
+    }
+    if (n == 0) {
+      return 0;
+    }
+
+    final long rank = (long) Math.ceil(fraction * n);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        final long upper = i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+        return Math.min(upper, getMax());
+      }
+    }
+    return getMax();
+  }
+}
@@ -1,21 +1,31 @@
 package org.eclipse.microprofile.logging;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The different Levels at which a Log statement can be logged.
+ *
+ * <p>
+ * Levels are registered in immutable indexes by name and by value, replaced as a whole when a Level
+ * is added and published through volatile fields, so {@link #parse(java.lang.String)} does not lock
+ * and a lookup costs one hash. A custom Level parsed from an integer is interned: it is registered
+ * the first time it is parsed and the same instance is returned afterwards.
+ * </p>
  */
 public class Level {
   
-  /** This MUST be first so it's available in the constructor */
-  private static final List<Level> LEVELS = new ArrayList<>();
+  /** These MUST be first so they're available when the Levels below are defined */
+  private static final ReentrantLock REGISTRY_LOCK = new ReentrantLock();
+  private static volatile Map<String, Level> byName = Collections.emptyMap();
+  private static volatile Map<Integer, Level> byValue = Collections.emptyMap();
   
   /**
    * Special Level used to turn off logging.
    */
-  public static Level OFF = new Level("OFF", Integer.MAX_VALUE);
+  public static Level OFF = define("OFF", Integer.MAX_VALUE);
   
   /**
    * Message indicating a serious failure has occurred and may be of 
@@ -23,7 +33,7 @@ public class Level {
    * 
    * <p>The level is initialized at 1000</p>
    */
-  public static Level ERROR = new Level("ERROR", 1000);
+  public static Level ERROR = define("ERROR", 1000);
   
   /**
    * Message indicating a potential problem that may be of particular 
@@ -31,7 +41,7 @@ public class Level {
    * 
    * <p>The level is initialized at 900</p>
    */
-  public static Level WARN = new Level("WARN", 900);
+  public static Level WARN = define("WARN", 900);
   
   /**
    * Message providing informational content typically useful to most users 
@@ -39,7 +49,7 @@ public class Level {
    * 
    * <p>The level is initialized at 800</p>
    */
-  public static Level INFO = new Level("INFO", 800);
+  public static Level INFO = define("INFO", 800);
   
   /**
    * Message for tracing information, typically more useful to Developers 
@@ -47,7 +57,7 @@ public class Level {
    * 
    * <p>The level is initialized at 500</p>
    */
-  public static Level DEBUG = new Level("DEBUG", 500);
+  public static Level DEBUG = define("DEBUG", 500);
   
   /**
    * Message for more detailed tracing information, typically more useful 
@@ -55,38 +65,62 @@ public class Level {
    * 
    * <p>The level is initialized at 400</p>
    */
-  public static Level TRACE = new Level("TRACE", 400);
+  public static Level TRACE = define("TRACE", 400);
   
   /**
    * Level to indicate ALL logging
    */
-  public static Level ALL = new Level("ALL", Integer.MIN_VALUE);
+  public static Level ALL = define("ALL", Integer.MIN_VALUE);
   
+  /**
+   * Get the Level with a name or an integer value, registering a custom Level for an integer
+   * value which has none.
+   *
+   * @param name The name of the Level, E.g. {@code INFO}, or its integer value.
+   *
+   * @return The Level.
+   *
+   * @throws IllegalArgumentException If the name is neither a Level name nor an integer.
+   */
   public static Level parse(String name) {
-    int intValue = -1;
-    boolean isInt = false;
+    final Level named = byName.get(name);
+    if (named != null) {
+      return named;
+    }
+
+    final int intValue;
     try {
       intValue = Integer.parseInt(name);
-      isInt = true;
     } catch (NumberFormatException nfe) {
-      
+      throw new IllegalArgumentException("Not a valid Level \"" + name + "\"");
     }
-    
-    Iterator<Level> levelIt = LEVELS.iterator();
-    while (levelIt.hasNext()) {
-      Level level = levelIt.next();
-      if (level.getName().equals(name)) {
-        return level;
-      } else if (isInt && level.intValue() == intValue) {
-        return level;
+    final Level level = byValue.get(intValue);
+    return level != null ? level : define(Integer.toString(intValue), intValue);
+  }
+
+  /**
+   * Register a Level, unless one with the same value is already registered.
+   *
+   * @return The registered Level with the value.
+   */
+  private static Level define(String name, int value) {
+    REGISTRY_LOCK.lock();
+    try {
+      final Level existing = byValue.get(value);
+      if (existing != null) {
+        return existing;
       }
+      final Level level = new Level(name, value);
+      final Map<String, Level> names = new HashMap<>(byName);
+      names.put(name, level);
+      final Map<Integer, Level> values = new HashMap<>(byValue);
+      values.put(value, level);
+      byName = Collections.unmodifiableMap(names);
+      byValue = Collections.unmodifiableMap(values);
+      return level;
+    } finally {
+      REGISTRY_LOCK.unlock();
     }
-    
-    if (isInt) {
-      return new Level(name, intValue);
-    }
-    
-    throw new IllegalArgumentException("Not a valid Level \"" + name + "\"");
   }
 
   private final String name;
@@ -96,7 +130,6 @@ public class Level {
   private Level(String name, int value) {
     this.name = name;
     this.value = value;
-    LEVELS.add(this);
   }
 
   /**
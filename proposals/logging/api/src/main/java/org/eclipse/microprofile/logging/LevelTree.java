@@ -0,0 +1,89 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable prefix trie of the Levels configured for Logger name prefixes,
+ * E.g. {@code com.example} and {@code com.example.orders}.
+ *
+ * <p>
+ * The name of a Logger is resolved by walking its dot separated segments down
+ * the trie, taking the Level of the deepest configured prefix, so resolving a
+ * name costs O(depth) regardless of the number of configured prefixes.
+ * The trie is built when the configuration is read and never modified afterwards,
+ * a configuration change builds a new trie.
+ * </p>
+ */
+final class LevelTree {
+
+  private final Node root;
+
+  /**
+   * Build the trie.
+   *
+   * @param rootLevel The Level of Loggers which do not match any configured prefix.
+   * @param levels The configured Levels, keyed by Logger name prefix.
+   */
+  LevelTree(Level rootLevel, Map<String, Level> levels) {
+    root = new Node(rootLevel);
+    levels.forEach(this::add);
+  }
+
+  /**
+   * Resolve the Level of a Logger.
+   *
+   * @param name The name of the Logger.
+   * @return The Level of the longest configured prefix of the name, or the root Level.
+   */
+  Level resolve(String name) {
+    Node node = root;
+    Level lvl = root.level;
+    if (name == null || name.isEmpty()) {
+      return lvl;
+    }
+
+    int start = 0;
+    while (start <= name.length()) {
+      int end = name.indexOf('.', start);
+      if (end < 0) {
+        end = name.length();
+      }
+      node = node.children.get(name.substring(start, end));
+      if (node == null) {
+        break;
+      }
+      if (node.level != null) {
+        lvl = node.level;
+      }
+      start = end + 1;
+    }
+    return lvl;
+  }
+
+  private void add(String prefix, Level lvl) {
+    if (prefix.isEmpty()) {
+      root.level = lvl;
+      return;
+    }
+
+    Node node = root;
+    for (String segment : prefix.split("\\.")) {
+      node = node.children.computeIfAbsent(segment, s -> new Node(null));
+    }
+    node.level = lvl;
+  }
+
+  /**
+   * A segment of a Logger name, with its configured Level, if any.
+   */
+  private static final class Node {
+
+    private final Map<String, Node> children = new HashMap<>();
+    private Level level;
+
+    Node(Level level) {
+      this.level = level;
+    }
+  }
+}
@@ -0,0 +1,376 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An immutable set of key/value pairs, E.g. a tenant or request id, attached by the
+ * Logger to every {@link LogEvent} logged while the context is current.
+ *
+ * <p>
+ * A context is changed by creating a new one, {@link #with(java.lang.String, java.lang.String)} copying
+ * the entries, and made current for the calling thread by {@link #attach()}:
+ * </p>
+ *
+ * <pre>
+ * try (LogContext.Scope scope = LogContext.current().with("tenant", tenant).with("requestId", id).attach()) {
+ *   ...
+ * }
+ * </pre>
+ *
+ * <p>
+ * As a context never changes, it is propagated to other threads by reference: the {@code wrap} methods
+ * capture the current context and make it current while the wrapped task runs, on whichever thread,
+ * E.g. for the asynchronous stages of a {@link java.util.concurrent.CompletionStage} executed by
+ * a wrapped {@link Executor}. Nothing is copied when threads, including virtual threads, are created,
+ * and attaching a context costs one ThreadLocal write.
+ * </p>
+ *
+ * <p>
+ * Values are Strings or longs, the latter held without boxing. The context is serialized by the
+ * {@link JsonEncoder} as the {@code context} object of the event, entries in the order they were first added.
+ * </p>
+ */
+public final class LogContext {
+
+  /** The context without any entries. */
+  public static final LogContext EMPTY = new LogContext(new String[0], new String[0], new long[0]);
+
+  private static final ThreadLocal<LogContext> CURRENT = new ThreadLocal<>();
+
+  private final String[] keys;
+
+  /** The String values, or null for a long value */
+  private final String[] strings;
+  private final long[] longs;
+
+  private LogContext(String[] keys, String[] strings, long[] longs) {
+    this.keys = keys;
+    this.strings = strings;
+    this.longs = longs;
+  }
+
+  /**
+   * Get the context of the calling thread.
+   *
+   * @return The current context, {@link #EMPTY} if none is attached.
+   */
+  public static LogContext current() {
+    final LogContext context = CURRENT.get();
+    return context != null ? context : EMPTY;
+  }
+
+  /**
+   * Get the context to attach to an event.
+   *
+   * @return The current context, or null if it has no entries.
+   */
+  static LogContext active() {
+    final LogContext context = CURRENT.get();
+    return context != null && context.keys.length > 0 ? context : null;
+  }
+
+  /**
+   * Create a context with an additional String entry, replacing any entry with the same key.
+   *
+   * @param key The key.
+   * @param value The value.
+   *
+   * @return The new context.
+   */
+  public LogContext with(String key, String value) {
+    if (key == null || value == null) {
+      throw new IllegalArgumentException("Context key and value must not be null \"" + key + "\"");
+    }
+    return put(key, value, 0);
+  }
+
+  /**
+   * Create a context with an additional long entry, replacing any entry with the same key.
+   *
+   * @param key The key.
+   * @param value The value.
+   *
+   * @return The new context.
+   */
+  public LogContext with(String key, long value) {
+    if (key == null) {
+      throw new IllegalArgumentException("Context key must not be null");
+    }
+    return put(key, null, value);
+  }
+
+  /**
+   * Create a context without an entry.
+   *
+   * @param key The key of the entry to remove.
+   *
+   * @return The new context, or this context if it has no entry with the key.
+   */
+  public LogContext without(String key) {
+    final int index = indexOf(key);
+    if (index < 0) {
+      return this;
+    }
+    final int size = keys.length - 1;
+    final String[] newKeys = new String[size];
+    final String[] newStrings = new String[size];
+    final long[] newLongs = new long[size];
+    System.arraycopy(keys, 0, newKeys, 0, index);
+    System.arraycopy(keys, index + 1, newKeys, index, size - index);
+    System.arraycopy(strings, 0, newStrings, 0, index);
+    System.arraycopy(strings, index + 1, newStrings, index, size - index);
+    System.arraycopy(longs, 0, newLongs, 0, index);
+    System.arraycopy(longs, index + 1, newLongs, index, size - index);
+    return size == 0 ? EMPTY : new LogContext(newKeys, newStrings, newLongs);
+  }
+
+  /**
+   * Get the number of entries.
+   *
+   * @return The number of entries.
+   */
+  public int size() {
+    return keys.length;
+  }
+
+  /**
+   * Get the key of an entry.
+   *
+   * @param index The index of the entry, in the order the entries were added.
+   *
+   * @return The key.
+   */
+  public String getKey(int index) {
+    return keys[index];
+  }
+
+  /**
+   * Is the value of an entry a long?
+   *
+   * @param index The index of the entry.
+   *
+   * @return true for a long value, false for a String value.
+   */
+  public boolean isLong(int index) {
+    return strings[index] == null;
+  }
+
+  /**
+   * Get the long value of an entry.
+   *
+   * @param index The index of the entry.
+   *
+   * @return The value, or 0 for a String value.
+   */
+  public long getLong(int index) {
+    return longs[index];
+  }
+
+  /**
+   * Get the value of an entry as a String.
+   *
+   * @param index The index of the entry.
+   *
+   * @return The value, a long value converted to a String.
+   */
+  public String getString(int index) {
+    return strings[index] != null ? strings[index] : Long.toString(longs[index]);
+  }
+
+  /**
+   * Get the value of an entry as a String.
+   *
+   * @param key The key of the entry.
+   *
+   * @return The value, a long value converted to a String, or null if there is no entry with the key.
+   */
+  public String get(String key) {
+    final int index = indexOf(key);
+    return index < 0 ? null : getString(index);
+  }
+
+  /**
+   * Make this context current for the calling thread until the returned Scope is closed.
+   *
+   * @return The scope, restoring the previous context when closed.
+   */
+  public Scope attach() {
+    final LogContext previous = CURRENT.get();
+    CURRENT.set(this);
+    return new Scope(previous);
+  }
+
+  /**
+   * Wrap a task to run with the current context.
+   *
+   * @param task The task.
+   *
+   * @return The wrapped task, or the task if there is no current context.
+   */
+  public static Runnable wrap(Runnable task) {
+    final LogContext captured = CURRENT.get();
+    if (captured == null) {
+      return task;
+    }
+    return () -> {
+      try (Scope scope = captured.attach()) {
+        task.run();
+      }
+    };
+  }
+
+  /**
+   * Wrap a task to run with the current context.
+   *
+   * @param <V> The type of result.
+   * @param task The task.
+   *
+   * @return The wrapped task, or the task if there is no current context.
+   */
+  public static <V> Callable<V> wrapCallable(Callable<V> task) {
+    final LogContext captured = CURRENT.get();
+    if (captured == null) {
+      return task;
+    }
+    return () -> {
+      try (Scope scope = captured.attach()) {
+        return task.call();
+      }
+    };
+  }
+
+  /**
+   * Wrap a supplier, E.g. of {@link java.util.concurrent.CompletableFuture#supplyAsync(java.util.function.Supplier)},
+   * to run with the current context.
+   *
+   * @param <V> The type of result.
+   * @param supplier The supplier.
+   *
+   * @return The wrapped supplier, or the supplier if there is no current context.
+   */
+  public static <V> Supplier<V> wrapSupplier(Supplier<V> supplier) {
+    final LogContext captured = CURRENT.get();
+    if (captured == null) {
+      return supplier;
+    }
+    return () -> {
+      try (Scope scope = captured.attach()) {
+        return supplier.get();
+      }
+    };
+  }
+
+  /**
+   * Wrap a function, E.g. of {@link java.util.concurrent.CompletionStage#thenApply(java.util.function.Function)},
+   * to run with the current context.
+   *
+   * @param <T> The type of argument.
+   * @param <R> The type of result.
+   * @param function The function.
+   *
+   * @return The wrapped function, or the function if there is no current context.
+   */
+  public static <T, R> Function<T, R> wrapFunction(Function<T, R> function) {
+    final LogContext captured = CURRENT.get();
+    if (captured == null) {
+      return function;
+    }
+    return t -> {
+      try (Scope scope = captured.attach()) {
+        return function.apply(t);
+      }
+    };
+  }
+
+  /**
+   * Wrap an executor, E.g. a MicroProfile Context Propagation {@code ManagedExecutor} or a virtual thread
+   * executor, so each task runs with the context current when it was submitted.
+   *
+   * @param executor The executor.
+   *
+   * @return The wrapped executor.
+   */
+  public static Executor wrapExecutor(Executor executor) {
+    return task -> executor.execute(wrap(task));
+  }
+
+  /**
+   * Append the entries as a JSON object.
+   *
+   * @param buffer The buffer to write to.
+   */
+  public void encode(Utf8Buffer buffer) {
+    buffer.append((byte) '{');
+    for (int i = 0; i < keys.length; i++) {
+      if (i > 0) {
+        buffer.append((byte) ',');
+      }
+      buffer.appendJsonString(keys[i]).append((byte) ':');
+      if (strings[i] != null) {
+        buffer.appendJsonString(strings[i]);
+      } else {
+        buffer.append(longs[i]);
+      }
+    }
+    buffer.append((byte) '}');
+  }
+
+  @Override
+  public String toString() {
+    final Utf8Buffer buffer = new Utf8Buffer();
+    encode(buffer);
+    return buffer.toString();
+  }
+
+  private int indexOf(String key) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private LogContext put(String key, String string, long value) {
+    int index = indexOf(key);
+    final int size = index < 0 ? keys.length + 1 : keys.length;
+    final String[] newKeys = Arrays.copyOf(keys, size);
+    final String[] newStrings = Arrays.copyOf(strings, size);
+    final long[] newLongs = Arrays.copyOf(longs, size);
+    if (index < 0) {
+      index = size - 1;
+      newKeys[index] = key;
+    }
+    newStrings[index] = string;
+    newLongs[index] = value;
+    return new LogContext(newKeys, newStrings, newLongs);
+  }
+
+  /**
+   * The attachment of a context to a thread, see {@link LogContext#attach()}.
+   */
+  public static final class Scope implements AutoCloseable {
+
+    private final LogContext previous;
+
+    private Scope(LogContext previous) {
+      this.previous = previous;
+    }
+
+    /**
+     * Restore the context which was current when the context was attached.
+     */
+    @Override
+    public void close() {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Collapses bursts of identical events, E.g. the same ERROR logged thousands of times
+ * per second while a downstream dependency is failing.
+ *
+ * <p>
+ * Events are identical when they are logged by the same Logger with the same Level, by the same
+ * call site (I.e. the same {@link LogFunction} or {@link CapturingLogFunction} lambda, which acts
+ * as the message template) and carry a {@link LogEvent#throwable} of the same class, or none.
+ * The rendered message is not compared: the events of one lambda are identical whatever data it
+ * captures. A helper funnelling different messages through one lambda, E.g.
+ * {@code void fail(String m) { log.error(e -> m); }}, therefore has all its messages collapsed into
+ * the first one of each window, and should log through distinct lambdas instead. A
+ * {@link LogFunction} constant shared by several Loggers is deduplicated per Logger.
+ * The first event of a fingerprint opens a time window and is written, identical events
+ * within the window are only counted. The next identical event after the window reports the
+ * previous window in {@link LogEvent#occurrences}, {@link LogEvent#firstOccurrence} and
+ * {@link LogEvent#lastOccurrence}.
+ * </p>
+ *
+ * <p>
+ * A window with duplicates which is not followed by an identical event is reported by a summary
+ * event instead, written by the Logger of its first event with the same Level and message. The
+ * table is swept for such windows at most once per window length, by the first event accepted
+ * after that time, and when the deduplicator is flushed or closed. Bursts which simply end are
+ * therefore reported once any other event is logged, or at the latest by {@link #flush()}, which
+ * may also be called periodically.
+ * </p>
+ *
+ * <p>
+ * The deduplicator is consulted by {@link AbstractLogger} once the message has been built,
+ * after Span logging and before the event is handed to the {@link AsyncDispatcher} or
+ * written. When the message is built by the consumer thread of the dispatcher, see
+ * {@link CapturingLogFunction}, the deduplicator is consulted on that thread.
+ * </p>
+ *
+ * <p>
+ * Recent fingerprints are held in a bounded, lock-free table. A fingerprint hashing to the same
+ * slot as another evicts it, the evicted window is reported by a summary event if it had duplicates.
+ * </p>
+ */
+public final class LogDeduplicator implements AutoCloseable {
+
+  private final long windowMillis;
+  private final LongSupplier clock;
+  private final AtomicReferenceArray<Window> windows;
+  private final int mask;
+  private final LongAdder duplicates = new LongAdder();
+  private final AtomicLong nextSweep;
+
+  /**
+   * Create a deduplicator tracking up to 1024 recent fingerprints.
+   *
+   * @param window The time window in which identical events are collapsed.
+   * @param unit The unit of the window.
+   */
+  public LogDeduplicator(long window, TimeUnit unit) {
+    this(window, unit, 1024);
+  }
+
+  /**
+   * Create a deduplicator.
+   *
+   * @param window The time window in which identical events are collapsed.
+   * @param unit The unit of the window.
+   * @param capacity The number of recent fingerprints tracked, rounded up to a power of two.
+   */
+  public LogDeduplicator(long window, TimeUnit unit, int capacity) {
+    this(window, unit, capacity, System::currentTimeMillis);
+  }
+
+  LogDeduplicator(long window, TimeUnit unit, int capacity, LongSupplier clock) {
+    if (window <= 0) {
+      throw new IllegalArgumentException("Window must be positive \"" + window + "\"");
+    }
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Invalid capacity \"" + capacity + "\"");
+    }
+
+    final int size = Integer.highestOneBit(capacity - 1) << 1;
+    this.windowMillis = Math.max(1, unit.toMillis(window));
+    this.clock = clock;
+    this.windows = new AtomicReferenceArray<>(Math.max(1, size));
+    this.mask = windows.length() - 1;
+    this.nextSweep = new AtomicLong(clock.getAsLong() + windowMillis);
+  }
+
+  /**
+   * Get the total number of events collapsed by this deduplicator.
+   *
+   * @return The number of events which were not written.
+   */
+  public long getDuplicateCount() {
+    return duplicates.sum();
+  }
+
+  /**
+   * Write a summary event for every window with duplicates which has not been reported yet,
+   * whether or not it has ended, and forget all fingerprints.
+   *
+   * <p>
+   * Duplicates counted while the table is flushed may be missed.
+   * </p>
+   */
+  public void flush() {
+    sweep(Long.MAX_VALUE);
+  }
+
+  /**
+   * Report the pending windows, see {@link #flush()}.
+   */
+  @Override
+  public void close() {
+    flush();
+  }
+
+  /**
+   * Decide whether an event is written.
+   *
+   * @param logger The Logger writing the event, which also writes the summary of its window.
+   * @param lvl The Level of the event.
+   * @param callSite The log function of the statement, identifying its call site.
+   * @param event The event, with its message and throwable populated.
+   *
+   * @return false if the event is a duplicate and must not be written.
+   */
+  boolean accept(AbstractLogger<?> logger, Level lvl, Object callSite, LogEvent event) {
+    final long now = clock.getAsLong();
+    final boolean accepted = accept(logger, lvl, callSite, event, now);
+
+    final long sweep = nextSweep.get();
+    if (now >= sweep && nextSweep.compareAndSet(sweep, now + windowMillis)) {
+      // After the event, which reports its own previous window
+      sweep(now);
+    }
+    return accepted;
+  }
+
+  private boolean accept(AbstractLogger<?> logger, Level lvl, Object callSite, LogEvent event, long now) {
+    final Class<?> site = callSite.getClass();
+    final Class<?> throwableType = event.throwable != null ? event.throwable.getClass() : null;
+    final int index = hash(logger, lvl, site, throwableType) & mask;
+
+    while (true) {
+      final Window current = windows.get(index);
+      final boolean same = current != null && current.matches(logger, lvl, site, throwableType);
+      if (same && now - current.start < windowMillis) {
+        current.count.incrementAndGet();
+        current.last = now;
+        duplicates.increment();
+        return false;
+      }
+
+      final Window window = new Window(logger, lvl, site, throwableType, event.message, now);
+      if (windows.compareAndSet(index, current, window)) {
+        if (same) {
+          final long count = current.count.get();
+          if (count > 1) {
+            event.occurrences = count;
+            event.firstOccurrence = current.start;
+            event.lastOccurrence = current.last;
+          }
+        } else if (current != null) {
+          // Evicted by another fingerprint
+          current.report();
+        }
+        return true;
+      }
+      // Another thread opened a window for this slot, check it again.
+    }
+  }
+
+  /**
+   * Remove the windows which have ended before the given time, reporting those with duplicates.
+   *
+   * @param now The current time, or {@link Long#MAX_VALUE} to remove all windows.
+   */
+  private void sweep(long now) {
+    for (int i = 0; i < windows.length(); i++) {
+      final Window window = windows.get(i);
+      if (window != null && (now == Long.MAX_VALUE || now - window.start >= windowMillis)
+          && windows.compareAndSet(i, window, null)) {
+        window.report();
+      }
+    }
+  }
+
+  private static int hash(AbstractLogger<?> logger, Level lvl, Class<?> site, Class<?> throwableType) {
+    int h = System.identityHashCode(site);
+    h = 31 * h + System.identityHashCode(logger);
+    h = 31 * h + lvl.intValue();
+    h = 31 * h + System.identityHashCode(throwableType);
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * The window of the most recent fingerprint of a slot.
+   */
+  private static final class Window {
+
+    private final AbstractLogger<?> logger;
+    private final Level level;
+    private final Class<?> site;
+    private final Class<?> throwableType;
+    private final String message;
+    private final long start;
+    private final AtomicLong count = new AtomicLong(1);
+    private volatile long last;
+
+    Window(AbstractLogger<?> logger, Level level, Class<?> site, Class<?> throwableType, String message, long start) {
+      this.logger = logger;
+      this.level = level;
+      this.site = site;
+      this.throwableType = throwableType;
+      this.message = message;
+      this.start = start;
+      this.last = start;
+    }
+
+    boolean matches(AbstractLogger<?> other, Level lvl, Class<?> callSite, Class<?> type) {
+      return site == callSite && logger == other && throwableType == type && level.intValue() == lvl.intValue();
+    }
+
+    /**
+     * Write the summary of a window which is removed from the table, if it had duplicates.
+     */
+    void report() {
+      final long count = this.count.get();
+      if (count > 1) {
+        logger.writeSummary(level, message, count, start, last);
+      }
+    }
+  }
+}
@@ -12,9 +12,9 @@ import javax.json.bind.annotation.JsonbTransient;
  * </p>
  * 
  * <p>
- * This Logging framework requires the use of JSON-B {@link http://json-b.net/}
- * to serialize a LogEvent or sub-classes. As such, subclasses
- * must adhere to the default serialization mechanism of JSON-B; namely:
+ * This Logging framework serializes a LogEvent or sub-classes following the
+ * default mapping of JSON-B {@link http://json-b.net/}, see {@link JsonEncoder}.
+ * As such, subclasses must adhere to the default serialization mechanism of JSON-B; namely:
  * <ul>
  *  <li>Getters take precedence over members.</li>
  *  <li>If getter methods exist, those should be annotated to control serialization, if desired.</li>
@@ -34,6 +34,11 @@ public class LogEvent {
    */
   public String spanId;
   
+  /** 
+   * The ID of the trace of the Span in which the log statement occurred. 
+   */
+  public String traceId;
+  
   /** 
    * The associated Throwable (or sub-class) if applicable to the log statement.
    * 
@@ -42,4 +47,85 @@ public class LogEvent {
    */
   @JsonbTransient
   public Throwable throwable;
+  
+  /**
+   * The number of events suppressed by a {@link LogLimiter} since the previous
+   * event of the same Logger or call site, or null if none were suppressed.
+   */
+  public Long suppressed;
+  
+  /**
+   * The number of identical events in the previous time window of a {@link LogDeduplicator},
+   * of which only the first was written, or null if the window had no duplicates. A window which
+   * is not followed by an identical event is reported by a summary event with the message of its first event.
+   */
+  public Long occurrences;
+  
+  /**
+   * The time, in milliseconds since the epoch, of the first of the {@link #occurrences}.
+   */
+  public Long firstOccurrence;
+  
+  /**
+   * The time, in milliseconds since the epoch, of the last of the {@link #occurrences}.
+   */
+  public Long lastOccurrence;
+  
+  /**
+   * The {@link LogContext} current when the event was logged, or null if it had no entries.
+   */
+  public LogContext context;
+  
+  /**
+   * The time the event was logged, in nanoseconds since the epoch, or 0 if not known.
+   * 
+   * <p>
+   * This is captured on the logging thread, so it is not delayed when the event
+   * is written later by an {@link AsyncDispatcher}. It is not serialized with the event,
+   * Loggers write it as part of their own format.
+   * </p>
+   */
+  @JsonbTransient
+  public long timestamp;
+  
+  /**
+   * Clear the event data so the instance can be re-used for another log statement.
+   * 
+   * <p>
+   * This is called by {@link LogEventPool} when an event is released. Sub-classes
+   * that hold additional data and are pooled must override this method, calling
+   * {@code super.reset()}.
+   * </p>
+   */
+  public void reset() {
+    message = null;
+    spanId = null;
+    traceId = null;
+    throwable = null;
+    suppressed = null;
+    occurrences = null;
+    firstOccurrence = null;
+    lastOccurrence = null;
+    context = null;
+    timestamp = 0;
+  }
+  
+  /**
+   * Get the time an event was logged, or the current time if it is not known.
+   * 
+   * @param event The log data.
+   * @return The {@link #timestamp} of the event, or the current time, in nanoseconds since the epoch.
+   */
+  public static long timestampOf(LogEvent event) {
+    return event.timestamp != 0 ? event.timestamp : currentTimeNanos();
+  }
+  
+  /**
+   * Get the current time, at millisecond resolution, without allocating.
+   * 
+   * @return The current time in nanoseconds since the epoch.
+   */
+  static long currentTimeNanos() {
+    return System.currentTimeMillis() * 1_000_000L;
+  }
 }
@@ -0,0 +1,124 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Supplier} that re-uses {@link LogEvent} instances once they have been written.
+ *
+ * <p>
+ * Released events are kept in a number of small, lock-free free-lists (stripes). A thread
+ * takes events from, and returns events to, the stripe selected by its thread ID so that
+ * threads rarely contend with each other. When a thread's own stripe is empty the other
+ * stripes are searched before a new instance is created with the wrapped {@link Supplier};
+ * this allows events released on another thread, such as the consumer thread of an
+ * {@link AsyncDispatcher}, to be re-used.
+ * </p>
+ *
+ * <p>
+ * An {@link AbstractLogger} created with a {@code LogEventPool} releases each event once
+ * it has been written, see {@link AbstractLogger#release(org.eclipse.microprofile.logging.LogEvent)}.
+ * Released events are cleared with {@link LogEvent#reset()}, which sub-classes holding
+ * additional data must override.
+ * </p>
+ *
+ * @param <T> The Type of {@link LogEvent} supplied.
+ */
+public class LogEventPool<T extends LogEvent> implements Supplier<T> {
+
+  private static final int DEFAULT_STRIPE_SIZE = 16;
+
+  private final Supplier<T> factory;
+  private final AtomicReferenceArray<T>[] stripes;
+  private final int stripeMask;
+
+  /**
+   * Create a pool with one stripe per available processor.
+   *
+   * @param factory Used to create new instances when none are available for re-use.
+   */
+  public LogEventPool(Supplier<T> factory) {
+    this(factory, Runtime.getRuntime().availableProcessors(), DEFAULT_STRIPE_SIZE);
+  }
+
+  /**
+   * Create a pool.
+   *
+   * @param factory Used to create new instances when none are available for re-use.
+   * @param stripes The number of free-lists. This is rounded up to the next power of two.
+   * @param stripeSize The maximum number of released events held per free-list.
+   */
+  @SuppressWarnings("unchecked")
+  public LogEventPool(Supplier<T> factory, int stripes, int stripeSize) {
+    if (factory == null) {
+      throw new IllegalArgumentException("A LogEvent Supplier is required");
+    }
+    if (stripes < 1 || stripeSize < 1) {
+      throw new IllegalArgumentException("Stripes \"" + stripes + "\" and stripe size \"" + stripeSize + "\" must be positive");
+    }
+
+    final int count = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+    this.factory = factory;
+    this.stripeMask = count - 1;
+    this.stripes = new AtomicReferenceArray[count];
+    for (int i = 0; i < count; i++) {
+      this.stripes[i] = new AtomicReferenceArray<>(stripeSize);
+    }
+  }
+
+  /**
+   * Get a released {@link LogEvent}, or a new one if none is available.
+   *
+   * @return The LogEvent.
+   */
+  @Override
+  public T get() {
+    final int home = stripeIndex();
+    for (int i = 0; i <= stripeMask; i++) {
+      final T event = take(stripes[(home + i) & stripeMask]);
+      if (event != null) {
+        return event;
+      }
+    }
+    return factory.get();
+  }
+
+  /**
+   * Return a {@link LogEvent} to the pool.
+   *
+   * <p>
+   * The event is cleared with {@link LogEvent#reset()} and MUST NOT be used by the caller afterwards.
+   * If the free-list is full the event is left to the garbage collector.
+   * </p>
+   *
+   * @param event The event to release.
+   */
+  public void release(T event) {
+    if (event == null) {
+      return;
+    }
+
+    event.reset();
+    final AtomicReferenceArray<T> stripe = stripes[stripeIndex()];
+    for (int i = 0; i < stripe.length(); i++) {
+      if (stripe.get(i) == null && stripe.compareAndSet(i, null, event)) {
+        return;
+      }
+    }
+  }
+
+  private T take(AtomicReferenceArray<T> stripe) {
+    for (int i = 0; i < stripe.length(); i++) {
+      final T event = stripe.get(i);
+      if (event != null && stripe.compareAndSet(i, event, null)) {
+        return event;
+      }
+    }
+    return null;
+  }
+
+  private int stripeIndex() {
+    final long id = Thread.currentThread().getId();
+    return (int) (id ^ (id >>> 16)) & stripeMask;
+  }
+}
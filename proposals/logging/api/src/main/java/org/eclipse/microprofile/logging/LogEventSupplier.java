@@ -8,6 +8,11 @@ import java.util.function.Supplier;
  * <p>
  * This particular class will create a new instance for every call to {@link #get()}
  * </p>
+ * 
+ * <p>
+ * To re-use instances instead, wrap the supplier in a {@link LogEventPool}
+ * E.g. {@code new LogEventPool<>(new LogEventSupplier())}
+ * </p>
  */
 public class LogEventSupplier implements Supplier<LogEvent> {
 
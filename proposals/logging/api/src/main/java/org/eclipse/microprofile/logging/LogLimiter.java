@@ -0,0 +1,199 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the number of events emitted by a Logger through sampling and/or
+ * token bucket rate limiting.
+ *
+ * <p>
+ * The limiter is consulted by {@link AbstractLogger#log(org.eclipse.microprofile.logging.Level, org.eclipse.microprofile.logging.LogFunction)}
+ * once the Level is known to be loggable, but before a {@link LogEvent} is obtained and the
+ * {@link LogFunction} is invoked, so a suppressed statement does not pay for building its message.
+ * Span logging via {@link Logger#span(org.eclipse.microprofile.logging.LogFunction)} is never limited.
+ * </p>
+ *
+ * <p>
+ * The budget is either shared by all statements of a Logger ({@link Scope#LOGGER}), or kept
+ * separately for each call site ({@link Scope#CALL_SITE}) so that one noisy statement does not
+ * starve the others. The number of events suppressed since the last emitted event is reported in
+ * {@link LogEvent#suppressed} of the next event emitted for the same Logger or call site.
+ * </p>
+ *
+ * <p>
+ * A single limiter can be shared by several loggers, see
+ * {@link AbstractLogger#setLimiter(org.eclipse.microprofile.logging.LogLimiter)}; with
+ * {@link Scope#LOGGER} they then share the budget.
+ * </p>
+ */
+public final class LogLimiter {
+
+  /**
+   * The granularity at which events are counted.
+   */
+  public enum Scope {
+    /**
+     * All statements of the Logger share the budget.
+     */
+    LOGGER,
+
+    /**
+     * Each log statement in the code has its own budget. A call site is identified by the
+     * class of its {@link LogFunction} or {@link CapturingLogFunction}, which is distinct
+     * for each lambda expression.
+     */
+    CALL_SITE
+  }
+
+  private final Scope scope;
+  private final int sampleRate;
+  private final long intervalNanos;
+  private final long toleranceNanos;
+  private final LongSupplier clock;
+  private final LongAdder suppressed = new LongAdder();
+
+  private final State loggerState;
+  private final ClassValue<State> callSiteStates = new ClassValue<State>() {
+    @Override
+    protected State computeValue(Class<?> type) {
+      return new State();
+    }
+  };
+
+  /**
+   * Create a limiter that emits one in every {@code sampleRate} events.
+   *
+   * @param scope The granularity at which events are counted.
+   * @param sampleRate Emit every N-th event, starting with the first.
+   * @return The limiter.
+   */
+  public static LogLimiter sampling(Scope scope, int sampleRate) {
+    return new LogLimiter(scope, sampleRate, Double.POSITIVE_INFINITY, 1);
+  }
+
+  /**
+   * Create a limiter that emits up to {@code eventsPerSecond} events on average,
+   * allowing bursts of up to {@code burst} events.
+   *
+   * @param scope The granularity at which events are counted.
+   * @param eventsPerSecond The rate at which the bucket is refilled.
+   * @param burst The size of the bucket.
+   * @return The limiter.
+   */
+  public static LogLimiter rateLimiting(Scope scope, double eventsPerSecond, int burst) {
+    return new LogLimiter(scope, 1, eventsPerSecond, burst);
+  }
+
+  /**
+   * Create a limiter which first samples events and then rate limits the sampled events.
+   *
+   * @param scope The granularity at which events are counted.
+   * @param sampleRate Emit every N-th event, starting with the first. 1 disables sampling.
+   * @param eventsPerSecond The rate at which the bucket is refilled. {@link Double#POSITIVE_INFINITY} disables rate limiting.
+   * @param burst The size of the bucket.
+   */
+  public LogLimiter(Scope scope, int sampleRate, double eventsPerSecond, int burst) {
+    this(scope, sampleRate, eventsPerSecond, burst, System::nanoTime);
+  }
+
+  LogLimiter(Scope scope, int sampleRate, double eventsPerSecond, int burst, LongSupplier clock) {
+    if (scope == null) {
+      throw new IllegalArgumentException("A Scope is required");
+    }
+    if (sampleRate < 1) {
+      throw new IllegalArgumentException("Sample rate must be positive \"" + sampleRate + "\"");
+    }
+    if (!(eventsPerSecond > 0)) {
+      throw new IllegalArgumentException("Events per second must be positive \"" + eventsPerSecond + "\"");
+    }
+    if (burst < 1) {
+      throw new IllegalArgumentException("Burst must be positive \"" + burst + "\"");
+    }
+
+    this.scope = scope;
+    this.sampleRate = sampleRate;
+    this.intervalNanos = eventsPerSecond == Double.POSITIVE_INFINITY ? 0 : Math.max(1, (long) (1e9 / eventsPerSecond));
+    this.toleranceNanos = intervalNanos * (burst - 1);
+    this.clock = clock;
+    this.loggerState = scope == Scope.LOGGER ? new State() : null;
+  }
+
+  /**
+   * Get the granularity at which events are counted.
+   *
+   * @return The scope.
+   */
+  public Scope getScope() {
+    return scope;
+  }
+
+  /**
+   * Get the total number of events suppressed by this limiter.
+   *
+   * @return The number of suppressed events.
+   */
+  public long getSuppressedCount() {
+    return suppressed.sum();
+  }
+
+  /**
+   * Decide whether a log statement is emitted.
+   *
+   * @param f The log function of the statement, identifying its call site.
+   *          Either a {@link LogFunction} or a {@link CapturingLogFunction}.
+   *
+   * @return -1 if the event is suppressed, otherwise the number of events
+   *         suppressed since the last emitted event.
+   */
+  long acquire(Object f) {
+    final State state = loggerState != null ? loggerState : callSiteStates.get(f.getClass());
+    if (state.isSampled() && state.isPermitted()) {
+      return state.suppressed.get() == 0 ? 0 : state.suppressed.getAndSet(0);
+    }
+    state.suppressed.incrementAndGet();
+    suppressed.increment();
+    return -1;
+  }
+
+  /**
+   * Counters of a Logger or call site.
+   */
+  private final class State {
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    /**
+     * Theoretical arrival time of the next event, of the generic cell rate algorithm.
+     * This is equivalent to a token bucket, with the bucket state held in a single value.
+     */
+    private final AtomicLong nextArrival;
+
+    State() {
+      nextArrival = new AtomicLong(intervalNanos == 0 ? 0 : clock.getAsLong());
+    }
+
+    boolean isSampled() {
+      return sampleRate == 1 || count.getAndIncrement() % sampleRate == 0;
+    }
+
+    boolean isPermitted() {
+      if (intervalNanos == 0) {
+        return true;
+      }
+      final long now = clock.getAsLong();
+      while (true) {
+        final long arrival = nextArrival.get();
+        final long start = arrival - now > 0 ? arrival : now;
+        if (start - now > toleranceNanos) {
+          return false;
+        }
+        if (nextArrival.compareAndSet(arrival, start + intervalNanos)) {
+          return true;
+        }
+      }
+    }
+  }
+}
@@ -154,6 +154,25 @@ public interface Logger<T extends LogEvent> {
    */
   void log(Level lvl, LogFunction<T> f);
   
+  /**
+   * Log a {@link LogEvent} at the specified level, with the data to log
+   * captured explicitly.
+   * 
+   * <p>
+   * Unlike {@link #log(org.eclipse.microprofile.logging.Level, org.eclipse.microprofile.logging.LogFunction)}
+   * the function may be called after this method has returned, on another thread,
+   * see {@link CapturingLogFunction}.
+   * </p>
+   * 
+   * @param <A> The Type of the captured arguments.
+   * @param lvl The level at which to log the {@link LogEvent}
+   * @param args Immutable snapshot of the data passed to the function.
+   * @param f Function to generate log message and populate a {@link LogEvent} as required.
+   */
+  default <A> void log(Level lvl, A args, CapturingLogFunction<T, A> f) {
+    log(lvl, e -> f.log(e, args));
+  }
+  
   /**
    * Is the Logging implementation configured to output log statements
    * at the given Level?
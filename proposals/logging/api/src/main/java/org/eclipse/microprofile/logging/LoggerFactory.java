@@ -1,5 +1,6 @@
 package org.eclipse.microprofile.logging;
 
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 import javax.enterprise.inject.spi.CDI;
 
@@ -10,17 +11,22 @@ public class LoggerFactory {
 
   private static final NoOpLoggerFactory NOOPFACTORY = new NoOpLoggerFactory();
 
-  private static class FactoryHolder {
-    private static LoggerFactoryProvider initFactory() {
-      try {
-        return CDI.current().select(LoggerFactoryProvider.class).get();
-      } catch (Throwable t) {
-        // no factory
-      }
-      return NOOPFACTORY;
+  /** The factory, resolved on first use */
+  private static volatile LoggerFactoryProvider factory;
+
+  /**
+   * Guards resolving the factory. Unlike the initialization of a holder class, waiting for
+   * the lock does not pin the carrier of a virtual thread whilst the CDI container is queried.
+   */
+  private static final ReentrantLock FACTORY_LOCK = new ReentrantLock();
+
+  private static LoggerFactoryProvider initFactory() {
+    try {
+      return CDI.current().select(LoggerFactoryProvider.class).get();
+    } catch (Throwable t) {
+      // no factory
     }
-    
-    static final LoggerFactoryProvider FACTORY = initFactory();
+    return NOOPFACTORY;
   }
 
   /**
@@ -37,6 +43,11 @@ public class LoggerFactory {
    * whilst within the Foo.class.
    * </p>
    *
+   * <p>
+   * The calling class is found by walking the stack on each call. Code which looks a Logger up often should keep
+   * it in a static field or use {@link LoggerFactory#getLogger(Class)}.
+   * </p>
+   *
    * @return The named Logger
    */
   public static Logger<LogEvent> getLogger() {
@@ -64,6 +75,42 @@ public class LoggerFactory {
     return getFactory().getLogger(supplier);
   }
 
+  /**
+   * Get a {@link Logger} named after a class.
+   *
+   * <p>
+   * Unlike {@link LoggerFactory#getLogger()}, the stack is not walked to find the calling class, so the Logger can
+   * be looked up cheaply where it is needed often, E.g. in short-lived objects. Calling
+   * {@code LoggerFactory.getLogger(MethodHandles.lookup().lookupClass())} names the Logger after the enclosing class
+   * without repeating its name.
+   * </p>
+   *
+   * @param type The class whose name is used for the Logger.
+   *
+   * @return The named Logger
+   */
+  public static Logger<LogEvent> getLogger(Class<?> type) {
+    return getFactory().getLogger(type);
+  }
+
+  /**
+   * Get a {@link Logger} named after a class, that will provide instances of the {@link LogEvent} sub-class to the
+   * {@link LogFunction} provided the various Logger methods.
+   *
+   * <p>
+   * The stack is not walked, as for {@link LoggerFactory#getLogger(Class)}.
+   * </p>
+   *
+   * @param <T> The LogEvent sub-class type.
+   * @param type The class whose name is used for the Logger.
+   * @param supplier The {@link Supplier} instance responsible for creating instances of the LogEvent sub-class.
+   *
+   * @return The named Logger
+   */
+  public static <T extends LogEvent> Logger<T> getLogger(Class<?> type, Supplier<T> supplier) {
+    return getFactory().getLogger(type, supplier);
+  }
+
   /**
    * Get a {@link Logger} for the given name
    *
@@ -103,6 +150,19 @@ public class LoggerFactory {
   }
   
   private static LoggerFactoryProvider getFactory() {
-    return FactoryHolder.FACTORY;
+    LoggerFactoryProvider provider = factory;
+    if (provider == null) {
+      FACTORY_LOCK.lock();
+      try {
+        provider = factory;
+        if (provider == null) {
+          provider = initFactory();
+          factory = provider;
+        }
+      } finally {
+        FACTORY_LOCK.unlock();
+      }
+    }
+    return provider;
   }
 }
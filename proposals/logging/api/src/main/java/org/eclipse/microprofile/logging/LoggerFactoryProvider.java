@@ -14,4 +14,26 @@ public interface LoggerFactoryProvider {
   Logger getLogger(String name);
   
   <T extends LogEvent> Logger<T> getLogger(String name, Supplier<T> supplier);
+
+  /**
+   * Get the Logger named after a class, without walking the stack.
+   *
+   * @param type The class whose name is used for the Logger.
+   * @return The Logger of {@link #getLogger(String)} for the name of the class.
+   */
+  default Logger getLogger(Class<?> type) {
+    return getLogger(type.getName());
+  }
+
+  /**
+   * Get the Logger named after a class, without walking the stack.
+   *
+   * @param <T> The LogEvent sub-class type.
+   * @param type The class whose name is used for the Logger.
+   * @param supplier The supplier of LogEvents.
+   * @return The Logger of {@link #getLogger(String, Supplier)} for the name of the class.
+   */
+  default <T extends LogEvent> Logger<T> getLogger(Class<?> type, Supplier<T> supplier) {
+    return getLogger(type.getName(), supplier);
+  }
 }
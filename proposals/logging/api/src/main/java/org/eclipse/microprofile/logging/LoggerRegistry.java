@@ -11,8 +11,6 @@ import java.util.function.Supplier;
  */
 public class LoggerRegistry {
 
-  private static final int STACK_TRACE_INDEX = 5;
-
   private final Map<LoggerKey, Logger> loggers = new ConcurrentHashMap<>();
 
   /**
@@ -20,7 +18,13 @@ public class LoggerRegistry {
    * 
    * <p>
    * The name of the Logger will be the name of the class using the logger,
-   * inferred from the Stack
+   * inferred from the Stack. The class is the first one on the Stack which is
+   * neither this registry, {@link LoggerFactory} nor a {@link LoggerFactoryProvider}.
+   * </p>
+   *
+   * <p>
+   * The stack is walked on every call, the Loggers being cached by name. Looking a Logger up by
+   * the name of a class, E.g. through {@link LoggerFactory#getLogger(Class)}, avoids the walk.
    * </p>
    * 
    * @param <T> The LogEvent Type generated by the Logger
@@ -48,8 +52,15 @@ public class LoggerRegistry {
    */
   public <T extends LogEvent> Logger<T> getLogger(String name, Supplier<?> supplier, Function<? super LoggerKey, ? extends Logger> builder) {
     final LoggerKey key = new LoggerKey(name, supplier);
-    final Logger<T> logger = loggers.computeIfAbsent(key, builder);
-    return logger;
+    final Logger<T> logger = loggers.get(key);
+    if (logger != null) {
+      return logger;
+    }
+    // Built outside of the map's lock, as building may query CDI. A Logger which
+    // loses the race is discarded; Loggers are only weakly referenced elsewhere.
+    final Logger<T> built = builder.apply(key);
+    final Logger<T> existing = loggers.putIfAbsent(key, built);
+    return existing != null ? existing : built;
   }
 
   /**
@@ -58,15 +69,8 @@ public class LoggerRegistry {
    * @return The logger name
    */
   private String getLoggerName() {
-    String name = "unknown";
-    final StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-
-    if (stackTrace.length >= STACK_TRACE_INDEX) {
-      final StackTraceElement callingClass = stackTrace[STACK_TRACE_INDEX];
-      name = callingClass.getClassName();
-    }
-
-    return name;
+    final Class<?> callingClass = CallerResolver.getCaller();
+    return callingClass != null ? callingClass.getName() : "unknown";
   }
   
   /**
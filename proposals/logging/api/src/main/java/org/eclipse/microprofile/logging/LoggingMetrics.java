@@ -0,0 +1,247 @@
+package org.eclipse.microprofile.logging;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Runtime metrics of the Loggers: the number of events per Level and per Logger, the events
+ * suppressed, dropped and failed, the depth of the asynchronous queues, and the time spent serializing
+ * events and writing them to the logging framework.
+ *
+ * <p>
+ * Metrics are disabled by default. When disabled, each log statement only checks a field of the
+ * Logger. Once {@link #enable()} is called the metrics are collected by all Loggers and exposed
+ * as the platform MBean {@value #OBJECT_NAME}, see {@link LoggingMetricsMXBean}.
+ * </p>
+ */
+public final class LoggingMetrics implements LoggingMetricsMXBean {
+
+  public static final String OBJECT_NAME = "org.eclipse.microprofile.logging:type=LoggingMetrics";
+
+  private static final Queue<WeakReference<AsyncDispatcher>> DISPATCHERS = new ConcurrentLinkedQueue<>();
+
+  private static volatile LoggingMetrics instance;
+
+  private final Map<String, LoggerMetrics> loggers = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> levels = new ConcurrentHashMap<>();
+  private final LongAdder suppressed = new LongAdder();
+  private final LatencyHistogram serialization = new LatencyHistogram();
+  private final LatencyHistogram writes = new LatencyHistogram();
+
+  private LoggingMetrics() {
+  }
+
+  /**
+   * Start collecting metrics and register the MBean, if not already enabled.
+   *
+   * @return The metrics.
+   */
+  public static synchronized LoggingMetrics enable() {
+    if (instance == null) {
+      final LoggingMetrics metrics = new LoggingMetrics();
+      try {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+          server.unregisterMBean(name);
+        }
+        server.registerMBean(metrics, name);
+      } catch (JMException | SecurityException e) {
+        // JMX is not available, the metrics can still be read directly.
+      }
+      instance = metrics;
+      Configuration.notifyLoggers();
+    }
+    return instance;
+  }
+
+  /**
+   * Stop collecting metrics and unregister the MBean. The collected values are discarded.
+   */
+  public static synchronized void disable() {
+    if (instance != null) {
+      instance = null;
+      try {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+      } catch (JMException | SecurityException e) {
+        // Not registered.
+      }
+      Configuration.notifyLoggers();
+    }
+  }
+
+  /**
+   * Get the metrics, if enabled.
+   *
+   * @return The metrics, or null if disabled.
+   */
+  public static LoggingMetrics get() {
+    return instance;
+  }
+
+  /**
+   * Get the metrics of a Logger.
+   *
+   * @param name The name of the Logger.
+   * @return The Logger's metrics, or null if metrics are disabled.
+   */
+  static LoggerMetrics forLogger(String name) {
+    final LoggingMetrics metrics = instance;
+    return metrics != null ? metrics.loggers.computeIfAbsent(name, n -> new LoggerMetrics(metrics)) : null;
+  }
+
+  /**
+   * Include a dispatcher in the dropped and failed counts and the queue depth.
+   *
+   * @param dispatcher The dispatcher.
+   */
+  static void register(AsyncDispatcher dispatcher) {
+    DISPATCHERS.add(new WeakReference<>(dispatcher));
+  }
+
+  @Override
+  public Map<String, Long> getEventCountsByLevel() {
+    final Map<String, Long> counts = new TreeMap<>();
+    levels.forEach((level, count) -> counts.put(level, count.sum()));
+    return counts;
+  }
+
+  @Override
+  public Map<String, Long> getEventCountsByLogger() {
+    final Map<String, Long> counts = new TreeMap<>();
+    loggers.forEach((logger, metrics) -> counts.put(logger, metrics.events.sum()));
+    return counts;
+  }
+
+  @Override
+  public long getSuppressedCount() {
+    return suppressed.sum();
+  }
+
+  @Override
+  public long getDroppedCount() {
+    long dropped = 0;
+    for (AsyncDispatcher dispatcher : dispatchers()) {
+      dropped += dispatcher.getDroppedCount();
+    }
+    return dropped;
+  }
+
+  @Override
+  public long getFailedCount() {
+    long failed = 0;
+    for (AsyncDispatcher dispatcher : dispatchers()) {
+      failed += dispatcher.getFailedCount();
+    }
+    return failed;
+  }
+
+  @Override
+  public int getAsyncQueueDepth() {
+    int depth = 0;
+    for (AsyncDispatcher dispatcher : dispatchers()) {
+      depth += dispatcher.size();
+    }
+    return depth;
+  }
+
+  @Override
+  public long getSerializationCount() {
+    return serialization.getCount();
+  }
+
+  @Override
+  public double getSerializationTimeMean() {
+    return serialization.getMean();
+  }
+
+  @Override
+  public long getSerializationTime99thPercentile() {
+    return serialization.getPercentile(0.99);
+  }
+
+  @Override
+  public long getSerializationTimeMax() {
+    return serialization.getMax();
+  }
+
+  @Override
+  public long getWriteCount() {
+    return writes.getCount();
+  }
+
+  @Override
+  public double getWriteLatencyMean() {
+    return writes.getMean();
+  }
+
+  @Override
+  public long getWriteLatency99thPercentile() {
+    return writes.getPercentile(0.99);
+  }
+
+  @Override
+  public long getWriteLatencyMax() {
+    return writes.getMax();
+  }
+
+  private static Iterable<AsyncDispatcher> dispatchers() {
+    final List<AsyncDispatcher> live = new ArrayList<>();
+    final Iterator<WeakReference<AsyncDispatcher>> dispatcherIt = DISPATCHERS.iterator();
+    while (dispatcherIt.hasNext()) {
+      final AsyncDispatcher dispatcher = dispatcherIt.next().get();
+      if (dispatcher == null) {
+        dispatcherIt.remove();
+      } else {
+        live.add(dispatcher);
+      }
+    }
+    return live;
+  }
+
+  /**
+   * Metrics recorded by a Logger. Loggers with the same name share the instance.
+   */
+  static final class LoggerMetrics {
+
+    private final LoggingMetrics metrics;
+    private final LongAdder events = new LongAdder();
+
+    LoggerMetrics(LoggingMetrics metrics) {
+      this.metrics = metrics;
+    }
+
+    void emitted(Level lvl) {
+      events.increment();
+      LongAdder count = metrics.levels.get(lvl.getName());
+      if (count == null) {
+        count = metrics.levels.computeIfAbsent(lvl.getName(), l -> new LongAdder());
+      }
+      count.increment();
+    }
+
+    void suppressed() {
+      metrics.suppressed.increment();
+    }
+
+    void serialized(long nanos) {
+      metrics.serialization.record(nanos);
+    }
+
+    void written(long nanos) {
+      metrics.writes.record(nanos);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link LoggingMetrics}.
+ *
+ * <p>
+ * Durations are in nanoseconds. Percentiles are approximate, to the next power of two.
+ * </p>
+ */
+public interface LoggingMetricsMXBean {
+
+  /**
+   * Get the number of events emitted for each Level.
+   *
+   * @return The event counts, keyed by Level name.
+   */
+  Map<String, Long> getEventCountsByLevel();
+
+  /**
+   * Get the number of events emitted by each Logger.
+   *
+   * @return The event counts, keyed by Logger name.
+   */
+  Map<String, Long> getEventCountsByLogger();
+
+  /**
+   * Get the number of events suppressed by {@link LogLimiter}s and collapsed by {@link LogDeduplicator}s.
+   *
+   * @return The number of suppressed events.
+   */
+  long getSuppressedCount();
+
+  /**
+   * Get the number of events discarded by {@link AsyncDispatcher}s because their buffer was full.
+   *
+   * @return The number of dropped events.
+   */
+  long getDroppedCount();
+
+  /**
+   * Get the number of times a Logger failed with an exception while writing
+   * the events of an {@link AsyncDispatcher}.
+   *
+   * @return The number of failures.
+   */
+  long getFailedCount();
+
+  /**
+   * Get the number of events waiting to be written by {@link AsyncDispatcher}s.
+   *
+   * @return The queue depth.
+   */
+  int getAsyncQueueDepth();
+
+  /**
+   * Get the number of events serialized to JSON by {@link AbstractLogger#getJsonString(LogEvent)}
+   * and {@link AbstractLogger#writeJson(LogEvent, Utf8Buffer)}.
+   *
+   * @return The number of serializations.
+   */
+  long getSerializationCount();
+
+  /**
+   * Get the mean time taken to serialize an event to JSON.
+   *
+   * @return The mean time in nanoseconds, or 0 if no event was serialized.
+   */
+  double getSerializationTimeMean();
+
+  /**
+   * Get the time within which 99% of the serializations of events to JSON completed.
+   *
+   * @return The 99th percentile in nanoseconds, rounded up to the next power of two and
+   *         capped at the maximum, or 0 if no event was serialized.
+   */
+  long getSerializationTime99thPercentile();
+
+  /**
+   * Get the longest time taken to serialize an event to JSON.
+   *
+   * @return The maximum time in nanoseconds, or 0 if no event was serialized.
+   */
+  long getSerializationTimeMax();
+
+  /**
+   * Get the number of events written by Loggers to their logging framework.
+   *
+   * @return The number of writes.
+   */
+  long getWriteCount();
+
+  /**
+   * Get the mean time taken by a Logger to write an event, I.e. by
+   * {@link AbstractLogger#writeLog(Level, LogEvent)}, including any serialization.
+   *
+   * @return The mean latency in nanoseconds, or 0 if no event was written.
+   */
+  double getWriteLatencyMean();
+
+  /**
+   * Get the time within which 99% of the writes of events completed.
+   *
+   * @return The 99th percentile in nanoseconds, rounded up to the next power of two and
+   *         capped at the maximum, or 0 if no event was written.
+   */
+  long getWriteLatency99thPercentile();
+
+  /**
+   * Get the longest time taken by a Logger to write an event.
+   *
+   * @return The maximum latency in nanoseconds, or 0 if no event was written.
+   */
+  long getWriteLatencyMax();
+}
@@ -0,0 +1,152 @@
+package org.eclipse.microprofile.logging;
+
+import io.opentracing.log.Fields;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact, read-only Map of Span log fields, backed by arrays of keys and values.
+ *
+ * <p>
+ * Tracers may keep the Map passed to {@link io.opentracing.Span#log(java.util.Map)},
+ * so a new instance is created for each Span log; it is however much smaller and cheaper
+ * to populate than a {@code HashMap}. Fields are added by the logging code before the
+ * Map is handed to the Span and never changed afterwards.
+ * </p>
+ */
+final class SpanFields extends AbstractMap<String, Object> {
+
+  /** Number of cached key sets for the entries of a {@link SpanLogBatch} */
+  private static final int CACHED_KEYS = 32;
+
+  private static final String[][] KEYS = new String[CACHED_KEYS][];
+
+  static {
+    for (int i = 0; i < CACHED_KEYS; i++) {
+      KEYS[i] = createKeys(i);
+    }
+  }
+
+  private String[] keys;
+  private Object[] values;
+  private int size;
+
+  SpanFields(int capacity) {
+    keys = new String[capacity];
+    values = new Object[capacity];
+  }
+
+  /**
+   * Create the fields of a log event.
+   *
+   * @param event The event.
+   * @return The fields.
+   */
+  static SpanFields of(LogEvent event) {
+    final SpanFields fields = new SpanFields(event.throwable != null ? 4 : 1);
+    fields.add(event, 0);
+    return fields;
+  }
+
+  /**
+   * Add the fields of a log event.
+   *
+   * @param event The event.
+   * @param index The position of the event within a {@link SpanLogBatch}. The keys of
+   *              all but the first event are suffixed with {@code .<index>}.
+   */
+  void add(LogEvent event, int index) {
+    final String[] eventKeys = index < CACHED_KEYS ? KEYS[index] : createKeys(index);
+    final Throwable thrown = event.throwable;
+    if (thrown != null) {
+      append(eventKeys[0], "error");
+      append(eventKeys[1], "Exception");
+      append(eventKeys[2], thrown);
+      append(eventKeys[3], thrown.getMessage());
+    } else {
+      append(eventKeys[3], event.message);
+    }
+  }
+
+  private void append(String key, Object value) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size << 1);
+      values = Arrays.copyOf(values, size << 1);
+    }
+    keys[size] = key;
+    values[size] = value;
+    size++;
+  }
+
+  private static String[] createKeys(int index) {
+    final String suffix = index == 0 ? "" : "." + index;
+    return new String[] {
+      Fields.EVENT + suffix,
+      Fields.ERROR_KIND + suffix,
+      Fields.ERROR_OBJECT + suffix,
+      Fields.MESSAGE + suffix
+    };
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public Object get(Object key) {
+    final int index = indexOf(key);
+    return index >= 0 ? values[index] : null;
+  }
+
+  private int indexOf(Object key) {
+    for (int i = 0; i < size; i++) {
+      if (keys[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    return new AbstractSet<Map.Entry<String, Object>>() {
+      @Override
+      public Iterator<Map.Entry<String, Object>> iterator() {
+        return new Iterator<Map.Entry<String, Object>>() {
+          private int next;
+
+          @Override
+          public boolean hasNext() {
+            return next < size;
+          }
+
+          @Override
+          public Map.Entry<String, Object> next() {
+            if (next >= size) {
+              throw new NoSuchElementException();
+            }
+            final Map.Entry<String, Object> entry = new SimpleImmutableEntry<>(keys[next], values[next]);
+            next++;
+            return entry;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+}
@@ -0,0 +1,107 @@
+package org.eclipse.microprofile.logging;
+
+import io.opentracing.Span;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Combines the Span logging of several log statements into a single Span log event.
+ *
+ * <p>
+ * While a batch is open on a thread, the Span log data of every log statement on that
+ * thread, whether from {@link Logger#span(org.eclipse.microprofile.logging.LogFunction)} or
+ * Span Implicit logging, is collected instead of being sent to the Span straight away. The
+ * collected fields are sent as one Span log when the batch is closed, or when a log statement
+ * refers to a different Span. The fields of the first statement keep their names; those of
+ * subsequent statements are suffixed with their position, E.g. {@code message.1}, {@code message.2}.
+ * </p>
+ *
+ * <pre>
+ * try (SpanLogBatch batch = SpanLogBatch.open()) {
+ *   log.span(e -&gt; "Request received");
+ *   ...
+ *   log.span(e -&gt; "Request complete");
+ * }
+ * </pre>
+ *
+ * <p>
+ * A batch belongs to the thread which opened it and must be closed on that thread. Opening
+ * a batch whilst one is already open returns the open batch, which is then only sent once
+ * the outermost one is closed.
+ * </p>
+ */
+public final class SpanLogBatch implements AutoCloseable {
+
+  private static final ThreadLocal<SpanLogBatch> CURRENT = new ThreadLocal<>();
+
+  private int depth;
+  private Span span;
+  private SpanFields fields;
+  private long timestampMicros;
+  private int count;
+
+  private SpanLogBatch() {
+  }
+
+  /**
+   * Open a batch on the calling thread.
+   *
+   * @return The batch.
+   */
+  public static SpanLogBatch open() {
+    SpanLogBatch batch = CURRENT.get();
+    if (batch == null) {
+      batch = new SpanLogBatch();
+      CURRENT.set(batch);
+    }
+    batch.depth++;
+    return batch;
+  }
+
+  /**
+   * Get the batch open on the calling thread.
+   *
+   * @return The batch, or null if none is open.
+   */
+  static SpanLogBatch current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Add the Span log data of an event.
+   *
+   * @param target The Span to log to.
+   * @param event The log data.
+   */
+  void add(Span target, LogEvent event) {
+    if (span != target) {
+      flush();
+      span = target;
+      timestampMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+      fields = new SpanFields(8);
+    }
+    fields.add(event, count++);
+  }
+
+  /**
+   * Send the collected fields to the Span now, rather than when the batch is closed.
+   */
+  public void flush() {
+    if (fields != null) {
+      span.log(timestampMicros, fields);
+    }
+    span = null;
+    fields = null;
+    count = 0;
+  }
+
+  /**
+   * Send the collected fields to the Span, unless this closes a nested batch.
+   */
+  @Override
+  public void close() {
+    if (depth > 0 && --depth == 0) {
+      CURRENT.remove();
+      flush();
+    }
+  }
+}
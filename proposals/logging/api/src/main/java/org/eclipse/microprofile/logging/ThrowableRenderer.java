@@ -0,0 +1,236 @@
+package org.eclipse.microprofile.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Renders the stack trace of a {@link LogEvent#throwable} as text into a {@link Utf8Buffer},
+ * for implementations which output the stack trace, E.g. JSON sinks.
+ *
+ * <p>
+ * The output follows {@link Throwable#printStackTrace()}: a line with the class and message of
+ * the throwable, followed by its frames and those of its causes, with the frames a cause has in
+ * common with the enclosing trace folded into a {@code ... n more} line. Unlike {@code printStackTrace()},
+ * the number of frames rendered for each throwable and the length of the cause chain are capped,
+ * and suppressed exceptions are not rendered.
+ * </p>
+ *
+ * <p>
+ * The frames are written directly to the buffer, without formatting each {@link StackTraceElement}
+ * as a String. The rendered frames of each throwable are also cached in a bounded, lossy table,
+ * selected by the fingerprint of the exception class and top frame, so the same error logged
+ * repeatedly, E.g. while a dependency is failing, only copies bytes. A cached rendering is used only
+ * when all of its frames are equal to those of the throwable. Messages are never cached.
+ * </p>
+ */
+public final class ThrowableRenderer {
+
+  /** Renderer with the default limits, shared by the logging implementations. */
+  public static final ThrowableRenderer DEFAULT = new ThrowableRenderer(64, 8, 256);
+
+  private static final byte[] AT = "\tat ".getBytes(StandardCharsets.US_ASCII);
+
+  /** Buffer of each thread for {@link #render(Throwable)}, null while in use */
+  private static final ThreadLocal<Utf8Buffer> BUFFER = ThreadLocal.withInitial(Utf8Buffer::new);
+
+  private final int maxFrames;
+  private final int maxCauses;
+  private final AtomicReferenceArray<Entry> cache;
+  private final int mask;
+
+  /**
+   * Create a renderer.
+   *
+   * @param maxFrames The maximum number of frames rendered for each throwable in the chain.
+   * @param maxCauses The maximum number of causes rendered.
+   * @param cacheSize The number of cached renderings, rounded up to a power of two, or 0 to disable caching.
+   */
+  public ThrowableRenderer(int maxFrames, int maxCauses, int cacheSize) {
+    if (maxFrames < 1) {
+      throw new IllegalArgumentException("Max frames must be positive \"" + maxFrames + "\"");
+    }
+    if (maxCauses < 0) {
+      throw new IllegalArgumentException("Max causes must not be negative \"" + maxCauses + "\"");
+    }
+    if (cacheSize < 0 || cacheSize > 1 << 30) {
+      throw new IllegalArgumentException("Invalid cache size \"" + cacheSize + "\"");
+    }
+    this.maxFrames = maxFrames;
+    this.maxCauses = maxCauses;
+    this.cache = cacheSize == 0 ? null : new AtomicReferenceArray<>(Math.max(1, Integer.highestOneBit(cacheSize - 1) << 1));
+    this.mask = cache == null ? 0 : cache.length() - 1;
+  }
+
+  /**
+   * Render a throwable and its causes.
+   *
+   * @param thrown The throwable.
+   * @param buffer The buffer to append the text to, UTF-8 encoded.
+   */
+  public void render(Throwable thrown, Utf8Buffer buffer) {
+    StackTraceElement[] enclosing = null;
+    Throwable current = thrown;
+    for (int depth = 0; current != null; depth++) {
+      if (depth > 0) {
+        buffer.append("Caused by: ");
+      }
+      header(current, buffer);
+      final StackTraceElement[] frames = current.getStackTrace();
+      frames(current.getClass(), frames, enclosing, buffer);
+
+      final Throwable cause = current.getCause();
+      if (cause == null || isCycle(thrown, current, cause)) {
+        return;
+      }
+      if (depth == maxCauses) {
+        buffer.append("\t... further causes omitted\n");
+        return;
+      }
+      enclosing = frames;
+      current = cause;
+    }
+  }
+
+  /**
+   * Render a throwable and its causes to a String.
+   *
+   * @param thrown The throwable.
+   * @return The text.
+   */
+  public String render(Throwable thrown) {
+    // Not Utf8Buffer.local(), which the caller may be writing to. A message
+    // rendering another throwable while this one is rendered gets a new buffer.
+    final Utf8Buffer local = BUFFER.get();
+    final Utf8Buffer buffer = local != null ? local.reset() : new Utf8Buffer();
+    BUFFER.set(null);
+    try {
+      render(thrown, buffer);
+      return buffer.toString();
+    } finally {
+      if (local == null) {
+        BUFFER.set(null);
+      } else if (local.isRetained()) {
+        BUFFER.set(local);
+      } else {
+        BUFFER.remove();
+      }
+    }
+  }
+
+  private static void header(Throwable thrown, Utf8Buffer buffer) {
+    buffer.append(thrown.getClass().getName());
+    final String message = thrown.getLocalizedMessage();
+    if (message != null) {
+      buffer.append(": ").append(message);
+    }
+    buffer.append((byte) '\n');
+  }
+
+  /**
+   * Render the frames of a throwable, from the cache if possible.
+   */
+  private void frames(Class<?> type, StackTraceElement[] frames, StackTraceElement[] enclosing, Utf8Buffer buffer) {
+    final int common = enclosing == null ? 0 : commonFrames(frames, enclosing);
+    if (cache == null || frames.length == 0) {
+      renderFrames(frames, common, buffer);
+      return;
+    }
+
+    final int index = hash(type, frames[0], common) & mask;
+    final Entry entry = cache.get(index);
+    if (entry != null && entry.matches(type, frames, common)) {
+      buffer.append(entry.rendered);
+      return;
+    }
+
+    final int start = buffer.size();
+    renderFrames(frames, common, buffer);
+    cache.set(index, new Entry(type, frames, common, Arrays.copyOfRange(buffer.array(), start, buffer.size())));
+  }
+
+  private void renderFrames(StackTraceElement[] frames, int common, Utf8Buffer buffer) {
+    final int unique = frames.length - common;
+    final int rendered = Math.min(unique, maxFrames);
+    for (int i = 0; i < rendered; i++) {
+      frame(frames[i], buffer);
+    }
+    if (rendered < unique) {
+      buffer.append("\t... ").append(unique - rendered).append(" frames omitted\n");
+    }
+    if (common > 0) {
+      buffer.append("\t... ").append(common).append(" more\n");
+    }
+  }
+
+  private static void frame(StackTraceElement frame, Utf8Buffer buffer) {
+    buffer.append(AT).append(frame.getClassName()).append((byte) '.').append(frame.getMethodName()).append((byte) '(');
+    final String file = frame.getFileName();
+    final int line = frame.getLineNumber();
+    if (frame.isNativeMethod()) {
+      buffer.append("Native Method");
+    } else if (file == null) {
+      buffer.append("Unknown Source");
+    } else {
+      buffer.append(file);
+      if (line >= 0) {
+        buffer.append((byte) ':').append(line);
+      }
+    }
+    buffer.append(")\n");
+  }
+
+  /**
+   * Count the frames at the bottom of the stack shared with the enclosing trace.
+   */
+  private static int commonFrames(StackTraceElement[] frames, StackTraceElement[] enclosing) {
+    int m = frames.length - 1;
+    int n = enclosing.length - 1;
+    while (m >= 0 && n >= 0 && frames[m].equals(enclosing[n])) {
+      m--;
+      n--;
+    }
+    return frames.length - 1 - m;
+  }
+
+  /**
+   * Has the cause already been rendered, earlier in the chain?
+   */
+  private static boolean isCycle(Throwable first, Throwable last, Throwable cause) {
+    for (Throwable t = first; t != last; t = t.getCause()) {
+      if (t == cause) {
+        return true;
+      }
+    }
+    return last == cause;
+  }
+
+  private static int hash(Class<?> type, StackTraceElement top, int common) {
+    int h = System.identityHashCode(type);
+    h = 31 * h + top.hashCode();
+    h = 31 * h + common;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * The rendered frames of a throwable.
+   */
+  private static final class Entry {
+
+    private final Class<?> type;
+    private final StackTraceElement[] frames;
+    private final int common;
+    private final byte[] rendered;
+
+    Entry(Class<?> type, StackTraceElement[] frames, int common, byte[] rendered) {
+      this.type = type;
+      this.frames = frames;
+      this.common = common;
+      this.rendered = rendered;
+    }
+
+    boolean matches(Class<?> otherType, StackTraceElement[] otherFrames, int otherCommon) {
+      return type == otherType && common == otherCommon && Arrays.equals(frames, otherFrames);
+    }
+  }
+}
@@ -0,0 +1,350 @@
+package org.eclipse.microprofile.logging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A growable, re-usable buffer of UTF-8 encoded bytes.
+ *
+ * <p>
+ * Log output is encoded straight into the buffer, without creating intermediate
+ * {@link String}s, and the content is then written to a sink with
+ * {@link #writeTo(java.io.OutputStream)} or read through {@link #array()}.
+ * A buffer is not thread-safe; it is typically re-used by a single thread,
+ * E.g. via {@link #local()}.
+ * </p>
+ */
+public final class Utf8Buffer {
+
+  private static final int INITIAL_CAPACITY = 512;
+
+  /** Thread-local buffers larger than this are not kept for re-use */
+  private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+  private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+  private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+  private static final ThreadLocal<Utf8Buffer> LOCAL = ThreadLocal.withInitial(Utf8Buffer::new);
+
+  private byte[] bytes;
+  private int size;
+
+  public Utf8Buffer() {
+    this(INITIAL_CAPACITY);
+  }
+
+  public Utf8Buffer(int capacity) {
+    this.bytes = new byte[Math.max(16, capacity)];
+  }
+
+  /**
+   * Get the calling thread's buffer, cleared and ready for use.
+   *
+   * <p>
+   * The buffer MUST NOT be used after the calling code returns, as
+   * another call to this method on the same thread will clear it.
+   * </p>
+   *
+   * @return The buffer.
+   */
+  public static Utf8Buffer local() {
+    Utf8Buffer buffer = LOCAL.get();
+    if (!buffer.isRetained()) {
+      buffer = new Utf8Buffer();
+      LOCAL.set(buffer);
+    }
+    buffer.reset();
+    return buffer;
+  }
+
+  /**
+   * Is the buffer small enough to be kept for re-use by a thread, see {@link #local()}?
+   *
+   * @return false if the buffer should be discarded after use.
+   */
+  boolean isRetained() {
+    return bytes.length <= MAX_RETAINED_CAPACITY;
+  }
+
+  /**
+   * Clear the buffer, keeping its capacity.
+   *
+   * @return This buffer.
+   */
+  public Utf8Buffer reset() {
+    size = 0;
+    return this;
+  }
+
+  /**
+   * Get the number of bytes written.
+   *
+   * @return The size.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the backing array. Only the first {@link #size()} bytes are valid.
+   *
+   * @return The backing array.
+   */
+  public byte[] array() {
+    return bytes;
+  }
+
+  /**
+   * Write the content of the buffer.
+   *
+   * @param out The stream to write to.
+   *
+   * @throws IOException If the stream fails.
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    out.write(bytes, 0, size);
+  }
+
+  /**
+   * Append a single byte.
+   *
+   * @param b The byte.
+   * @return This buffer.
+   */
+  public Utf8Buffer append(byte b) {
+    ensureCapacity(1);
+    bytes[size++] = b;
+    return this;
+  }
+
+  /**
+   * Append bytes.
+   *
+   * @param src The bytes.
+   * @return This buffer.
+   */
+  public Utf8Buffer append(byte[] src) {
+    return append(src, 0, src.length);
+  }
+
+  /**
+   * Append a range of bytes.
+   *
+   * @param src The bytes.
+   * @param offset The first byte to append.
+   * @param length The number of bytes.
+   * @return This buffer.
+   */
+  public Utf8Buffer append(byte[] src, int offset, int length) {
+    ensureCapacity(length);
+    System.arraycopy(src, offset, bytes, size, length);
+    size += length;
+    return this;
+  }
+
+  /**
+   * Append the decimal representation of a number.
+   *
+   * @param value The number.
+   * @return This buffer.
+   */
+  public Utf8Buffer append(long value) {
+    if (value == Long.MIN_VALUE) {
+      return append(MIN_LONG);
+    }
+
+    ensureCapacity(20);
+    if (value < 0) {
+      bytes[size++] = '-';
+      value = -value;
+    }
+
+    final int start = size;
+    do {
+      bytes[size++] = (byte) ('0' + (value % 10));
+      value /= 10;
+    } while (value != 0);
+
+    // Digits were written least significant first
+    for (int i = start, j = size - 1; i < j; i++, j--) {
+      final byte tmp = bytes[i];
+      bytes[i] = bytes[j];
+      bytes[j] = tmp;
+    }
+    return this;
+  }
+
+  /**
+   * Append characters encoded as UTF-8.
+   *
+   * @param chars The characters.
+   * @return This buffer.
+   */
+  public Utf8Buffer append(CharSequence chars) {
+    final int length = chars.length();
+    ensureCapacity(length);
+    for (int i = 0; i < length; i++) {
+      final char c = chars.charAt(i);
+      if (c < 0x80) {
+        if (size == bytes.length) {
+          ensureCapacity(length - i);
+        }
+        bytes[size++] = (byte) c;
+      } else {
+        i = appendNonAscii(chars, i, c);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Append characters as a quoted and escaped JSON string.
+   *
+   * @param chars The characters.
+   * @return This buffer.
+   */
+  public Utf8Buffer appendJsonString(CharSequence chars) {
+    final int length = chars.length();
+    ensureCapacity(length + 2);
+    bytes[size++] = '"';
+    for (int i = 0; i < length; i++) {
+      final char c = chars.charAt(i);
+      if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+        if (size == bytes.length) {
+          ensureCapacity(length - i + 1);
+        }
+        bytes[size++] = (byte) c;
+      } else if (c < 0x80) {
+        appendEscaped(c);
+      } else {
+        i = appendNonAscii(chars, i, c);
+      }
+    }
+    return append((byte) '"');
+  }
+
+  /**
+   * Append UTF-8 encoded text as a quoted and escaped JSON string.
+   *
+   * @param utf8 The UTF-8 encoded text, E.g. the content of another buffer.
+   * @param offset The first byte of the text.
+   * @param length The number of bytes.
+   * @return This buffer.
+   */
+  public Utf8Buffer appendJsonString(byte[] utf8, int offset, int length) {
+    ensureCapacity(length + 2);
+    bytes[size++] = '"';
+    for (int i = offset; i < offset + length; i++) {
+      final byte b = utf8[i];
+      // Bytes of multi-byte sequences are negative and copied as they are
+      if ((b >= 0x20 || b < 0) && b != '"' && b != '\\') {
+        if (size == bytes.length) {
+          ensureCapacity(offset + length - i + 1);
+        }
+        bytes[size++] = b;
+      } else {
+        appendEscaped((char) b);
+      }
+    }
+    return append((byte) '"');
+  }
+
+  /**
+   * Append a single character as a quoted and escaped JSON string.
+   *
+   * @param c The character.
+   * @return This buffer.
+   */
+  public Utf8Buffer appendJsonString(char c) {
+    append((byte) '"');
+    if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+      append((byte) c);
+    } else if (c < 0x80) {
+      appendEscaped(c);
+    } else {
+      appendNonAscii(String.valueOf(c), 0, c);
+    }
+    return append((byte) '"');
+  }
+
+  /**
+   * Get the content as a String.
+   *
+   * @return The decoded content.
+   */
+  @Override
+  public String toString() {
+    return new String(bytes, 0, size, StandardCharsets.UTF_8);
+  }
+
+  private void appendEscaped(char c) {
+    ensureCapacity(6);
+    bytes[size++] = '\\';
+    switch (c) {
+      case '"':
+      case '\\':
+        bytes[size++] = (byte) c;
+        break;
+      case '\b':
+        bytes[size++] = 'b';
+        break;
+      case '\f':
+        bytes[size++] = 'f';
+        break;
+      case '\n':
+        bytes[size++] = 'n';
+        break;
+      case '\r':
+        bytes[size++] = 'r';
+        break;
+      case '\t':
+        bytes[size++] = 't';
+        break;
+      default:
+        bytes[size++] = 'u';
+        bytes[size++] = '0';
+        bytes[size++] = '0';
+        bytes[size++] = HEX[(c >> 4) & 0xF];
+        bytes[size++] = HEX[c & 0xF];
+    }
+  }
+
+  /**
+   * Encode a character outside the ASCII range.
+   *
+   * @return The index of the last character consumed.
+   */
+  private int appendNonAscii(CharSequence chars, int index, char c) {
+    ensureCapacity(4);
+    if (c < 0x800) {
+      bytes[size++] = (byte) (0xC0 | (c >> 6));
+      bytes[size++] = (byte) (0x80 | (c & 0x3F));
+    } else if (Character.isHighSurrogate(c) && index + 1 < chars.length()
+               && Character.isLowSurrogate(chars.charAt(index + 1))) {
+      final int codePoint = Character.toCodePoint(c, chars.charAt(index + 1));
+      bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+      bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+      bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+      bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+      return index + 1;
+    } else if (Character.isSurrogate(c)) {
+      // Unpaired surrogate, as per String.getBytes(UTF_8)
+      bytes[size++] = '?';
+    } else {
+      bytes[size++] = (byte) (0xE0 | (c >> 12));
+      bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+      bytes[size++] = (byte) (0x80 | (c & 0x3F));
+    }
+    return index;
+  }
+
+  private void ensureCapacity(int additional) {
+    final int required = size + additional;
+    if (required > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length << 1));
+    }
+  }
+}
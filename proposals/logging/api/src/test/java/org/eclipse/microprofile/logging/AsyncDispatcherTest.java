@@ -0,0 +1,339 @@
+package org.eclipse.microprofile.logging;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.logging.AsyncDispatcher.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test the hand-off of LogEvents to the consumer thread of an {@link AsyncDispatcher}.
+ */
+public class AsyncDispatcherTest {
+
+  /**
+   * Test that events are written on the consumer thread in the order they were logged.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testEventsWrittenInOrder(TestInfo info) {
+    final ThreadRecordingLogger log = new ThreadRecordingLogger(info.getDisplayName());
+    try (AsyncDispatcher dispatcher = new AsyncDispatcher(4, OverflowPolicy.BLOCK)) {
+      log.setDispatcher(dispatcher);
+      for (int i = 0; i < 100; i++) {
+        final int count = i;
+        log.info(e -> "Message " + count);
+      }
+    }
+
+    assertEquals(100, log.events.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals("Message " + i, log.events.get(i).message);
+      assertNotEquals(Thread.currentThread(), log.threads.get(i));
+    }
+  }
+
+  /**
+   * Test that the newest events are discarded when the buffer is full.
+   *
+   * @param info Test information.
+   *
+   * @throws InterruptedException If interrupted whilst waiting for the consumer.
+   */
+  @Test
+  public void testDropNewest(TestInfo info) throws InterruptedException {
+    final ThreadRecordingLogger log = new ThreadRecordingLogger(info.getDisplayName());
+    try (AsyncDispatcher dispatcher = new AsyncDispatcher(2, OverflowPolicy.DROP_NEWEST)) {
+      log.setDispatcher(dispatcher);
+      fillWhileBlocked(log, 5);
+
+      assertEquals(3, dispatcher.getDroppedCount());
+    }
+
+    assertEquals(3, log.events.size());
+    assertEquals("Message 2", log.events.get(2).message);
+  }
+
+  /**
+   * Test that the oldest queued events are discarded when the buffer is full.
+   *
+   * @param info Test information.
+   *
+   * @throws InterruptedException If interrupted whilst waiting for the consumer.
+   */
+  @Test
+  public void testDropOldest(TestInfo info) throws InterruptedException {
+    final ThreadRecordingLogger log = new ThreadRecordingLogger(info.getDisplayName());
+    try (AsyncDispatcher dispatcher = new AsyncDispatcher(2, OverflowPolicy.DROP_OLDEST)) {
+      log.setDispatcher(dispatcher);
+      fillWhileBlocked(log, 5);
+
+      assertEquals(3, dispatcher.getDroppedCount());
+    }
+
+    assertEquals(3, log.events.size());
+    assertEquals("Message 4", log.events.get(1).message);
+    assertEquals("Message 5", log.events.get(2).message);
+  }
+
+  /**
+   * Test that events are written on the logging thread when the buffer is full.
+   *
+   * @param info Test information.
+   *
+   * @throws InterruptedException If interrupted whilst waiting for the consumer.
+   */
+  @Test
+  public void testSynchronousFallback(TestInfo info) throws InterruptedException {
+    final ThreadRecordingLogger log = new ThreadRecordingLogger(info.getDisplayName());
+    try (AsyncDispatcher dispatcher = new AsyncDispatcher(2, OverflowPolicy.SYNCHRONOUS)) {
+      log.setDispatcher(dispatcher);
+      fillWhileBlocked(log, 5);
+
+      assertEquals(0, dispatcher.getDroppedCount());
+      assertTrue(log.threads.contains(Thread.currentThread()), "Expected a synchronous write");
+    }
+
+    assertEquals(6, log.events.size());
+  }
+
+  /**
+   * Test that a closed dispatcher causes events to be written synchronously.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testClosedDispatcherWritesSynchronously(TestInfo info) {
+    final ThreadRecordingLogger log = new ThreadRecordingLogger(info.getDisplayName());
+    final AsyncDispatcher dispatcher = new AsyncDispatcher(2, OverflowPolicy.BLOCK);
+    dispatcher.close();
+
+    log.setDispatcher(dispatcher);
+    log.info(e -> "After close");
+
+    assertEquals(1, log.events.size());
+    assertEquals(Thread.currentThread(), log.threads.get(0));
+  }
+
+  /**
+   * Test that a {@link CapturingLogFunction} is called on the consumer thread.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testDeferredFunction(TestInfo info) {
+    final ThreadRecordingLogger log = new ThreadRecordingLogger(info.getDisplayName());
+    final List<Thread> callers = new CopyOnWriteArrayList<>();
+    try (AsyncDispatcher dispatcher = new AsyncDispatcher(4, OverflowPolicy.BLOCK)) {
+      log.setDispatcher(dispatcher);
+      for (int i = 0; i < 10; i++) {
+        log.log(Level.INFO, i, (e, count) -> {
+          callers.add(Thread.currentThread());
+          return "Message " + count;
+        });
+      }
+    }
+
+    assertEquals(10, log.events.size());
+    for (int i = 0; i < 10; i++) {
+      assertEquals("Message " + i, log.events.get(i).message);
+      assertEquals(log.threads.get(i), callers.get(i));
+      assertNotEquals(Thread.currentThread(), callers.get(i));
+    }
+  }
+
+  /**
+   * Test that a {@link CapturingLogFunction} is called on the logging thread without a dispatcher.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testDeferredFunctionWithoutDispatcher(TestInfo info) {
+    final ThreadRecordingLogger log = new ThreadRecordingLogger(info.getDisplayName());
+    final List<Thread> callers = new CopyOnWriteArrayList<>();
+    log.log(Level.INFO, "Synchronous", (e, text) -> {
+      callers.add(Thread.currentThread());
+      return text;
+    });
+
+    assertEquals(1, log.events.size());
+    assertEquals("Synchronous", log.events.get(0).message);
+    assertEquals(Thread.currentThread(), callers.get(0));
+  }
+
+  /**
+   * Test that the time an event was logged is captured on the logging thread,
+   * not when the consumer writes it.
+   *
+   * @param info Test information.
+   *
+   * @throws InterruptedException If interrupted whilst waiting for the consumer.
+   */
+  @Test
+  public void testTimestampCapturedWhenLogged(TestInfo info) throws InterruptedException {
+    final ThreadRecordingLogger log = new ThreadRecordingLogger(info.getDisplayName());
+    final long before = LogEvent.currentTimeNanos();
+    final long logged;
+    try (AsyncDispatcher dispatcher = new AsyncDispatcher(4, OverflowPolicy.BLOCK)) {
+      log.setDispatcher(dispatcher);
+      fillWhileBlocked(log, 1, 50);
+      logged = LogEvent.currentTimeNanos();
+    }
+
+    final LogEvent event = log.events.get(1);
+    assertEquals("Message 1", event.message);
+    assertTrue(event.timestamp >= before && event.timestamp <= logged, "Timestamp " + event.timestamp);
+    assertTrue(log.written.get(1) - event.timestamp >= 50_000_000L, "Written after " + log.written.get(1));
+  }
+
+  /**
+   * Test that a Logger which logs while it is written on the consumer thread
+   * cannot dead-lock a full buffer when using {@link OverflowPolicy#BLOCK}.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testBlockOnConsumerThreadWritesSynchronously(TestInfo info) {
+    final ThreadRecordingLogger nested = new ThreadRecordingLogger(info.getDisplayName() + ".nested");
+    final ThreadRecordingLogger log = new ThreadRecordingLogger(info.getDisplayName()) {
+      @Override
+      public void writeLog(Level lvl, LogEvent event) {
+        for (int i = 0; i < 4; i++) {
+          final int count = i;
+          nested.info(e -> "Nested " + count);
+        }
+        super.writeLog(lvl, event);
+      }
+    };
+
+    assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+      try (AsyncDispatcher dispatcher = new AsyncDispatcher(1, OverflowPolicy.BLOCK)) {
+        nested.setDispatcher(dispatcher);
+        log.setDispatcher(dispatcher);
+        log.info(e -> "Outer");
+      }
+    });
+
+    assertEquals(1, log.events.size());
+    assertEquals(4, nested.events.size());
+    assertTrue(nested.threads.stream().allMatch(t -> t == log.threads.get(0)), "Nested events on " + nested.threads);
+  }
+
+  /**
+   * Test that an exception of a Logger is counted, the event released, and
+   * that later events are still written.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testFailingLoggerCountedAndReleased(TestInfo info) {
+    final ThreadRecordingLogger log = new ThreadRecordingLogger(info.getDisplayName(),
+        new LogEventPool<>(new LogEventSupplier())) {
+      @Override
+      public void writeLog(Level lvl, LogEvent event) {
+        super.writeLog(lvl, event);
+        if ("Fail".equals(event.message)) {
+          throw new IllegalStateException("Sink failed");
+        }
+      }
+    };
+
+    final AsyncDispatcher dispatcher = new AsyncDispatcher(4, OverflowPolicy.BLOCK);
+    try {
+      log.setDispatcher(dispatcher);
+      log.info(e -> "Fail");
+      log.log(Level.INFO, "Function", (e, text) -> {
+        throw new IllegalArgumentException(text);
+      });
+      log.info(e -> "Written");
+    } finally {
+      dispatcher.close();
+    }
+
+    assertEquals(2, dispatcher.getFailedCount());
+    assertEquals(2, log.events.size());
+    // Reset when released to the pool
+    assertNull(log.events.get(0).message);
+  }
+
+  /**
+   * Log one event which blocks the consumer, then log the given number of
+   * events before releasing the consumer.
+   */
+  private void fillWhileBlocked(ThreadRecordingLogger log, int count) throws InterruptedException {
+    fillWhileBlocked(log, count, 0);
+  }
+
+  /**
+   * Log one event which blocks the consumer, then log the given number of
+   * events before releasing the consumer after the given delay.
+   */
+  private void fillWhileBlocked(ThreadRecordingLogger log, int count, long delayMillis) throws InterruptedException {
+    final CountDownLatch release = new CountDownLatch(1);
+    log.block = release;
+    log.info(e -> "Blocking");
+    assertTrue(log.blocked.await(5, TimeUnit.SECONDS), "Consumer did not start writing");
+
+    for (int i = 1; i <= count; i++) {
+      final int number = i;
+      log.info(e -> "Message " + number);
+    }
+    if (delayMillis > 0) {
+      Thread.sleep(delayMillis);
+    }
+    release.countDown();
+  }
+
+  /**
+   * Logger recording the events and the threads on which they were written.
+   */
+  private static class ThreadRecordingLogger extends AbstractLogger<LogEvent> {
+
+    private final List<LogEvent> events = new CopyOnWriteArrayList<>();
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private final List<Long> written = new CopyOnWriteArrayList<>();
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private volatile CountDownLatch block;
+
+    ThreadRecordingLogger(String name) {
+      this(name, new LogEventSupplier());
+    }
+
+    ThreadRecordingLogger(String name, Supplier<LogEvent> supplier) {
+      super(name, supplier);
+    }
+
+    @Override
+    public boolean isLoggable(Level lvl) {
+      return true;
+    }
+
+    @Override
+    public void writeLog(Level lvl, LogEvent event) {
+      final CountDownLatch latch = block;
+      if (latch != null && "Blocking".equals(event.message)) {
+        block = null;
+        blocked.countDown();
+        try {
+          latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      events.add(event);
+      threads.add(Thread.currentThread());
+      written.add(LogEvent.currentTimeNanos());
+    }
+  }
+}
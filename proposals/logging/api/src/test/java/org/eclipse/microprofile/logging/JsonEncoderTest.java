@@ -0,0 +1,248 @@
+package org.eclipse.microprofile.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.json.bind.annotation.JsonbDateFormat;
+import javax.json.bind.annotation.JsonbNumberFormat;
+import javax.json.bind.annotation.JsonbProperty;
+import javax.json.bind.annotation.JsonbPropertyOrder;
+import javax.json.bind.annotation.JsonbTransient;
+import org.eclipse.microprofile.logging.specialized.SpecializedLogEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test that the {@link JsonEncoder} produces the same JSON as JSON-B.
+ */
+public class JsonEncoderTest {
+
+  private static final Jsonb JSONB = JsonbBuilder.create();
+
+  /**
+   * Test a plain LogEvent, omitting null and transient properties.
+   */
+  @Test
+  public void testLogEvent() {
+    final LogEvent event = new LogEvent();
+    event.message = "A message";
+    event.throwable = new Exception();
+
+    assertSameAsJsonb(event);
+  }
+
+  /**
+   * Test a specialized LogEvent with a renamed property and nested data.
+   */
+  @Test
+  public void testSpecializedLogEvent() {
+    final SpecializedLogEvent event = new SpecializedLogEvent();
+    event.message = "A message";
+    event.spanId = "1234";
+    event.version = 7;
+    event.name = "name";
+    event.extData = new ExtendedData();
+    event.extData.subName = "Sub name";
+    event.extData.subVersion = "1.2";
+
+    assertSameAsJsonb(event);
+  }
+
+  /**
+   * Test the escaping of special and non-ASCII characters.
+   */
+  @Test
+  public void testEscaping() {
+    final LogEvent event = new LogEvent();
+    event.message = "Quote \" backslash \\ tab \t newline \n control \u0001 accent é euro € emoji 😀";
+
+    assertSameAsJsonb(event);
+  }
+
+  /**
+   * Test getters, collections, maps, enums and primitives.
+   */
+  @Test
+  public void testPropertyTypes() {
+    final TypesLogEvent event = new TypesLogEvent();
+    event.message = "Types";
+    event.count = -42;
+    event.ratio = 0.5;
+    event.flag = true;
+    event.letter = 'x';
+    event.level = Thread.State.RUNNABLE;
+    event.tags = Arrays.asList("a", "b", null);
+    event.attributes = new LinkedHashMap<>();
+    event.attributes.put("one", 1);
+    event.attributes.put("two", "2");
+    event.numbers = new long[] {1, Long.MIN_VALUE, Long.MAX_VALUE};
+
+    assertSameAsJsonb(event);
+  }
+
+  /**
+   * Test that NaN and the infinities, which are not valid JSON numbers, are written as Strings.
+   */
+  @Test
+  public void testNonFiniteNumbers() {
+    final NonFiniteLogEvent event = new NonFiniteLogEvent();
+    event.nan = Double.NaN;
+    event.infinite = Float.POSITIVE_INFINITY;
+    event.boxedNan = Float.NaN;
+    event.boxedInfinite = Double.NEGATIVE_INFINITY;
+    event.values = Arrays.asList(1.5, Double.NaN, Float.NEGATIVE_INFINITY);
+
+    assertEquals("{\"boxedInfinite\":\"-Infinity\",\"boxedNan\":\"NaN\",\"infinite\":\"Infinity\","
+        + "\"nan\":\"NaN\",\"values\":[1.5,\"NaN\",\"-Infinity\"]}", JsonEncoder.toJson(event));
+  }
+
+  /**
+   * Test that serializing another object while an object is serialized, E.g. in a getter,
+   * does not overwrite the JSON of the outer object, nor the thread's {@link Utf8Buffer#local()}.
+   */
+  @Test
+  public void testNestedToJson() {
+    final Utf8Buffer line = Utf8Buffer.local().append("line");
+    final NestingLogEvent event = new NestingLogEvent();
+    event.message = "Outer";
+
+    assertEquals("{\"message\":\"Outer\",\"nested\":\"{\\\"message\\\":\\\"Inner\\\"}\"}",
+        JsonEncoder.toJson(event));
+    assertEquals("line", line.toString());
+    assertEquals("{\"message\":\"Outer\",\"nested\":\"{\\\"message\\\":\\\"Inner\\\"}\"}",
+        JsonEncoder.toJson(event));
+  }
+
+  /**
+   * Test that classes customized with other JSON-B annotations are serialized by JSON-B.
+   */
+  @Test
+  public void testJsonbCustomizations() {
+    final FormattedLogEvent formatted = new FormattedLogEvent();
+    formatted.message = "Formatted";
+    formatted.amount = 1234.5;
+    formatted.day = LocalDate.of(2020, 1, 31);
+
+    assertEquals(-1, JsonEncoder.forClass(FormattedLogEvent.class).getPropertyCount());
+    assertSameAsJsonb(formatted);
+    assertEquals("{\"message\":\"Formatted\",\"day\":\"31.01.2020\",\"amount\":\"1234.50\"}",
+        JsonEncoder.toJson(formatted));
+
+    final OrderedLogEvent ordered = new OrderedLogEvent();
+    ordered.message = "Ordered";
+    ordered.zebra = "z";
+    ordered.alpha = "a";
+    assertSameAsJsonb(ordered);
+    assertEquals("{\"message\":\"Ordered\",\"zebra\":\"z\",\"alpha\":\"a\"}", JsonEncoder.toJson(ordered));
+
+    // Only @JsonbTransient and @JsonbProperty, handled by the encoder
+    assertTrue(JsonEncoder.forClass(TypesLogEvent.class).getPropertyCount() > 0);
+  }
+
+  private void assertSameAsJsonb(Object event) {
+    final String expected = JSONB.toJson(event);
+    assertEquals(expected, JsonEncoder.toJson(event));
+
+    final Utf8Buffer buffer = new Utf8Buffer(16);
+    JsonEncoder.encode(event, buffer);
+    assertEquals(expected, new String(buffer.array(), 0, buffer.size(), StandardCharsets.UTF_8));
+  }
+
+  /**
+   * LogEvent with floating point values JSON cannot represent as numbers.
+   */
+  public static class NonFiniteLogEvent extends LogEvent {
+
+    public double nan;
+
+    public float infinite;
+
+    public Float boxedNan;
+
+    public Double boxedInfinite;
+
+    public List<Number> values;
+  }
+
+  /**
+   * LogEvent serializing another event in a getter.
+   */
+  public static class NestingLogEvent extends LogEvent {
+
+    public String getNested() {
+      final LogEvent inner = new LogEvent();
+      inner.message = "Inner";
+      return JsonEncoder.toJson(inner);
+    }
+  }
+
+  /**
+   * LogEvent with formatted properties.
+   */
+  @JsonbPropertyOrder({"day", "amount", "message"})
+  public static class FormattedLogEvent extends LogEvent {
+
+    @JsonbNumberFormat("#0.00")
+    public double amount;
+
+    @JsonbDateFormat("dd.MM.yyyy")
+    public LocalDate day;
+  }
+
+  /**
+   * LogEvent with a property order.
+   */
+  @JsonbPropertyOrder({"zebra", "alpha", "message"})
+  public static class OrderedLogEvent extends LogEvent {
+
+    public String alpha;
+
+    public String zebra;
+  }
+
+  /**
+   * LogEvent exercising the supported property types.
+   */
+  public static class TypesLogEvent extends LogEvent {
+
+    public int count;
+
+    public double ratio;
+
+    public boolean flag;
+
+    public char letter;
+
+    public Thread.State level;
+
+    public List<String> tags;
+
+    public Map<String, Object> attributes;
+
+    public long[] numbers;
+
+    @JsonbProperty(nillable = true)
+    public String nothing;
+
+    @JsonbTransient
+    public String hidden = "hidden";
+
+    private String secret = "secret";
+
+    public String getComputed() {
+      return "computed " + count;
+    }
+
+    @JsonbProperty("renamedGetter")
+    public String getSecret() {
+      return secret;
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test parsing and registering Levels.
+ */
+public class LevelTest {
+
+  /**
+   * Test that names and values resolve to the predefined Levels.
+   */
+  @Test
+  public void testParse() {
+    assertSame(Level.INFO, Level.parse("INFO"));
+    assertSame(Level.INFO, Level.parse("800"));
+    assertSame(Level.OFF, Level.parse(Integer.toString(Integer.MAX_VALUE)));
+    assertSame(Level.ALL, Level.parse("ALL"));
+    assertThrows(IllegalArgumentException.class, () -> Level.parse("info"));
+    assertThrows(IllegalArgumentException.class, () -> Level.parse(null));
+  }
+
+  /**
+   * Test that a custom Level is registered once, also when parsed concurrently,
+   * and is then found by name and value.
+   *
+   * @throws Exception If a parsing thread failed.
+   */
+  @Test
+  public void testCustomLevelInterned() throws Exception {
+    final ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<Level>> parsed = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        parsed.add(pool.submit(() -> Level.parse("850")));
+      }
+      final Level custom = parsed.get(0).get();
+      for (Future<Level> level : parsed) {
+        assertSame(custom, level.get());
+      }
+      assertEquals("850", custom.getName());
+      assertEquals(850, custom.intValue());
+      assertSame(custom, Level.parse("0850"));
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test the hierarchical resolution of Logger Levels.
+ */
+public class LevelTreeTest {
+
+  @AfterEach
+  public void resetLevels() {
+    Configuration.setLevel("com.example", null);
+    Configuration.setLevel("com.example.orders", null);
+  }
+
+  /**
+   * Test that a name resolves to the Level of its longest configured prefix.
+   */
+  @Test
+  public void testLongestPrefix() {
+    final Map<String, Level> levels = new HashMap<>();
+    levels.put("com.example", Level.WARN);
+    levels.put("com.example.orders", Level.DEBUG);
+    final LevelTree tree = new LevelTree(Level.INFO, levels);
+
+    assertEquals(Level.INFO, tree.resolve("org.example.Service"));
+    assertEquals(Level.INFO, tree.resolve("com"));
+    assertEquals(Level.WARN, tree.resolve("com.example"));
+    assertEquals(Level.WARN, tree.resolve("com.example.Service"));
+    assertEquals(Level.WARN, tree.resolve("com.example.ordersx.Service"));
+    assertEquals(Level.DEBUG, tree.resolve("com.example.orders.Service"));
+    assertEquals(Level.DEBUG, tree.resolve("com.example.orders.impl.Service"));
+    assertEquals(Level.INFO, tree.resolve(""));
+  }
+
+  /**
+   * Test that Loggers update their cached Level when a prefix Level is set.
+   */
+  @Test
+  public void testLoggerLevelUpdated() {
+    final Supplier<LogEvent> supplier = new LogEventSupplier();
+    final Logger<LogEvent> orders = new LevelLogger("com.example.orders.Service", supplier);
+    final Logger<LogEvent> other = new LevelLogger("com.example.Service", supplier);
+
+    assertTrue(orders.isLoggable(Level.INFO));
+    assertFalse(orders.isLoggable(Level.DEBUG));
+
+    Configuration.setLevel("com.example", Level.ERROR);
+    Configuration.setLevel("com.example.orders", Level.DEBUG);
+
+    assertTrue(orders.isLoggable(Level.DEBUG));
+    assertFalse(other.isLoggable(Level.WARN));
+    assertTrue(other.isLoggable(Level.ERROR));
+
+    Configuration.setLevel("com.example.orders", Level.OFF);
+    assertFalse(orders.isLoggable(Level.ERROR));
+
+    Configuration.setLevel("com.example.orders", null);
+    assertFalse(orders.isLoggable(Level.WARN));
+    assertTrue(orders.isLoggable(Level.ERROR));
+  }
+
+  /**
+   * Test that a Level set after a Logger is created, but before it is first used, applies.
+   */
+  @Test
+  public void testLevelSetBeforeFirstUse() {
+    final Logger<LogEvent> unused = new LevelLogger("com.example.unused.Service", new LogEventSupplier());
+    Configuration.setLevel("com.example.unused", Level.DEBUG);
+    try {
+      assertTrue(unused.isLoggable(Level.DEBUG));
+    } finally {
+      Configuration.setLevel("com.example.unused", null);
+    }
+    assertFalse(unused.isLoggable(Level.DEBUG));
+  }
+
+  /**
+   * Logger relying on the Level configuration of {@link AbstractLogger}.
+   */
+  private static class LevelLogger extends AbstractLogger<LogEvent> {
+
+    LevelLogger(String name, Supplier<LogEvent> supplier) {
+      super(name, supplier);
+    }
+
+    @Override
+    public void writeLog(Level lvl, LogEvent event) {
+      // Only the Level is of interest.
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test attaching a {@link LogContext} to events and propagating it to other threads.
+ */
+public class LogContextTest {
+
+  /**
+   * Test that the current context is attached to events and serialized,
+   * and that the previous context is restored when the scope is closed.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testAttachedToEvents(TestInfo info) {
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    final LogContext context = LogContext.current().with("tenant", "acme \"corp\"").with("requestId", 42L);
+
+    try (LogContext.Scope outer = context.attach()) {
+      log.info(e -> "Outer");
+      try (LogContext.Scope inner = context.with("requestId", 43L).without("tenant").attach()) {
+        log.info(e -> "Inner");
+      }
+      assertSame(context, LogContext.current());
+    }
+    assertSame(LogContext.EMPTY, LogContext.current());
+    log.info(e -> "Outside");
+
+    assertEquals("{\"context\":{\"tenant\":\"acme \\\"corp\\\"\",\"requestId\":42},\"message\":\"Outer\"}",
+                 JsonEncoder.toJson(log.events.get(0)));
+    assertEquals("{\"context\":{\"requestId\":43},\"message\":\"Inner\"}", JsonEncoder.toJson(log.events.get(1)));
+    assertNull(log.events.get(2).context);
+    assertEquals("acme \"corp\"", context.get("tenant"));
+    assertEquals("42", context.get("requestId"));
+  }
+
+  /**
+   * Test that the context is propagated to the stages of a CompletableFuture run by a wrapped executor,
+   * and is not left on the executor threads.
+   *
+   * @param info Test information.
+   * @throws ExecutionException If a stage failed.
+   * @throws InterruptedException If interrupted whilst waiting for the stages.
+   */
+  @Test
+  public void testPropagatedByExecutor(TestInfo info) throws ExecutionException, InterruptedException {
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    final ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      final CompletableFuture<String> result;
+      try (LogContext.Scope scope = LogContext.current().with("requestId", "r-1").attach()) {
+        result = CompletableFuture.supplyAsync(() -> {
+          log.info(e -> "Supplied");
+          return "value";
+        }, LogContext.wrapExecutor(pool)).thenApplyAsync(value -> {
+          log.info(e -> "Applied");
+          return LogContext.current().get("requestId");
+        }, LogContext.wrapExecutor(pool));
+      }
+
+      assertEquals("r-1", result.get());
+      assertEquals(2, log.events.size());
+      for (LogEvent event : log.events) {
+        assertEquals("r-1", event.context.get("requestId"));
+      }
+      assertSame(LogContext.EMPTY, pool.submit(LogContext::current).get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static class RecordingLogger extends AbstractLogger<LogEvent> {
+
+    private final List<LogEvent> events = Collections.synchronizedList(new ArrayList<>());
+
+    RecordingLogger(String name) {
+      super(name, new LogEventSupplier());
+    }
+
+    @Override
+    public boolean isLoggable(Level lvl) {
+      return true;
+    }
+
+    @Override
+    public void writeLog(Level lvl, LogEvent event) {
+      events.add(event);
+    }
+  }
+}
@@ -0,0 +1,251 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test the collapsing of identical events by a {@link LogDeduplicator}.
+ */
+public class LogDeduplicatorTest {
+
+  /**
+   * Test that identical events within the window are collapsed and reported
+   * on the first event of the next window.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testBurstCollapsed(TestInfo info) {
+    final AtomicLong clock = new AtomicLong(1_000);
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    log.setDeduplicator(new LogDeduplicator(1, TimeUnit.SECONDS, 16, clock::get));
+
+    for (int i = 0; i < 5; i++) {
+      clock.addAndGet(10);
+      logFailure(log, "Failure " + i);
+    }
+    assertEquals(1, log.events.size());
+    assertEquals("Failure 0", log.events.get(0).message);
+    assertNull(log.events.get(0).occurrences);
+
+    clock.addAndGet(1_000);
+    logFailure(log, "Failure after window");
+
+    assertEquals(2, log.events.size());
+    final LogEvent summary = log.events.get(1);
+    assertEquals("Failure after window", summary.message);
+    assertEquals(Long.valueOf(5), summary.occurrences);
+    assertEquals(Long.valueOf(1_010), summary.firstOccurrence);
+    assertEquals(Long.valueOf(1_050), summary.lastOccurrence);
+    assertEquals(4, log.getDeduplicator().getDuplicateCount());
+  }
+
+  /**
+   * Test that events of different Levels, call sites or throwable types are not collapsed.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testFingerprint(TestInfo info) {
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    log.setDeduplicator(new LogDeduplicator(1, TimeUnit.MINUTES));
+
+    for (int i = 0; i < 3; i++) {
+      final boolean even = i % 2 == 0;
+      logFailure(log, "Failure");
+      log.error(e -> {
+        e.throwable = new IllegalStateException();
+        return "Other call site";
+      });
+      log.error(e -> {
+        e.throwable = even ? new IllegalStateException() : new IllegalArgumentException();
+        return "Throwable type";
+      });
+    }
+
+    assertEquals(4, log.events.size());
+    assertEquals("Failure", log.events.get(0).message);
+    assertEquals("Other call site", log.events.get(1).message);
+    assertEquals("Throwable type", log.events.get(2).message);
+    assertEquals(IllegalArgumentException.class, log.events.get(3).throwable.getClass());
+  }
+
+  /**
+   * Test that events of a {@link CapturingLogFunction} are collapsed.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testCapturingLogFunction(TestInfo info) {
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    log.setDeduplicator(new LogDeduplicator(1, TimeUnit.MINUTES));
+
+    for (int i = 0; i < 3; i++) {
+      log.log(Level.WARN, i, (e, count) -> "Warning " + count);
+    }
+
+    assertEquals(1, log.events.size());
+    assertEquals("Warning 0", log.events.get(0).message);
+  }
+
+  /**
+   * Test that a burst which is not followed by an identical event is reported
+   * by a summary event once the window has ended.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testEndedBurstSummarized(TestInfo info) {
+    final AtomicLong clock = new AtomicLong(1_000);
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    log.setDeduplicator(new LogDeduplicator(1, TimeUnit.SECONDS, 16, clock::get));
+
+    for (int i = 0; i < 3; i++) {
+      clock.addAndGet(10);
+      logFailure(log, "Failure " + i);
+    }
+    assertEquals(1, log.events.size());
+
+    clock.addAndGet(1_000);
+    log.info(e -> "After window");
+
+    // The summary is written before the event which triggered the sweep
+    assertEquals(3, log.events.size());
+    final LogEvent summary = log.events.get(1);
+    assertEquals(Level.ERROR, log.levels.get(1));
+    assertEquals("Failure 0", summary.message);
+    assertEquals(Long.valueOf(3), summary.occurrences);
+    assertEquals(Long.valueOf(1_010), summary.firstOccurrence);
+    assertEquals(Long.valueOf(1_030), summary.lastOccurrence);
+    assertEquals("After window", log.events.get(2).message);
+
+    // Reported once only
+    clock.addAndGet(1_000);
+    log.info(e -> "Later");
+    log.getDeduplicator().flush();
+    assertEquals(4, log.events.size());
+  }
+
+  /**
+   * Test that a window evicted by another fingerprint hashing to the same slot is reported.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testEvictedWindowSummarized(TestInfo info) {
+    final AtomicLong clock = new AtomicLong(1_000);
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    log.setDeduplicator(new LogDeduplicator(1, TimeUnit.MINUTES, 1, clock::get));
+
+    logFailure(log, "Failure");
+    logFailure(log, "Failure");
+    clock.addAndGet(10);
+    log.warn(e -> "Evicting");
+
+    assertEquals(3, log.events.size());
+    final LogEvent summary = log.events.get(1);
+    assertEquals("Failure", summary.message);
+    assertEquals(Long.valueOf(2), summary.occurrences);
+    assertEquals("Evicting", log.events.get(2).message);
+    assertNull(log.events.get(2).occurrences);
+  }
+
+  /**
+   * Test that closing the deduplicator reports the windows with duplicates, ended or not,
+   * and that windows without duplicates are not reported.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testCloseSummarizesPendingWindows(TestInfo info) {
+    final AtomicLong clock = new AtomicLong(1_000);
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    final LogDeduplicator deduplicator = new LogDeduplicator(1, TimeUnit.MINUTES, 16, clock::get);
+    log.setDeduplicator(deduplicator);
+
+    // Logged first, so that evicting it would not report it
+    log.info(e -> "Single");
+    logFailure(log, "Failure");
+    clock.addAndGet(10);
+    logFailure(log, "Failure");
+    deduplicator.close();
+
+    assertEquals(3, log.events.size());
+    assertEquals("Failure", log.events.get(2).message);
+    assertEquals(Long.valueOf(2), log.events.get(2).occurrences);
+    assertEquals(Long.valueOf(1_010), log.events.get(2).lastOccurrence);
+
+    // The fingerprints are forgotten
+    logFailure(log, "Failure");
+    assertEquals(4, log.events.size());
+    assertNull(log.events.get(3).occurrences);
+  }
+
+  /**
+   * Test that a call site shared by two Loggers with one deduplicator is deduplicated per Logger,
+   * and that the summary of each is written by its own Logger.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testSharedCallSitePerLogger(TestInfo info) {
+    final AtomicLong clock = new AtomicLong(1_000);
+    // Large enough for the two fingerprints not to share a slot
+    final LogDeduplicator deduplicator = new LogDeduplicator(1, TimeUnit.MINUTES, 1 << 20, clock::get);
+    final RecordingLogger first = new RecordingLogger(info.getDisplayName() + ".first");
+    final RecordingLogger second = new RecordingLogger(info.getDisplayName() + ".second");
+    first.setDeduplicator(deduplicator);
+    second.setDeduplicator(deduplicator);
+    final LogFunction<LogEvent> shared = e -> "Shared";
+
+    for (int i = 0; i < 2; i++) {
+      first.warn(shared);
+      second.warn(shared);
+      second.warn(shared);
+    }
+    deduplicator.close();
+
+    assertEquals(2, first.events.size());
+    assertEquals(Long.valueOf(2), first.events.get(1).occurrences);
+    assertEquals(2, second.events.size());
+    assertEquals(Long.valueOf(4), second.events.get(1).occurrences);
+  }
+
+  private static void logFailure(RecordingLogger log, String message) {
+    log.error(e -> {
+      e.throwable = new IllegalStateException();
+      return message;
+    });
+  }
+
+  /**
+   * Logger recording all the events it was given.
+   */
+  private static class RecordingLogger extends AbstractLogger<LogEvent> {
+
+    private final List<LogEvent> events = new ArrayList<>();
+    private final List<Level> levels = new ArrayList<>();
+
+    RecordingLogger(String name) {
+      super(name, new LogEventSupplier());
+    }
+
+    @Override
+    public boolean isLoggable(Level lvl) {
+      return true;
+    }
+
+    @Override
+    public void writeLog(Level lvl, LogEvent event) {
+      events.add(event);
+      levels.add(lvl);
+    }
+  }
+}
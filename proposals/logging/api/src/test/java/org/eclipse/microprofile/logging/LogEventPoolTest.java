@@ -0,0 +1,143 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.microprofile.logging.AsyncDispatcher.OverflowPolicy;
+import org.eclipse.microprofile.logging.specialized.SpecializedLogEvent;
+import org.eclipse.microprofile.logging.specialized.SpecializedLogEventSupplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test the re-use of LogEvents supplied by a {@link LogEventPool}.
+ */
+public class LogEventPoolTest {
+
+  /**
+   * Test that a released event is supplied again, cleared of its previous data.
+   */
+  @Test
+  public void testReleasedEventIsReused() {
+    final LogEventPool<SpecializedLogEvent> pool = new LogEventPool<>(new SpecializedLogEventSupplier());
+    final SpecializedLogEvent event = pool.get();
+    event.message = "message";
+    event.version = 3;
+    event.name = "name";
+
+    pool.release(event);
+    final SpecializedLogEvent reused = pool.get();
+
+    assertSame(event, reused);
+    assertNull(reused.message);
+    assertNull(reused.name);
+    assertEquals(0, reused.version);
+    assertNotSame(reused, pool.get());
+  }
+
+  /**
+   * Test that events released on another thread are re-used.
+   *
+   * @throws InterruptedException If interrupted whilst waiting for the other thread.
+   */
+  @Test
+  public void testEventReleasedOnOtherThreadIsReused() throws InterruptedException {
+    final LogEventPool<LogEvent> pool = new LogEventPool<>(new LogEventSupplier(), 4, 2);
+    final LogEvent event = pool.get();
+
+    final Thread releaser = new Thread(() -> pool.release(event));
+    releaser.start();
+    releaser.join();
+
+    assertSame(event, pool.get());
+  }
+
+  /**
+   * Test that a Logger releases each event once it has been written.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testLoggerReleasesWrittenEvents(TestInfo info) {
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+
+    log.info(e -> "First");
+    log.info(e -> "Second");
+
+    assertEquals(2, log.messages.size());
+    assertEquals("First", log.messages.get(0));
+    assertEquals("Second", log.messages.get(1));
+    assertSame(log.events.get(0), log.events.get(1));
+  }
+
+  /**
+   * Test that the event of a log function which throws is released.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testEventReleasedWhenLogFunctionThrows(TestInfo info) {
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    final List<LogEvent> failed = new ArrayList<>();
+
+    assertThrows(IllegalStateException.class, () -> log.info(e -> {
+      failed.add(e);
+      throw new IllegalStateException("Failed");
+    }));
+    assertThrows(IllegalStateException.class, () -> log.log(Level.INFO, "args", (e, args) -> {
+      failed.add(e);
+      throw new IllegalStateException("Failed");
+    }));
+    log.info(e -> "Written");
+
+    assertEquals(2, failed.size());
+    assertSame(failed.get(0), failed.get(1));
+    assertSame(failed.get(0), log.events.get(0));
+  }
+
+  /**
+   * Test that events written on the consumer thread of an {@link AsyncDispatcher} are released.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testAsyncWrittenEventsReleased(TestInfo info) {
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    try (AsyncDispatcher dispatcher = new AsyncDispatcher(8, OverflowPolicy.BLOCK)) {
+      log.setDispatcher(dispatcher);
+      log.info(e -> "Async");
+    }
+
+    assertEquals(1, log.messages.size());
+    assertNull(log.events.get(0).message);
+  }
+
+  /**
+   * Logger recording the messages and the identity of the events it was given.
+   */
+  private static class RecordingLogger extends AbstractLogger<LogEvent> {
+
+    private final List<String> messages = new ArrayList<>();
+    private final List<LogEvent> events = new ArrayList<>();
+
+    RecordingLogger(String name) {
+      super(name, new LogEventPool<>(new LogEventSupplier()));
+    }
+
+    @Override
+    public boolean isLoggable(Level lvl) {
+      return true;
+    }
+
+    @Override
+    public void writeLog(Level lvl, LogEvent event) {
+      messages.add(event.message);
+      events.add(event);
+    }
+  }
+}
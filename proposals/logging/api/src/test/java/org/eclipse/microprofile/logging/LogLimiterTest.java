@@ -0,0 +1,130 @@
+package org.eclipse.microprofile.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.logging.LogLimiter.Scope;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test the sampling and rate limiting of log statements by a {@link LogLimiter}.
+ */
+public class LogLimiterTest {
+
+  /**
+   * Test that one in N events is emitted, that suppressed statements do not invoke
+   * the log function and that the suppressed count is reported on the next event.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testSampling(TestInfo info) {
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    log.setLimiter(LogLimiter.sampling(Scope.LOGGER, 3));
+
+    final AtomicInteger invocations = new AtomicInteger();
+    for (int i = 0; i < 7; i++) {
+      log.warn(e -> "Sampled " + invocations.incrementAndGet());
+    }
+
+    assertEquals(3, invocations.get());
+    assertEquals(3, log.events.size());
+    assertNull(log.events.get(0).suppressed);
+    assertEquals(Long.valueOf(2), log.events.get(1).suppressed);
+    assertEquals(Long.valueOf(2), log.events.get(2).suppressed);
+    assertEquals(4, log.getLimiter().getSuppressedCount());
+  }
+
+  /**
+   * Test that a burst is permitted, further events are suppressed until the
+   * bucket has refilled and the suppressed count is then reported.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testRateLimiting(TestInfo info) {
+    final AtomicLong clock = new AtomicLong();
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    log.setLimiter(new LogLimiter(Scope.LOGGER, 1, 10, 2, clock::get));
+
+    for (int i = 0; i < 5; i++) {
+      log.info(e -> "Burst");
+    }
+    assertEquals(2, log.events.size());
+
+    // One event every 100ms
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+    log.info(e -> "Refilled");
+    log.info(e -> "Suppressed");
+
+    assertEquals(3, log.events.size());
+    assertEquals("Refilled", log.events.get(2).message);
+    assertEquals(Long.valueOf(3), log.events.get(2).suppressed);
+    assertEquals(4, log.getLimiter().getSuppressedCount());
+  }
+
+  /**
+   * Test that call sites have separate budgets when limited per call site.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testCallSiteScope(TestInfo info) {
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    log.setLimiter(LogLimiter.rateLimiting(Scope.CALL_SITE, 0.001, 1));
+
+    for (int i = 0; i < 3; i++) {
+      log.info(e -> "First call site");
+      log.info(e -> "Second call site");
+    }
+
+    assertEquals(2, log.events.size());
+    assertEquals("First call site", log.events.get(0).message);
+    assertEquals("Second call site", log.events.get(1).message);
+  }
+
+  /**
+   * Test that explicit Span logging is not limited.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testSpanNotLimited(TestInfo info) {
+    final RecordingLogger log = new RecordingLogger(info.getDisplayName());
+    log.setLimiter(LogLimiter.rateLimiting(Scope.LOGGER, 0.001, 1));
+
+    for (int i = 0; i < 3; i++) {
+      log.span(e -> "Span");
+    }
+
+    assertEquals(3, log.events.size());
+  }
+
+  /**
+   * Logger recording all the events it was given.
+   */
+  private static class RecordingLogger extends AbstractLogger<LogEvent> {
+
+    private final List<LogEvent> events = new ArrayList<>();
+
+    RecordingLogger(String name) {
+      super(name, new LogEventSupplier());
+    }
+
+    @Override
+    public boolean isLoggable(Level lvl) {
+      return true;
+    }
+
+    @Override
+    public void writeLog(Level lvl, LogEvent event) {
+      events.add(event);
+    }
+  }
+}
@@ -5,6 +5,7 @@ import org.eclipse.microprofile.logging.specialized.SpecializedLogEventSupplier;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -64,4 +65,39 @@ public class LoggerRegistryTest {
     final Logger originalLogger = LoggerFactory.getLogger();
     assertTrue(logEventLogger == originalLogger);
   }
+  
+  /**
+   * Test that a Logger accessed without a name is named after the class asking for it.
+   */
+  @Test
+  public void testImplicitNameIsCallingClass() {
+    final LoggerRegistry registry = new LoggerRegistry();
+    final LogEventSupplier supplier = new LogEventSupplier();
+    
+    final Logger<LogEvent> logger = registry.getLogger(supplier, key -> new MockLogger(key.getName(), supplier));
+    assertEquals(LoggerRegistryTest.class.getName(), logger.getName());
+    
+    final Logger<LogEvent> nestedLogger = new NestedClass().getLogger(registry, supplier);
+    assertEquals(NestedClass.class.getName(), nestedLogger.getName());
+  }
+  
+  /**
+   * Test that a Logger accessed by class is the one named after the class.
+   */
+  @Test
+  public void testLoggerByClass() {
+    assertTrue(LoggerFactory.getLogger() == LoggerFactory.getLogger(LoggerRegistryTest.class));
+    assertEquals(NestedClass.class.getName(), LoggerFactory.getLogger(NestedClass.class).getName());
+
+    final SpecializedLogEventSupplier supplier = new SpecializedLogEventSupplier();
+    final Logger<SpecializedLogEvent> specialized = LoggerFactory.getLogger(LoggerRegistryTest.class, supplier);
+    assertTrue(specialized == LoggerFactory.getLogger(LoggerRegistryTest.class.getName(), supplier));
+  }
+
+  private static class NestedClass {
+    
+    Logger<LogEvent> getLogger(LoggerRegistry registry, LogEventSupplier supplier) {
+      return registry.getLogger(supplier, key -> new MockLogger(key.getName(), supplier));
+    }
+  }
 }
@@ -0,0 +1,150 @@
+package org.eclipse.microprofile.logging;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.eclipse.microprofile.logging.AsyncDispatcher.OverflowPolicy;
+import org.eclipse.microprofile.logging.LogLimiter.Scope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test the collection of {@link LoggingMetrics}.
+ */
+public class LoggingMetricsTest {
+
+  @AfterEach
+  public void afterEach() {
+    LoggingMetrics.disable();
+  }
+
+  /**
+   * Test the event counts, suppressed count and latencies recorded by a Logger
+   * created before the metrics were enabled.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testLoggerMetrics(TestInfo info) {
+    final CountingLogger log = new CountingLogger(info.getDisplayName());
+    log.info(e -> "Before metrics are enabled");
+
+    final LoggingMetrics metrics = LoggingMetrics.enable();
+    assertSame(metrics, LoggingMetrics.get());
+
+    log.info(e -> "Info");
+    log.warn(e -> "Warn");
+    log.debug(e -> "Not loggable");
+    log.setLimiter(LogLimiter.sampling(Scope.LOGGER, 2));
+    log.warn(e -> "Sampled");
+    log.warn(e -> "Suppressed");
+
+    assertEquals(Long.valueOf(1), metrics.getEventCountsByLevel().get("INFO"));
+    assertEquals(Long.valueOf(2), metrics.getEventCountsByLevel().get("WARN"));
+    assertFalse(metrics.getEventCountsByLevel().containsKey("DEBUG"));
+    assertEquals(Long.valueOf(3), metrics.getEventCountsByLogger().get(info.getDisplayName()));
+    assertEquals(1, metrics.getSuppressedCount());
+    assertEquals(3, metrics.getWriteCount());
+    assertEquals(3, metrics.getSerializationCount());
+    assertTrue(metrics.getWriteLatencyMax() >= metrics.getSerializationTimeMax());
+    assertTrue(metrics.getWriteLatency99thPercentile() <= metrics.getWriteLatencyMax());
+  }
+
+  /**
+   * Test that nothing is recorded once the metrics are disabled.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testDisabled(TestInfo info) {
+    final CountingLogger log = new CountingLogger(info.getDisplayName());
+    LoggingMetrics.enable();
+    LoggingMetrics.disable();
+    assertNull(LoggingMetrics.get());
+
+    log.info(e -> "Not counted");
+
+    final LoggingMetrics metrics = LoggingMetrics.enable();
+    assertEquals(Long.valueOf(0), metrics.getEventCountsByLogger().getOrDefault(info.getDisplayName(), 0L));
+    assertEquals(0, metrics.getWriteCount());
+  }
+
+  /**
+   * Test the queue depth and dropped count of an {@link AsyncDispatcher}, read through JMX.
+   *
+   * @param info Test information.
+   * @throws Exception If the MBean cannot be read.
+   */
+  @Test
+  public void testAsyncMetricsThroughJmx(TestInfo info) throws Exception {
+    LoggingMetrics.enable();
+    final CountingLogger log = new CountingLogger(info.getDisplayName());
+    final CountDownLatch release = new CountDownLatch(1);
+    log.block = release;
+
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = new ObjectName(LoggingMetrics.OBJECT_NAME);
+    // Other dispatchers may not have been garbage collected yet
+    final long previouslyDropped = (Long) server.getAttribute(name, "DroppedCount");
+    final long previouslyFailed = (Long) server.getAttribute(name, "FailedCount");
+    try (AsyncDispatcher dispatcher = new AsyncDispatcher(2, OverflowPolicy.DROP_NEWEST)) {
+      log.setDispatcher(dispatcher);
+      try {
+        log.info(e -> "Blocking");
+        while (log.writing.getCount() > 0) {
+          Thread.yield();
+        }
+        log.info(e -> "Queued");
+        log.info(e -> "Queued");
+        log.info(e -> "Dropped");
+
+        assertEquals(2, server.getAttribute(name, "AsyncQueueDepth"));
+        assertEquals(previouslyDropped + 1, server.getAttribute(name, "DroppedCount"));
+        assertEquals(previouslyFailed, server.getAttribute(name, "FailedCount"));
+      } finally {
+        // Release the consumer before the dispatcher is closed
+        release.countDown();
+      }
+    }
+  }
+
+  /**
+   * Logger serializing each event, optionally blocking on the first one.
+   */
+  private static class CountingLogger extends AbstractLogger<LogEvent> {
+
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private volatile CountDownLatch block;
+
+    CountingLogger(String name) {
+      super(name, new LogEventSupplier());
+    }
+
+    @Override
+    public boolean isLoggable(Level lvl) {
+      return lvl.intValue() >= Level.INFO.intValue();
+    }
+
+    @Override
+    public void writeLog(Level lvl, LogEvent event) {
+      getJsonString(event);
+      writing.countDown();
+      final CountDownLatch latch = block;
+      if (latch != null) {
+        try {
+          latch.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+}
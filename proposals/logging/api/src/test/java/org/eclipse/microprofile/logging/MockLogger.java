@@ -25,14 +25,24 @@ public class MockLogger<T extends LogEvent> extends AbstractLogger<T> {
     logEvents.add(event);
     final StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
     int lineNumber = 0;
-    if (stackTrace.length >= 4) {
-      StackTraceElement elem = stackTrace[4];
-      lineNumber = elem.getLineNumber();
+    for (int i = 2; i < stackTrace.length; i++) {
+      // Skip the logging frames to find the log statement
+      final StackTraceElement elem = stackTrace[i];
+      if (!elem.getClassName().equals(AbstractLogger.class.getName())) {
+        lineNumber = elem.getLineNumber();
+        break;
+      }
     }
     
     System.out.println(String.format("%-5s %s:%d - %s", lvl, getName(), lineNumber, getJsonString(event)));
   }
   
+  @Override
+  protected boolean isRetainingEvents() {
+    // Events are kept for the tests to interrogate.
+    return true;
+  }
+  
   public static void setLevel(Level lvl) {
     LEVEL = lvl;
   }
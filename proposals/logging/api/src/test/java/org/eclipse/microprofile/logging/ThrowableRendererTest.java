@@ -0,0 +1,122 @@
+package org.eclipse.microprofile.logging;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test the rendering of stack traces by {@link ThrowableRenderer}.
+ */
+public class ThrowableRendererTest {
+
+  /**
+   * Test that the output matches {@link Throwable#printStackTrace()} within the limits,
+   * including the folding of the frames shared by a cause.
+   */
+  @Test
+  public void testSameAsPrintStackTrace() {
+    final Throwable thrown = new IllegalStateException("Outer", new IOException("Inner é"));
+    final StringWriter expected = new StringWriter();
+    thrown.printStackTrace(new PrintWriter(expected));
+
+    // Module and class loader names, shown by printStackTrace() from Java 9, are not rendered
+    final String text = expected.toString().replace(System.lineSeparator(), "\n").replaceAll("\tat [^\\s(]*/", "\tat ");
+
+    final ThrowableRenderer renderer = new ThrowableRenderer(1024, 8, 16);
+    assertEquals(text, renderer.render(thrown));
+    // Rendered from the cache
+    assertEquals(text, renderer.render(thrown));
+  }
+
+  /**
+   * Test that the frames and causes are capped.
+   */
+  @Test
+  public void testLimits() {
+    Throwable thrown = new IllegalArgumentException("Root");
+    for (int i = 0; i < 5; i++) {
+      thrown = new IllegalStateException("Level " + i, thrown);
+    }
+
+    final String rendered = new ThrowableRenderer(2, 1, 0).render(thrown);
+    assertTrue(rendered.startsWith("java.lang.IllegalStateException: Level 4\n\tat "), rendered);
+    assertTrue(rendered.contains(" frames omitted\nCaused by: java.lang.IllegalStateException: Level 3\n"), rendered);
+    assertTrue(rendered.endsWith("\t... further causes omitted\n"), rendered);
+    // Only the frames of the outer exception, those of the cause are all in common
+    assertEquals(3, rendered.split("\tat ", -1).length, rendered);
+  }
+
+  /**
+   * Test that a cached rendering is not used for a throwable with the same
+   * class and top frame but different frames.
+   */
+  @Test
+  public void testCacheChecksFrames() {
+    final ThrowableRenderer renderer = new ThrowableRenderer(64, 8, 1);
+    final String direct = renderer.render(create());
+    final String nested = renderer.render(nested());
+
+    assertTrue(direct.contains("testCacheChecksFrames"), direct);
+    assertTrue(nested.contains(".nested("), nested);
+    assertFalse(direct.contains(".nested("), direct);
+  }
+
+  /**
+   * Test that a cause cycle terminates.
+   */
+  @Test
+  public void testCauseCycle() {
+    final IllegalStateException first = new IllegalStateException("First");
+    final IllegalStateException second = new IllegalStateException("Second", first);
+    first.initCause(second);
+
+    final String rendered = new ThrowableRenderer(64, 8, 16).render(first);
+    assertEquals(2, rendered.split("Caused by", -1).length);
+  }
+
+  /**
+   * Test that rendered text can be embedded in JSON.
+   */
+  @Test
+  public void testJsonString() {
+    final Utf8Buffer text = new Utf8Buffer();
+    ThrowableRenderer.DEFAULT.render(new IllegalStateException("Quote \" tab \t é"), text);
+
+    final Utf8Buffer json = new Utf8Buffer();
+    json.appendJsonString(text.array(), 0, text.size());
+    assertEquals(new Utf8Buffer().appendJsonString(text.toString()).toString(), json.toString());
+  }
+
+  /**
+   * Test that rendering to a String leaves the buffer of {@link Utf8Buffer#local()} alone,
+   * E.g. when an exception message renders another throwable.
+   */
+  @Test
+  public void testRenderKeepsLocalBuffer() {
+    final Utf8Buffer local = Utf8Buffer.local().append("Written by the caller");
+    final Throwable inner = new IllegalArgumentException("Inner");
+    final Throwable outer = new IllegalStateException("Outer") {
+      @Override
+      public String getLocalizedMessage() {
+        return ThrowableRenderer.DEFAULT.render(inner).trim();
+      }
+    };
+
+    final String text = ThrowableRenderer.DEFAULT.render(outer);
+    assertEquals("Written by the caller", local.toString());
+    assertTrue(text.contains("java.lang.IllegalArgumentException: Inner"));
+  }
+
+  private static Throwable create() {
+    return new IllegalStateException("Failure");
+  }
+
+  private static Throwable nested() {
+    return create();
+  }
+}
@@ -1,8 +1,10 @@
 package org.eclipse.microprofile.logging.span;
 
 import io.opentracing.Tracer;
+import io.opentracing.log.Fields;
 import io.opentracing.mock.MockSpan;
 import io.opentracing.mock.MockTracer;
+import java.util.Map;
 import javax.enterprise.inject.spi.Bean;
 import org.eclipse.microprofile.logging.Configuration;
 import org.eclipse.microprofile.logging.LazyEval;
@@ -10,6 +12,7 @@ import org.eclipse.microprofile.logging.Level;
 import org.eclipse.microprofile.logging.Logger;
 import org.eclipse.microprofile.logging.LoggerFactory;
 import org.eclipse.microprofile.logging.MockLoggerFactory;
+import org.eclipse.microprofile.logging.SpanLogBatch;
 import org.eclipse.microprofile.logging.Utils;
 import org.jboss.weld.junit.MockBean;
 import org.jboss.weld.junit5.WeldInitiator;
@@ -22,6 +25,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -205,6 +209,59 @@ public class SpanLoggingTest {
     Utils.assertLogCount(log, 1);
   }
 
+  /**
+   * Test that a level pushed to the Configuration is picked up by existing Loggers.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testSpanImplicitLevelPushed(TestInfo info) {
+    setSpanImplicitLevel(Level.OFF);
+
+    final MockSpan span = initSpan(info.getDisplayName());
+    log.debug(e -> "Not sent to the Span");
+    assertTrue(span.logEntries().isEmpty(), "Unexpected Log Entries");
+
+    try {
+      Configuration.set(Configuration.SPAN_IMPLICIT_LEVEL, Level.DEBUG);
+      log.debug(e -> "Sent to the Span");
+      assertTrue(span.logEntries().size() == 1, "Unexpected number of Log Entries[" + span.logEntries().size() + "]");
+    } finally {
+      Configuration.set(Configuration.SPAN_IMPLICIT_LEVEL, null);
+    }
+
+    log.debug(e -> "Not sent to the Span");
+    assertTrue(span.logEntries().size() == 1, "Unexpected number of Log Entries[" + span.logEntries().size() + "]");
+  }
+
+  /**
+   * Test that the Span log data of the statements within a {@link SpanLogBatch}
+   * are sent to the Span as a single log entry.
+   *
+   * @param info Test information.
+   */
+  @Test
+  public void testSpanLogBatch(TestInfo info) {
+    setSpanImplicitLevel(Level.OFF);
+
+    final MockSpan span = initSpan(info.getDisplayName());
+    try (SpanLogBatch batch = SpanLogBatch.open()) {
+      log.span(e -> "First");
+      log.span(e -> {
+        e.throwable = new IllegalStateException("Second");
+        return "Second";
+      });
+      assertTrue(span.logEntries().isEmpty(), "Unexpected Log Entries");
+    }
+
+    assertEquals(1, span.logEntries().size());
+    final Map<String, ?> fields = span.logEntries().get(0).fields();
+    assertEquals("First", fields.get(Fields.MESSAGE));
+    assertEquals("error", fields.get(Fields.EVENT + ".1"));
+    assertEquals("Second", fields.get(Fields.MESSAGE + ".1"));
+    assertEquals(5, fields.size());
+  }
+
   /**
    * Initialise a Span that will receive logging data.
    *
@@ -224,9 +281,11 @@ public class SpanLoggingTest {
   
   private void setSpanLevel(Level lvl) {
     System.setProperty(Configuration.SPAN_LEVEL.getKey(), lvl.getName());
+    Configuration.refresh();
   }
 
   private void setSpanImplicitLevel(Level lvl) {
     System.setProperty(Configuration.SPAN_IMPLICIT_LEVEL.getKey(), lvl.getName());
+    Configuration.refresh();
   }
 }
@@ -17,6 +17,14 @@ public class SpecializedLogEvent extends LogEvent {
   
   public ExtendedData extData;
   
+  @Override
+  public void reset() {
+    super.reset();
+    version = 0;
+    name = null;
+    extData = null;
+  }
+  
   @Override
   public String toString() {
     return "SpecializedLogEvent [" + version + ", " + name + "]";
@@ -0,0 +1,26 @@
+package org.eclipse.microprofile.logging.benchmarks;
+
+import org.eclipse.microprofile.logging.LogEvent;
+
+/**
+ * Specialized {@link LogEvent} with a few typical additional fields.
+ */
+public class BenchmarkLogEvent extends LogEvent {
+
+  public String user;
+
+  public long requestId;
+
+  public int status;
+
+  public boolean cached;
+
+  @Override
+  public void reset() {
+    super.reset();
+    user = null;
+    requestId = 0;
+    status = 0;
+    cached = false;
+  }
+}
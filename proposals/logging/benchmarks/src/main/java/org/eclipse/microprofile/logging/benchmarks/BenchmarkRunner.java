@@ -0,0 +1,32 @@
+package org.eclipse.microprofile.logging.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}.
+ *
+ * <p>
+ * Accepts the standard JMH command line options and always adds the
+ * {@link GCProfiler} so that the allocation rate is reported alongside the timings.
+ * </p>
+ */
+public class BenchmarkRunner {
+
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+    final CommandLineOptions cmdOptions = new CommandLineOptions(args);
+    final ChainedOptionsBuilder options = new OptionsBuilder().parent(cmdOptions);
+    if (cmdOptions.getIncludes().isEmpty()) {
+      options.include("org\\.eclipse\\.microprofile\\.logging\\.benchmarks\\..*");
+    }
+    if (cmdOptions.getProfilers().stream().noneMatch(p -> p.getKlass().equals(GCProfiler.class.getName()))) {
+      options.addProfiler(GCProfiler.class);
+    }
+    new Runner(options.build()).run();
+  }
+}
@@ -0,0 +1,38 @@
+package org.eclipse.microprofile.logging.benchmarks;
+
+import io.opentracing.Tracer;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.logging.AbstractLogger;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Logger which hands each {@link LogEvent} to a JMH {@link Blackhole}, so the
+ * benchmarks measure the cost of the API rather than that of a logging framework.
+ *
+ * @param <T> The type of LogEvent.
+ */
+public class BlackholeLogger<T extends LogEvent> extends AbstractLogger<T> {
+
+  private final Level level;
+  private final Blackhole blackhole;
+
+  public BlackholeLogger(String name, Supplier<T> supplier, Tracer tracer, Level level, Blackhole blackhole) {
+    super(name, supplier, tracer);
+    this.level = level;
+    this.blackhole = blackhole;
+  }
+
+  @Override
+  public boolean isLoggable(Level lvl) {
+    return lvl.intValue() >= level.intValue();
+  }
+
+  @Override
+  public void writeLog(Level lvl, T event) {
+    blackhole.consume(lvl);
+    blackhole.consume(event.message);
+    blackhole.consume(event);
+  }
+}
@@ -0,0 +1,130 @@
+package org.eclipse.microprofile.logging.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import org.eclipse.microprofile.logging.AbstractLogger;
+import org.eclipse.microprofile.logging.providers.bridge.JulLoggerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Overhead of logging through the JUL bridge provider, compared with creating the
+ * {@link LogRecord} directly and with rendering the event as a JSON message.
+ *
+ * <p>
+ * The JUL Logger has a single Handler handing the records to the {@link Blackhole},
+ * so the benchmarks measure the bridge rather than the output of a handler.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BridgeBenchmark {
+
+  private java.util.logging.Logger backend;
+  private org.eclipse.microprofile.logging.Logger<BenchmarkLogEvent> bridged;
+  private AbstractLogger<BenchmarkLogEvent> json;
+  private long requestId;
+
+  @Setup
+  public void setup(Blackhole blackhole) {
+    backend = java.util.logging.Logger.getAnonymousLogger();
+    backend.setUseParentHandlers(false);
+    backend.setLevel(java.util.logging.Level.INFO);
+    backend.addHandler(new Handler() {
+      @Override
+      public void publish(LogRecord record) {
+        blackhole.consume(record);
+        blackhole.consume(record.getParameters());
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+
+    bridged = new JulLoggerFactory(name -> backend).getLogger("bridge", BenchmarkLogEvent::new);
+    json = new AbstractLogger<BenchmarkLogEvent>("json", BenchmarkLogEvent::new) {
+      @Override
+      public boolean isLoggable(org.eclipse.microprofile.logging.Level lvl) {
+        return backend.isLoggable(java.util.logging.Level.INFO);
+      }
+
+      @Override
+      public void writeLog(org.eclipse.microprofile.logging.Level lvl, BenchmarkLogEvent event) {
+        backend.log(java.util.logging.Level.INFO, getJsonString(event));
+      }
+    };
+  }
+
+  /**
+   * The backend called directly, with the same data as parameters.
+   */
+  @Benchmark
+  public void direct() {
+    final long id = ++requestId;
+    if (backend.isLoggable(java.util.logging.Level.INFO)) {
+      final LogRecord record = new LogRecord(java.util.logging.Level.INFO, "Request served");
+      record.setLoggerName("direct");
+      record.setSourceClassName("direct");
+      record.setParameters(new Object[] {"alice", id, 200, true});
+      backend.log(record);
+    }
+  }
+
+  @Benchmark
+  public void bridge() {
+    final long id = ++requestId;
+    bridged.info(e -> {
+      e.user = "alice";
+      e.requestId = id;
+      e.status = 200;
+      e.cached = true;
+      return "Request served";
+    });
+  }
+
+  /**
+   * The event rendered as a JSON message by {@link AbstractLogger#getJsonString(org.eclipse.microprofile.logging.LogEvent)}.
+   */
+  @Benchmark
+  public void jsonMessage() {
+    final long id = ++requestId;
+    json.info(e -> {
+      e.user = "alice";
+      e.requestId = id;
+      e.status = 200;
+      e.cached = true;
+      return "Request served";
+    });
+  }
+
+  /**
+   * A disabled Level, costing the Level check only.
+   */
+  @Benchmark
+  public void bridgeDisabled() {
+    final long id = ++requestId;
+    bridged.debug(e -> {
+      e.requestId = id;
+      return "Not logged";
+    });
+  }
+}
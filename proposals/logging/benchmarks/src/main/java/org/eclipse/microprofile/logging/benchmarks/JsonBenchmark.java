@@ -0,0 +1,73 @@
+package org.eclipse.microprofile.logging.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import org.eclipse.microprofile.logging.AbstractLogger;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.Utf8Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of converting a {@link org.eclipse.microprofile.logging.LogEvent} to JSON,
+ * compared with serializing it through JSON-B directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonBenchmark {
+
+  private AbstractLogger<BenchmarkLogEvent> logger;
+  private BenchmarkLogEvent event;
+  private Jsonb jsonb;
+
+  @Setup
+  public void setup(Blackhole blackhole) {
+    logger = new BlackholeLogger<>("json", BenchmarkLogEvent::new, null, Level.INFO, blackhole);
+    jsonb = JsonbBuilder.create();
+
+    event = new BenchmarkLogEvent();
+    event.message = "Request complete in 12ms";
+    event.spanId = "4bf92f3577b34da6";
+    event.user = "user";
+    event.requestId = 1234;
+    event.status = 200;
+    event.cached = true;
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    jsonb.close();
+  }
+
+  @Benchmark
+  public String getJsonString() {
+    return logger.getJsonString(event);
+  }
+
+  @Benchmark
+  public int writeJson() {
+    final Utf8Buffer buffer = Utf8Buffer.local();
+    logger.writeJson(event, buffer);
+    return buffer.size();
+  }
+
+  @Benchmark
+  public String jsonb() {
+    return jsonb.toJson(event);
+  }
+}
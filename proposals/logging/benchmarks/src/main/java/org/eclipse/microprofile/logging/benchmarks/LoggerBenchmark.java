@@ -0,0 +1,83 @@
+package org.eclipse.microprofile.logging.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.LogEventPool;
+import org.eclipse.microprofile.logging.LogEventSupplier;
+import org.eclipse.microprofile.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of a log statement, both when the Level is disabled and when the
+ * {@link LogEvent} is created and written.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoggerBenchmark {
+
+  private Logger<LogEvent> defaultLogger;
+  private Logger<LogEvent> pooledLogger;
+  private Logger<BenchmarkLogEvent> specializedLogger;
+
+  private String user = "user";
+  private long requestId = 1234;
+
+  @Setup
+  public void setup(Blackhole blackhole) {
+    defaultLogger = new BlackholeLogger<>("default", new LogEventSupplier(), null, Level.INFO, blackhole);
+    pooledLogger = new BlackholeLogger<>("pooled", new LogEventPool<>(LogEvent::new), null, Level.INFO, blackhole);
+    specializedLogger = new BlackholeLogger<>("specialized", BenchmarkLogEvent::new, null, Level.INFO, blackhole);
+  }
+
+  /**
+   * A log statement below the enabled Level. The log function must not be called.
+   */
+  @Benchmark
+  public void disabled() {
+    defaultLogger.debug(e -> "Request " + requestId + " for " + user);
+  }
+
+  /**
+   * An enabled log statement using the default {@link LogEventSupplier}.
+   */
+  @Benchmark
+  public void enabledDefaultSupplier() {
+    defaultLogger.info(e -> "Request " + requestId + " for " + user);
+  }
+
+  /**
+   * An enabled log statement re-using events from a {@link LogEventPool}.
+   */
+  @Benchmark
+  public void enabledPooledSupplier() {
+    pooledLogger.info(e -> "Request " + requestId + " for " + user);
+  }
+
+  /**
+   * An enabled log statement populating a specialized LogEvent.
+   */
+  @Benchmark
+  public void enabledSpecializedSupplier() {
+    specializedLogger.info(e -> {
+      e.user = user;
+      e.requestId = requestId;
+      e.status = 200;
+      return "Request complete";
+    });
+  }
+}
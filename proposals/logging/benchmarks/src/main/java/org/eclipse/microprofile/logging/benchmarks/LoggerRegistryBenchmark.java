@@ -0,0 +1,66 @@
+package org.eclipse.microprofile.logging.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.LogEventSupplier;
+import org.eclipse.microprofile.logging.Logger;
+import org.eclipse.microprofile.logging.LoggerRegistry;
+import org.eclipse.microprofile.logging.LoggerRegistry.LoggerKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of looking up an existing Logger from a shared {@link LoggerRegistry}
+ * while several threads do the same.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggerRegistryBenchmark {
+
+  private final LoggerRegistry registry = new LoggerRegistry();
+  private final LogEventSupplier supplier = new LogEventSupplier();
+
+  private Function<LoggerKey, Logger> builder;
+
+  @Setup
+  public void setup(Blackhole blackhole) {
+    builder = key -> new BlackholeLogger<>(key.getName(), supplier, null, Level.INFO, blackhole);
+
+    // Populate the registry so lookups find existing Loggers
+    registry.getLogger("benchmark", supplier, builder);
+    registry.getLogger(supplier, builder);
+  }
+
+  /**
+   * Lookup by name.
+   */
+  @Benchmark
+  public Logger<LogEvent> named() {
+    return registry.getLogger("benchmark", supplier, builder);
+  }
+
+  /**
+   * Lookup using the name of the calling class.
+   */
+  @Benchmark
+  public Logger<LogEvent> implicit() {
+    return registry.getLogger(supplier, builder);
+  }
+}
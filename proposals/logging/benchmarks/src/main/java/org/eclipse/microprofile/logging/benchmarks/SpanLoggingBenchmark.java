@@ -0,0 +1,101 @@
+package org.eclipse.microprofile.logging.benchmarks;
+
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.noop.NoopTracerFactory;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.logging.Configuration;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.LogEventSupplier;
+import org.eclipse.microprofile.logging.Logger;
+import org.eclipse.microprofile.logging.SpanLogBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of Span logging, both implicit (a log statement at or above
+ * {@link Configuration#SPAN_IMPLICIT_LEVEL}) and explicit via {@link Logger#span(org.eclipse.microprofile.logging.LogFunction)}.
+ *
+ * <p>
+ * A no-op Tracer is used, so the figures are the overhead of the API on top of
+ * whatever the Tracer implementation does with the Span log. The mock Tracer
+ * used by the unit tests records every entry and would skew the results.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class SpanLoggingBenchmark {
+
+  private Tracer tracer;
+  private Span span;
+  private Scope scope;
+  private Logger<LogEvent> logger;
+
+  @Setup
+  public void setup(Blackhole blackhole) {
+    Configuration.set(Configuration.SPAN_IMPLICIT_LEVEL, Level.INFO);
+    tracer = NoopTracerFactory.create();
+    span = tracer.buildSpan("benchmark").start();
+    scope = tracer.activateSpan(span);
+    logger = new BlackholeLogger<>("span", new LogEventSupplier(), tracer, Level.INFO, blackhole);
+  }
+
+  @TearDown
+  public void tearDown() {
+    scope.close();
+    span.finish();
+    Configuration.set(Configuration.SPAN_IMPLICIT_LEVEL, null);
+  }
+
+  /**
+   * A log statement below the implicit Span logging Level.
+   */
+  @Benchmark
+  public void belowImplicitLevel() {
+    logger.debug(e -> "Not logged");
+  }
+
+  /**
+   * A log statement also written to the active Span.
+   */
+  @Benchmark
+  public void implicit() {
+    logger.info(e -> "Logged to the Span");
+  }
+
+  /**
+   * An explicit Span log statement.
+   */
+  @Benchmark
+  public void explicit() {
+    logger.span(e -> "Logged to the Span");
+  }
+
+  /**
+   * Four explicit Span log statements sent to the Span as a single entry.
+   */
+  @Benchmark
+  public void batched() {
+    try (SpanLogBatch batch = SpanLogBatch.open()) {
+      logger.span(e -> "First");
+      logger.span(e -> "Second");
+      logger.span(e -> "Third");
+      logger.span(e -> "Fourth");
+    }
+  }
+}
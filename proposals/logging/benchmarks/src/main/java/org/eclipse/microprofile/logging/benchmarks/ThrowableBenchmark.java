@@ -0,0 +1,71 @@
+package org.eclipse.microprofile.logging.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.logging.ThrowableRenderer;
+import org.eclipse.microprofile.logging.Utf8Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of rendering the stack trace of a repeated error with {@link ThrowableRenderer},
+ * with and without its cache, compared with {@link Throwable#printStackTrace(java.io.PrintWriter)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ThrowableBenchmark {
+
+  private final ThrowableRenderer cached = new ThrowableRenderer(64, 8, 256);
+  private final ThrowableRenderer uncached = new ThrowableRenderer(64, 8, 0);
+  private Throwable thrown;
+
+  @Setup
+  public void setup() {
+    thrown = fail(20);
+  }
+
+  @Benchmark
+  public int cached() {
+    final Utf8Buffer buffer = Utf8Buffer.local();
+    cached.render(thrown, buffer);
+    return buffer.size();
+  }
+
+  @Benchmark
+  public int uncached() {
+    final Utf8Buffer buffer = Utf8Buffer.local();
+    uncached.render(thrown, buffer);
+    return buffer.size();
+  }
+
+  @Benchmark
+  public int printStackTrace() {
+    final StringWriter writer = new StringWriter();
+    thrown.printStackTrace(new PrintWriter(writer));
+    return writer.getBuffer().length();
+  }
+
+  /**
+   * Create an exception with a cause, thrown at the given stack depth.
+   */
+  private static Throwable fail(int depth) {
+    if (depth > 0) {
+      return fail(depth - 1);
+    }
+    return new IllegalStateException("Request failed", new IOException("Connection refused"));
+  }
+}
@@ -0,0 +1,243 @@
+package org.eclipse.microprofile.logging.providers.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.eclipse.microprofile.logging.Utf8Buffer;
+
+import static org.eclipse.microprofile.logging.providers.binary.BinaryLogFormat.*;
+
+/**
+ * Renders binary log segments written by {@link BinaryLogWriter} as JSON lines.
+ *
+ * <p>
+ * Each event becomes one JSON object with the properties {@code timestamp}, {@code level},
+ * {@code logger}, {@code mpLogEvent} (the LogEvent, as serialized by
+ * {@link org.eclipse.microprofile.logging.JsonEncoder}) and {@code exception}, if the event
+ * had a Throwable.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -cp ... org.eclipse.microprofile.logging.providers.binary.BinaryLogDecoder <segment or directory>...}
+ * </p>
+ */
+public final class BinaryLogDecoder {
+
+  private BinaryLogDecoder() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      System.err.println("Usage: BinaryLogDecoder <segment or directory>...");
+      return;
+    }
+
+    final OutputStream out = new BufferedOutputStream(System.out, 64 * 1024);
+    for (String arg : args) {
+      for (Path segment : segments(Paths.get(arg))) {
+        decode(segment, out);
+      }
+    }
+    out.flush();
+  }
+
+  /**
+   * Write the events of a segment as JSON lines.
+   *
+   * @param segment The segment file.
+   * @param out The stream to write to.
+   *
+   * @throws IOException If the segment cannot be read or is not a binary log segment.
+   */
+  public static void decode(Path segment, OutputStream out) throws IOException {
+    final ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a binary log segment \"" + segment + "\"");
+    }
+    if (buffer.getShort(4) != VERSION) {
+      throw new IOException("Unsupported version " + buffer.getShort(4) + " of \"" + segment + "\"");
+    }
+
+    final List<String> strings = new ArrayList<>();
+    final List<Layout> layouts = new ArrayList<>();
+    final Utf8Buffer line = new Utf8Buffer();
+
+    buffer.position(HEADER_SIZE);
+    while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+      final int start = buffer.position();
+      final int length = buffer.getInt();
+      if (length < RECORD_HEADER_SIZE || length > buffer.remaining() + 4) {
+        // End of the segment, or a record which was never committed
+        break;
+      }
+
+      switch (buffer.get()) {
+        case RECORD_STRING:
+          buffer.getInt();
+          strings.add(getString(buffer));
+          break;
+        case RECORD_LAYOUT:
+          buffer.getInt();
+          layouts.add(new Layout(buffer, strings));
+          break;
+        case RECORD_EVENT:
+          line.reset();
+          decodeEvent(buffer, strings, layouts, line);
+          line.append((byte) '\n').writeTo(out);
+          break;
+        default:
+          // Unknown record types are skipped
+      }
+      buffer.position(start + length);
+    }
+  }
+
+  private static void decodeEvent(ByteBuffer buffer, List<String> strings, List<Layout> layouts, Utf8Buffer line) {
+    final long timestamp = buffer.getLong();
+    buffer.getInt();
+    final String level = strings.get(buffer.getInt());
+    final String logger = strings.get(buffer.getInt());
+    final Layout layout = layouts.get(buffer.getInt());
+
+    line.append("{\"timestamp\":").appendJsonString(Instant.ofEpochMilli(timestamp).toString())
+        .append(",\"level\":").appendJsonString(level)
+        .append(",\"logger\":").appendJsonString(logger)
+        .append(",\"mpLogEvent\":{");
+    boolean first = true;
+    for (int i = 0; i < layout.names.length; i++) {
+      if (buffer.get(buffer.position()) == TAG_NULL && !layout.nillable[i]) {
+        buffer.get();
+        continue;
+      }
+      if (!first) {
+        line.append((byte) ',');
+      }
+      first = false;
+      line.appendJsonString(layout.names[i]).append((byte) ':');
+      decodeValue(buffer, line);
+    }
+    line.append((byte) '}');
+
+    if (buffer.get() == 1) {
+      line.append(",\"exception\":{\"class\":").appendJsonString(strings.get(buffer.getInt()));
+      if (buffer.get(buffer.position()) != TAG_NULL) {
+        line.append(",\"message\":");
+        decodeValue(buffer, line);
+      }
+      line.append((byte) '}');
+    }
+    line.append((byte) '}');
+  }
+
+  private static void decodeValue(ByteBuffer buffer, Utf8Buffer line) {
+    final byte tag = buffer.get();
+    switch (tag) {
+      case TAG_NULL:
+        line.append("null");
+        break;
+      case TAG_LONG:
+        line.append(buffer.getLong());
+        break;
+      case TAG_TRUE:
+        line.append("true");
+        break;
+      case TAG_FALSE:
+        line.append("false");
+        break;
+      case TAG_DOUBLE:
+        appendDouble(Double.longBitsToDouble(buffer.getLong()), line);
+        break;
+      case TAG_FLOAT:
+        appendFloat(Float.intBitsToFloat(buffer.getInt()), line);
+        break;
+      case TAG_CHAR:
+        line.appendJsonString(buffer.getChar());
+        break;
+      case TAG_STRING:
+        line.appendJsonString(getString(buffer));
+        break;
+      case TAG_JSON:
+        final int length = buffer.getInt();
+        for (int i = 0; i < length; i++) {
+          line.append(buffer.get());
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unknown value tag " + tag);
+    }
+  }
+
+  /**
+   * Append a double, NaN and the infinities as Strings, as {@link org.eclipse.microprofile.logging.JsonEncoder} does.
+   */
+  private static void appendDouble(double value, Utf8Buffer line) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      line.appendJsonString(Double.toString(value));
+    } else {
+      line.append(Double.toString(value));
+    }
+  }
+
+  private static void appendFloat(float value, Utf8Buffer line) {
+    if (Float.isNaN(value) || Float.isInfinite(value)) {
+      line.appendJsonString(Float.toString(value));
+    } else {
+      line.append(Float.toString(value));
+    }
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    final byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static List<Path> segments(Path path) throws IOException {
+    final List<Path> segments = new ArrayList<>();
+    if (Files.isDirectory(path)) {
+      try (DirectoryStream<Path> found = Files.newDirectoryStream(path, "*" + BinaryLogWriter.SUFFIX)) {
+        found.forEach(segments::add);
+      }
+      segments.sort(Comparator.comparing((Path p) -> p.getFileName().toString().substring(0, p.getFileName().toString().lastIndexOf('-')))
+                              .thenComparingInt(BinaryLogWriter::indexOf));
+    } else {
+      segments.add(path);
+    }
+    return segments;
+  }
+
+  /**
+   * The property names of a LogEvent class.
+   */
+  private static final class Layout {
+
+    private final String[] names;
+    private final boolean[] nillable;
+
+    Layout(ByteBuffer buffer, List<String> strings) {
+      buffer.getInt();
+      final int count = buffer.getShort();
+      names = new String[count];
+      nillable = new boolean[count];
+      for (int i = 0; i < count; i++) {
+        names[i] = strings.get(buffer.getInt());
+        nillable[i] = (buffer.get() & FLAG_NILLABLE) != 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package org.eclipse.microprofile.logging.providers.binary;
+
+/**
+ * Constants of the binary log segment format.
+ *
+ * <p>
+ * A segment starts with a header of {@link #HEADER_SIZE} bytes: the {@link #MAGIC} int,
+ * the {@link #VERSION} short, a reserved short and the creation time in epoch milliseconds.
+ * The header is followed by records, each starting with its total length as an int. A length
+ * of zero marks the end of the segment. The length is written after the rest of the record,
+ * so a partially written record is never decoded. All values are big-endian.
+ * </p>
+ *
+ * <p>
+ * Strings which repeat between events, such as Logger and property names, are defined once
+ * per segment by a {@link #RECORD_STRING} and then referred to by id. The properties of each
+ * {@link org.eclipse.microprofile.logging.LogEvent} class are defined once per segment by a
+ * {@link #RECORD_LAYOUT}, in the same order as the JSON serialization. Each segment can
+ * therefore be decoded on its own.
+ * </p>
+ *
+ * <pre>
+ * string: int length, UTF-8 bytes
+ * RECORD_STRING: int id, string
+ * RECORD_LAYOUT: int id, int class name id, short count, count * (int name id, byte flags)
+ * RECORD_EVENT:  long epoch millis, int level value, int level name id, int logger name id,
+ *                int layout id, count * tagged value, byte 0 or 1 then int class name id, tagged message
+ * </pre>
+ */
+final class BinaryLogFormat {
+
+  /** "MPLB" */
+  static final int MAGIC = 0x4D504C42;
+
+  static final short VERSION = 1;
+
+  static final int HEADER_SIZE = 16;
+
+  /** The record length and type */
+  static final int RECORD_HEADER_SIZE = 5;
+
+  static final byte RECORD_STRING = 1;
+  static final byte RECORD_LAYOUT = 2;
+  static final byte RECORD_EVENT = 3;
+
+  /** Layout flag of a property whose null value is serialized */
+  static final byte FLAG_NILLABLE = 1;
+
+  static final byte TAG_NULL = 0;
+  static final byte TAG_LONG = 1;
+  static final byte TAG_TRUE = 2;
+  static final byte TAG_FALSE = 3;
+  static final byte TAG_DOUBLE = 4;
+  static final byte TAG_FLOAT = 5;
+  static final byte TAG_CHAR = 6;
+  static final byte TAG_STRING = 7;
+  /** Any other value, stored as its JSON serialization */
+  static final byte TAG_JSON = 8;
+
+  private BinaryLogFormat() {
+  }
+}
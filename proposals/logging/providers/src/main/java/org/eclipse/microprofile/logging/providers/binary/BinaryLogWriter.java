@@ -0,0 +1,497 @@
+package org.eclipse.microprofile.logging.providers.binary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.microprofile.logging.JsonEncoder;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.Utf8Buffer;
+
+import static org.eclipse.microprofile.logging.providers.binary.BinaryLogFormat.*;
+
+/**
+ * Writes {@link LogEvent}s in the binary format described by {@link BinaryLogFormat}
+ * to memory-mapped segment files.
+ *
+ * <p>
+ * Each segment is a file of a fixed size, named {@code <prefix>-<number>.mplog}. The next
+ * segment is created, mapped and its pages touched on a background thread while the current
+ * one is being filled, so switching segments does not wait for the file system. Writing an
+ * event copies its values into the mapping without formatting them as text; the data reaches
+ * the disk when the operating system writes back the pages, or on {@link #flush()}.
+ * </p>
+ *
+ * <p>
+ * A writer is thread-safe and can be shared by any number of loggers. Writes are serialized by a
+ * {@link ReentrantLock}, so a virtual thread waiting for the writer does not pin its carrier. Errors are not thrown
+ * to the logging code; events which cannot be written are counted, see {@link #getDroppedCount()}.
+ * Use {@link BinaryLogDecoder} to render the segments as JSON lines.
+ * </p>
+ */
+public final class BinaryLogWriter implements Closeable {
+
+  /** Default size of a segment file. */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  static final String SUFFIX = ".mplog";
+
+  private static final int PAGE_SIZE = 4096;
+
+  private final Path directory;
+  private final String prefix;
+  private final int segmentSize;
+  private final ExecutorService preparer;
+  private final Utf8Buffer record = new Utf8Buffer(1024);
+  private final EventEncoder encoder = new EventEncoder();
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private Segment segment;
+  private Future<Segment> next;
+  private long dropped;
+  private boolean closed;
+
+  /**
+   * Create a writer and its first segment.
+   *
+   * @param directory The directory of the segment files, created if necessary.
+   * @param prefix The prefix of the segment file names.
+   * @param segmentSize The size of each segment file in bytes.
+   *
+   * @throws IOException If the first segment cannot be created.
+   */
+  public BinaryLogWriter(Path directory, String prefix, int segmentSize) throws IOException {
+    if (segmentSize < HEADER_SIZE + PAGE_SIZE) {
+      throw new IllegalArgumentException("Segment size is too small \"" + segmentSize + "\"");
+    }
+    this.directory = Files.createDirectories(directory);
+    this.prefix = prefix;
+    this.segmentSize = segmentSize;
+    this.preparer = Executors.newSingleThreadExecutor(r -> {
+      final Thread thread = new Thread(r, "mp-logging-binary-" + prefix);
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    segment = new Segment(pathOf(lastIndex() + 1), segmentSize);
+    segment.activate();
+    prepareNext();
+  }
+
+  /**
+   * Write an event.
+   *
+   * @param lvl The Level of the log statement.
+   * @param loggerName The name of the Logger.
+   * @param event The log data.
+   */
+  public void write(Level lvl, String loggerName, LogEvent event) {
+    lock.lock();
+    try {
+      if (closed) {
+        dropped++;
+        return;
+      }
+      // An event which does not fit in the current segment is written to
+      // the next one, where it can only fail to fit if it is too large.
+      if (!write(segment, lvl, loggerName, event)) {
+        roll();
+        if (!write(segment, lvl, loggerName, event)) {
+          dropped++;
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      dropped++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Force the content of the current segment to the storage device.
+   */
+  public void flush() {
+    lock.lock();
+    try {
+      if (!closed) {
+        segment.buffer.force();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Get the number of events which could not be written.
+   *
+   * @return The number of dropped events.
+   */
+  public long getDroppedCount() {
+    lock.lock();
+    try {
+      return dropped;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Get the segment currently being written.
+   *
+   * @return The path of the segment file.
+   */
+  public Path getSegment() {
+    lock.lock();
+    try {
+      return segment.path;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Flush and close the current segment. Events written afterwards are dropped.
+   *
+   * @throws IOException If the segment cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      preparer.shutdown();
+      try {
+        segment.buffer.force();
+        segment.channel.close();
+      } finally {
+        discardNext();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean write(Segment seg, Level lvl, String loggerName, LogEvent event) throws IOException {
+    final JsonEncoder eventEncoder = JsonEncoder.forClass(event.getClass());
+    final Throwable thrown = event.throwable;
+
+    // Definitions are written before the event which refers to them
+    final int levelId = seg.stringId(lvl.getName(), record);
+    final int loggerId = seg.stringId(loggerName, record);
+    final int layoutId = seg.layoutId(eventEncoder, record);
+    final int thrownId = thrown != null ? seg.stringId(thrown.getClass().getName(), record) : 0;
+    if (levelId < 0 || loggerId < 0 || layoutId < 0 || thrownId < 0) {
+      return false;
+    }
+
+    start(record, RECORD_EVENT);
+    putLong(record, LogEvent.timestampOf(event) / 1_000_000L);
+    putInt(record, lvl.intValue());
+    putInt(record, levelId);
+    putInt(record, loggerId);
+    putInt(record, layoutId);
+    eventEncoder.visit(event, encoder);
+    if (thrown != null) {
+      record.append((byte) 1);
+      putInt(record, thrownId);
+      encoder.visitObject(-1, thrown.getMessage());
+    } else {
+      record.append((byte) 0);
+    }
+    return seg.append(record);
+  }
+
+  private void roll() throws IOException {
+    final Segment previous = segment;
+    try {
+      segment = next.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted whilst waiting for the next segment", e);
+    } catch (ExecutionException e) {
+      // Try again on the logging thread
+      segment = new Segment(pathOf(previous.index + 1), segmentSize);
+    }
+    segment.activate();
+    previous.channel.close();
+    prepareNext();
+  }
+
+  private void prepareNext() {
+    final int index = segment.index + 1;
+    next = preparer.submit(() -> new Segment(pathOf(index), segmentSize));
+  }
+
+  private void discardNext() throws IOException {
+    next.cancel(false);
+    try {
+      final Segment unused = next.get();
+      unused.channel.close();
+      Files.deleteIfExists(unused.path);
+    } catch (ExecutionException | RuntimeException e) {
+      // Nothing was created
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Path pathOf(int index) {
+    return directory.resolve(String.format("%s-%06d%s", prefix, index, SUFFIX));
+  }
+
+  private int lastIndex() throws IOException {
+    int last = 0;
+    try (DirectoryStream<Path> existing = Files.newDirectoryStream(directory, prefix + "-*" + SUFFIX)) {
+      for (Path path : existing) {
+        final String name = path.getFileName().toString();
+        try {
+          last = Math.max(last, Integer.parseInt(name.substring(prefix.length() + 1, name.length() - SUFFIX.length())));
+        } catch (NumberFormatException e) {
+          // Not a segment of this writer
+        }
+      }
+    }
+    return last;
+  }
+
+  static int indexOf(Path path) {
+    final String name = path.getFileName().toString();
+    final int start = name.lastIndexOf('-') + 1;
+    return Integer.parseInt(name.substring(start, name.length() - SUFFIX.length()));
+  }
+
+  private static void start(Utf8Buffer buffer, byte type) {
+    buffer.reset();
+    putInt(buffer, 0);
+    buffer.append(type);
+  }
+
+  static void putShort(Utf8Buffer buffer, int value) {
+    buffer.append((byte) (value >>> 8)).append((byte) value);
+  }
+
+  static void putInt(Utf8Buffer buffer, int value) {
+    buffer.append((byte) (value >>> 24)).append((byte) (value >>> 16))
+          .append((byte) (value >>> 8)).append((byte) value);
+  }
+
+  static void putLong(Utf8Buffer buffer, long value) {
+    putInt(buffer, (int) (value >>> 32));
+    putInt(buffer, (int) value);
+  }
+
+  static void putString(Utf8Buffer buffer, CharSequence value) {
+    final int offset = buffer.size();
+    putInt(buffer, 0);
+    buffer.append(value);
+    patchLength(buffer, offset);
+  }
+
+  /**
+   * Set the int at the offset to the number of bytes written after it.
+   */
+  static void patchLength(Utf8Buffer buffer, int offset) {
+    final int length = buffer.size() - offset - 4;
+    final byte[] bytes = buffer.array();
+    bytes[offset] = (byte) (length >>> 24);
+    bytes[offset + 1] = (byte) (length >>> 16);
+    bytes[offset + 2] = (byte) (length >>> 8);
+    bytes[offset + 3] = (byte) length;
+  }
+
+  /**
+   * A memory-mapped segment file and the strings and layouts defined in it.
+   */
+  private static final class Segment {
+
+    private final Path path;
+    private final int index;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final Map<JsonEncoder, Integer> layouts = new IdentityHashMap<>();
+
+    Segment(Path path, int size) throws IOException {
+      this.path = path;
+      this.index = indexOf(path);
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      try {
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        // Touch every page so the file is allocated before it is used
+        for (int i = 0; i < size; i += PAGE_SIZE) {
+          buffer.put(i, (byte) 0);
+        }
+      } catch (IOException | RuntimeException e) {
+        channel.close();
+        throw e;
+      }
+    }
+
+    /**
+     * Write the header, once the segment is used.
+     */
+    void activate() {
+      buffer.putInt(0, MAGIC);
+      buffer.putShort(4, VERSION);
+      buffer.putShort(6, (short) 0);
+      buffer.putLong(8, System.currentTimeMillis());
+      buffer.position(HEADER_SIZE);
+    }
+
+    /**
+     * Copy a record, leaving room for the terminating zero length.
+     *
+     * @return false if the record does not fit.
+     */
+    boolean append(Utf8Buffer record) {
+      final int length = record.size();
+      if (buffer.remaining() < length + 4) {
+        return false;
+      }
+      final int position = buffer.position();
+      buffer.position(position + 4);
+      buffer.put(record.array(), 4, length - 4);
+      // Committing the record by writing its length last
+      buffer.putInt(position, length);
+      return true;
+    }
+
+    /**
+     * Get the id of a string, defining it if necessary.
+     *
+     * @return The id, or -1 if the definition does not fit.
+     */
+    int stringId(String value, Utf8Buffer record) {
+      final Integer id = strings.get(value);
+      if (id != null) {
+        return id;
+      }
+      final int newId = strings.size();
+      start(record, RECORD_STRING);
+      putInt(record, newId);
+      putString(record, value);
+      if (!append(record)) {
+        return -1;
+      }
+      strings.put(value, newId);
+      return newId;
+    }
+
+    /**
+     * Get the id of the layout of a LogEvent class, defining it if necessary.
+     *
+     * @return The id, or -1 if the definition does not fit.
+     */
+    int layoutId(JsonEncoder encoder, Utf8Buffer record) {
+      final Integer id = layouts.get(encoder);
+      if (id != null) {
+        return id;
+      }
+      final int count = Math.max(0, encoder.getPropertyCount());
+      final int[] nameIds = new int[count];
+      for (int i = 0; i < count; i++) {
+        nameIds[i] = stringId(encoder.getPropertyName(i), record);
+        if (nameIds[i] < 0) {
+          return -1;
+        }
+      }
+      final int classId = stringId(encoder.getType().getName(), record);
+      if (classId < 0) {
+        return -1;
+      }
+
+      final int newId = layouts.size();
+      start(record, RECORD_LAYOUT);
+      putInt(record, newId);
+      putInt(record, classId);
+      putShort(record, count);
+      for (int i = 0; i < count; i++) {
+        putInt(record, nameIds[i]);
+        record.append(encoder.isPropertyNillable(i) ? FLAG_NILLABLE : 0);
+      }
+      if (!append(record)) {
+        return -1;
+      }
+      layouts.put(encoder, newId);
+      return newId;
+    }
+  }
+
+  /**
+   * Appends the tagged property values of an event to the record.
+   */
+  private final class EventEncoder implements JsonEncoder.PropertyVisitor {
+
+    @Override
+    public void visitLong(int index, long value) {
+      record.append(TAG_LONG);
+      putLong(record, value);
+    }
+
+    @Override
+    public void visitBoolean(int index, boolean value) {
+      record.append(value ? TAG_TRUE : TAG_FALSE);
+    }
+
+    @Override
+    public void visitDouble(int index, double value) {
+      record.append(TAG_DOUBLE);
+      putLong(record, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public void visitFloat(int index, float value) {
+      record.append(TAG_FLOAT);
+      putInt(record, Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public void visitChar(int index, char value) {
+      record.append(TAG_CHAR);
+      putShort(record, value);
+    }
+
+    @Override
+    public void visitObject(int index, Object value) {
+      if (value == null) {
+        record.append(TAG_NULL);
+      } else if (value instanceof CharSequence) {
+        record.append(TAG_STRING);
+        putString(record, (CharSequence) value);
+      } else if (value instanceof Long || value instanceof Integer
+                 || value instanceof Short || value instanceof Byte) {
+        visitLong(index, ((Number) value).longValue());
+      } else if (value instanceof Boolean) {
+        visitBoolean(index, (Boolean) value);
+      } else if (value instanceof Double) {
+        visitDouble(index, (Double) value);
+      } else if (value instanceof Float) {
+        visitFloat(index, (Float) value);
+      } else if (value instanceof Character) {
+        visitChar(index, (Character) value);
+      } else {
+        record.append(TAG_JSON);
+        final int offset = record.size();
+        putInt(record, 0);
+        JsonEncoder.encode(value, record);
+        patchLength(record, offset);
+      }
+    }
+  }
+}
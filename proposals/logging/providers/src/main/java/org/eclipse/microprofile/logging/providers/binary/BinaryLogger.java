@@ -0,0 +1,38 @@
+package org.eclipse.microprofile.logging.providers.binary;
+
+import java.util.function.Supplier;
+import org.eclipse.microprofile.logging.AbstractLogger;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+
+/**
+ * Logger writing its events to a {@link BinaryLogWriter}.
+ *
+ * <p>
+ * An event is written when its Level passes both the configured Level of the Logger, which follows
+ * {@link org.eclipse.microprofile.logging.Configuration}, and the minimum Level of the writer.
+ * </p>
+ *
+ * @param <T> The type of LogEvent.
+ */
+public class BinaryLogger<T extends LogEvent> extends AbstractLogger<T> {
+
+  private final BinaryLogWriter writer;
+  private final Level level;
+
+  public BinaryLogger(String name, Supplier<T> supplier, BinaryLogWriter writer, Level level) {
+    super(name, supplier);
+    this.writer = writer;
+    this.level = level;
+  }
+
+  @Override
+  public boolean isLoggable(Level lvl) {
+    return lvl.intValue() >= level.intValue() && super.isLoggable(lvl);
+  }
+
+  @Override
+  public void writeLog(Level lvl, T event) {
+    writer.write(lvl, getName(), event);
+  }
+}
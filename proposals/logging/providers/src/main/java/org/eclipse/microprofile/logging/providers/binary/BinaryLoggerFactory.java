@@ -0,0 +1,95 @@
+package org.eclipse.microprofile.logging.providers.binary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.LogEventSupplier;
+import org.eclipse.microprofile.logging.Logger;
+import org.eclipse.microprofile.logging.LoggerFactoryProvider;
+import org.eclipse.microprofile.logging.LoggerRegistry;
+
+/**
+ * {@link LoggerFactoryProvider} of {@link BinaryLogger}s sharing a single {@link BinaryLogWriter}.
+ *
+ * <p>
+ * When created with the default constructor, the writer is configured through MicroProfile Config:
+ * <ul>
+ *  <li>{@code mp.logging.binary.directory}: The directory of the segment files. Default: {@code logs}.</li>
+ *  <li>{@code mp.logging.binary.prefix}: The prefix of the segment file names. Default: {@code mp-logging}.</li>
+ *  <li>{@code mp.logging.binary.segment.size}: The size of each segment file in bytes. Default: 64MB.</li>
+ *  <li>{@code mp.logging.binary.level}: The minimum Level of the events written, on top of
+ *  the Level configured for each Logger. Default: {@code INFO}.</li>
+ * </ul>
+ * </p>
+ */
+public class BinaryLoggerFactory implements LoggerFactoryProvider {
+
+  private static final LogEventSupplier LOG_EVENT_SUPPLIER = new LogEventSupplier();
+
+  private final LoggerRegistry registry = new LoggerRegistry();
+  private final BinaryLogWriter writer;
+  private final Level level;
+
+  public BinaryLoggerFactory() {
+    this(createWriter(), Level.parse(getConfig("mp.logging.binary.level", "INFO")));
+  }
+
+  public BinaryLoggerFactory(BinaryLogWriter writer, Level level) {
+    this.writer = writer;
+    this.level = level;
+  }
+
+  /**
+   * Get the writer shared by the Loggers of this factory.
+   *
+   * @return The writer.
+   */
+  public BinaryLogWriter getWriter() {
+    return writer;
+  }
+
+  @Override
+  public Logger<LogEvent> getLogger() {
+    return registry.getLogger(LOG_EVENT_SUPPLIER, loggerKey -> new BinaryLogger<>(loggerKey.getName(), LOG_EVENT_SUPPLIER, writer, level));
+  }
+
+  @Override
+  public <T extends LogEvent> Logger<T> getLogger(Supplier<T> supplier) {
+    return registry.getLogger(supplier, loggerKey -> new BinaryLogger<>(loggerKey.getName(), supplier, writer, level));
+  }
+
+  @Override
+  public Logger<LogEvent> getLogger(String name) {
+    return registry.getLogger(name, LOG_EVENT_SUPPLIER, loggerKey -> new BinaryLogger<>(loggerKey.getName(), LOG_EVENT_SUPPLIER, writer, level));
+  }
+
+  @Override
+  public <T extends LogEvent> Logger<T> getLogger(String name, Supplier<T> supplier) {
+    return registry.getLogger(name, supplier, loggerKey -> new BinaryLogger<>(loggerKey.getName(), supplier, writer, level));
+  }
+
+  private static BinaryLogWriter createWriter() {
+    try {
+      return new BinaryLogWriter(Paths.get(getConfig("mp.logging.binary.directory", "logs")),
+                                 getConfig("mp.logging.binary.prefix", "mp-logging"),
+                                 Integer.parseInt(getConfig("mp.logging.binary.segment.size", String.valueOf(BinaryLogWriter.DEFAULT_SEGMENT_SIZE))));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String getConfig(String key, String defaultValue) {
+    try {
+      final Config config = ConfigProvider.getConfig();
+      return config.getOptionalValue(key, String.class).orElse(defaultValue);
+    } catch (Throwable t) {
+      // MP Config is an optional component.
+      return defaultValue;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package org.eclipse.microprofile.logging.providers.bridge;
+
+import java.text.MessageFormat;
+import java.util.function.Supplier;
+import java.util.logging.LogRecord;
+import org.eclipse.microprofile.logging.AbstractLogger;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+
+/**
+ * Logger passing its events to a {@code java.util.logging} Logger.
+ *
+ * <p>
+ * Each event becomes a {@link LogRecord} with the message of the event, its Throwable and
+ * its other properties as {@link KeyValue} parameters, without rendering the event as JSON.
+ * Whether a Level is logged is decided by the JUL configuration.
+ * </p>
+ *
+ * <p>
+ * A {@link java.util.logging.Formatter} formats the message of a record with parameters as a
+ * {@link MessageFormat} pattern if it contains {@code {0}} to {@code {3}}, so such a message is
+ * quoted to be shown as is. The record has no source class and method: the calling class is not
+ * known on the consumer thread of a dispatcher, and JUL would otherwise infer them by walking the stack.
+ * </p>
+ *
+ * @param <T> The type of LogEvent.
+ */
+public class JulLogger<T extends LogEvent> extends AbstractLogger<T> {
+
+  static final LevelTable<java.util.logging.Level> LEVELS = new LevelTable<>(java.util.logging.Level.FINEST,
+                                                                             java.util.logging.Level.FINE,
+                                                                             java.util.logging.Level.INFO,
+                                                                             java.util.logging.Level.WARNING,
+                                                                             java.util.logging.Level.SEVERE);
+
+  private final java.util.logging.Logger backend;
+
+  public JulLogger(String name, Supplier<T> supplier, java.util.logging.Logger backend) {
+    super(name, supplier);
+    this.backend = backend;
+  }
+
+  @Override
+  public boolean isLoggable(Level lvl) {
+    return lvl.intValue() != Level.OFF.intValue() && backend.isLoggable(LEVELS.get(lvl.intValue()));
+  }
+
+  @Override
+  public void writeLog(Level lvl, T event) {
+    final KeyValue[] parameters = KeyValue.of(event);
+    final String message = parameters.length > 0 ? quote(event.message) : event.message;
+    final LogRecord record = new LogRecord(LEVELS.get(lvl.intValue()), message);
+    record.setLoggerName(getName());
+    record.setSourceClassName(null);
+    record.setSourceMethodName(null);
+    record.setThrown(event.throwable);
+    if (parameters.length > 0) {
+      record.setParameters(parameters);
+    }
+    backend.log(record);
+  }
+
+  /**
+   * Quote a message which {@link java.util.logging.Formatter#formatMessage(java.util.logging.LogRecord)}
+   * would format as a {@link MessageFormat} pattern, so it is formatted to itself.
+   *
+   * @param message The message of the event.
+   * @return The message, quoted if necessary.
+   */
+  static String quote(String message) {
+    if (message == null || !isPattern(message)) {
+      return message;
+    }
+    return "'" + message.replace("'", "''") + "'";
+  }
+
+  private static boolean isPattern(String message) {
+    for (int i = message.indexOf('{'); i >= 0 && i < message.length() - 1; i = message.indexOf('{', i + 1)) {
+      final char next = message.charAt(i + 1);
+      if (next >= '0' && next <= '3') {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,54 @@
+package org.eclipse.microprofile.logging.providers.bridge;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.LogEventSupplier;
+import org.eclipse.microprofile.logging.Logger;
+import org.eclipse.microprofile.logging.LoggerFactoryProvider;
+import org.eclipse.microprofile.logging.LoggerRegistry;
+
+/**
+ * {@link LoggerFactoryProvider} of {@link JulLogger}s, bridging to the {@code java.util.logging}
+ * Logger of the same name.
+ */
+public class JulLoggerFactory implements LoggerFactoryProvider {
+
+  private static final LogEventSupplier LOG_EVENT_SUPPLIER = new LogEventSupplier();
+
+  private final LoggerRegistry registry = new LoggerRegistry();
+  private final Function<String, java.util.logging.Logger> backend;
+
+  public JulLoggerFactory() {
+    this(java.util.logging.Logger::getLogger);
+  }
+
+  /**
+   * Create a factory resolving the JUL Loggers with the given function.
+   *
+   * @param backend The function returning the JUL Logger of a name.
+   */
+  public JulLoggerFactory(Function<String, java.util.logging.Logger> backend) {
+    this.backend = backend;
+  }
+
+  @Override
+  public Logger<LogEvent> getLogger() {
+    return registry.getLogger(LOG_EVENT_SUPPLIER, loggerKey -> new JulLogger<>(loggerKey.getName(), LOG_EVENT_SUPPLIER, backend.apply(loggerKey.getName())));
+  }
+
+  @Override
+  public <T extends LogEvent> Logger<T> getLogger(Supplier<T> supplier) {
+    return registry.getLogger(supplier, loggerKey -> new JulLogger<>(loggerKey.getName(), supplier, backend.apply(loggerKey.getName())));
+  }
+
+  @Override
+  public Logger<LogEvent> getLogger(String name) {
+    return registry.getLogger(name, LOG_EVENT_SUPPLIER, loggerKey -> new JulLogger<>(loggerKey.getName(), LOG_EVENT_SUPPLIER, backend.apply(loggerKey.getName())));
+  }
+
+  @Override
+  public <T extends LogEvent> Logger<T> getLogger(String name, Supplier<T> supplier) {
+    return registry.getLogger(name, supplier, loggerKey -> new JulLogger<>(loggerKey.getName(), supplier, backend.apply(loggerKey.getName())));
+  }
+}
@@ -0,0 +1,143 @@
+package org.eclipse.microprofile.logging.providers.bridge;
+
+import java.util.Arrays;
+import org.eclipse.microprofile.logging.JsonEncoder;
+import org.eclipse.microprofile.logging.LogContext;
+import org.eclipse.microprofile.logging.LogEvent;
+
+/**
+ * A property of a {@link LogEvent} passed to a logging backend, as a parameter of a JUL
+ * {@link java.util.logging.LogRecord} or in the {@link KeyValueMarker} of an SLF4J call.
+ *
+ * <p>
+ * Backends and their handlers or encoders can read the key and value of each property.
+ * The message is never formatted with the properties, a layout shows them as {@code key=value}
+ * only if it prints the parameters of a record, or the marker of an SLF4J event.
+ * </p>
+ */
+public final class KeyValue {
+
+  private static final KeyValue[] NONE = new KeyValue[0];
+
+  private final String key;
+  private final Object value;
+
+  public KeyValue(String key, Object value) {
+    this.key = key;
+    this.value = value;
+  }
+
+  /**
+   * Get the name of the property.
+   *
+   * @return The key.
+   */
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Get the value of the property.
+   *
+   * @return The value, a String, a boxed primitive or the object held by the event.
+   */
+  public Object getValue() {
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return key + "=" + value;
+  }
+
+  /**
+   * Get the properties of an event, other than its message, in serialization order.
+   *
+   * <p>
+   * The values are read through the {@link JsonEncoder} property accessors of the event class
+   * without rendering any JSON, null values are omitted and the entries of a {@link LogContext}
+   * become properties of their own. Only events of classes serialized by JSON-B as a whole
+   * are rendered, as a single {@code mpLogEvent} property.
+   * </p>
+   *
+   * @param event The event.
+   * @return The properties, copied as the event may be re-used once written.
+   */
+  public static KeyValue[] of(LogEvent event) {
+    final JsonEncoder encoder = JsonEncoder.forClass(event.getClass());
+    final int count = encoder.getPropertyCount();
+    if (count < 0) {
+      return new KeyValue[] {new KeyValue("mpLogEvent", JsonEncoder.toJson(event))};
+    }
+
+    final Collector collector = new Collector(encoder, count + (event.context != null ? event.context.size() : 0));
+    encoder.visit(event, collector);
+    if (collector.size == 0) {
+      return NONE;
+    }
+    return collector.size == collector.values.length ? collector.values : Arrays.copyOf(collector.values, collector.size);
+  }
+
+  /**
+   * Collects the non-null properties of an event.
+   */
+  private static final class Collector implements JsonEncoder.PropertyVisitor {
+
+    private final JsonEncoder encoder;
+    private KeyValue[] values;
+    private int size;
+
+    Collector(JsonEncoder encoder, int capacity) {
+      this.encoder = encoder;
+      this.values = new KeyValue[capacity];
+    }
+
+    @Override
+    public void visitLong(int index, long value) {
+      add(index, value);
+    }
+
+    @Override
+    public void visitBoolean(int index, boolean value) {
+      add(index, value);
+    }
+
+    @Override
+    public void visitDouble(int index, double value) {
+      add(index, value);
+    }
+
+    @Override
+    public void visitFloat(int index, float value) {
+      add(index, value);
+    }
+
+    @Override
+    public void visitChar(int index, char value) {
+      add(index, value);
+    }
+
+    @Override
+    public void visitObject(int index, Object value) {
+      if (value instanceof LogContext) {
+        final LogContext context = (LogContext) value;
+        if (size + context.size() > values.length) {
+          // A context other than LogEvent#context
+          values = Arrays.copyOf(values, size + context.size() + values.length);
+        }
+        for (int i = 0; i < context.size(); i++) {
+          values[size++] = new KeyValue(context.getKey(i), context.isLong(i) ? (Object) context.getLong(i) : context.getString(i));
+        }
+      } else if (value != null) {
+        add(index, value);
+      }
+    }
+
+    private void add(int index, Object value) {
+      final String key = encoder.getPropertyName(index);
+      if (!"message".equals(key)) {
+        values[size++] = new KeyValue(key, value);
+      }
+    }
+  }
+}
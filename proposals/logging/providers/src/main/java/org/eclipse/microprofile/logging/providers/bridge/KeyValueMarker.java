@@ -0,0 +1,111 @@
+package org.eclipse.microprofile.logging.providers.bridge;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import org.slf4j.Marker;
+
+/**
+ * SLF4J {@link Marker} carrying the {@link KeyValue} properties of an event.
+ *
+ * <p>
+ * Backends and encoders which know this class read the properties with {@link #getKeyValues()}.
+ * Layouts printing the marker, E.g. {@code %marker} of Logback, show the properties as
+ * {@code key=value} pairs, the name being built when it is first asked for.
+ * </p>
+ *
+ * <p>
+ * The marker is immutable, it has no references to other markers. Only its name is serialized.
+ * </p>
+ */
+public final class KeyValueMarker implements Marker {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final KeyValue[] NONE = new KeyValue[0];
+
+  private final transient KeyValue[] keyValues;
+  private String name;
+
+  KeyValueMarker(KeyValue[] keyValues) {
+    this.keyValues = keyValues;
+  }
+
+  /**
+   * Get the properties of the event.
+   *
+   * @return The properties, in serialization order.
+   */
+  public KeyValue[] getKeyValues() {
+    return keyValues != null ? keyValues.clone() : NONE;
+  }
+
+  /**
+   * Get the properties as {@code key=value} pairs separated by spaces.
+   *
+   * @return The name of the marker.
+   */
+  @Override
+  public String getName() {
+    String result = name;
+    if (result == null) {
+      final StringBuilder builder = new StringBuilder();
+      for (KeyValue keyValue : keyValues) {
+        if (builder.length() > 0) {
+          builder.append(' ');
+        }
+        builder.append(keyValue);
+      }
+      result = builder.toString();
+      name = result;
+    }
+    return result;
+  }
+
+  @Override
+  public void add(Marker reference) {
+    throw new UnsupportedOperationException("A KeyValueMarker has no references");
+  }
+
+  @Override
+  public boolean remove(Marker reference) {
+    return false;
+  }
+
+  @Override
+  @Deprecated
+  public boolean hasChildren() {
+    return false;
+  }
+
+  @Override
+  public boolean hasReferences() {
+    return false;
+  }
+
+  @Override
+  public Iterator<Marker> iterator() {
+    return Collections.emptyIterator();
+  }
+
+  @Override
+  public boolean contains(Marker other) {
+    return this == other;
+  }
+
+  @Override
+  public boolean contains(String name) {
+    return getName().equals(name);
+  }
+
+  @Override
+  public String toString() {
+    return getName();
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    getName();
+    out.defaultWriteObject();
+  }
+}
@@ -0,0 +1,59 @@
+package org.eclipse.microprofile.logging.providers.bridge;
+
+import org.eclipse.microprofile.logging.Level;
+
+/**
+ * Maps the int value of a {@link Level} to the level of a logging backend through a table
+ * computed once, so mapping an event costs an array access.
+ *
+ * <p>
+ * A value maps to the backend level of the highest standard Level it reaches: values from
+ * {@link Level#INFO} up to, but excluding, {@link Level#WARN} map to the INFO level of the backend.
+ * Values below {@link Level#TRACE} map to its TRACE level.
+ * </p>
+ *
+ * @param <L> The type of the backend levels.
+ */
+final class LevelTable<L> {
+
+  /** Value of the first bucket, the lowest standard Level */
+  private static final int BASE = Level.TRACE.intValue();
+
+  /** Width of the buckets, the standard Levels are multiples of it */
+  private static final int STEP = 100;
+
+  private final Object[] table;
+
+  LevelTable(L trace, L debug, L info, L warn, L error) {
+    table = new Object[(Level.ERROR.intValue() - BASE) / STEP + 1];
+    for (int i = 0; i < table.length; i++) {
+      final int value = BASE + i * STEP;
+      if (value >= Level.ERROR.intValue()) {
+        table[i] = error;
+      } else if (value >= Level.WARN.intValue()) {
+        table[i] = warn;
+      } else if (value >= Level.INFO.intValue()) {
+        table[i] = info;
+      } else if (value >= Level.DEBUG.intValue()) {
+        table[i] = debug;
+      } else {
+        table[i] = trace;
+      }
+    }
+  }
+
+  /**
+   * Get the backend level of a Level.
+   *
+   * @param value The int value of the Level.
+   * @return The backend level.
+   */
+  @SuppressWarnings("unchecked")
+  L get(int value) {
+    if (value < BASE) {
+      return (L) table[0];
+    }
+    final int index = (value - BASE) / STEP;
+    return (L) table[index < table.length ? index : table.length - 1];
+  }
+}
@@ -0,0 +1,78 @@
+package org.eclipse.microprofile.logging.providers.bridge;
+
+import java.util.function.Supplier;
+import org.eclipse.microprofile.logging.AbstractLogger;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.slf4j.Marker;
+
+/**
+ * Logger passing its events to an SLF4J Logger.
+ *
+ * <p>
+ * The message of each event is logged as is, never as a format pattern, with its Throwable and
+ * the other properties of the event in a {@link KeyValueMarker}, without rendering the event as JSON.
+ * Backends which keep the marker, E.g. for structured output, can read the properties from it.
+ * Whether a Level is logged is decided by the backend configuration.
+ * </p>
+ *
+ * @param <T> The type of LogEvent.
+ */
+public class Slf4jLogger<T extends LogEvent> extends AbstractLogger<T> {
+
+  static final LevelTable<org.slf4j.event.Level> LEVELS = new LevelTable<>(org.slf4j.event.Level.TRACE,
+                                                                           org.slf4j.event.Level.DEBUG,
+                                                                           org.slf4j.event.Level.INFO,
+                                                                           org.slf4j.event.Level.WARN,
+                                                                           org.slf4j.event.Level.ERROR);
+
+  private final org.slf4j.Logger backend;
+
+  public Slf4jLogger(String name, Supplier<T> supplier, org.slf4j.Logger backend) {
+    super(name, supplier);
+    this.backend = backend;
+  }
+
+  @Override
+  public boolean isLoggable(Level lvl) {
+    if (lvl.intValue() == Level.OFF.intValue()) {
+      return false;
+    }
+    switch (LEVELS.get(lvl.intValue())) {
+      case ERROR:
+        return backend.isErrorEnabled();
+      case WARN:
+        return backend.isWarnEnabled();
+      case INFO:
+        return backend.isInfoEnabled();
+      case DEBUG:
+        return backend.isDebugEnabled();
+      default:
+        return backend.isTraceEnabled();
+    }
+  }
+
+  @Override
+  public void writeLog(Level lvl, T event) {
+    final KeyValue[] keyValues = KeyValue.of(event);
+    final Marker marker = keyValues.length > 0 ? new KeyValueMarker(keyValues) : null;
+
+    // The methods taking a message and a Throwable do not format the message
+    switch (LEVELS.get(lvl.intValue())) {
+      case ERROR:
+        backend.error(marker, event.message, event.throwable);
+        break;
+      case WARN:
+        backend.warn(marker, event.message, event.throwable);
+        break;
+      case INFO:
+        backend.info(marker, event.message, event.throwable);
+        break;
+      case DEBUG:
+        backend.debug(marker, event.message, event.throwable);
+        break;
+      default:
+        backend.trace(marker, event.message, event.throwable);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package org.eclipse.microprofile.logging.providers.bridge;
+
+import java.util.function.Supplier;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.LogEventSupplier;
+import org.eclipse.microprofile.logging.Logger;
+import org.eclipse.microprofile.logging.LoggerFactoryProvider;
+import org.eclipse.microprofile.logging.LoggerRegistry;
+import org.slf4j.ILoggerFactory;
+
+/**
+ * {@link LoggerFactoryProvider} of {@link Slf4jLogger}s, bridging to the SLF4J Logger of the same name.
+ */
+public class Slf4jLoggerFactory implements LoggerFactoryProvider {
+
+  private static final LogEventSupplier LOG_EVENT_SUPPLIER = new LogEventSupplier();
+
+  private final LoggerRegistry registry = new LoggerRegistry();
+  private final ILoggerFactory backend;
+
+  public Slf4jLoggerFactory() {
+    this(org.slf4j.LoggerFactory.getILoggerFactory());
+  }
+
+  /**
+   * Create a factory resolving the SLF4J Loggers from the given factory.
+   *
+   * @param backend The SLF4J factory.
+   */
+  public Slf4jLoggerFactory(ILoggerFactory backend) {
+    this.backend = backend;
+  }
+
+  @Override
+  public Logger<LogEvent> getLogger() {
+    return registry.getLogger(LOG_EVENT_SUPPLIER, loggerKey -> new Slf4jLogger<>(loggerKey.getName(), LOG_EVENT_SUPPLIER, backend.getLogger(loggerKey.getName())));
+  }
+
+  @Override
+  public <T extends LogEvent> Logger<T> getLogger(Supplier<T> supplier) {
+    return registry.getLogger(supplier, loggerKey -> new Slf4jLogger<>(loggerKey.getName(), supplier, backend.getLogger(loggerKey.getName())));
+  }
+
+  @Override
+  public Logger<LogEvent> getLogger(String name) {
+    return registry.getLogger(name, LOG_EVENT_SUPPLIER, loggerKey -> new Slf4jLogger<>(loggerKey.getName(), LOG_EVENT_SUPPLIER, backend.getLogger(loggerKey.getName())));
+  }
+
+  @Override
+  public <T extends LogEvent> Logger<T> getLogger(String name, Supplier<T> supplier) {
+    return registry.getLogger(name, supplier, loggerKey -> new Slf4jLogger<>(loggerKey.getName(), supplier, backend.getLogger(loggerKey.getName())));
+  }
+}
@@ -0,0 +1,79 @@
+package org.eclipse.microprofile.logging.providers.file;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.logging.AbstractLogger;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.ThrowableRenderer;
+import org.eclipse.microprofile.logging.Utf8Buffer;
+
+/**
+ * Logger writing its events as JSON lines to a {@link RollingFileWriter}.
+ *
+ * <p>
+ * Each event becomes one JSON object with the properties {@code timestamp}, {@code level},
+ * {@code logger}, {@code mpLogEvent} (the LogEvent, as serialized by
+ * {@link org.eclipse.microprofile.logging.JsonEncoder}) and {@code exception}, if the event
+ * had a Throwable, the same lines as rendered by the binary log decoder, with the addition of the
+ * {@code stackTrace} of the exception.
+ * </p>
+ *
+ * <p>
+ * Each event is committed once written, except on the consumer thread of an
+ * {@link org.eclipse.microprofile.logging.AsyncDispatcher}, where the events of a batch
+ * are committed together, sharing one {@code force()} with {@link RollingFileWriter.Durability#BATCH}.
+ * </p>
+ *
+ * @param <T> The type of LogEvent.
+ */
+public class FileLogger<T extends LogEvent> extends AbstractLogger<T> {
+
+  private static final ThreadLocal<Utf8Buffer> STACK_TRACE = ThreadLocal.withInitial(Utf8Buffer::new);
+
+  private final RollingFileWriter writer;
+  private long uncommitted = -1;
+
+  public FileLogger(String name, Supplier<T> supplier, RollingFileWriter writer) {
+    super(name, supplier);
+    this.writer = writer;
+  }
+
+  @Override
+  public void writeLog(Level lvl, T event) {
+    final Utf8Buffer line = Utf8Buffer.local();
+    final long timestamp = LogEvent.timestampOf(event);
+    line.append("{\"timestamp\":").appendJsonString(Instant.ofEpochSecond(0, timestamp).toString())
+        .append(",\"level\":").appendJsonString(lvl.getName())
+        .append(",\"logger\":").appendJsonString(getName())
+        .append(",\"mpLogEvent\":");
+    writeJson(event, line);
+
+    final Throwable thrown = event.throwable;
+    if (thrown != null) {
+      line.append(",\"exception\":{\"class\":").appendJsonString(thrown.getClass().getName());
+      if (thrown.getMessage() != null) {
+        line.append(",\"message\":").appendJsonString(thrown.getMessage());
+      }
+      final Utf8Buffer stackTrace = STACK_TRACE.get().reset();
+      ThrowableRenderer.DEFAULT.render(thrown, stackTrace);
+      line.append(",\"stackTrace\":").appendJsonString(stackTrace.array(), 0, stackTrace.size()).append((byte) '}');
+    }
+    line.append((byte) '}');
+
+    final long position = writer.append(line);
+    if (isWritingBatch()) {
+      // Only the consumer thread writes batches, committed by endOfBatch()
+      uncommitted = Math.max(uncommitted, position);
+    } else {
+      writer.commit(position);
+    }
+  }
+
+  @Override
+  protected void endOfBatch() {
+    final long position = uncommitted;
+    uncommitted = -1;
+    writer.commit(position);
+  }
+}
@@ -0,0 +1,99 @@
+package org.eclipse.microprofile.logging.providers.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.LogEventSupplier;
+import org.eclipse.microprofile.logging.Logger;
+import org.eclipse.microprofile.logging.LoggerFactoryProvider;
+import org.eclipse.microprofile.logging.LoggerRegistry;
+
+/**
+ * {@link LoggerFactoryProvider} of {@link FileLogger}s sharing a single {@link RollingFileWriter}.
+ *
+ * <p>
+ * When created with the default constructor, the writer is configured through MicroProfile Config:
+ * <ul>
+ *  <li>{@code mp.logging.file.directory}: The directory of the log files. Default: {@code logs}.</li>
+ *  <li>{@code mp.logging.file.prefix}: The prefix of the log file names. Default: {@code mp-logging}.</li>
+ *  <li>{@code mp.logging.file.max.size}: The size after which the active file is rolled over, in bytes. Default: 100MB.</li>
+ *  <li>{@code mp.logging.file.roll.interval}: The time after which the active file is rolled over, in milliseconds, or 0 to roll by size only. Default: 0.</li>
+ *  <li>{@code mp.logging.file.compress}: Compress rolled files with gzip. Default: true.</li>
+ *  <li>{@code mp.logging.file.durability}: {@code none}, {@code periodic} or {@code batch}, see {@link RollingFileWriter.Durability}. Default: {@code none}.</li>
+ *  <li>{@code mp.logging.file.force.interval}: The interval at which lines are forced with {@code periodic} durability, in milliseconds. Default: 1000.</li>
+ * </ul>
+ * </p>
+ */
+public class FileLoggerFactory implements LoggerFactoryProvider {
+
+  private static final LogEventSupplier LOG_EVENT_SUPPLIER = new LogEventSupplier();
+
+  private final LoggerRegistry registry = new LoggerRegistry();
+  private final RollingFileWriter writer;
+
+  public FileLoggerFactory() {
+    this(createWriter());
+  }
+
+  public FileLoggerFactory(RollingFileWriter writer) {
+    this.writer = writer;
+  }
+
+  /**
+   * Get the writer shared by the Loggers of this factory.
+   *
+   * @return The writer.
+   */
+  public RollingFileWriter getWriter() {
+    return writer;
+  }
+
+  @Override
+  public Logger<LogEvent> getLogger() {
+    return registry.getLogger(LOG_EVENT_SUPPLIER, loggerKey -> new FileLogger<>(loggerKey.getName(), LOG_EVENT_SUPPLIER, writer));
+  }
+
+  @Override
+  public <T extends LogEvent> Logger<T> getLogger(Supplier<T> supplier) {
+    return registry.getLogger(supplier, loggerKey -> new FileLogger<>(loggerKey.getName(), supplier, writer));
+  }
+
+  @Override
+  public Logger<LogEvent> getLogger(String name) {
+    return registry.getLogger(name, LOG_EVENT_SUPPLIER, loggerKey -> new FileLogger<>(loggerKey.getName(), LOG_EVENT_SUPPLIER, writer));
+  }
+
+  @Override
+  public <T extends LogEvent> Logger<T> getLogger(String name, Supplier<T> supplier) {
+    return registry.getLogger(name, supplier, loggerKey -> new FileLogger<>(loggerKey.getName(), supplier, writer));
+  }
+
+  private static RollingFileWriter createWriter() {
+    try {
+      return new RollingFileWriter(Paths.get(getConfig("mp.logging.file.directory", "logs")),
+                                   getConfig("mp.logging.file.prefix", "mp-logging"),
+                                   Long.parseLong(getConfig("mp.logging.file.max.size", String.valueOf(RollingFileWriter.DEFAULT_MAX_FILE_SIZE))),
+                                   Long.parseLong(getConfig("mp.logging.file.roll.interval", "0")),
+                                   Boolean.parseBoolean(getConfig("mp.logging.file.compress", "true")),
+                                   RollingFileWriter.Durability.valueOf(getConfig("mp.logging.file.durability", "none").toUpperCase(Locale.ROOT)),
+                                   Long.parseLong(getConfig("mp.logging.file.force.interval", "1000")));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String getConfig(String key, String defaultValue) {
+    try {
+      final Config config = ConfigProvider.getConfig();
+      return config.getOptionalValue(key, String.class).orElse(defaultValue);
+    } catch (Throwable t) {
+      // MP Config is an optional component.
+      return defaultValue;
+    }
+  }
+}
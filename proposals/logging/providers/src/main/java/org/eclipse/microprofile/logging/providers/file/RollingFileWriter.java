@@ -0,0 +1,459 @@
+package org.eclipse.microprofile.logging.providers.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+import org.eclipse.microprofile.logging.Utf8Buffer;
+
+/**
+ * Appends lines to a log file, rolling it over by size and/or time.
+ *
+ * <p>
+ * Lines are appended to the active file {@code <prefix>.log}. When the file reaches its maximum size,
+ * or the roll interval has elapsed, it is renamed to {@code <prefix>-<yyyyMMdd-HHmmss>-<n>.log} and a new
+ * active file is started. Rolled files are compressed to {@code .log.gz} on a background thread, so the
+ * logging threads never wait for the compression.
+ * </p>
+ *
+ * <p>
+ * Appended lines are collected in a buffer and written to the file on {@link #commit(long)}, which makes
+ * them durable according to the {@link Durability} of the writer. With {@link Durability#BATCH} the writer
+ * performs group commit: the threads committing at the same time share a single {@link FileChannel#force(boolean)},
+ * the first thread forcing the data of all of them while the others wait for it. A single thread writing batches
+ * of lines, E.g. the consumer thread of an {@link org.eclipse.microprofile.logging.AsyncDispatcher}, can commit
+ * once per batch.
+ * </p>
+ *
+ * <p>
+ * A writer is thread-safe and can be shared by any number of loggers. It uses {@link ReentrantLock}s rather than
+ * monitors, so a virtual thread waiting for the file, or for a force, does not pin its carrier. Errors are not thrown to the logging code;
+ * lines which cannot be written are counted, see {@link #getDroppedCount()}. If the active file cannot be rolled over, lines are
+ * appended to it until a later attempt succeeds.
+ * </p>
+ */
+public final class RollingFileWriter implements Closeable {
+
+  /**
+   * When committed lines are forced to the storage device.
+   */
+  public enum Durability {
+    /**
+     * Lines are written to the file on commit and reach the device when the
+     * operating system writes back its cache.
+     */
+    NONE,
+
+    /**
+     * Lines are written to the file on commit and forced to the device
+     * periodically, by a background thread.
+     */
+    PERIODIC,
+
+    /**
+     * Lines are forced to the device before {@link RollingFileWriter#commit(long)} returns,
+     * sharing one force between the concurrent commits.
+     */
+    BATCH
+  }
+
+  /** Default maximum size of the active file. */
+  public static final long DEFAULT_MAX_FILE_SIZE = 100L * 1024 * 1024;
+
+  static final String SUFFIX = ".log";
+  static final String COMPRESSED_SUFFIX = ".log.gz";
+
+  private static final DateTimeFormatter ROLL_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  private final Path directory;
+  private final String prefix;
+  private final long maxFileSize;
+  private final long rollIntervalMillis;
+  private final boolean compress;
+  private final Durability durability;
+  private final ScheduledExecutorService background;
+  private final ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ReentrantLock forceLock = new ReentrantLock();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder forces = new LongAdder();
+
+  private volatile FileChannel channel;
+  private long fileSize;
+  private long rollSize;
+  private long nextRollMillis;
+  private int rollCount;
+  private boolean closed;
+
+  /** Position, over all files, of the end of the last appended line */
+  private long appended;
+
+  /** Position of the end of the lines written to the file */
+  private volatile long written;
+
+  /** Position of the end of the lines forced to the device */
+  private volatile long durable;
+
+  /**
+   * Create a writer, opening or creating the active file.
+   *
+   * @param directory The directory of the log files, created if necessary.
+   * @param prefix The prefix of the log file names.
+   * @param maxFileSize The size after which the active file is rolled over.
+   * @param rollIntervalMillis The time after which the active file is rolled over, or 0 to roll by size only.
+   * @param compress true to compress rolled files.
+   * @param durability When lines are forced to the device.
+   * @param forceIntervalMillis The interval at which lines are forced with {@link Durability#PERIODIC}.
+   *
+   * @throws IOException If the active file cannot be opened.
+   */
+  public RollingFileWriter(Path directory, String prefix, long maxFileSize, long rollIntervalMillis, boolean compress,
+                           Durability durability, long forceIntervalMillis) throws IOException {
+    if (maxFileSize < 1) {
+      throw new IllegalArgumentException("Max file size must be positive \"" + maxFileSize + "\"");
+    }
+    if (rollIntervalMillis < 0) {
+      throw new IllegalArgumentException("Roll interval must not be negative \"" + rollIntervalMillis + "\"");
+    }
+    if (durability == Durability.PERIODIC && forceIntervalMillis <= 0) {
+      throw new IllegalArgumentException("Force interval must be positive \"" + forceIntervalMillis + "\"");
+    }
+
+    this.directory = Files.createDirectories(directory);
+    this.prefix = prefix;
+    this.maxFileSize = maxFileSize;
+    this.rollIntervalMillis = rollIntervalMillis;
+    this.compress = compress;
+    this.durability = durability;
+    this.background = Executors.newScheduledThreadPool(durability == Durability.PERIODIC ? 2 : 1, r -> {
+      final Thread thread = new Thread(r, "mp-logging-file-" + THREAD_COUNT.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    open();
+    if (durability == Durability.PERIODIC) {
+      background.scheduleWithFixedDelay(this::forcePeriodically, forceIntervalMillis, forceIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Get the active file.
+   *
+   * @return The path of the file lines are appended to.
+   */
+  public Path getActiveFile() {
+    return directory.resolve(prefix + SUFFIX);
+  }
+
+  /**
+   * Get the durability of the writer.
+   *
+   * @return The durability.
+   */
+  public Durability getDurability() {
+    return durability;
+  }
+
+  /**
+   * Get the number of lines which could not be written.
+   *
+   * @return The number of dropped lines.
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * Get the number of times the active file has been forced to the device.
+   *
+   * @return The number of forces.
+   */
+  long getForceCount() {
+    return forces.sum();
+  }
+
+  /**
+   * Append a line. The line is not written to the file until it is committed.
+   *
+   * @param line The UTF-8 encoded line, without the line separator.
+   *
+   * @return The position to commit to make this line durable, or -1 if the line was dropped.
+   */
+  public long append(Utf8Buffer line) {
+    lock.lock();
+    try {
+      if (closed) {
+        dropped.increment();
+        return -1;
+      }
+      if (!channel.isOpen()) {
+        // A roll over failed to reopen the active file
+        open();
+      }
+      final int length = line.size() + 1;
+      if (fileSize > 0 && (fileSize + length > rollSize || isRollDue())) {
+        try {
+          roll();
+        } catch (IOException e) {
+          if (!channel.isOpen()) {
+            throw e;
+          }
+          // Appended to the unrolled file, rolling is retried after another
+          // maximum file size or roll interval
+        }
+      }
+      if (length > pending.remaining()) {
+        writePending();
+      }
+      if (length > pending.capacity()) {
+        writeFully(ByteBuffer.wrap(line.array(), 0, line.size()));
+        writeFully(ByteBuffer.wrap(new byte[] {'\n'}));
+        written = appended + length;
+      } else {
+        pending.put(line.array(), 0, line.size()).put((byte) '\n');
+      }
+      fileSize += length;
+      appended += length;
+      return appended;
+    } catch (IOException e) {
+      dropped.increment();
+      return -1;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Write the lines appended up to the position to the file, and force them
+   * to the device if the durability is {@link Durability#BATCH}.
+   *
+   * @param position The position returned by {@link #append(org.eclipse.microprofile.logging.Utf8Buffer)}.
+   */
+  public void commit(long position) {
+    if (position < 0) {
+      return;
+    }
+    if (written < position) {
+      lock.lock();
+      try {
+        writePending();
+      } catch (IOException e) {
+        // Counted when the lines are dropped
+      } finally {
+        lock.unlock();
+      }
+    }
+    if (durability == Durability.BATCH && durable < position) {
+      force(position);
+    }
+  }
+
+  /**
+   * Write and commit all appended lines.
+   */
+  public void flush() {
+    final long position;
+    lock.lock();
+    try {
+      position = appended;
+    } finally {
+      lock.unlock();
+    }
+    commit(position);
+  }
+
+  /**
+   * Commit the appended lines, close the active file and wait for the compression of the rolled files.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        writePending();
+      } catch (IOException e) {
+        // Counted when the lines are dropped
+      }
+      closeChannel();
+    } catch (IOException e) {
+      // Nothing more can be done
+    } finally {
+      lock.unlock();
+    }
+    background.shutdown();
+    try {
+      background.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Force the lines up to the position, or wait for the thread forcing them.
+   */
+  private void force(long position) {
+    forceLock.lock();
+    try {
+      if (durable >= position) {
+        // Forced by another thread whilst this one waited
+        return;
+      }
+      final long target = written;
+      channel.force(false);
+      forces.increment();
+      durable = target;
+    } catch (IOException e) {
+      // The lines remain in the file, without the guarantee
+    } finally {
+      forceLock.unlock();
+    }
+  }
+
+  private void forcePeriodically() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      writePending();
+    } catch (IOException e) {
+      // Counted when the lines are dropped
+    } finally {
+      lock.unlock();
+    }
+    if (durable < written) {
+      force(written);
+    }
+  }
+
+  /**
+   * Write the buffered lines to the file. Called with the lock held.
+   */
+  private void writePending() throws IOException {
+    if (pending.position() == 0) {
+      return;
+    }
+    pending.flip();
+    try {
+      writeFully(pending);
+      written = appended;
+    } catch (IOException e) {
+      // The lines of the buffer are lost
+      dropped.increment();
+      throw e;
+    } finally {
+      pending.clear();
+    }
+  }
+
+  private void writeFully(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private boolean isRollDue() {
+    return rollIntervalMillis > 0 && System.currentTimeMillis() >= nextRollMillis;
+  }
+
+  private void open() throws IOException {
+    channel = FileChannel.open(getActiveFile(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    fileSize = channel.size();
+    rollSize = maxFileSize;
+    nextRollMillis = System.currentTimeMillis() + rollIntervalMillis;
+  }
+
+  /**
+   * Force and close the active file. Called with the lock held.
+   */
+  private void closeChannel() throws IOException {
+    forceLock.lock();
+    try {
+      if (durability != Durability.NONE) {
+        channel.force(false);
+        forces.increment();
+      }
+      channel.close();
+      durable = written;
+    } finally {
+      forceLock.unlock();
+    }
+  }
+
+  /**
+   * Close the active file, rename it and open a new one. Called with the lock held.
+   *
+   * <p>
+   * If the file cannot be renamed it is opened again, so lines can still be appended to it, and
+   * the next attempt is postponed until the file has grown by another maximum file size, or
+   * the roll interval has elapsed again, rather than forcing and re-opening the file for every line.
+   * </p>
+   */
+  private void roll() throws IOException {
+    writePending();
+    closeChannel();
+
+    final Path rolled = directory.resolve(prefix + "-" + LocalDateTime.now().format(ROLL_TIME) + "-" + (rollCount + 1) + SUFFIX);
+    try {
+      Files.move(getActiveFile(), rolled);
+    } catch (IOException e) {
+      try {
+        open();
+        rollSize = fileSize + maxFileSize;
+      } catch (IOException reopen) {
+        e.addSuppressed(reopen);
+      }
+      throw e;
+    }
+    rollCount++;
+    open();
+
+    if (compress) {
+      background.execute(() -> compress(rolled));
+    }
+  }
+
+  private static void compress(Path rolled) {
+    final String name = rolled.getFileName().toString();
+    final Path target = rolled.resolveSibling(name.substring(0, name.length() - SUFFIX.length()) + COMPRESSED_SUFFIX);
+    try {
+      try (InputStream in = Files.newInputStream(rolled);
+           OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), BUFFER_SIZE)) {
+        final byte[] chunk = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(chunk)) >= 0) {
+          out.write(chunk, 0, read);
+        }
+      }
+      Files.delete(rolled);
+    } catch (IOException e) {
+      // Keep the uncompressed file
+      try {
+        Files.deleteIfExists(target);
+      } catch (IOException ignored) {
+        // Nothing more can be done
+      }
+    }
+  }
+}
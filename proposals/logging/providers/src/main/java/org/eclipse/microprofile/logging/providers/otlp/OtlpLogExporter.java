@@ -0,0 +1,559 @@
+package org.eclipse.microprofile.logging.providers.otlp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+import org.eclipse.microprofile.logging.JsonEncoder;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogContext;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.ThrowableRenderer;
+import org.eclipse.microprofile.logging.Utf8Buffer;
+
+/**
+ * Exports {@link LogEvent}s as OpenTelemetry log records, using OTLP/HTTP with the JSON encoding.
+ *
+ * <p>
+ * Each event is encoded as an OTLP {@code LogRecord} on the thread which writes it, so the event
+ * can be released as soon as {@link #export(org.eclipse.microprofile.logging.Level, java.lang.String, org.eclipse.microprofile.logging.LogEvent)}
+ * returns. The message becomes the body of the record, {@link LogEvent#traceId} and {@link LogEvent#spanId}
+ * its trace context, as hex ids padded to the OTLP length, the other properties of the event its attributes and the throwable the
+ * {@code exception.*} attributes, with the stack trace rendered by {@link ThrowableRenderer#DEFAULT}. The encoded records are queued for a background thread which
+ * groups them by Logger, the instrumentation scope of the records, into batches. A batch is sent
+ * once it holds the maximum number of records or the flush interval has elapsed, whichever comes
+ * first, compressed with gzip unless disabled.
+ * </p>
+ *
+ * <p>
+ * An exporter is thread-safe and can be shared by any number of loggers. Errors are not thrown
+ * to the logging code; records which do not fit the queue are counted as dropped, see
+ * {@link #getDroppedCount()}, and records of batches rejected by the receiver, or which could not
+ * be sent, as failed, see {@link #getFailedCount()}. Failed batches are not retried.
+ * </p>
+ *
+ * <p>
+ * The background thread is a daemon thread, so records still queued when the JVM exits are lost
+ * unless the exporter is closed first. Whoever creates an exporter closes it, E.g. the default
+ * {@link OtlpLoggerFactory} with a shutdown hook.
+ * </p>
+ */
+public final class OtlpLogExporter implements Closeable {
+
+  /** Default endpoint, of an OpenTelemetry collector on the local host. */
+  public static final String DEFAULT_ENDPOINT = "http://localhost:4318/v1/logs";
+
+  /** Default maximum number of records per batch. */
+  public static final int DEFAULT_BATCH_SIZE = 512;
+
+  /** Default interval after which a partial batch is sent, in milliseconds. */
+  public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+  /** Default maximum number of records waiting to be sent. */
+  public static final int DEFAULT_QUEUE_SIZE = 8192;
+
+  private static final int TIMEOUT_MILLIS = 10_000;
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  /** Buffer of each thread encoding records, separate from {@link Utf8Buffer#local()} used by {@link JsonEncoder} */
+  private static final ThreadLocal<Utf8Buffer> RECORD_BUFFER = ThreadLocal.withInitial(() -> new Utf8Buffer(1024));
+
+  private final URI endpoint;
+  private final byte[] resource;
+  private final int batchSize;
+  private final long flushIntervalNanos;
+  private final boolean compress;
+  private final BlockingQueue<Record> queue;
+  private final Thread sender;
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder exported = new LongAdder();
+
+  private volatile boolean closed;
+
+  /**
+   * Create an exporter with the default batching and compression.
+   *
+   * @param endpoint The URI of the OTLP/HTTP logs endpoint, E.g. {@value #DEFAULT_ENDPOINT}.
+   * @param serviceName The {@code service.name} of the resource emitting the logs.
+   */
+  public OtlpLogExporter(URI endpoint, String serviceName) {
+    this(endpoint, serviceName, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL, TimeUnit.MILLISECONDS, DEFAULT_QUEUE_SIZE, true);
+  }
+
+  /**
+   * Create an exporter.
+   *
+   * @param endpoint The URI of the OTLP/HTTP logs endpoint, E.g. {@value #DEFAULT_ENDPOINT}.
+   * @param serviceName The {@code service.name} of the resource emitting the logs.
+   * @param batchSize The maximum number of records per batch.
+   * @param flushInterval The interval after which a partial batch is sent.
+   * @param unit The unit of the interval.
+   * @param queueSize The maximum number of records waiting to be sent.
+   * @param compress true to compress the batches with gzip.
+   */
+  public OtlpLogExporter(URI endpoint, String serviceName, int batchSize, long flushInterval, TimeUnit unit,
+                         int queueSize, boolean compress) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive \"" + batchSize + "\"");
+    }
+    if (flushInterval <= 0) {
+      throw new IllegalArgumentException("Flush interval must be positive \"" + flushInterval + "\"");
+    }
+    if (queueSize < batchSize) {
+      throw new IllegalArgumentException("Queue size must be at least the batch size \"" + queueSize + "\"");
+    }
+
+    this.endpoint = endpoint;
+    this.resource = encodeResource(serviceName);
+    this.batchSize = batchSize;
+    this.flushIntervalNanos = unit.toNanos(flushInterval);
+    this.compress = compress;
+    this.queue = new ArrayBlockingQueue<>(queueSize);
+
+    sender = new Thread(this::send, "mp-logging-otlp-" + THREAD_COUNT.incrementAndGet());
+    sender.setDaemon(true);
+    sender.start();
+  }
+
+  /**
+   * Encode an event and queue it to be sent.
+   *
+   * @param lvl The Level of the log statement.
+   * @param loggerName The name of the Logger.
+   * @param event The log data.
+   */
+  public void export(Level lvl, String loggerName, LogEvent event) {
+    if (closed) {
+      dropped.increment();
+      return;
+    }
+    final Record record = new Record(loggerName, encodeRecord(lvl, event));
+    if (!queue.offer(record)) {
+      dropped.increment();
+    } else if (closed && queue.remove(record)) {
+      // Closed whilst queuing, the background thread may have stopped already
+      dropped.increment();
+    }
+  }
+
+  /**
+   * Get the number of records accepted by the receiver.
+   *
+   * @return The number of exported records.
+   */
+  public long getExportedCount() {
+    return exported.sum();
+  }
+
+  /**
+   * Get the number of events which were not queued, as the queue was full or the exporter closed.
+   *
+   * @return The number of dropped events.
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * Get the number of records of batches which could not be sent or were rejected by the receiver.
+   *
+   * @return The number of failed records.
+   */
+  public long getFailedCount() {
+    return failed.sum();
+  }
+
+  /**
+   * Send the queued records and stop the background thread.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    sender.interrupt();
+    try {
+      sender.join(2L * TIMEOUT_MILLIS);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Body of the background thread, collecting the queued records into batches.
+   */
+  private void send() {
+    final List<Record> batch = new ArrayList<>(batchSize);
+    final ByteArrayOutputStream body = new ByteArrayOutputStream(64 * 1024);
+    long deadline = System.nanoTime() + flushIntervalNanos;
+
+    while (true) {
+      final long wait = deadline - System.nanoTime();
+      if (wait > 0 && batch.size() < batchSize && !closed) {
+        try {
+          final Record record = queue.poll(wait, TimeUnit.NANOSECONDS);
+          if (record != null) {
+            batch.add(record);
+          }
+        } catch (InterruptedException ie) {
+          // Woken up by close(), the loop checks the flag.
+        }
+      }
+      queue.drainTo(batch, batchSize - batch.size());
+
+      if (batch.size() >= batchSize || deadline - System.nanoTime() <= 0 || closed) {
+        if (!batch.isEmpty()) {
+          post(batch, body);
+          batch.clear();
+        }
+        deadline = System.nanoTime() + flushIntervalNanos;
+        if (closed && queue.isEmpty()) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Send a batch as an {@code ExportLogsServiceRequest}.
+   *
+   * @param batch The records.
+   * @param body Buffer for the request body.
+   */
+  private void post(List<Record> batch, ByteArrayOutputStream body) {
+    try {
+      body.reset();
+      try (OutputStream out = compress ? new GZIPOutputStream(body, 8192) : body) {
+        writeRequest(batch, out);
+      }
+
+      final HttpURLConnection connection = (HttpURLConnection) endpoint.toURL().openConnection();
+      connection.setRequestMethod("POST");
+      connection.setDoOutput(true);
+      connection.setConnectTimeout(TIMEOUT_MILLIS);
+      connection.setReadTimeout(TIMEOUT_MILLIS);
+      connection.setRequestProperty("Content-Type", "application/json");
+      if (compress) {
+        connection.setRequestProperty("Content-Encoding", "gzip");
+      }
+      connection.setFixedLengthStreamingMode(body.size());
+      try (OutputStream out = connection.getOutputStream()) {
+        body.writeTo(out);
+      }
+
+      final int status = connection.getResponseCode();
+      // Consume the response so the connection can be re-used
+      try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+        if (in != null) {
+          final byte[] discard = new byte[1024];
+          while (in.read(discard) >= 0) {
+            // discard
+          }
+        }
+      }
+
+      if (status >= 200 && status < 300) {
+        exported.add(batch.size());
+      } else {
+        failed.add(batch.size());
+      }
+    } catch (IOException | RuntimeException e) {
+      failed.add(batch.size());
+    }
+  }
+
+  /**
+   * Write the request, with a scope for each Logger of the batch.
+   */
+  private void writeRequest(List<Record> batch, OutputStream out) throws IOException {
+    final Map<String, List<byte[]>> scopes = new LinkedHashMap<>();
+    for (Record record : batch) {
+      scopes.computeIfAbsent(record.loggerName, name -> new ArrayList<>()).add(record.json);
+    }
+
+    final Utf8Buffer buffer = RECORD_BUFFER.get().reset();
+    buffer.append("{\"resourceLogs\":[{\"resource\":").append(resource).append(",\"scopeLogs\":[");
+    boolean firstScope = true;
+    for (Map.Entry<String, List<byte[]>> scope : scopes.entrySet()) {
+      if (!firstScope) {
+        buffer.append((byte) ',');
+      }
+      firstScope = false;
+      buffer.append("{\"scope\":{\"name\":").appendJsonString(scope.getKey()).append("},\"logRecords\":[");
+      buffer.writeTo(out);
+      buffer.reset();
+
+      boolean firstRecord = true;
+      for (byte[] json : scope.getValue()) {
+        if (!firstRecord) {
+          out.write(',');
+        }
+        firstRecord = false;
+        out.write(json);
+      }
+      buffer.append("]}");
+    }
+    buffer.append("]}]}");
+    buffer.writeTo(out);
+  }
+
+  private static byte[] encodeResource(String serviceName) {
+    final Utf8Buffer buffer = new Utf8Buffer();
+    buffer.append("{\"attributes\":[");
+    appendStringAttribute(buffer, "service.name", serviceName);
+    buffer.append("]}");
+    return Arrays.copyOf(buffer.array(), buffer.size());
+  }
+
+  /**
+   * Encode a {@code LogRecord}.
+   *
+   * @param lvl The Level of the log statement.
+   * @param event The log data.
+   *
+   * @return The JSON of the record.
+   */
+  static byte[] encodeRecord(Level lvl, LogEvent event) {
+    final Utf8Buffer buffer = RECORD_BUFFER.get().reset();
+
+    buffer.append("{\"timeUnixNano\":\"").append(LogEvent.timestampOf(event))
+          .append("\",\"severityNumber\":").append(severityOf(lvl))
+          .append(",\"severityText\":").appendJsonString(lvl.getName());
+    if (event.message != null) {
+      buffer.append(",\"body\":{\"stringValue\":").appendJsonString(event.message).append((byte) '}');
+    }
+
+    buffer.append(",\"attributes\":[");
+    final AttributeEncoder attributes = new AttributeEncoder(buffer, event);
+    if (!attributes.encoder.visit(event, attributes)) {
+      attributes.attribute("mpLogEvent").append("{\"stringValue\":").appendJsonString(JsonEncoder.toJson(event)).append("}}");
+    }
+    final Throwable thrown = event.throwable;
+    if (thrown != null) {
+      attributes.string("exception.type", thrown.getClass().getName());
+      if (thrown.getMessage() != null) {
+        attributes.string("exception.message", thrown.getMessage());
+      }
+      final Utf8Buffer trace = Utf8Buffer.local();
+      ThrowableRenderer.DEFAULT.render(thrown, trace);
+      attributes.attribute("exception.stacktrace").append("{\"stringValue\":")
+                .appendJsonString(trace.array(), 0, trace.size()).append("}}");
+    }
+    buffer.append((byte) ']');
+
+    if (event.traceId != null) {
+      appendId(buffer, "traceId", event.traceId, 32);
+    }
+    if (event.spanId != null) {
+      appendId(buffer, "spanId", event.spanId, 16);
+    }
+    buffer.append((byte) '}');
+    return Arrays.copyOf(buffer.array(), buffer.size());
+  }
+
+  /**
+   * Append a trace or span id as lowercase hex of the length required by OTLP, left-padded with zeros,
+   * E.g. the unpadded ids of Jaeger or the decimal ids of MockTracer. Ids which are not hex, longer
+   * than the length or all zeros are invalid and omitted.
+   *
+   * @param buffer The record.
+   * @param key The field of the record.
+   * @param id The id of the event.
+   * @param length The number of hex digits of the field.
+   */
+  private static void appendId(Utf8Buffer buffer, String key, String id, int length) {
+    final int size = id.length();
+    if (size == 0 || size > length) {
+      return;
+    }
+    boolean zero = true;
+    for (int i = 0; i < size; i++) {
+      final char c = id.charAt(i);
+      if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F')) {
+        return;
+      }
+      zero &= c == '0';
+    }
+    if (zero) {
+      return;
+    }
+
+    buffer.append(",\"").append(key).append("\":\"");
+    for (int i = size; i < length; i++) {
+      buffer.append((byte) '0');
+    }
+    for (int i = 0; i < size; i++) {
+      final char c = id.charAt(i);
+      buffer.append((byte) (c >= 'A' && c <= 'F' ? c + ('a' - 'A') : c));
+    }
+    buffer.append((byte) '"');
+  }
+
+  /**
+   * Map a Level to the OpenTelemetry severity number of the first value of its range.
+   *
+   * @param lvl The Level.
+   * @return The severity number.
+   */
+  static int severityOf(Level lvl) {
+    final int value = lvl.intValue();
+    if (value >= Level.ERROR.intValue()) {
+      return 17;
+    } else if (value >= Level.WARN.intValue()) {
+      return 13;
+    } else if (value >= Level.INFO.intValue()) {
+      return 9;
+    } else if (value >= Level.DEBUG.intValue()) {
+      return 5;
+    }
+    return 1;
+  }
+
+  private static void appendStringAttribute(Utf8Buffer buffer, String key, String value) {
+    buffer.append("{\"key\":").appendJsonString(key).append(",\"value\":{\"stringValue\":")
+          .appendJsonString(value).append("}}");
+  }
+
+  /**
+   * Writes the properties of an event as OTLP attributes, skipping those mapped
+   * to fields of the record and null values.
+   */
+  private static final class AttributeEncoder implements JsonEncoder.PropertyVisitor {
+
+    private final Utf8Buffer buffer;
+    private final JsonEncoder encoder;
+    private boolean first = true;
+
+    AttributeEncoder(Utf8Buffer buffer, LogEvent event) {
+      this.buffer = buffer;
+      this.encoder = JsonEncoder.forClass(event.getClass());
+    }
+
+    @Override
+    public void visitLong(int index, long value) {
+      if (include(index)) {
+        attribute(encoder.getPropertyName(index)).append("{\"intValue\":\"").append(value).append("\"}}");
+      }
+    }
+
+    @Override
+    public void visitBoolean(int index, boolean value) {
+      if (include(index)) {
+        attribute(encoder.getPropertyName(index)).append("{\"boolValue\":").append(value ? "true" : "false")
+                                                 .append("}}");
+      }
+    }
+
+    @Override
+    public void visitDouble(int index, double value) {
+      if (include(index)) {
+        final Utf8Buffer attribute = attribute(encoder.getPropertyName(index));
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+          attribute.append("{\"stringValue\":").appendJsonString(Double.toString(value)).append("}}");
+        } else {
+          attribute.append("{\"doubleValue\":").append(Double.toString(value)).append("}}");
+        }
+      }
+    }
+
+    @Override
+    public void visitFloat(int index, float value) {
+      visitDouble(index, value);
+    }
+
+    @Override
+    public void visitChar(int index, char value) {
+      if (include(index)) {
+        attribute(encoder.getPropertyName(index)).append("{\"stringValue\":").appendJsonString(value)
+                                                 .append("}}");
+      }
+    }
+
+    @Override
+    public void visitObject(int index, Object value) {
+      if (value == null) {
+        return;
+      } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+        visitLong(index, ((Number) value).longValue());
+      } else if (value instanceof Double || value instanceof Float) {
+        visitDouble(index, ((Number) value).doubleValue());
+      } else if (value instanceof Boolean) {
+        visitBoolean(index, (Boolean) value);
+      } else if (value instanceof Character) {
+        visitChar(index, (Character) value);
+      } else if (value instanceof LogContext) {
+        // Each entry is an attribute of the record
+        final LogContext context = (LogContext) value;
+        for (int i = 0; i < context.size(); i++) {
+          if (context.isLong(i)) {
+            attribute(context.getKey(i)).append("{\"intValue\":\"").append(context.getLong(i)).append("\"}}");
+          } else {
+            attribute(context.getKey(i)).append("{\"stringValue\":").appendJsonString(context.getString(i))
+                                        .append("}}");
+          }
+        }
+      } else if (include(index)) {
+        final String text = value instanceof CharSequence ? value.toString() : JsonEncoder.toJson(value);
+        attribute(encoder.getPropertyName(index)).append("{\"stringValue\":").appendJsonString(text)
+                                                 .append("}}");
+      }
+    }
+
+    /**
+     * Is the property an attribute, rather than a field of the record?
+     */
+    private boolean include(int index) {
+      final String name = encoder.getPropertyName(index);
+      return !"message".equals(name) && !"spanId".equals(name) && !"traceId".equals(name);
+    }
+
+    /**
+     * Start an attribute.
+     *
+     * @param key The key of the attribute.
+     * @return The buffer, ready for the value, which must be followed by the closing brace of the attribute.
+     */
+    Utf8Buffer attribute(String key) {
+      if (!first) {
+        buffer.append((byte) ',');
+      }
+      first = false;
+      return buffer.append("{\"key\":").appendJsonString(key).append(",\"value\":");
+    }
+
+    void string(String key, String value) {
+      attribute(key).append("{\"stringValue\":").appendJsonString(value).append("}}");
+    }
+  }
+
+  /**
+   * An encoded {@code LogRecord}, waiting to be sent.
+   */
+  private static final class Record {
+
+    private final String loggerName;
+    private final byte[] json;
+
+    Record(String loggerName, byte[] json) {
+      this.loggerName = loggerName;
+      this.json = json;
+    }
+  }
+}
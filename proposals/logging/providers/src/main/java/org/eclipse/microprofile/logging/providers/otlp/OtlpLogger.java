@@ -0,0 +1,31 @@
+package org.eclipse.microprofile.logging.providers.otlp;
+
+import java.util.function.Supplier;
+import org.eclipse.microprofile.logging.AbstractLogger;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+
+/**
+ * Logger exporting its events through an {@link OtlpLogExporter}.
+ *
+ * <p>
+ * The Level of the Logger is resolved from the hierarchical Level configuration,
+ * see {@link org.eclipse.microprofile.logging.Configuration#getLevel(java.lang.String)}.
+ * </p>
+ *
+ * @param <T> The type of LogEvent.
+ */
+public class OtlpLogger<T extends LogEvent> extends AbstractLogger<T> {
+
+  private final OtlpLogExporter exporter;
+
+  public OtlpLogger(String name, Supplier<T> supplier, OtlpLogExporter exporter) {
+    super(name, supplier);
+    this.exporter = exporter;
+  }
+
+  @Override
+  public void writeLog(Level lvl, T event) {
+    exporter.export(lvl, getName(), event);
+  }
+}
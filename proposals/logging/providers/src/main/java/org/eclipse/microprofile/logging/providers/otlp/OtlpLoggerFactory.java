@@ -0,0 +1,102 @@
+package org.eclipse.microprofile.logging.providers.otlp;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.LogEventSupplier;
+import org.eclipse.microprofile.logging.Logger;
+import org.eclipse.microprofile.logging.LoggerFactoryProvider;
+import org.eclipse.microprofile.logging.LoggerRegistry;
+
+/**
+ * {@link LoggerFactoryProvider} of {@link OtlpLogger}s sharing a single {@link OtlpLogExporter}.
+ *
+ * <p>
+ * When created with the default constructor, the exporter is configured through MicroProfile Config:
+ * <ul>
+ *  <li>{@code mp.logging.otlp.endpoint}: The OTLP/HTTP logs endpoint. Default: {@value OtlpLogExporter#DEFAULT_ENDPOINT}.</li>
+ *  <li>{@code mp.logging.otlp.service.name}: The {@code service.name} resource attribute. Default: {@code unknown_service:java}.</li>
+ *  <li>{@code mp.logging.otlp.batch.size}: The maximum number of records per batch. Default: 512.</li>
+ *  <li>{@code mp.logging.otlp.flush.interval}: The interval after which a partial batch is sent, in milliseconds. Default: 1000.</li>
+ *  <li>{@code mp.logging.otlp.queue.size}: The maximum number of records waiting to be sent. Default: 8192.</li>
+ *  <li>{@code mp.logging.otlp.compression}: {@code gzip} or {@code none}. Default: {@code gzip}.</li>
+ * </ul>
+ * </p>
+ */
+public class OtlpLoggerFactory implements LoggerFactoryProvider {
+
+  private static final LogEventSupplier LOG_EVENT_SUPPLIER = new LogEventSupplier();
+
+  private final LoggerRegistry registry = new LoggerRegistry();
+  private final OtlpLogExporter exporter;
+
+  /**
+   * Create a factory with an exporter configured through MicroProfile Config, closed by a shutdown hook
+   * so the records still queued are sent when the JVM exits.
+   */
+  public OtlpLoggerFactory() {
+    this(createExporter());
+    Runtime.getRuntime().addShutdownHook(new Thread(exporter::close, "mp-logging-otlp-shutdown"));
+  }
+
+  /**
+   * Create a factory with the given exporter, which is closed by the caller once logging ends.
+   *
+   * @param exporter The exporter shared by the Loggers.
+   */
+  public OtlpLoggerFactory(OtlpLogExporter exporter) {
+    this.exporter = exporter;
+  }
+
+  /**
+   * Get the exporter shared by the Loggers of this factory.
+   *
+   * @return The exporter.
+   */
+  public OtlpLogExporter getExporter() {
+    return exporter;
+  }
+
+  @Override
+  public Logger<LogEvent> getLogger() {
+    return registry.getLogger(LOG_EVENT_SUPPLIER, loggerKey -> new OtlpLogger<>(loggerKey.getName(), LOG_EVENT_SUPPLIER, exporter));
+  }
+
+  @Override
+  public <T extends LogEvent> Logger<T> getLogger(Supplier<T> supplier) {
+    return registry.getLogger(supplier, loggerKey -> new OtlpLogger<>(loggerKey.getName(), supplier, exporter));
+  }
+
+  @Override
+  public Logger<LogEvent> getLogger(String name) {
+    return registry.getLogger(name, LOG_EVENT_SUPPLIER, loggerKey -> new OtlpLogger<>(loggerKey.getName(), LOG_EVENT_SUPPLIER, exporter));
+  }
+
+  @Override
+  public <T extends LogEvent> Logger<T> getLogger(String name, Supplier<T> supplier) {
+    return registry.getLogger(name, supplier, loggerKey -> new OtlpLogger<>(loggerKey.getName(), supplier, exporter));
+  }
+
+  private static OtlpLogExporter createExporter() {
+    return new OtlpLogExporter(URI.create(getConfig("mp.logging.otlp.endpoint", OtlpLogExporter.DEFAULT_ENDPOINT)),
+                               getConfig("mp.logging.otlp.service.name", "unknown_service:java"),
+                               Integer.parseInt(getConfig("mp.logging.otlp.batch.size", String.valueOf(OtlpLogExporter.DEFAULT_BATCH_SIZE))),
+                               Long.parseLong(getConfig("mp.logging.otlp.flush.interval", String.valueOf(OtlpLogExporter.DEFAULT_FLUSH_INTERVAL))),
+                               TimeUnit.MILLISECONDS,
+                               Integer.parseInt(getConfig("mp.logging.otlp.queue.size", String.valueOf(OtlpLogExporter.DEFAULT_QUEUE_SIZE))),
+                               !"none".equalsIgnoreCase(getConfig("mp.logging.otlp.compression", "gzip")));
+  }
+
+  private static String getConfig(String key, String defaultValue) {
+    try {
+      final Config config = ConfigProvider.getConfig();
+      return config.getOptionalValue(key, String.class).orElse(defaultValue);
+    } catch (Throwable t) {
+      // MP Config is an optional component.
+      return defaultValue;
+    }
+  }
+}
@@ -0,0 +1,271 @@
+package org.eclipse.microprofile.logging.providers.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.bind.annotation.JsonbProperty;
+import org.eclipse.microprofile.logging.Configuration;
+import org.eclipse.microprofile.logging.JsonEncoder;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test writing events with the {@link BinaryLogWriter} and rendering them
+ * with the {@link BinaryLogDecoder}.
+ */
+public class BinaryLogTest {
+
+  /**
+   * Test that a decoded event has the same JSON as the {@link JsonEncoder}.
+   *
+   * @param dir Temporary directory.
+   * @throws IOException If the segment cannot be written or read.
+   */
+  @Test
+  public void testDecodedEventMatchesJson(@TempDir Path dir) throws IOException {
+    final TypedLogEvent event = new TypedLogEvent();
+    event.message = "Typed \"event\" é 😀";
+    event.spanId = "1234";
+    event.count = -42;
+    event.ratio = 0.1;
+    event.letter = 'x';
+    event.flag = true;
+    event.boxed = 7L;
+    event.state = Thread.State.BLOCKED;
+    event.tags = Arrays.asList("a", "b");
+
+    final BinaryLoggerFactory factory;
+    try (BinaryLogWriter writer = new BinaryLogWriter(dir, "test", 8192)) {
+      factory = new BinaryLoggerFactory(writer, Level.INFO);
+      final Logger<TypedLogEvent> log = factory.getLogger("typed", TypedLogEvent::new);
+      log.debug(e -> "Not written");
+      log.info(e -> {
+        copy(event, e);
+        return event.message;
+      });
+      log.error(e -> {
+        e.throwable = new IllegalStateException("Failed");
+        return "Error";
+      });
+    }
+
+    final List<JsonObject> lines = decode(dir);
+    assertEquals(2, lines.size());
+
+    final JsonObject info = lines.get(0);
+    assertEquals("INFO", info.getString("level"));
+    assertEquals("typed", info.getString("logger"));
+    assertEquals(parse(JsonEncoder.toJson(event)), info.getJsonObject("mpLogEvent"));
+    assertFalse(info.containsKey("exception"));
+
+    final JsonObject error = lines.get(1);
+    assertEquals("ERROR", error.getString("level"));
+    assertEquals("Error", error.getJsonObject("mpLogEvent").getString("message"));
+    assertEquals(IllegalStateException.class.getName(), error.getJsonObject("exception").getString("class"));
+    assertEquals("Failed", error.getJsonObject("exception").getString("message"));
+  }
+
+  /**
+   * Test that NaN and the infinities are decoded as Strings, as {@link JsonEncoder} writes them.
+   *
+   * @param dir Temporary directory.
+   * @throws IOException If the segment cannot be written or read.
+   */
+  @Test
+  public void testNonFiniteNumbers(@TempDir Path dir) throws IOException {
+    final NumbersLogEvent event = new NumbersLogEvent();
+    event.message = "Numbers";
+    event.nan = Double.NaN;
+    event.positive = Float.POSITIVE_INFINITY;
+    event.negative = Double.NEGATIVE_INFINITY;
+    event.finite = 0.1f;
+
+    try (BinaryLogWriter writer = new BinaryLogWriter(dir, "numbers", 8192)) {
+      final Logger<NumbersLogEvent> log = new BinaryLoggerFactory(writer, Level.INFO)
+          .getLogger("numbers", NumbersLogEvent::new);
+      log.info(e -> {
+        e.nan = event.nan;
+        e.positive = event.positive;
+        e.negative = event.negative;
+        e.finite = event.finite;
+        return event.message;
+      });
+    }
+
+    final List<JsonObject> lines = decode(dir);
+    assertEquals(1, lines.size());
+    final JsonObject decoded = lines.get(0).getJsonObject("mpLogEvent");
+    assertEquals(parse(JsonEncoder.toJson(event)), decoded);
+    assertEquals("NaN", decoded.getString("nan"));
+    assertEquals("Infinity", decoded.getString("positive"));
+    assertEquals("-Infinity", decoded.getString("negative"));
+    assertEquals("0.1", decoded.getJsonNumber("finite").toString());
+  }
+
+  /**
+   * Test that the Level configured for the Logger applies on top of the minimum Level of the factory.
+   *
+   * @param dir Temporary directory.
+   * @throws IOException If the segment cannot be written or read.
+   */
+  @Test
+  public void testConfiguredLevel(@TempDir Path dir) throws IOException {
+    try (BinaryLogWriter writer = new BinaryLogWriter(dir, "level", 8192)) {
+      final Logger<LogEvent> log = new BinaryLoggerFactory(writer, Level.INFO).getLogger("binary.level");
+      Configuration.setLevel("binary.level", Level.WARN);
+      try {
+        log.info(e -> "Not written");
+        log.warn(e -> "Written");
+      } finally {
+        Configuration.setLevel("binary.level", null);
+      }
+      log.info(e -> "Written again");
+    }
+
+    final List<JsonObject> lines = decode(dir);
+    assertEquals(2, lines.size());
+    assertEquals("Written", lines.get(0).getJsonObject("mpLogEvent").getString("message"));
+    assertEquals("Written again", lines.get(1).getJsonObject("mpLogEvent").getString("message"));
+  }
+
+  /**
+   * Test that events continue in new segments, which can each be decoded, in order.
+   *
+   * @param dir Temporary directory.
+   * @throws IOException If the segments cannot be written or read.
+   */
+  @Test
+  public void testSegmentsRoll(@TempDir Path dir) throws IOException {
+    try (BinaryLogWriter writer = new BinaryLogWriter(dir, "roll", 8192)) {
+      final Logger<LogEvent> log = new BinaryLoggerFactory(writer, Level.INFO).getLogger("roll");
+      for (int i = 0; i < 500; i++) {
+        final int n = i;
+        log.info(e -> "Event " + n);
+      }
+      assertEquals(0, writer.getDroppedCount());
+    }
+
+    final List<JsonObject> lines = decode(dir);
+    assertEquals(500, lines.size());
+    for (int i = 0; i < lines.size(); i++) {
+      assertEquals("Event " + i, lines.get(i).getJsonObject("mpLogEvent").getString("message"));
+    }
+    assertTrue(segmentCount(dir) > 1);
+  }
+
+  /**
+   * Test that the prepared, unused, segment is removed on close and that
+   * events written afterwards are dropped.
+   *
+   * @param dir Temporary directory.
+   * @throws IOException If the segment cannot be written.
+   */
+  @Test
+  public void testClose(@TempDir Path dir) throws IOException {
+    final BinaryLogWriter writer = new BinaryLogWriter(dir, "close", 8192);
+    writer.close();
+    writer.write(Level.INFO, "closed", new LogEvent());
+
+    assertEquals(1, writer.getDroppedCount());
+    assertEquals(1, segmentCount(dir));
+  }
+
+  private static List<JsonObject> decode(Path dir) throws IOException {
+    final List<Path> segments = new ArrayList<>();
+    try (DirectoryStream<Path> found = Files.newDirectoryStream(dir, "*.mplog")) {
+      found.forEach(segments::add);
+    }
+    segments.sort(null);
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (Path segment : segments) {
+      BinaryLogDecoder.decode(segment, out);
+    }
+
+    final List<JsonObject> lines = new ArrayList<>();
+    for (String line : new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+      if (!line.isEmpty()) {
+        lines.add(parse(line));
+      }
+    }
+    return lines;
+  }
+
+  private static long segmentCount(Path dir) throws IOException {
+    try (DirectoryStream<Path> found = Files.newDirectoryStream(dir, "*.mplog")) {
+      long count = 0;
+      for (Path path : found) {
+        count++;
+      }
+      return count;
+    }
+  }
+
+  private static JsonObject parse(String json) {
+    return Json.createReader(new StringReader(json)).readObject();
+  }
+
+  private static void copy(TypedLogEvent from, TypedLogEvent to) {
+    to.spanId = from.spanId;
+    to.count = from.count;
+    to.ratio = from.ratio;
+    to.letter = from.letter;
+    to.flag = from.flag;
+    to.boxed = from.boxed;
+    to.state = from.state;
+    to.tags = from.tags;
+  }
+
+  /**
+   * LogEvent with properties of the different value types.
+   */
+  public static class TypedLogEvent extends LogEvent {
+
+    public int count;
+
+    public double ratio;
+
+    public char letter;
+
+    public boolean flag;
+
+    public Long boxed;
+
+    public Thread.State state;
+
+    public List<String> tags;
+
+    @JsonbProperty(nillable = true)
+    public String nothing;
+  }
+
+  /**
+   * LogEvent with floating point properties.
+   */
+  public static class NumbersLogEvent extends LogEvent {
+
+    public double nan;
+
+    public float positive;
+
+    public double negative;
+
+    public float finite;
+  }
+}
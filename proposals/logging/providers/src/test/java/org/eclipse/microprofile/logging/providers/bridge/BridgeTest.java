@@ -0,0 +1,197 @@
+package org.eclipse.microprofile.logging.providers.bridge;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogContext;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.Logger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test passing events to JUL and SLF4J with the bridge providers.
+ */
+public class BridgeTest {
+
+  /**
+   * Test the mapping of the standard and custom Levels.
+   */
+  @Test
+  public void testLevelTable() {
+    assertEquals(java.util.logging.Level.FINEST, JulLogger.LEVELS.get(Level.ALL.intValue()));
+    assertEquals(java.util.logging.Level.FINEST, JulLogger.LEVELS.get(Level.TRACE.intValue()));
+    assertEquals(java.util.logging.Level.FINE, JulLogger.LEVELS.get(Level.DEBUG.intValue()));
+    assertEquals(java.util.logging.Level.FINE, JulLogger.LEVELS.get(799));
+    assertEquals(java.util.logging.Level.INFO, JulLogger.LEVELS.get(Level.INFO.intValue()));
+    assertEquals(java.util.logging.Level.WARNING, JulLogger.LEVELS.get(Level.WARN.intValue()));
+    assertEquals(java.util.logging.Level.SEVERE, JulLogger.LEVELS.get(Level.ERROR.intValue()));
+    assertEquals(java.util.logging.Level.SEVERE, JulLogger.LEVELS.get(Integer.MAX_VALUE - 1));
+    assertEquals(org.slf4j.event.Level.INFO, Slf4jLogger.LEVELS.get(850));
+  }
+
+  /**
+   * Test that an event becomes a LogRecord with the properties as parameters,
+   * and that the JUL Level decides what is logged.
+   */
+  @Test
+  public void testJul() {
+    final java.util.logging.Logger backend = java.util.logging.Logger.getAnonymousLogger();
+    backend.setUseParentHandlers(false);
+    backend.setLevel(java.util.logging.Level.INFO);
+    final List<LogRecord> records = new ArrayList<>();
+    backend.addHandler(new Handler() {
+      @Override
+      public void publish(LogRecord record) {
+        records.add(record);
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+
+    final Logger<OrderLogEvent> log = new JulLoggerFactory(name -> backend).getLogger("orders", OrderLogEvent::new);
+    final IllegalStateException thrown = new IllegalStateException("Declined");
+    log.debug(e -> "Not logged");
+    try (LogContext.Scope scope = LogContext.current().with("tenant", "acme").attach()) {
+      log.warn(e -> {
+        e.orderId = 42;
+        e.throwable = thrown;
+        return "Order failed";
+      });
+    }
+
+    assertEquals(1, records.size());
+    final LogRecord record = records.get(0);
+    assertEquals(java.util.logging.Level.WARNING, record.getLevel());
+    assertEquals("Order failed", record.getMessage());
+    assertEquals("orders", record.getLoggerName());
+    assertNull(record.getSourceClassName());
+    assertNull(record.getSourceMethodName());
+    assertSame(thrown, record.getThrown());
+    assertEquals("[tenant=acme, orderId=42]", Arrays.toString(record.getParameters()));
+    assertEquals(42L, ((KeyValue) record.getParameters()[1]).getValue());
+    assertEquals("Order failed", new SimpleFormatter().formatMessage(record));
+  }
+
+  /**
+   * Test that a message JUL would format as a pattern is shown as is.
+   */
+  @Test
+  public void testJulMessageNotFormatted() {
+    final List<LogRecord> records = new ArrayList<>();
+    final java.util.logging.Logger backend = recordingJulLogger(records);
+
+    final Logger<OrderLogEvent> log = new JulLoggerFactory(name -> backend).getLogger("orders", OrderLogEvent::new);
+    final String message = "Use {0} or {1,number}, it's {} and '{3}'";
+    log.info(e -> {
+      e.orderId = 1;
+      return message;
+    });
+    new JulLoggerFactory(name -> backend).getLogger("plain").info(e -> "Without properties {0}");
+
+    assertEquals(message, new SimpleFormatter().formatMessage(records.get(0)));
+    assertEquals("Without properties {0}", records.get(1).getMessage());
+    assertNull(records.get(1).getParameters());
+    assertEquals("No pattern's {}", JulLogger.quote("No pattern's {}"));
+  }
+
+  private static java.util.logging.Logger recordingJulLogger(List<LogRecord> records) {
+    final java.util.logging.Logger backend = java.util.logging.Logger.getAnonymousLogger();
+    backend.setUseParentHandlers(false);
+    backend.addHandler(new Handler() {
+      @Override
+      public void publish(LogRecord record) {
+        records.add(record);
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    return backend;
+  }
+
+  /**
+   * Test that an event is logged with the properties in a marker, the message as is
+   * and the Throwable, and that the SLF4J Level decides what is logged.
+   */
+  @Test
+  public void testSlf4j() {
+    final List<Object[]> calls = new ArrayList<>();
+    final org.slf4j.Logger backend = (org.slf4j.Logger) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] {org.slf4j.Logger.class}, (proxy, method, args) -> {
+          if (method.getName().startsWith("is")) {
+            return !"isTraceEnabled".equals(method.getName());
+          }
+          assertEquals(Arrays.asList(org.slf4j.Marker.class, String.class, Throwable.class),
+              Arrays.asList(method.getParameterTypes()));
+          calls.add(new Object[] {method.getName(), args[0], args[1], args[2]});
+          return null;
+        });
+
+    final Logger<OrderLogEvent> log = new Slf4jLoggerFactory(name -> backend).getLogger("orders", OrderLogEvent::new);
+    final IllegalStateException thrown = new IllegalStateException("Declined");
+    log.trace(e -> "Not logged");
+    log.info(e -> {
+      e.orderId = 7;
+      return "Order {} placed";
+    });
+    log.error(e -> {
+      e.throwable = thrown;
+      return "Order failed";
+    });
+
+    assertEquals(2, calls.size());
+    assertEquals("info", calls.get(0)[0]);
+    final KeyValueMarker marker = (KeyValueMarker) calls.get(0)[1];
+    assertEquals("orderId=7", marker.getName());
+    assertEquals(7L, marker.getKeyValues()[0].getValue());
+    assertEquals("Order {} placed", calls.get(0)[2]);
+    assertNull(calls.get(0)[3]);
+
+    assertEquals("error", calls.get(1)[0]);
+    final KeyValue[] keyValues = ((KeyValueMarker) calls.get(1)[1]).getKeyValues();
+    assertEquals(1, keyValues.length);
+    assertFalse(keyValues[0].getKey().isEmpty());
+    assertEquals("Order failed", calls.get(1)[2]);
+    assertSame(thrown, calls.get(1)[3]);
+  }
+
+  /**
+   * Test that events without properties have no parameters.
+   */
+  @Test
+  public void testNoProperties() {
+    final LogEvent event = new LogEvent();
+    event.message = "Only a message";
+    assertArrayEquals(new KeyValue[0], KeyValue.of(event));
+  }
+
+  /**
+   * Event with an additional property.
+   */
+  public static class OrderLogEvent extends LogEvent {
+
+    public long orderId;
+  }
+}
@@ -0,0 +1,218 @@
+package org.eclipse.microprofile.logging.providers.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.eclipse.microprofile.logging.AbstractLogger;
+import org.eclipse.microprofile.logging.AsyncDispatcher;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.Utf8Buffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test writing events with the {@link FileLogger} to a {@link RollingFileWriter}.
+ */
+public class FileLogTest {
+
+  private static final DateTimeFormatter ROLL_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  /**
+   * Test that the active file is rolled over by size and the rolled files
+   * are compressed, without losing any line.
+   *
+   * @param dir Temporary directory.
+   * @throws IOException If the files cannot be read.
+   */
+  @Test
+  public void testRollingAndCompression(@TempDir Path dir) throws IOException {
+    final RollingFileWriter writer = new RollingFileWriter(dir, "test", 1024, 0, true, RollingFileWriter.Durability.NONE, 0);
+    try {
+      final AbstractLogger<LogEvent> log = (AbstractLogger<LogEvent>) new FileLoggerFactory(writer).getLogger("rolling");
+      for (int i = 0; i < 50; i++) {
+        final int count = i;
+        log.info(e -> "Message " + count);
+      }
+    } finally {
+      writer.close();
+    }
+
+    final List<Path> rolled = files(dir, "test-*");
+    assertFalse(rolled.isEmpty());
+    for (Path file : rolled) {
+      assertTrue(file.toString().endsWith(RollingFileWriter.COMPRESSED_SUFFIX), file.toString());
+    }
+
+    final List<String> lines = new ArrayList<>();
+    for (Path file : rolled) {
+      try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+        lines.addAll(lines(in));
+      }
+    }
+    try (InputStream in = Files.newInputStream(writer.getActiveFile())) {
+      lines.addAll(lines(in));
+    }
+    assertEquals(50, lines.size());
+
+    final JsonObject first = json(lines.stream().filter(l -> l.contains("\"Message 0\"")).findFirst().get());
+    assertEquals("INFO", first.getString("level"));
+    assertEquals("rolling", first.getString("logger"));
+    assertEquals("Message 0", first.getJsonObject("mpLogEvent").getString("message"));
+    assertFalse(first.getString("timestamp").isEmpty());
+  }
+
+  /**
+   * Test that lines are appended to the active file when it cannot be renamed,
+   * and that the roll over is only retried after another maximum file size.
+   *
+   * @param dir Temporary directory.
+   * @throws IOException If the files cannot be written.
+   */
+  @Test
+  public void testFailedRename(@TempDir Path dir) throws IOException {
+    // Occupy the name of the first rolled file for the next seconds
+    final List<Path> occupied = new ArrayList<>();
+    final LocalDateTime now = LocalDateTime.now();
+    for (int i = -1; i < 60; i++) {
+      occupied.add(Files.createFile(dir.resolve("test-" + now.plusSeconds(i).format(ROLL_TIME) + "-1" + RollingFileWriter.SUFFIX)));
+    }
+
+    final List<String> written = new ArrayList<>();
+    // Lines of 7 bytes, the first roll over fails before the third line
+    final RollingFileWriter writer = new RollingFileWriter(dir, "test", 20, 0, false, RollingFileWriter.Durability.NONE, 0);
+    try {
+      for (int i = 0; i < 5; i++) {
+        final String line = "Line " + i;
+        writer.commit(writer.append(new Utf8Buffer().append(line)));
+        written.add(line);
+        if (i == 2) {
+          for (Path file : occupied) {
+            Files.delete(file);
+          }
+        }
+      }
+    } finally {
+      writer.close();
+    }
+
+    assertEquals(0, writer.getDroppedCount());
+    final List<Path> rolled = files(dir, "test-*" + RollingFileWriter.SUFFIX);
+    assertEquals(1, rolled.size());
+    assertTrue(rolled.get(0).toString().endsWith("-1" + RollingFileWriter.SUFFIX), rolled.toString());
+    // Not retried with the fourth line, the file had not grown by 20 bytes
+    try (InputStream in = Files.newInputStream(rolled.get(0))) {
+      assertEquals(written.subList(0, 4), lines(in));
+    }
+    try (InputStream in = Files.newInputStream(writer.getActiveFile())) {
+      assertEquals(written.subList(4, 5), lines(in));
+    }
+  }
+
+  /**
+   * Test that committing a position forces all lines appended before it once.
+   *
+   * @param dir Temporary directory.
+   * @throws IOException If the file cannot be written.
+   */
+  @Test
+  public void testGroupCommit(@TempDir Path dir) throws IOException {
+    try (RollingFileWriter writer = new RollingFileWriter(dir, "test", 1 << 20, 0, false, RollingFileWriter.Durability.BATCH, 0)) {
+      final long first = writer.append(new Utf8Buffer().append("first"));
+      final long last = writer.append(new Utf8Buffer().append("last"));
+      assertEquals(0, Files.size(writer.getActiveFile()));
+
+      writer.commit(last);
+      assertEquals(1, writer.getForceCount());
+      assertEquals(last, Files.size(writer.getActiveFile()));
+
+      // Already durable
+      writer.commit(first);
+      writer.commit(last);
+      assertEquals(1, writer.getForceCount());
+    }
+  }
+
+  /**
+   * Test that the events written by an {@link AsyncDispatcher} are committed by batch,
+   * including the stack trace of an exception.
+   *
+   * @param dir Temporary directory.
+   * @throws IOException If the file cannot be read.
+   */
+  @Test
+  public void testDispatcherBatches(@TempDir Path dir) throws IOException {
+    final List<String> lines;
+    final long forces;
+    try (RollingFileWriter writer = new RollingFileWriter(dir, "test", 1 << 20, 0, false, RollingFileWriter.Durability.BATCH, 0)) {
+      final AbstractLogger<LogEvent> log = (AbstractLogger<LogEvent>) new FileLoggerFactory(writer).getLogger("batched");
+      try (AsyncDispatcher dispatcher = new AsyncDispatcher(256, AsyncDispatcher.OverflowPolicy.BLOCK)) {
+        log.setDispatcher(dispatcher);
+        for (int i = 0; i < 200; i++) {
+          final int count = i;
+          log.info(e -> "Message " + count);
+        }
+        log.warn(e -> {
+          e.throwable = new IllegalStateException("Failed \"quoted\"");
+          return "Failure";
+        });
+      }
+
+      forces = writer.getForceCount();
+      try (InputStream in = Files.newInputStream(writer.getActiveFile())) {
+        lines = lines(in);
+      }
+    }
+
+    assertEquals(201, lines.size());
+    assertTrue(forces >= 1 && forces <= 201, String.valueOf(forces));
+
+    final JsonObject exception = json(lines.get(200)).getJsonObject("exception");
+    assertEquals(IllegalStateException.class.getName(), exception.getString("class"));
+    assertEquals("Failed \"quoted\"", exception.getString("message"));
+    assertTrue(exception.getString("stackTrace").contains("testDispatcherBatches"), exception.getString("stackTrace"));
+  }
+
+  private static List<Path> files(Path dir, String glob) throws IOException {
+    final List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> found = Files.newDirectoryStream(dir, glob)) {
+      found.forEach(files::add);
+    }
+    return files;
+  }
+
+  private static List<String> lines(InputStream in) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final byte[] chunk = new byte[4096];
+    int read;
+    while ((read = in.read(chunk)) >= 0) {
+      bytes.write(chunk, 0, read);
+    }
+    final List<String> lines = new ArrayList<>();
+    for (String line : new String(bytes.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+      if (!line.isEmpty()) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+
+  private static JsonObject json(String line) {
+    return Json.createReader(new StringReader(line)).readObject();
+  }
+}
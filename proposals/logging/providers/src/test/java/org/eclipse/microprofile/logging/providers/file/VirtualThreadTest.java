@@ -0,0 +1,131 @@
+package org.eclipse.microprofile.logging.providers.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.eclipse.microprofile.logging.AbstractLogger;
+import org.eclipse.microprofile.logging.AsyncDispatcher;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Stress test logging from virtual threads, checking that no carrier thread is pinned on the
+ * {@code writeLog} path. Virtual threads are created through reflection, the test is skipped
+ * before Java 21.
+ */
+public class VirtualThreadTest {
+
+  private static final int THREADS = 100_000;
+
+  private static final String PINNED = "jdk.VirtualThreadPinned";
+
+  /**
+   * Test virtual threads contending for the writer.
+   *
+   * @param dir Temporary directory.
+   * @throws Exception If the virtual threads cannot be run or the files read.
+   */
+  @Test
+  public void testDirectWrites(@TempDir Path dir) throws Exception {
+    stress(dir, null);
+  }
+
+  /**
+   * Test virtual threads handing their events over to an {@link AsyncDispatcher}.
+   *
+   * @param dir Temporary directory.
+   * @throws Exception If the virtual threads cannot be run or the files read.
+   */
+  @Test
+  public void testDispatchedWrites(@TempDir Path dir) throws Exception {
+    try (AsyncDispatcher dispatcher = new AsyncDispatcher(1024, AsyncDispatcher.OverflowPolicy.BLOCK)) {
+      stress(dir, dispatcher);
+    }
+  }
+
+  private static void stress(Path dir, AsyncDispatcher dispatcher) throws Exception {
+    final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+    assumeTrue(executor != null, "Virtual threads require Java 21");
+
+    final Path recordingFile = dir.resolve("pinned.jfr");
+    final Path logs = dir.resolve("logs");
+    try (Recording recording = new Recording()) {
+      recording.enable(PINNED).withThreshold(Duration.ZERO).withStackTrace();
+      recording.start();
+
+      try (RollingFileWriter writer = new RollingFileWriter(logs, "stress", 1 << 20, 0, true,
+                                                            RollingFileWriter.Durability.PERIODIC, 10)) {
+        final AbstractLogger<LogEvent> log = (AbstractLogger<LogEvent>) new FileLoggerFactory(writer).getLogger("stress");
+        log.setDispatcher(dispatcher);
+        for (int i = 0; i < THREADS; i++) {
+          final int count = i;
+          executor.execute(() -> log.info(e -> "Message " + count));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "Virtual threads did not complete");
+        if (dispatcher != null) {
+          dispatcher.close();
+        }
+        assertEquals(0, writer.getDroppedCount());
+      }
+
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    final List<RecordedEvent> pinned = RecordingFile.readAllEvents(recordingFile).stream()
+                                                    .filter(e -> PINNED.equals(e.getEventType().getName()))
+                                                    .collect(Collectors.toList());
+    assertTrue(pinned.isEmpty(), () -> "Carrier pinned: " + pinned.get(0));
+    assertEquals(THREADS, countLines(logs));
+  }
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  private static long countLines(Path logs) throws IOException {
+    long lines = 0;
+    try (Stream<Path> files = Files.list(logs)) {
+      for (Path file : files.collect(Collectors.toList())) {
+        try (InputStream in = file.toString().endsWith(RollingFileWriter.COMPRESSED_SUFFIX)
+                                      ? new GZIPInputStream(Files.newInputStream(file))
+                                      : Files.newInputStream(file)) {
+          final byte[] chunk = new byte[8192];
+          int read;
+          while ((read = in.read(chunk)) >= 0) {
+            for (int i = 0; i < read; i++) {
+              if (chunk[i] == '\n') {
+                lines++;
+              }
+            }
+          }
+        }
+      }
+    }
+    return lines;
+  }
+}
@@ -0,0 +1,263 @@
+package org.eclipse.microprofile.logging.providers.otlp;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import org.eclipse.microprofile.logging.Level;
+import org.eclipse.microprofile.logging.LogEvent;
+import org.eclipse.microprofile.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test exporting events with the {@link OtlpLogExporter} to an in-process stand-in
+ * of an OTLP/HTTP receiver.
+ */
+public class OtlpLogExporterTest {
+
+  private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+  private HttpServer server;
+  private URI endpoint;
+
+  @BeforeEach
+  public void startReceiver() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/v1/logs", this::receive);
+    server.start();
+    endpoint = URI.create("http://localhost:" + server.getAddress().getPort() + "/v1/logs");
+  }
+
+  @AfterEach
+  public void stopReceiver() {
+    server.stop(0);
+  }
+
+  /**
+   * Test that a batch is sent, compressed, once it is full and that the
+   * records carry the event data and trace context.
+   *
+   * @throws InterruptedException If interrupted whilst waiting for the request.
+   */
+  @Test
+  public void testSizeBasedFlush() throws InterruptedException {
+    final OtlpLogExporter exporter = new OtlpLogExporter(endpoint, "test-service", 3, 1, TimeUnit.MINUTES, 16, true);
+    try {
+      final Logger<CountLogEvent> log = new OtlpLoggerFactory(exporter).getLogger("orders", CountLogEvent::new);
+      for (int i = 1; i <= 3; i++) {
+        final int count = i;
+        log.warn(e -> {
+          e.count = count;
+          e.traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+          e.spanId = "00f067aa0ba902b7";
+          return "Message " + count;
+        });
+      }
+
+      final Request request = requests.poll(5, TimeUnit.SECONDS);
+      assertNotNull(request, "Batch was not sent");
+      assertEquals("gzip", request.encoding);
+
+      final JsonObject resourceLogs = request.body.getJsonArray("resourceLogs").getJsonObject(0);
+      final JsonObject serviceName = resourceLogs.getJsonObject("resource").getJsonArray("attributes").getJsonObject(0);
+      assertEquals("service.name", serviceName.getString("key"));
+      assertEquals("test-service", serviceName.getJsonObject("value").getString("stringValue"));
+
+      final JsonObject scopeLogs = resourceLogs.getJsonArray("scopeLogs").getJsonObject(0);
+      assertEquals("orders", scopeLogs.getJsonObject("scope").getString("name"));
+      final JsonArray records = scopeLogs.getJsonArray("logRecords");
+      assertEquals(3, records.size());
+
+      final JsonObject record = records.getJsonObject(2);
+      assertEquals("Message 3", record.getJsonObject("body").getString("stringValue"));
+      assertEquals(13, record.getInt("severityNumber"));
+      assertEquals("WARN", record.getString("severityText"));
+      assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", record.getString("traceId"));
+      assertEquals("00f067aa0ba902b7", record.getString("spanId"));
+      assertFalse(record.getString("timeUnixNano").isEmpty());
+
+      final JsonObject attribute = record.getJsonArray("attributes").getJsonObject(0);
+      assertEquals("count", attribute.getString("key"));
+      assertEquals("3", attribute.getJsonObject("value").getString("intValue"));
+    } finally {
+      exporter.close();
+    }
+    assertEquals(3, exporter.getExportedCount());
+  }
+
+  /**
+   * Test that a partial batch is sent once the flush interval has elapsed.
+   *
+   * @throws InterruptedException If interrupted whilst waiting for the request.
+   */
+  @Test
+  public void testTimeBasedFlush() throws InterruptedException {
+    try (OtlpLogExporter exporter = new OtlpLogExporter(endpoint, "test-service", 100, 50, TimeUnit.MILLISECONDS, 100, false)) {
+      final Logger<LogEvent> log = new OtlpLoggerFactory(exporter).getLogger("payments");
+      log.error(e -> {
+        e.throwable = new IllegalStateException("Declined");
+        return "Payment failed";
+      });
+
+      final Request request = requests.poll(5, TimeUnit.SECONDS);
+      assertNotNull(request, "Batch was not sent");
+      assertNull(request.encoding);
+
+      final JsonObject record = request.body.getJsonArray("resourceLogs").getJsonObject(0)
+                                            .getJsonArray("scopeLogs").getJsonObject(0)
+                                            .getJsonArray("logRecords").getJsonObject(0);
+      assertEquals(17, record.getInt("severityNumber"));
+      assertFalse(record.containsKey("traceId"));
+
+      final JsonArray attributes = record.getJsonArray("attributes");
+      assertEquals("exception.type", attributes.getJsonObject(0).getString("key"));
+      assertEquals(IllegalStateException.class.getName(), attributes.getJsonObject(0).getJsonObject("value").getString("stringValue"));
+      assertEquals("Declined", attributes.getJsonObject(1).getJsonObject("value").getString("stringValue"));
+      assertTrue(attributes.getJsonObject(2).getJsonObject("value").getString("stringValue").contains("testTimeBasedFlush"));
+    }
+  }
+
+  /**
+   * Test that closing the exporter sends the queued records, grouped by Logger.
+   *
+   * @throws InterruptedException If interrupted whilst waiting for the request.
+   */
+  @Test
+  public void testCloseFlushes() throws InterruptedException {
+    final OtlpLogExporter exporter = new OtlpLogExporter(endpoint, "test-service", 100, 1, TimeUnit.MINUTES, 100, true);
+    final OtlpLoggerFactory factory = new OtlpLoggerFactory(exporter);
+    factory.getLogger("first").info(e -> "One");
+    factory.getLogger("second").info(e -> "Two");
+    factory.getLogger("first").info(e -> "Three");
+    exporter.close();
+
+    final Request request = requests.poll(5, TimeUnit.SECONDS);
+    assertNotNull(request, "Batch was not sent");
+    final JsonArray scopeLogs = request.body.getJsonArray("resourceLogs").getJsonObject(0).getJsonArray("scopeLogs");
+    assertEquals(2, scopeLogs.size());
+    assertEquals("first", scopeLogs.getJsonObject(0).getJsonObject("scope").getString("name"));
+    assertEquals(2, scopeLogs.getJsonObject(0).getJsonArray("logRecords").size());
+    assertEquals(1, scopeLogs.getJsonObject(1).getJsonArray("logRecords").size());
+    assertEquals(3, exporter.getExportedCount());
+  }
+
+  /**
+   * Test that ids which are not W3C trace context ids are padded to the OTLP length, or omitted if invalid.
+   */
+  @Test
+  public void testIdNormalization() {
+    final LogEvent event = new LogEvent();
+    event.message = "Ids";
+    // Jaeger trims leading zeros, MockTracer uses decimal ids
+    event.traceId = "A3CE929D0E0E4736";
+    event.spanId = "42";
+    JsonObject record = parse(OtlpLogExporter.encodeRecord(Level.INFO, event));
+    assertEquals("0000000000000000a3ce929d0e0e4736", record.getString("traceId"));
+    assertEquals("0000000000000042", record.getString("spanId"));
+
+    event.traceId = "4bf92f35-77b3-4da6-a3ce-929d0e0e4736";
+    event.spanId = "0000";
+    record = parse(OtlpLogExporter.encodeRecord(Level.INFO, event));
+    assertFalse(record.containsKey("traceId"));
+    assertFalse(record.containsKey("spanId"));
+
+    event.traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+    event.spanId = "00f067aa0ba902b700";
+    record = parse(OtlpLogExporter.encodeRecord(Level.INFO, event));
+    assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", record.getString("traceId"));
+    assertFalse(record.containsKey("spanId"));
+  }
+
+  /**
+   * Test that each record exported whilst the exporter is closed is either sent or counted as dropped.
+   *
+   * @throws InterruptedException If interrupted whilst waiting for the writing threads.
+   */
+  @Test
+  public void testExportDuringClose() throws InterruptedException {
+    final OtlpLogExporter exporter = new OtlpLogExporter(endpoint, "test-service", 100, 1, TimeUnit.MINUTES, 10_000, false);
+    final Logger<LogEvent> log = new OtlpLoggerFactory(exporter).getLogger("racing");
+    final int perThread = 1_000;
+    final Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread(() -> {
+        for (int n = 0; n < perThread; n++) {
+          log.info(e -> "Racing");
+        }
+      });
+      threads[i].start();
+    }
+    exporter.close();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(0, exporter.getFailedCount());
+    assertEquals(threads.length * perThread, exporter.getExportedCount() + exporter.getDroppedCount());
+  }
+
+  private void receive(HttpExchange exchange) throws IOException {
+    final String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+    final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    try (InputStream in = "gzip".equals(encoding) ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+      final byte[] chunk = new byte[4096];
+      int read;
+      while ((read = in.read(chunk)) >= 0) {
+        body.write(chunk, 0, read);
+      }
+    }
+    requests.add(new Request(encoding, Json.createReader(new StringReader(new String(body.toByteArray(), StandardCharsets.UTF_8))).readObject()));
+
+    final byte[] response = "{}".getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, response.length);
+    exchange.getResponseBody().write(response);
+    exchange.close();
+  }
+
+  private static JsonObject parse(byte[] json) {
+    return Json.createReader(new StringReader(new String(json, StandardCharsets.UTF_8))).readObject();
+  }
+
+  /**
+   * A request received by the stand-in receiver.
+   */
+  private static final class Request {
+
+    private final String encoding;
+    private final JsonObject body;
+
+    Request(String encoding, JsonObject body) {
+      this.encoding = encoding;
+      this.body = body;
+    }
+  }
+
+  /**
+   * Event with an additional property, exported as an attribute.
+   */
+  public static class CountLogEvent extends LogEvent {
+
+    public int count;
+  }
+}
@@ -10,7 +10,8 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 /**
  * The annotated methods or fields are used to build the <code>detail</code>
  * field of the problem detail. Multiple details are joined to a single string
- * delimited by `. `: a period and a space character.
+ * delimited by `. `: a period and a space character, in the order of the names
+ * of the methods or fields.
  * <p>
  * Defaults to the message of the exception.
  */
@@ -0,0 +1,16 @@
+package org.eclipse.microprofile.problemdetails;
+
+/**
+ * Base class for exceptions that only exist to become a problem detail response, e.g. a <code>4xx</code>
+ * annotated with {@link Status} and <code>{@literal @}{@link Logging}(at = OFF)</code>.
+ * <p>
+ * These exceptions don't capture a stack trace when constructed, which is the largest cost of throwing them,
+ * and implementations don't log a stack trace for them. They keep their cause and suppressed exceptions.
+ */
+public abstract class StacklessException extends RuntimeException {
+    protected StacklessException() { this(null, null); }
+
+    protected StacklessException(String message) { this(message, null); }
+
+    protected StacklessException(String message, Throwable cause) { super(message, cause, true, false); }
+}
@@ -0,0 +1,48 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The parts of the problem details of an exception class which are encoded once, for one media type.
+ * <p>
+ * The head, i.e. the document start with the <code>type</code>, <code>title</code>, and <code>status</code>,
+ * is encoded if these are constant. If the whole {@link ProblemPlan#isConstant() plan is constant}, so is the document
+ * of an exception without a message, apart from its generated <code>urn:uuid:</code> instance; then the document is
+ * encoded with a slot for the instance, and written by copying it and filling in the instance.
+ */
+final class EncodedProblem {
+    static final EncodedProblem NONE = new EncodedProblem(new byte[0], null, 0);
+
+    static final String INSTANCE_PLACEHOLDER = "urn:uuid:00000000-0000-0000-0000-000000000000";
+
+    /** Empty if not constant */
+    final byte[] head;
+    /** <code>null</code> if not constant */
+    private final byte[] document;
+    private final int instanceOffset;
+
+    EncodedProblem(byte[] head, byte[] document, int instanceOffset) {
+        this.head = head;
+        this.document = document;
+        this.instanceOffset = instanceOffset;
+    }
+
+    /**
+     * Write the encoded document, if the problem has no detail and a generated instance.
+     *
+     * @return <code>false</code> if the document has to be written by the caller.
+     */
+    boolean writeTo(Problem problem, OutputStream out) throws IOException {
+        if (document == null || problem.getException().getMessage() != null)
+            return false;
+        String instance = problem.getInstance().toString();
+        if (instance.length() != INSTANCE_PLACEHOLDER.length())
+            return false;
+        byte[] bytes = document.clone();
+        for (int i = 0; i < instance.length(); i++)
+            bytes[instanceOffset + i] = (byte) instance.charAt(i);
+        out.write(bytes);
+        return true;
+    }
+}
@@ -0,0 +1,166 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * An unsynchronized byte buffer for an entity, encoding strings directly to UTF-8.
+ * <p>
+ * A buffer for an entity stream holds only a small window of the entity, which is written to the stream
+ * whenever it's full, and when the buffer is flushed. A buffer without a stream grows to hold all bytes,
+ * e.g. to encode the constant parts of the problems of a class once.
+ */
+final class EntityBuffer extends OutputStream {
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+    /** <code>null</code> to grow */
+    private final OutputStream out;
+    private byte[] bytes;
+    private int size;
+
+    EntityBuffer(int capacity) { this(null, capacity); }
+
+    EntityBuffer(OutputStream out, int capacity) {
+        this.out = out;
+        this.bytes = new byte[capacity];
+    }
+
+    /** The number of bytes in a growing buffer */
+    int size() { return size; }
+
+    byte[] toByteArray() { return Arrays.copyOf(bytes, size); }
+
+    @Override public void write(int b) throws IOException {
+        ensureCapacity(1);
+        bytes[size++] = (byte) b;
+    }
+
+    @Override public void write(byte[] b, int off, int len) throws IOException {
+        if (out != null && len > bytes.length) {
+            flush();
+            out.write(b, off, len);
+            return;
+        }
+        ensureCapacity(len);
+        System.arraycopy(b, off, bytes, size, len);
+        size += len;
+    }
+
+    /**
+     * Write the buffered bytes to the entity stream, but don't flush the stream itself:
+     * the container does that when the entity is complete.
+     */
+    @Override public void flush() throws IOException {
+        if (out != null && size > 0) {
+            out.write(bytes, 0, size);
+            size = 0;
+        }
+    }
+
+    /** Append a string containing only ASCII characters, e.g. markup or a number */
+    EntityBuffer ascii(String value) throws IOException {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++)
+            bytes[size++] = (byte) value.charAt(i);
+        return this;
+    }
+
+    /** Append a quoted and escaped JSON string, or <code>null</code> */
+    EntityBuffer jsonString(String value) throws IOException {
+        if (value == null)
+            return ascii("null");
+        write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    ascii("\\\"");
+                    break;
+                case '\\':
+                    ascii("\\\\");
+                    break;
+                case '\n':
+                    ascii("\\n");
+                    break;
+                case '\r':
+                    ascii("\\r");
+                    break;
+                case '\t':
+                    ascii("\\t");
+                    break;
+                default:
+                    if (c < ' ') {
+                        ascii("\\u00");
+                        write(HEX[c >> 4]);
+                        write(HEX[c & 0xF]);
+                    } else {
+                        i = utf8(value, i);
+                    }
+            }
+        }
+        write('"');
+        return this;
+    }
+
+    /** Append XML character data, escaping markup and replacing characters XML doesn't allow */
+    EntityBuffer xmlText(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    ascii("&amp;");
+                    break;
+                case '<':
+                    ascii("&lt;");
+                    break;
+                case '>':
+                    ascii("&gt;");
+                    break;
+                default:
+                    if (c < ' ' && c != '\t' && c != '\n' && c != '\r')
+                        write('?');
+                    else
+                        i = utf8(value, i);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Append the UTF-8 encoding of the character at the index.
+     *
+     * @return The index of the last character encoded, the low surrogate of a surrogate pair.
+     */
+    private int utf8(String value, int i) throws IOException {
+        char c = value.charAt(i);
+        if (c < 0x80) {
+            write(c);
+        } else if (c < 0x800) {
+            write(0xC0 | c >> 6);
+            write(0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(++i));
+            write(0xF0 | codePoint >> 18);
+            write(0x80 | codePoint >> 12 & 0x3F);
+            write(0x80 | codePoint >> 6 & 0x3F);
+            write(0x80 | codePoint & 0x3F);
+        } else if (Character.isSurrogate(c)) {
+            write('?');
+        } else {
+            write(0xE0 | c >> 12);
+            write(0x80 | c >> 6 & 0x3F);
+            write(0x80 | c & 0x3F);
+        }
+        return i;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (size + length <= bytes.length)
+            return;
+        flush();
+        if (size + length > bytes.length)
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+    }
+}
@@ -0,0 +1,53 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.StatusType;
+import java.net.URI;
+
+/**
+ * The problem details of an exception, as the entity of a response.
+ * <p>
+ * The fields are read from the exception by its {@link ProblemPlan} when the entity is written,
+ * e.g. by the {@link ProblemJsonWriter} or the {@link ProblemXmlWriter}, without building a map or other
+ * intermediate object. Only the status and the instance are resolved when the problem is created, so the
+ * same instance can be logged and sent.
+ */
+public final class Problem {
+    public static Problem of(Throwable exception) { return new Problem(exception); }
+
+    private final Throwable exception;
+    private final ProblemPlan plan;
+    private final StatusType status;
+    private final URI instance;
+
+    private Problem(Throwable exception) {
+        this.exception = exception;
+        this.plan = ProblemPlan.of(exception.getClass());
+        this.status = plan.getStatus(exception);
+        this.instance = plan.getInstance(exception);
+    }
+
+    public Throwable getException() { return exception; }
+
+    public ProblemPlan getPlan() { return plan; }
+
+    public URI getType() { return plan.getType(exception); }
+
+    public String getTitle() { return plan.getTitle(exception); }
+
+    public StatusType getStatus() { return status; }
+
+    public String getDetail() { return plan.getDetail(exception); }
+
+    public URI getInstance() { return instance; }
+
+    /**
+     * A response with the status of the problem, and the problem as entity of the media type.
+     */
+    public Response toResponse(MediaType mediaType) {
+        return Response.status(status).type(mediaType).entity(this).build();
+    }
+
+    @Override public String toString() { return "Problem[" + getType() + ": " + instance + "]"; }
+}
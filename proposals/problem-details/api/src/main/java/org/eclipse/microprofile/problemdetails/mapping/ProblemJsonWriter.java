@@ -0,0 +1,168 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.eclipse.microprofile.problemdetails.Constants.PROBLEM_DETAIL_JSON;
+
+/**
+ * Streams a {@link Problem} as <code>application/problem+json</code>, reading the fields from the
+ * exception while writing them. The document is encoded into a small buffer, which is written to the
+ * entity stream whenever it's full, so it's never held as a whole.
+ * <p>
+ * The <code>type</code>, <code>title</code>, and <code>status</code> of a class are encoded once and
+ * copied as bytes for every problem of the class. If the other fields are constant, too, the whole document is
+ * encoded once, and only the instance is filled in for exceptions without a message. Strings and other scalars are encoded directly to UTF-8;
+ * only extensions with structured values, i.e. collections, arrays, or maps, are written with a JSON-P
+ * {@link JsonGenerator}.
+ */
+@Provider
+@Produces(PROBLEM_DETAIL_JSON)
+public class ProblemJsonWriter implements MessageBodyWriter<Problem> {
+    /** The encoded head and, for constant plans, document of a class */
+    private static final ClassValue<EncodedProblem> ENCODED = new ClassValue<EncodedProblem>() {
+        @Override protected EncodedProblem computeValue(Class<?> type) {
+            try {
+                return encode(ProblemPlan.of(type.asSubclass(Throwable.class)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("could not encode " + type.getName(), e);
+            }
+        }
+    };
+
+    /** The encoded parts of the problems of a class */
+    static EncodedProblem encoded(Class<? extends Throwable> type) { return ENCODED.get(type); }
+
+    @Override public boolean isWriteable(Class<?> type, java.lang.reflect.Type genericType, Annotation[] annotations,
+                                         MediaType mediaType) {
+        return Problem.class.isAssignableFrom(type);
+    }
+
+    @Override public void writeTo(Problem problem, Class<?> type, java.lang.reflect.Type genericType, Annotation[] annotations,
+                                  MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+        throws IOException {
+        if (encoded(problem.getException().getClass()).writeTo(problem, entityStream))
+            return;
+        EntityBuffer buffer = new EntityBuffer(entityStream, 512);
+        write(problem, buffer);
+        buffer.flush();
+    }
+
+    static void write(Problem problem, EntityBuffer buffer) throws IOException {
+        Throwable exception = problem.getException();
+        ProblemPlan plan = problem.getPlan();
+
+        byte[] head = encoded(exception.getClass()).head;
+        if (head.length > 0)
+            buffer.write(head, 0, head.length);
+        else
+            writeHead(buffer, plan, exception);
+
+        String detail = plan.getDetail(exception);
+        if (detail != null)
+            buffer.ascii(",\"detail\":").jsonString(detail);
+        buffer.ascii(",\"instance\":").jsonString(problem.getInstance().toString());
+        for (int i = 0; i < plan.getExtensionCount(); i++) {
+            buffer.write(',');
+            buffer.jsonString(plan.getExtensionName(i)).write(':');
+            writeValue(buffer, plan.getExtension(i, exception));
+        }
+        buffer.write('}');
+    }
+
+    /** The head and document of a class, encoded into a growing buffer */
+    private static EncodedProblem encode(ProblemPlan plan) throws IOException {
+        if (!plan.hasConstantHead())
+            return EncodedProblem.NONE;
+        EntityBuffer buffer = new EntityBuffer(128);
+        writeHead(buffer, plan, null);
+        byte[] head = buffer.toByteArray();
+        if (!plan.isConstant())
+            return new EncodedProblem(head, null, 0);
+        buffer.ascii(",\"instance\":\"");
+        int instanceOffset = buffer.size();
+        buffer.ascii(EncodedProblem.INSTANCE_PLACEHOLDER).ascii("\"}");
+        return new EncodedProblem(head, buffer.toByteArray(), instanceOffset);
+    }
+
+    private static void writeHead(EntityBuffer buffer, ProblemPlan plan, Throwable exception) throws IOException {
+        buffer.ascii("{\"type\":").jsonString(plan.getType(exception).toString())
+            .ascii(",\"title\":").jsonString(plan.getTitle(exception))
+            .ascii(",\"status\":").ascii(Integer.toString(plan.getStatus(exception).getStatusCode()));
+    }
+
+    private static void writeValue(EntityBuffer buffer, Object value) throws IOException {
+        if (value == null) {
+            buffer.ascii("null");
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long || value instanceof Short
+            || value instanceof Byte || value instanceof BigInteger || value instanceof BigDecimal) {
+            buffer.ascii(value.toString());
+        } else if (value instanceof Double || value instanceof Float) {
+            if (Double.isFinite(((Number) value).doubleValue()))
+                buffer.ascii(value.toString());
+            else
+                buffer.jsonString(value.toString());
+        } else if (value instanceof Collection || value instanceof Map || value.getClass().isArray()) {
+            try (JsonGenerator generator = Generators.FACTORY.createGenerator(buffer)) {
+                generate(generator, value);
+            }
+        } else {
+            buffer.jsonString(value.toString());
+        }
+    }
+
+    private static void generate(JsonGenerator generator, Object value) {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Map) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                generator.writeKey(String.valueOf(entry.getKey()));
+                generate(generator, entry.getValue());
+            }
+            generator.writeEnd();
+        } else if (value instanceof Collection) {
+            generator.writeStartArray();
+            for (Object item : (Collection<?>) value)
+                generate(generator, item);
+            generator.writeEnd();
+        } else if (value.getClass().isArray()) {
+            generator.writeStartArray();
+            for (int i = 0; i < Array.getLength(value); i++)
+                generate(generator, Array.get(value, i));
+            generator.writeEnd();
+        } else if (value instanceof Boolean) {
+            generator.write((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            generator.write(((Number) value).longValue());
+        } else if (value instanceof BigInteger) {
+            generator.write((BigInteger) value);
+        } else if (value instanceof BigDecimal) {
+            generator.write((BigDecimal) value);
+        } else if ((value instanceof Double || value instanceof Float) && Double.isFinite(((Number) value).doubleValue())) {
+            generator.write(((Number) value).doubleValue());
+        } else {
+            generator.write(value.toString());
+        }
+    }
+
+    /** The generator factory is only required for structured extensions */
+    private static class Generators {
+        private static final JsonGeneratorFactory FACTORY = Json.createGeneratorFactory(null);
+    }
+}
@@ -0,0 +1,35 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+/**
+ * Reads the {@link org.eclipse.microprofile.problemdetails.Detail}, {@link org.eclipse.microprofile.problemdetails.Extension}
+ * and {@link org.eclipse.microprofile.problemdetails.Instance} members of one exception class without reflection.
+ * <p>
+ * Implementations are generated at build time by the
+ * {@link org.eclipse.microprofile.problemdetails.processor.ProblemMapperProcessor} and registered in
+ * <code>META-INF/services/org.eclipse.microprofile.problemdetails.mapping.ProblemMapper</code>.
+ * A {@link ProblemPlan} uses the mapper of its exception class, if there is one,
+ * and reads the members reflectively otherwise.
+ * <p>
+ * Members are described as <code>DeclaringClass.member</code>, for the messages of failing members.
+ */
+public interface ProblemMapper<T extends Throwable> {
+    Class<T> getExceptionType();
+
+    /** The {@link org.eclipse.microprofile.problemdetails.Detail} members, ordered by name, as they are joined */
+    String[] getDetailMembers();
+
+    Object getDetail(int index, T exception);
+
+    /** The names of the {@link org.eclipse.microprofile.problemdetails.Extension}s, ordered */
+    String[] getExtensionNames();
+
+    /** The {@link org.eclipse.microprofile.problemdetails.Extension} members, in the order of their names */
+    String[] getExtensionMembers();
+
+    Object getExtension(int index, T exception);
+
+    /** The {@link org.eclipse.microprofile.problemdetails.Instance} member, or <code>null</code> if there is none */
+    String getInstanceMember();
+
+    Object getInstance(T exception);
+}
@@ -0,0 +1,438 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+import org.eclipse.microprofile.problemdetails.Detail;
+import org.eclipse.microprofile.problemdetails.Extension;
+import org.eclipse.microprofile.problemdetails.Instance;
+import org.eclipse.microprofile.problemdetails.LogLevel;
+import org.eclipse.microprofile.problemdetails.Logging;
+import org.eclipse.microprofile.problemdetails.StacklessException;
+import org.eclipse.microprofile.problemdetails.Status;
+import org.eclipse.microprofile.problemdetails.Title;
+import org.eclipse.microprofile.problemdetails.Type;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response.StatusType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+import static javax.ws.rs.core.Response.Status.Family.CLIENT_ERROR;
+import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+import static org.eclipse.microprofile.problemdetails.LogLevel.AUTO;
+import static org.eclipse.microprofile.problemdetails.LogLevel.DEBUG;
+import static org.eclipse.microprofile.problemdetails.LogLevel.ERROR;
+
+/**
+ * How to map the exceptions of one class to problem details.
+ * <p>
+ * The annotations of the class are resolved once, when the plan is first requested, and the
+ * {@link Detail}, {@link Extension} and {@link Instance} fields and methods, including private
+ * and inherited ones, are bound to {@link MethodHandle}s. Plans are cached per class in a
+ * {@link ClassValue}, so mapping a thrown exception only invokes these handles.
+ * If a {@link ProblemMapper} has been generated for the class, the members are read by the mapper instead,
+ * and the class is not scanned. The service indexes of the mappers are read once per class loader, but only
+ * the mapper of the planned class is loaded.
+ * <p>
+ * The type, title and status of a {@link WebApplicationException} without annotations
+ * are taken from the status of its response.
+ */
+public final class ProblemPlan {
+    private static final ClassValue<ProblemPlan> PLANS = new ClassValue<ProblemPlan>() {
+        @Override protected ProblemPlan computeValue(Class<?> type) { return new ProblemPlan(type); }
+    };
+
+    private static final String URN_PREFIX = "urn:problem-type:";
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Throwable.class);
+
+    private static final String MAPPER_INDEX = "META-INF/services/" + ProblemMapper.class.getName();
+    private static final String MAPPER_SUFFIX = "_ProblemMapper";
+    /** The names of the indexed mappers per class loader; only names, so the class loaders can be collected */
+    private static final Map<ClassLoader, Set<String>> MAPPER_NAMES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * The plan for an exception class, computed on the first call.
+     */
+    public static ProblemPlan of(Class<? extends Throwable> exceptionType) { return PLANS.get(exceptionType); }
+
+    private final Class<?> exceptionType;
+    /** <code>null</code> if taken from the response status */
+    private final URI type;
+    /** <code>null</code> if taken from the response status */
+    private final String title;
+    /** <code>null</code> if taken from the response status */
+    private final StatusType status;
+    private final String logCategory;
+    private final LogLevel logLevel;
+    private final boolean stackless;
+    /** Ordered by name */
+    private final Accessor[] details;
+    /** Ordered by name */
+    private final Accessor[] extensions;
+    /** <code>null</code> to generate a random URN */
+    private final Accessor instance;
+
+    private ProblemPlan(Class<?> exceptionType) {
+        this.exceptionType = exceptionType;
+        boolean fromResponse = WebApplicationException.class.isAssignableFrom(exceptionType);
+
+        Type typeAnnotation = exceptionType.getAnnotation(Type.class);
+        this.type = (typeAnnotation != null) ? URI.create(typeAnnotation.value())
+            : fromResponse ? null : urn(words(baseName(exceptionType)));
+
+        Title titleAnnotation = exceptionType.getAnnotation(Title.class);
+        this.title = (titleAnnotation != null) ? titleAnnotation.value()
+            : fromResponse ? null : words(baseName(exceptionType));
+
+        Status statusAnnotation = exceptionType.getAnnotation(Status.class);
+        this.status = (statusAnnotation != null) ? statusAnnotation.value()
+            : fromResponse ? null
+            : IllegalArgumentException.class.isAssignableFrom(exceptionType) ? BAD_REQUEST : INTERNAL_SERVER_ERROR;
+
+        Logging logging = exceptionType.getAnnotation(Logging.class);
+        if (logging == null && exceptionType.getPackage() != null)
+            logging = exceptionType.getPackage().getAnnotation(Logging.class);
+        this.logCategory = (logging == null || logging.to().isEmpty()) ? exceptionType.getName() : logging.to();
+        this.logLevel = (logging == null) ? AUTO : logging.at();
+        this.stackless = StacklessException.class.isAssignableFrom(exceptionType);
+
+        ProblemMapper<Throwable> mapper = mapper(exceptionType);
+        if (mapper != null) {
+            this.details = details(mapper);
+            this.extensions = extensions(mapper);
+            this.instance = instance(mapper);
+        } else {
+            Map<String, Accessor> details = new LinkedHashMap<>();
+            Map<String, Accessor> extensions = new LinkedHashMap<>();
+            Accessor instance = null;
+            for (Class<?> declaring : hierarchy(exceptionType)) {
+                for (Method method : declaring.getDeclaredMethods()) {
+                    if (method.isSynthetic())
+                        continue;
+                    // an annotated override replaces the inherited method
+                    String key = method.getName() + "/" + method.getParameterCount();
+                    if (method.isAnnotationPresent(Detail.class))
+                        details.put(key, accessor(method.getName(), method));
+                    Extension extension = method.getAnnotation(Extension.class);
+                    if (extension != null)
+                        extensions.put(key, accessor(name(extension, method.getName()), method));
+                    if (method.isAnnotationPresent(Instance.class))
+                        instance = accessor(method.getName(), method);
+                }
+                for (Field field : declaring.getDeclaredFields()) {
+                    if (field.isSynthetic())
+                        continue;
+                    String key = declaring.getName() + "#" + field.getName();
+                    if (field.isAnnotationPresent(Detail.class))
+                        details.put(key, accessor(field.getName(), field));
+                    Extension extension = field.getAnnotation(Extension.class);
+                    if (extension != null)
+                        extensions.put(key, accessor(name(extension, field.getName()), field));
+                    if (field.isAnnotationPresent(Instance.class))
+                        instance = accessor(field.getName(), field);
+                }
+            }
+            this.details = details.values().toArray(new Accessor[0]);
+            // the order of getDeclaredMethods/Fields is unspecified, so details are joined by name, like the processor does
+            Arrays.sort(this.details, Comparator.comparing(accessor -> accessor.name));
+            this.extensions = extensions.values().toArray(new Accessor[0]);
+            Arrays.sort(this.extensions, Comparator.comparing(accessor -> accessor.name));
+            this.instance = instance;
+        }
+    }
+
+    public Class<?> getExceptionType() { return exceptionType; }
+
+    public URI getType(Throwable exception) {
+        return (type != null) ? type : urn(getStatus(exception).getReasonPhrase());
+    }
+
+    public String getTitle(Throwable exception) {
+        return (title != null) ? title : getStatus(exception).getReasonPhrase();
+    }
+
+    public StatusType getStatus(Throwable exception) {
+        return (status != null) ? status : ((WebApplicationException) exception).getResponse().getStatusInfo();
+    }
+
+    /**
+     * The values of the {@link Detail} members, ordered by name, joined by <code>". "</code>,
+     * or the message of the exception, if there are none.
+     */
+    public String getDetail(Throwable exception) {
+        if (details.length == 0)
+            return exception.getMessage();
+        StringBuilder out = null;
+        for (Accessor detail : details) {
+            Object value = detail.get(exception);
+            if (value == null)
+                continue;
+            if (out == null)
+                out = new StringBuilder();
+            else
+                out.append(". ");
+            out.append(value);
+        }
+        return (out == null) ? null : out.toString();
+    }
+
+    /**
+     * The value of the {@link Instance} member, or a new <code>urn:uuid:</code>.
+     */
+    public URI getInstance(Throwable exception) {
+        Object value = (instance == null) ? null : instance.get(exception);
+        if (value == null)
+            return URI.create("urn:uuid:" + UUID.randomUUID());
+        return (value instanceof URI) ? (URI) value : URI.create(value.toString());
+    }
+
+    /**
+     * The number of {@link Extension} members; they are indexed in the order of their names.
+     */
+    public int getExtensionCount() { return extensions.length; }
+
+    public String getExtensionName(int index) { return extensions[index].name; }
+
+    public Object getExtension(int index, Throwable exception) { return extensions[index].get(exception); }
+
+    /**
+     * The values of all {@link Extension} members, ordered by name.
+     */
+    public Map<String, Object> getExtensions(Throwable exception) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (Accessor extension : extensions)
+            map.put(extension.name, extension.get(exception));
+        return map;
+    }
+
+    /**
+     * The type, title, and status are the same for all exceptions of the class,
+     * i.e. they don't depend on the exception passed to their getters.
+     */
+    boolean hasConstantHead() { return type != null && title != null && status != null; }
+
+    /**
+     * The problem details are the same for all exceptions of the class, except for the detail
+     * from the message of the exception, and the generated instance URN.
+     */
+    boolean isConstant() { return hasConstantHead() && details.length == 0 && extensions.length == 0 && instance == null; }
+
+    public String getLogCategory() { return logCategory; }
+
+    /**
+     * The {@link Logging#at() level} to log at, with <code>AUTO</code>
+     * resolved from the status: <code>DEBUG</code> for <code>4xx</code>,
+     * and <code>ERROR</code> for anything else.
+     */
+    public LogLevel getLogLevel(Throwable exception) {
+        if (logLevel != AUTO)
+            return logLevel;
+        return (getStatus(exception).getFamily() == CLIENT_ERROR) ? DEBUG : ERROR;
+    }
+
+    /**
+     * The exceptions of the class have no stack trace, so it's not logged.
+     *
+     * @see StacklessException
+     */
+    public boolean isStackless() { return stackless; }
+
+    @Override public String toString() { return "ProblemPlan[" + exceptionType.getName() + "]"; }
+
+
+    /**
+     * The generated mapper for the class, or <code>null</code>. The mapper is only loaded, if its name is listed
+     * in the index of the class loader, so a broken entry only affects the class of that mapper.
+     */
+    @SuppressWarnings("unchecked")
+    private static ProblemMapper<Throwable> mapper(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        if (loader == null) // JDK exceptions
+            return null;
+        String name = type.getName().replace('$', '_') + MAPPER_SUFFIX;
+        if (!MAPPER_NAMES.computeIfAbsent(loader, ProblemPlan::mapperNames).contains(name))
+            return null;
+        try {
+            ProblemMapper<?> mapper = (ProblemMapper<?>) Class.forName(name, true, loader).getConstructor().newInstance();
+            return (mapper.getExceptionType() == type) ? (ProblemMapper<Throwable>) mapper : null;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null; // read the members reflectively
+        }
+    }
+
+    /** The mappers listed in all service indexes visible to the class loader */
+    private static Set<String> mapperNames(ClassLoader loader) {
+        Set<String> names = new HashSet<>();
+        try {
+            Enumeration<URL> indexes = loader.getResources(MAPPER_INDEX);
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                try (BufferedReader in = new BufferedReader(new InputStreamReader(index.openStream(), UTF_8))) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        int comment = line.indexOf('#');
+                        String name = ((comment < 0) ? line : line.substring(0, comment)).trim();
+                        if (!name.isEmpty())
+                            names.add(name);
+                    }
+                } catch (IOException e) {
+                    // skip this index
+                }
+            }
+        } catch (IOException e) {
+            // no indexes
+        }
+        return names;
+    }
+
+    private static Accessor[] details(ProblemMapper<Throwable> mapper) {
+        String[] members = mapper.getDetailMembers();
+        Accessor[] details = new Accessor[members.length];
+        for (int i = 0; i < members.length; i++) {
+            int index = i;
+            details[i] = new Accessor(null, members[i], exception -> mapper.getDetail(index, exception));
+        }
+        return details;
+    }
+
+    private static Accessor[] extensions(ProblemMapper<Throwable> mapper) {
+        String[] names = mapper.getExtensionNames();
+        String[] members = mapper.getExtensionMembers();
+        Accessor[] extensions = new Accessor[names.length];
+        for (int i = 0; i < names.length; i++) {
+            int index = i;
+            extensions[i] = new Accessor(names[i], members[i], exception -> mapper.getExtension(index, exception));
+        }
+        return extensions;
+    }
+
+    private static Accessor instance(ProblemMapper<Throwable> mapper) {
+        String member = mapper.getInstanceMember();
+        return (member == null) ? null : new Accessor(null, member, mapper::getInstance);
+    }
+
+    /** The superclasses up to {@link Throwable} first, then the class itself */
+    private static List<Class<?>> hierarchy(Class<?> type) {
+        List<Class<?>> list = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Throwable.class && c != Object.class; c = c.getSuperclass())
+            list.add(0, c);
+        return list;
+    }
+
+    private static String baseName(Class<?> type) {
+        while (type.getSimpleName().isEmpty()) // anonymous
+            type = type.getSuperclass();
+        String name = type.getSimpleName();
+        return (name.endsWith("Exception") && name.length() > 9) ? name.substring(0, name.length() - 9) : name;
+    }
+
+    /** Split a camel case name into words */
+    private static String words(String camelCase) {
+        StringBuilder out = new StringBuilder(camelCase.length() + 4);
+        for (int i = 0; i < camelCase.length(); i++) {
+            char c = camelCase.charAt(i);
+            if (i > 0 && Character.isUpperCase(c) && Character.isLowerCase(camelCase.charAt(i - 1)))
+                out.append(' ');
+            out.append(c);
+        }
+        return out.toString();
+    }
+
+    private static URI urn(String words) {
+        return URI.create(URN_PREFIX + words.replace(' ', '-').toLowerCase(Locale.ROOT));
+    }
+
+    private static String name(Extension extension, String memberName) {
+        return extension.value().isEmpty() ? memberName : extension.value();
+    }
+
+    private static Accessor accessor(String name, Method method) {
+        String description = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        if (method.getParameterCount() != 0)
+            return failed(name, description,
+                "could not invoke " + description + ": expected no args but got " + method.getParameterCount());
+        try {
+            MethodHandle handle = LOOKUP.unreflect(accessible(method));
+            if (Modifier.isStatic(method.getModifiers()))
+                handle = MethodHandles.dropArguments(handle, 0, Throwable.class);
+            return bound(name, description, handle);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return failed(name, description, "could not invoke " + description + ": " + e);
+        }
+    }
+
+    private static Accessor accessor(String name, Field field) {
+        String description = field.getDeclaringClass().getSimpleName() + "." + field.getName();
+        try {
+            MethodHandle handle = LOOKUP.unreflectGetter(accessible(field));
+            if (Modifier.isStatic(field.getModifiers()))
+                handle = MethodHandles.dropArguments(handle, 0, Throwable.class);
+            return bound(name, description, handle);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return failed(name, description, "could not get " + description + ": " + e);
+        }
+    }
+
+    private static Accessor bound(String name, String description, MethodHandle handle) {
+        MethodHandle getter = handle.asType(ACCESSOR_TYPE);
+        return new Accessor(name, description, exception -> (Object) getter.invokeExact(exception));
+    }
+
+    private static Accessor failed(String name, String description, String failure) {
+        return new Accessor(name, description, exception -> failure);
+    }
+
+    private static <T extends AccessibleObject> T accessible(T member) {
+        member.setAccessible(true);
+        return member;
+    }
+
+    private interface Getter {
+        Object get(Throwable exception) throws Throwable;
+    }
+
+    /** A detail, extension, or instance member bound to a handle or mapper taking the exception */
+    private static final class Accessor {
+        private final String name;
+        private final String description;
+        private final Getter getter;
+
+        private Accessor(String name, String description, Getter getter) {
+            this.name = name;
+            this.description = description;
+            this.getter = getter;
+        }
+
+        private Object get(Throwable exception) {
+            try {
+                return getter.get(exception);
+            } catch (Throwable e) {
+                return "could not invoke " + description + ": " + e;
+            }
+        }
+    }
+}
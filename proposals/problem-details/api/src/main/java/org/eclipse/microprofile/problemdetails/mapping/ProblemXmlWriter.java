@@ -0,0 +1,150 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.eclipse.microprofile.problemdetails.Constants.PROBLEM_DETAIL_XML;
+
+/**
+ * Streams a {@link Problem} as <code>application/problem+xml</code>, in the <code>urn:ietf:rfc:7807</code>
+ * namespace, reading the fields from the exception while writing them. The document is encoded into a small
+ * buffer, which is written to the entity stream whenever it's full, so it's never held as a whole.
+ * <p>
+ * The document start with the <code>type</code>, <code>title</code>, and <code>status</code> of a class is
+ * encoded once and copied as bytes for every problem of the class. If the other fields are constant, too, the whole
+ * document is encoded once, and only the instance is filled in for exceptions without a message. The other elements are written with a StAX
+ * {@link XMLStreamWriter}; the items of collections and arrays as <code>i</code> elements, as in RFC-7807.
+ */
+@Provider
+@Produces(PROBLEM_DETAIL_XML)
+public class ProblemXmlWriter implements MessageBodyWriter<Problem> {
+    static final String NAMESPACE = "urn:ietf:rfc:7807";
+
+    private static final XMLOutputFactory FACTORY = XMLOutputFactory.newFactory();
+
+    /** The encoded head and, for constant plans, document of a class */
+    private static final ClassValue<EncodedProblem> ENCODED = new ClassValue<EncodedProblem>() {
+        @Override protected EncodedProblem computeValue(Class<?> type) {
+            try {
+                return encode(ProblemPlan.of(type.asSubclass(Throwable.class)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("could not encode " + type.getName(), e);
+            }
+        }
+    };
+
+    /** The encoded parts of the problems of a class */
+    static EncodedProblem encoded(Class<? extends Throwable> type) { return ENCODED.get(type); }
+
+    @Override public boolean isWriteable(Class<?> type, java.lang.reflect.Type genericType, Annotation[] annotations,
+                                         MediaType mediaType) {
+        return Problem.class.isAssignableFrom(type);
+    }
+
+    @Override public void writeTo(Problem problem, Class<?> type, java.lang.reflect.Type genericType, Annotation[] annotations,
+                                  MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+        throws IOException {
+        if (encoded(problem.getException().getClass()).writeTo(problem, entityStream))
+            return;
+        EntityBuffer buffer = new EntityBuffer(entityStream, 640);
+        try {
+            write(problem, buffer);
+        } catch (XMLStreamException e) {
+            throw new IOException("could not write " + problem, e);
+        }
+        buffer.flush();
+    }
+
+    static void write(Problem problem, EntityBuffer buffer) throws XMLStreamException, IOException {
+        Throwable exception = problem.getException();
+        ProblemPlan plan = problem.getPlan();
+
+        byte[] head = encoded(exception.getClass()).head;
+        if (head.length > 0)
+            buffer.write(head, 0, head.length);
+        else
+            writeHead(buffer, plan, exception);
+
+        // the elements inherit the default namespace of the problem element written as bytes
+        XMLStreamWriter xml = FACTORY.createXMLStreamWriter(buffer, "UTF-8");
+        String detail = plan.getDetail(exception);
+        if (detail != null)
+            writeElement(xml, "detail", detail);
+        writeElement(xml, "instance", problem.getInstance());
+        for (int i = 0; i < plan.getExtensionCount(); i++)
+            writeElement(xml, plan.getExtensionName(i), plan.getExtension(i, exception));
+        xml.flush();
+        xml.close();
+        buffer.ascii("</problem>");
+    }
+
+    /** The head and document of a class, encoded into a growing buffer */
+    private static EncodedProblem encode(ProblemPlan plan) throws IOException {
+        if (!plan.hasConstantHead())
+            return EncodedProblem.NONE;
+        EntityBuffer buffer = new EntityBuffer(192);
+        writeHead(buffer, plan, null);
+        byte[] head = buffer.toByteArray();
+        if (!plan.isConstant())
+            return new EncodedProblem(head, null, 0);
+        buffer.ascii("<instance>");
+        int instanceOffset = buffer.size();
+        buffer.ascii(EncodedProblem.INSTANCE_PLACEHOLDER).ascii("</instance></problem>");
+        return new EncodedProblem(head, buffer.toByteArray(), instanceOffset);
+    }
+
+    private static void writeHead(EntityBuffer buffer, ProblemPlan plan, Throwable exception) throws IOException {
+        buffer.ascii("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<problem xmlns=\"" + NAMESPACE + "\">")
+            .ascii("<type>").xmlText(plan.getType(exception).toString()).ascii("</type>");
+        String title = plan.getTitle(exception);
+        if (title != null)
+            buffer.ascii("<title>").xmlText(title).ascii("</title>");
+        buffer.ascii("<status>").ascii(Integer.toString(plan.getStatus(exception).getStatusCode())).ascii("</status>");
+    }
+
+    private static void writeElement(XMLStreamWriter xml, String name, Object value) throws XMLStreamException {
+        // null not as an empty element, which StAX only closes with the next event, i.e. not before the closing bytes
+        xml.writeStartElement(name);
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+                writeElement(xml, String.valueOf(entry.getKey()), entry.getValue());
+        } else if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value)
+                writeElement(xml, "i", item);
+        } else if (value != null && value.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(value); i++)
+                writeElement(xml, "i", Array.get(value, i));
+        } else if (value != null) {
+            xml.writeCharacters(xmlChars(value.toString()));
+        }
+        xml.writeEndElement();
+    }
+
+    /** Replace the control characters XML doesn't allow, which StAX writes unchanged */
+    private static String xmlChars(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < ' ' && c != '\t' && c != '\n' && c != '\r') {
+                char[] chars = text.toCharArray();
+                for (int j = i; j < chars.length; j++)
+                    if (chars[j] < ' ' && chars[j] != '\t' && chars[j] != '\n' && chars[j] != '\r')
+                        chars[j] = '?';
+                return new String(chars);
+            }
+        }
+        return text;
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ *******************************************************************************
+ * Copyright (c) 2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+/**
+ * Resolving the annotations of an exception class to the fields of its problem details,
+ * for implementations mapping exceptions to problem detail responses:
+ * <pre>
+ * ProblemPlan plan = ProblemPlan.of(exception.getClass());
+ * StatusType status = plan.getStatus(exception);
+ * String detail = plan.getDetail(exception);
+ * </pre>
+ *
+ * @since 1.0
+ */
+package org.eclipse.microprofile.problemdetails.mapping;
@@ -0,0 +1,324 @@
+package org.eclipse.microprofile.problemdetails.processor;
+
+import org.eclipse.microprofile.problemdetails.Detail;
+import org.eclipse.microprofile.problemdetails.Extension;
+import org.eclipse.microprofile.problemdetails.Instance;
+import org.eclipse.microprofile.problemdetails.mapping.ProblemMapper;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Generates a {@link ProblemMapper} for every exception class with {@link Detail}, {@link Extension},
+ * or {@link Instance} members, directly or inherited, and lists them in the service index
+ * <code>META-INF/services/org.eclipse.microprofile.problemdetails.mapping.ProblemMapper</code>.
+ * <p>
+ * The mapper of <code>com.example.OutOfCreditException</code> is <code>com.example.OutOfCreditException_ProblemMapper</code>;
+ * it is in the same package, so it can read package private members. Classes with private members,
+ * or other members the mapper can't access, get no mapper and are read reflectively at runtime.
+ * <p>
+ * The processor is registered in the API jar, so it runs whenever the API is on the compile class path.
+ */
+@SupportedAnnotationTypes({
+    "org.eclipse.microprofile.problemdetails.Detail",
+    "org.eclipse.microprofile.problemdetails.Extension",
+    "org.eclipse.microprofile.problemdetails.Instance"})
+public class ProblemMapperProcessor extends AbstractProcessor {
+    static final String SERVICE_FILE = "META-INF/services/" + ProblemMapper.class.getName();
+    static final String SUFFIX = "_ProblemMapper";
+
+    /** The generated mappers, written to the service index in the last round */
+    private final Set<String> mappers = new TreeSet<>();
+
+    @Override public SourceVersion getSupportedSourceVersion() { return SourceVersion.latestSupported(); }
+
+    @Override public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        if (round.processingOver()) {
+            if (!mappers.isEmpty())
+                writeServiceFile();
+        } else {
+            // also exceptions that only inherit annotated members
+            for (TypeElement type : ElementFilter.typesIn(round.getRootElements()))
+                process(type);
+        }
+        return false;
+    }
+
+    private void process(TypeElement type) {
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements()))
+            process(nested);
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT) || !isThrowable(type))
+            return;
+        Members members = new Members(type);
+        if (members.isEmpty() || !members.accessible)
+            return;
+        String mapper = mapperName(type);
+        try {
+            write(type, mapper, members);
+            mappers.add(mapper);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "could not write " + mapper + ": " + e, type);
+        }
+    }
+
+    private boolean isThrowable(TypeElement type) {
+        TypeMirror throwable = processingEnv.getElementUtils().getTypeElement(Throwable.class.getName()).asType();
+        return processingEnv.getTypeUtils().isAssignable(type.asType(), throwable);
+    }
+
+    private String mapperName(TypeElement type) {
+        String packageName = packageOf(type).getQualifiedName().toString();
+        String name = type.getSimpleName().toString();
+        for (Element e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement())
+            name = e.getSimpleName() + "_" + name;
+        return packageName.isEmpty() ? name + SUFFIX : packageName + "." + name + SUFFIX;
+    }
+
+    private PackageElement packageOf(Element element) { return processingEnv.getElementUtils().getPackageOf(element); }
+
+
+    /** The annotated members of an exception class, in the order of {@link org.eclipse.microprofile.problemdetails.mapping.ProblemPlan} */
+    private class Members {
+        private final TypeElement type;
+        private final List<Member> details;
+        private final List<Member> extensions;
+        private Member instance;
+        private boolean accessible = true;
+
+        private Members(TypeElement type) {
+            this.type = type;
+            if (!isReferable(type))
+                accessible = false;
+            Map<String, Member> details = new LinkedHashMap<>();
+            Map<String, Member> extensions = new LinkedHashMap<>();
+            for (TypeElement declaring : hierarchy(type)) {
+                for (ExecutableElement method : ElementFilter.methodsIn(declaring.getEnclosedElements())) {
+                    // an annotated override replaces the inherited method
+                    String key = method.getSimpleName() + "/" + method.getParameters().size();
+                    if (method.getAnnotation(Detail.class) != null)
+                        details.put(key, member(method.getSimpleName().toString(), declaring, method));
+                    Extension extension = method.getAnnotation(Extension.class);
+                    if (extension != null)
+                        extensions.put(key, member(name(extension, method), declaring, method));
+                    if (method.getAnnotation(Instance.class) != null)
+                        instance = member(null, declaring, method);
+                }
+                for (VariableElement field : ElementFilter.fieldsIn(declaring.getEnclosedElements())) {
+                    String key = declaring.getQualifiedName() + "#" + field.getSimpleName();
+                    if (field.getAnnotation(Detail.class) != null)
+                        details.put(key, member(field.getSimpleName().toString(), declaring, field));
+                    Extension extension = field.getAnnotation(Extension.class);
+                    if (extension != null)
+                        extensions.put(key, member(name(extension, field), declaring, field));
+                    if (field.getAnnotation(Instance.class) != null)
+                        instance = member(null, declaring, field);
+                }
+            }
+            this.details = new ArrayList<>(details.values());
+            this.details.sort(Comparator.comparing(member -> member.name));
+            this.extensions = new ArrayList<>(extensions.values());
+            this.extensions.sort(Comparator.comparing(member -> member.name));
+        }
+
+        private boolean isEmpty() { return details.isEmpty() && extensions.isEmpty() && instance == null; }
+
+        /** The superclasses up to {@link Throwable} first, then the class itself */
+        private List<TypeElement> hierarchy(TypeElement type) {
+            List<TypeElement> list = new ArrayList<>();
+            for (TypeElement c = type; c != null && !isRoot(c); c = superclass(c))
+                list.add(0, c);
+            return list;
+        }
+
+        private boolean isRoot(TypeElement type) {
+            String name = type.getQualifiedName().toString();
+            return name.equals(Throwable.class.getName()) || name.equals(Object.class.getName());
+        }
+
+        private TypeElement superclass(TypeElement type) {
+            TypeMirror superclass = type.getSuperclass();
+            return (superclass.getKind() == TypeKind.DECLARED) ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+
+        /** The class and its enclosing classes are visible in their package */
+        private boolean isReferable(TypeElement type) {
+            for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+                if (e.getModifiers().contains(Modifier.PRIVATE))
+                    return false;
+                if (((TypeElement) e).getNestingKind() != NestingKind.TOP_LEVEL && ((TypeElement) e).getNestingKind() != NestingKind.MEMBER)
+                    return false;
+            }
+            return true;
+        }
+
+        private String name(Extension extension, Element member) {
+            return extension.value().isEmpty() ? member.getSimpleName().toString() : extension.value();
+        }
+
+        private Member member(String name, TypeElement declaring, Element element) {
+            String description = declaring.getSimpleName() + "." + element.getSimpleName();
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                reject(element, Diagnostic.Kind.NOTE, description + " is private");
+            } else if (!element.getModifiers().contains(Modifier.PUBLIC) && !packageOf(declaring).equals(packageOf(type))) {
+                reject(element, Diagnostic.Kind.NOTE, description + " is not visible in " + packageOf(type));
+            } else if (element instanceof ExecutableElement && !((ExecutableElement) element).getParameters().isEmpty()) {
+                reject(element, Diagnostic.Kind.WARNING, description + " expects arguments");
+            }
+
+            String target = element.getModifiers().contains(Modifier.STATIC) ? declaring.getQualifiedName().toString() : "exception";
+            if (element instanceof ExecutableElement) {
+                String call = target + "." + element.getSimpleName() + "()";
+                return new Member(name, description, (((ExecutableElement) element).getReturnType().getKind() == TypeKind.VOID)
+                    ? call + "; return null;" : "return " + call + ";");
+            }
+            return new Member(name, description, "return " + target + "." + element.getSimpleName() + ";");
+        }
+
+        private void reject(Element element, Diagnostic.Kind kind, String reason) {
+            if (accessible)
+                processingEnv.getMessager().printMessage(kind,
+                    reason + ", so the problem details of " + type.getQualifiedName() + " are read reflectively", element);
+            accessible = false;
+        }
+    }
+
+    private static class Member {
+        /** The extension name, or the member name of a detail */
+        private final String name;
+        private final String description;
+        /** Reading the member from <code>exception</code> */
+        private final String statement;
+
+        private Member(String name, String description, String statement) {
+            this.name = name;
+            this.description = description;
+            this.statement = statement;
+        }
+    }
+
+
+    private void write(TypeElement type, String mapper, Members members) throws IOException {
+        int dot = mapper.lastIndexOf('.');
+        String exceptionType = type.getQualifiedName().toString();
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(mapper, type);
+        try (PrintWriter out = new PrintWriter(file.openWriter())) {
+            if (dot > 0)
+                out.println("package " + mapper.substring(0, dot) + ";");
+            out.println();
+            out.println("/** Generated by " + getClass().getName() + " */");
+            out.println("public final class " + mapper.substring(dot + 1)
+                + " implements " + ProblemMapper.class.getName() + "<" + exceptionType + "> {");
+            out.println("    private static final String[] DETAIL_MEMBERS = " + array(members.details, m -> m.description) + ";");
+            out.println("    private static final String[] EXTENSION_NAMES = " + array(members.extensions, m -> m.name) + ";");
+            out.println("    private static final String[] EXTENSION_MEMBERS = " + array(members.extensions, m -> m.description) + ";");
+            out.println();
+            out.println("    @Override public Class<" + exceptionType + "> getExceptionType() { return " + exceptionType + ".class; }");
+            out.println();
+            out.println("    @Override public String[] getDetailMembers() { return DETAIL_MEMBERS.clone(); }");
+            out.println();
+            writeSwitch(out, "getDetail", exceptionType, members.details);
+            out.println();
+            out.println("    @Override public String[] getExtensionNames() { return EXTENSION_NAMES.clone(); }");
+            out.println();
+            out.println("    @Override public String[] getExtensionMembers() { return EXTENSION_MEMBERS.clone(); }");
+            out.println();
+            writeSwitch(out, "getExtension", exceptionType, members.extensions);
+            out.println();
+            out.println("    @Override public String getInstanceMember() { return "
+                + ((members.instance == null) ? "null" : literal(members.instance.description)) + "; }");
+            out.println();
+            out.println("    @Override public Object getInstance(" + exceptionType + " exception) {");
+            out.println("        " + ((members.instance == null) ? "return null;" : members.instance.statement));
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private static void writeSwitch(PrintWriter out, String method, String exceptionType, List<Member> members) {
+        out.println("    @Override public Object " + method + "(int index, " + exceptionType + " exception) {");
+        out.println("        switch (index) {");
+        for (int i = 0; i < members.size(); i++)
+            out.println("            case " + i + ": " + members.get(i).statement);
+        out.println("            default: throw new IndexOutOfBoundsException(\"" + method + " \" + index);");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    private static String array(List<Member> members, Function<Member, String> value) {
+        StringBuilder out = new StringBuilder("{");
+        for (Member member : members) {
+            if (out.length() > 1)
+                out.append(", ");
+            out.append(literal(value.apply(member)));
+        }
+        return out.append("}").toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder out = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\')
+                out.append('\\').append(c);
+            else if (c < ' ' || c > '~')
+                out.append(String.format("\\u%04x", (int) c));
+            else
+                out.append(c);
+        }
+        return out.append('"').toString();
+    }
+
+    private void writeServiceFile() {
+        Set<String> all = new TreeSet<>(mappers);
+        try {
+            // keep the mappers of an incremental build's unchanged classes
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader in = new BufferedReader(existing.openReader(true))) {
+                String line;
+                while ((line = in.readLine()) != null)
+                    if (!line.trim().isEmpty() && !line.startsWith("#"))
+                        all.add(line.trim());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // no previous index
+        }
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer out = file.openWriter()) {
+                for (String mapper : all)
+                    out.write(mapper + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "could not write " + SERVICE_FILE + ": " + e);
+        }
+    }
+}
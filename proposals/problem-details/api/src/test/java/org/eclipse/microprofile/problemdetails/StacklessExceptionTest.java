@@ -0,0 +1,82 @@
+package org.eclipse.microprofile.problemdetails;
+
+import org.eclipse.microprofile.problemdetails.mapping.ProblemPlan;
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static javax.ws.rs.core.Response.Status.TOO_MANY_REQUESTS;
+import static org.eclipse.microprofile.problemdetails.LogLevel.OFF;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StacklessExceptionTest {
+    @Status(TOO_MANY_REQUESTS) @Logging(at = OFF)
+    static class TooManyRequestsException extends StacklessException {
+        TooManyRequestsException() {}
+
+        TooManyRequestsException(String message, Throwable cause) { super(message, cause); }
+    }
+
+    @Test void shouldHaveNoStackTrace() {
+        TooManyRequestsException exception = new TooManyRequestsException();
+
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test void shouldIgnoreSetStackTrace() {
+        TooManyRequestsException exception = new TooManyRequestsException();
+
+        exception.setStackTrace(new IllegalStateException().getStackTrace());
+
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test void shouldKeepMessageAndCause() {
+        IllegalStateException cause = new IllegalStateException("cause");
+
+        TooManyRequestsException exception = new TooManyRequestsException("some message", cause);
+
+        assertEquals("some message", exception.getMessage());
+        assertSame(cause, exception.getCause());
+        assertTrue(cause.getStackTrace().length > 0);
+    }
+
+    @Test void shouldKeepSuppressedExceptions() {
+        TooManyRequestsException exception = new TooManyRequestsException();
+        IllegalStateException suppressed = new IllegalStateException("suppressed");
+
+        exception.addSuppressed(suppressed);
+
+        assertArrayEquals(new Throwable[]{suppressed}, exception.getSuppressed());
+    }
+
+    @Test void shouldPrintOnlyTheStackTraceOfTheCause() {
+        StringWriter out = new StringWriter();
+
+        new TooManyRequestsException("some message", new IllegalStateException("cause")).printStackTrace(new PrintWriter(out));
+
+        String[] lines = out.toString().split("\\R");
+        assertEquals(TooManyRequestsException.class.getName() + ": some message", lines[0]);
+        assertEquals("Caused by: java.lang.IllegalStateException: cause", lines[1]);
+        assertTrue(lines[2].trim().startsWith("at "), lines[2]);
+    }
+
+    @Test void shouldPlanAsStackless() {
+        TooManyRequestsException exception = new TooManyRequestsException();
+
+        ProblemPlan plan = ProblemPlan.of(TooManyRequestsException.class);
+
+        assertTrue(plan.isStackless());
+        assertEquals(TOO_MANY_REQUESTS, plan.getStatus(exception));
+        assertEquals(OFF, plan.getLogLevel(exception));
+    }
+
+    @Test void shouldNotPlanOtherExceptionsAsStackless() {
+        assertFalse(ProblemPlan.of(IllegalStateException.class).isStackless());
+    }
+}
@@ -0,0 +1,153 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+import org.eclipse.microprofile.problemdetails.Detail;
+import org.eclipse.microprofile.problemdetails.Extension;
+import org.eclipse.microprofile.problemdetails.Instance;
+import org.eclipse.microprofile.problemdetails.Status;
+import org.eclipse.microprofile.problemdetails.Title;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.NotFoundException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.ws.rs.core.Response.Status.CONFLICT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EncodedProblemTest {
+    @Status(CONFLICT) @Title("Tom & \"Jerry\" <é>")
+    static class ConstantException extends RuntimeException {
+        ConstantException() {}
+
+        ConstantException(String message) { super(message); }
+    }
+
+    static class InstanceMemberException extends RuntimeException {
+        @Instance String instance = "urn:uuid:11111111-2222-3333-4444-555555555555";
+    }
+
+    static class DetailMemberException extends RuntimeException {
+        @Detail String detail = "some detail";
+    }
+
+    static class ExtensionMemberException extends RuntimeException {
+        @Extension String code = "some code";
+    }
+
+    private static String cached(EncodedProblem encoded, Problem problem) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(encoded.writeTo(problem, out));
+        return new String(out.toByteArray(), UTF_8);
+    }
+
+    private static String json(Problem problem) throws IOException {
+        EntityBuffer buffer = new EntityBuffer(64);
+        ProblemJsonWriter.write(problem, buffer);
+        return new String(buffer.toByteArray(), UTF_8);
+    }
+
+    private static String xml(Problem problem) throws Exception {
+        EntityBuffer buffer = new EntityBuffer(64);
+        ProblemXmlWriter.write(problem, buffer);
+        return new String(buffer.toByteArray(), UTF_8);
+    }
+
+
+    @Test void shouldServeConstantProblemFromEncodedDocument() throws IOException {
+        Problem problem = Problem.of(new ConstantException());
+
+        String json = cached(ProblemJsonWriter.encoded(ConstantException.class), problem);
+
+        assertEquals("{\"type\":\"urn:problem-type:constant\",\"title\":\"Tom & \\\"Jerry\\\" <é>\",\"status\":409," +
+            "\"instance\":\"" + problem.getInstance() + "\"}", json);
+    }
+
+    @Test void shouldFillInInstanceForEveryProblem() throws IOException {
+        Problem first = Problem.of(new ConstantException());
+        Problem second = Problem.of(new ConstantException());
+        EncodedProblem encoded = ProblemJsonWriter.encoded(ConstantException.class);
+
+        String firstJson = cached(encoded, first);
+        String secondJson = cached(encoded, second);
+
+        assertTrue(firstJson.contains(first.getInstance().toString()), firstJson);
+        assertTrue(secondJson.contains(second.getInstance().toString()), secondJson);
+        assertFalse(secondJson.contains(first.getInstance().toString()), secondJson);
+    }
+
+    @Test void shouldEncodeSameJsonAsDynamicWriter() throws IOException {
+        Problem problem = Problem.of(new ConstantException());
+
+        assertEquals(json(problem), cached(ProblemJsonWriter.encoded(ConstantException.class), problem));
+    }
+
+    @Test void shouldEncodeSameXmlAsDynamicWriter() throws Exception {
+        Problem problem = Problem.of(new ConstantException());
+
+        assertEquals(xml(problem), cached(ProblemXmlWriter.encoded(ConstantException.class), problem));
+    }
+
+    @Test void shouldWriteEncodedDocumentThroughProviders() throws Exception {
+        Problem problem = Problem.of(new ConstantException());
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+
+        new ProblemJsonWriter().writeTo(problem, Problem.class, Problem.class, null, null, null, json);
+        new ProblemXmlWriter().writeTo(problem, Problem.class, Problem.class, null, null, null, xml);
+
+        assertEquals(json(problem), new String(json.toByteArray(), UTF_8));
+        assertEquals(xml(problem), new String(xml.toByteArray(), UTF_8));
+    }
+
+
+    @Test void shouldNotUseEncodedDocumentForMessage() throws IOException {
+        Problem problem = Problem.of(new ConstantException("some message"));
+
+        assertFalse(ProblemJsonWriter.encoded(ConstantException.class).writeTo(problem, new ByteArrayOutputStream()));
+        assertFalse(ProblemXmlWriter.encoded(ConstantException.class).writeTo(problem, new ByteArrayOutputStream()));
+    }
+
+    @Test void shouldNotUseEncodedDocumentForInstanceMember() throws IOException {
+        Problem problem = Problem.of(new InstanceMemberException());
+
+        assertNoDocument(problem);
+        assertTrue(json(problem).contains("\"instance\":\"urn:uuid:11111111-2222-3333-4444-555555555555\""));
+    }
+
+    @Test void shouldNotUseEncodedDocumentForDetailMember() throws IOException {
+        assertNoDocument(Problem.of(new DetailMemberException()));
+    }
+
+    @Test void shouldNotUseEncodedDocumentForExtensionMember() throws IOException {
+        assertNoDocument(Problem.of(new ExtensionMemberException()));
+    }
+
+    private static void assertNoDocument(Problem problem) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Class<? extends Throwable> type = problem.getException().getClass();
+
+        assertFalse(ProblemJsonWriter.encoded(type).writeTo(problem, out));
+        assertFalse(ProblemXmlWriter.encoded(type).writeTo(problem, out));
+        assertEquals(0, out.size());
+        // the head is still encoded
+        assertTrue(ProblemJsonWriter.encoded(type).head.length > 0);
+        assertTrue(ProblemXmlWriter.encoded(type).head.length > 0);
+    }
+
+    @Test void shouldNotEncodeHeadFromResponse() {
+        assertSame(EncodedProblem.NONE, ProblemJsonWriter.encoded(NotFoundException.class));
+        assertSame(EncodedProblem.NONE, ProblemXmlWriter.encoded(NotFoundException.class));
+    }
+
+    @Test void shouldEncodeSameHeadAsDynamicWriter() throws IOException {
+        Problem problem = Problem.of(new ExtensionMemberException());
+
+        assertTrue(json(problem).startsWith(new String(ProblemJsonWriter.encoded(ExtensionMemberException.class).head, UTF_8)));
+        assertNull(problem.getDetail());
+    }
+}
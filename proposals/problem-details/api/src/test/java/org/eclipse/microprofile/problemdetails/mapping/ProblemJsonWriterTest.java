@@ -0,0 +1,151 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+import org.eclipse.microprofile.problemdetails.Detail;
+import org.eclipse.microprofile.problemdetails.Extension;
+import org.eclipse.microprofile.problemdetails.Instance;
+import org.eclipse.microprofile.problemdetails.Title;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProblemJsonWriterTest {
+    private static final MediaType PROBLEM_JSON = new MediaType("application", "problem+json");
+
+    static String write(Throwable exception) throws IOException { return write(exception, new RecordingStream()); }
+
+    static String write(Throwable exception, RecordingStream out) throws IOException {
+        new ProblemJsonWriter().writeTo(Problem.of(exception), Problem.class, Problem.class, new Annotation[0],
+            PROBLEM_JSON, null, out);
+        return new String(out.toByteArray(), UTF_8);
+    }
+
+    /** Counts the writes to the entity stream */
+    static class RecordingStream extends ByteArrayOutputStream {
+        int writes;
+
+        @Override public synchronized void write(int b) {
+            writes++;
+            super.write(b);
+        }
+
+        @Override public synchronized void write(byte[] b, int off, int len) {
+            writes++;
+            super.write(b, off, len);
+        }
+    }
+
+
+    @Test void shouldWriteMessageAsDetail() throws IOException {
+        IllegalStateException exception = new IllegalStateException("some message") {
+            @Instance String instance = "urn:some-instance";
+        };
+
+        assertEquals("{\"type\":\"urn:problem-type:illegal-state\",\"title\":\"Illegal State\",\"status\":500," +
+            "\"detail\":\"some message\",\"instance\":\"urn:some-instance\"}", write(exception));
+    }
+
+    @Test void shouldEscapeStrings() throws IOException {
+        assertEquals("{\"type\":\"urn:problem-type:escaping\",\"title\":\"Tom \\\"&\\\" Jerry\",\"status\":500," +
+            "\"detail\":\"a \\\"quoted\\\" \\\\ back\\nslash\\t\\r\\u0001\\u001f é € 😀 ?\"," +
+            "\"instance\":\"urn:some-instance\"," +
+            "\"quote\\\"d\":\"\\\"\"}", write(new EscapingException()));
+    }
+
+    @Title("Tom \"&\" Jerry")
+    static class EscapingException extends RuntimeException {
+        @Detail String detail = "a \"quoted\" \\ back\nslash\t\r\u0001\u001f é € 😀 \uD800";
+        @Extension("quote\"d") String quoted = "\"";
+        @Instance String instance = "urn:some-instance";
+    }
+
+    @Test void shouldWriteNullAndOmitAbsentMembers() throws IOException {
+        assertEquals("{\"type\":\"urn:problem-type:null-members\",\"title\":\"Null Members\",\"status\":500," +
+            "\"instance\":\"urn:some-instance\",\"empty\":\"\",\"nothing\":null}", write(new NullMembersException()));
+    }
+
+    static class NullMembersException extends RuntimeException {
+        @Detail String detail = null;
+        @Extension String nothing = null;
+        @Extension String empty = "";
+        @Instance String instance = "urn:some-instance";
+    }
+
+    @Test void shouldWriteScalarExtensions() throws IOException {
+        assertEquals("{\"type\":\"urn:problem-type:scalars\",\"title\":\"Scalars\",\"status\":500," +
+            "\"instance\":\"urn:some-instance\"," +
+            "\"amount\":12.50,\"count\":3,\"flag\":true,\"infinite\":\"Infinity\",\"nan\":\"NaN\",\"ratio\":0.25," +
+            "\"state\":\"RUNNABLE\"}", write(new ScalarsException()));
+    }
+
+    static class ScalarsException extends RuntimeException {
+        @Extension BigDecimal amount = new BigDecimal("12.50");
+        @Extension long count = 3;
+        @Extension boolean flag = true;
+        @Extension double infinite = Double.POSITIVE_INFINITY;
+        @Extension float nan = Float.NaN;
+        @Extension Double ratio = 0.25;
+        @Extension Thread.State state = Thread.State.RUNNABLE;
+        @Instance String instance = "urn:some-instance";
+    }
+
+    @Test void shouldWriteStructuredExtensions() throws IOException {
+        assertEquals("{\"type\":\"urn:problem-type:structured\",\"title\":\"Structured\",\"status\":500," +
+            "\"instance\":\"urn:some-instance\"," +
+            "\"array\":[1,2]," +
+            "\"list\":[\"a \\\"b\\\"\",1,null,2.5,\"NaN\",true]," +
+            "\"map\":{\"k\":\"v\",\"nested\":[{\"deep\":1}]}}", write(new StructuredException()));
+    }
+
+    static class StructuredException extends RuntimeException {
+        @Extension int[] array = {1, 2};
+        @Extension List<Object> list = Arrays.asList("a \"b\"", 1, null, 2.5, Double.NaN, true);
+        @Extension Map<String, Object> map = new LinkedHashMap<>();
+        @Instance String instance = "urn:some-instance";
+
+        StructuredException() {
+            map.put("k", "v");
+            map.put("nested", Arrays.asList(singletonMap("deep", 1)));
+        }
+    }
+
+    @Test void shouldStreamLongDocumentInPieces() throws IOException {
+        RecordingStream out = new RecordingStream();
+        LongDetailException exception = new LongDetailException();
+
+        String json = write(exception, out);
+
+        assertEquals("{\"type\":\"urn:problem-type:long-detail\",\"title\":\"Long Detail\",\"status\":500," +
+            "\"detail\":\"" + exception.detail + "\",\"instance\":\"urn:some-instance\"}", json);
+        assertTrue(out.writes > 1, "writes: " + out.writes);
+    }
+
+    static class LongDetailException extends RuntimeException {
+        @Detail String detail = repeat("détail ", 1000);
+        @Instance String instance = "urn:some-instance";
+    }
+
+    static String repeat(String text, int times) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < times; i++)
+            out.append(text);
+        return out.toString();
+    }
+
+    static Map<String, Object> singletonMap(String key, Object value) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put(key, value);
+        return map;
+    }
+}
@@ -0,0 +1,404 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+import org.eclipse.microprofile.problemdetails.Detail;
+import org.eclipse.microprofile.problemdetails.Extension;
+import org.eclipse.microprofile.problemdetails.Instance;
+import org.eclipse.microprofile.problemdetails.Logging;
+import org.eclipse.microprofile.problemdetails.Status;
+import org.eclipse.microprofile.problemdetails.Title;
+import org.eclipse.microprofile.problemdetails.Type;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.NotFoundException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+import static javax.ws.rs.core.Response.Status.FORBIDDEN;
+import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+import static org.eclipse.microprofile.problemdetails.LogLevel.DEBUG;
+import static org.eclipse.microprofile.problemdetails.LogLevel.ERROR;
+import static org.eclipse.microprofile.problemdetails.LogLevel.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProblemPlanTest {
+    private static ProblemPlan plan(Throwable exception) { return ProblemPlan.of(exception.getClass()); }
+
+    private static void assertUuidInstance(ProblemPlan plan, Throwable exception) {
+        String instance = plan.getInstance(exception).toString();
+        assertTrue(instance.matches("urn:uuid:\\p{XDigit}{8}-(\\p{XDigit}{4}-){3}\\p{XDigit}{12}"), instance);
+    }
+
+
+    @Test void shouldCachePlanPerClass() {
+        class CustomException extends RuntimeException {}
+
+        assertSame(ProblemPlan.of(CustomException.class), ProblemPlan.of(CustomException.class));
+    }
+
+    @Test void shouldMapCustomRuntimeException() {
+        class CustomException extends RuntimeException {}
+        CustomException exception = new CustomException();
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals(URI.create("urn:problem-type:custom"), plan.getType(exception));
+        assertEquals("Custom", plan.getTitle(exception));
+        assertEquals(INTERNAL_SERVER_ERROR, plan.getStatus(exception));
+        assertNull(plan.getDetail(exception));
+        assertUuidInstance(plan, exception);
+        assertEquals(0, plan.getExtensionCount());
+        assertEquals(CustomException.class.getName(), plan.getLogCategory());
+        assertEquals(ERROR, plan.getLogLevel(exception));
+        assertTrue(plan.isConstant());
+        assertFalse(plan.isStackless());
+    }
+
+    @Test void shouldMapCustomIllegalArgumentException() {
+        class CustomException extends IllegalArgumentException {}
+        CustomException exception = new CustomException();
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals(URI.create("urn:problem-type:custom"), plan.getType(exception));
+        assertEquals(BAD_REQUEST, plan.getStatus(exception));
+        assertEquals(DEBUG, plan.getLogLevel(exception));
+    }
+
+    @Test void shouldMapMessageToDetail() {
+        class SomeMessageException extends RuntimeException {
+            SomeMessageException(String message) { super(message); }
+        }
+        SomeMessageException exception = new SomeMessageException("some message");
+
+        assertEquals("some message", plan(exception).getDetail(exception));
+    }
+
+    @Test void shouldMapAnonymousClassLikeItsSuperclass() {
+        IllegalStateException exception = new IllegalStateException() {};
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals(URI.create("urn:problem-type:illegal-state"), plan.getType(exception));
+        assertEquals("Illegal State", plan.getTitle(exception));
+    }
+
+
+    @Test void shouldMapJdkNullPointerException() {
+        NullPointerException exception = new NullPointerException("some message");
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals(URI.create("urn:problem-type:null-pointer"), plan.getType(exception));
+        assertEquals("Null Pointer", plan.getTitle(exception));
+        assertEquals(INTERNAL_SERVER_ERROR, plan.getStatus(exception));
+        assertEquals("some message", plan.getDetail(exception));
+        assertEquals(NullPointerException.class.getName(), plan.getLogCategory());
+    }
+
+    @Test void shouldMapJdkIllegalArgumentSubclass() {
+        NumberFormatException exception = new NumberFormatException("not a number");
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals(URI.create("urn:problem-type:number-format"), plan.getType(exception));
+        assertEquals("Number Format", plan.getTitle(exception));
+        assertEquals(BAD_REQUEST, plan.getStatus(exception));
+    }
+
+    @Test void shouldTakeHeadOfWebApplicationExceptionFromResponse() {
+        ProblemPlan plan = ProblemPlan.of(NotFoundException.class);
+
+        assertFalse(plan.hasConstantHead());
+        assertFalse(plan.isConstant());
+    }
+
+
+    @Test void shouldMapExplicitType() {
+        @Type("http://error-codes.org/out-of-memory")
+        class SomeException extends RuntimeException {}
+        SomeException exception = new SomeException();
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals(URI.create("http://error-codes.org/out-of-memory"), plan.getType(exception));
+        assertEquals("Some", plan.getTitle(exception));
+    }
+
+    @Test void shouldMapExplicitTitle() {
+        @Title("Some Title")
+        class SomeException extends RuntimeException {}
+        SomeException exception = new SomeException();
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals(URI.create("urn:problem-type:some"), plan.getType(exception));
+        assertEquals("Some Title", plan.getTitle(exception));
+    }
+
+    @Test void shouldMapExplicitStatus() {
+        @Status(FORBIDDEN)
+        class SomethingForbiddenException extends RuntimeException {}
+        SomethingForbiddenException exception = new SomethingForbiddenException();
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals(URI.create("urn:problem-type:something-forbidden"), plan.getType(exception));
+        assertEquals("Something Forbidden", plan.getTitle(exception));
+        assertEquals(FORBIDDEN, plan.getStatus(exception));
+        assertEquals(DEBUG, plan.getLogLevel(exception));
+    }
+
+    @Test void shouldMapExplicitLogging() {
+        @Logging(to = "some-category", at = INFO)
+        class SomeException extends RuntimeException {}
+        SomeException exception = new SomeException();
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals("some-category", plan.getLogCategory());
+        assertEquals(INFO, plan.getLogLevel(exception));
+    }
+
+    @Test void shouldMapExplicitLoggingLevelOnly() {
+        @Logging(at = INFO)
+        class SomeException extends RuntimeException {}
+        SomeException exception = new SomeException();
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals(SomeException.class.getName(), plan.getLogCategory());
+        assertEquals(INFO, plan.getLogLevel(exception));
+    }
+
+
+    @Test void shouldMapPublicDetailMethod() {
+        class SomeMessageException extends RuntimeException {
+            @Detail public String detail() { return "some detail"; }
+        }
+        SomeMessageException exception = new SomeMessageException();
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals("some detail", plan.getDetail(exception));
+        assertFalse(plan.isConstant());
+    }
+
+    @Test void shouldMapPrivateDetailMethod() {
+        class SomeMessageException extends RuntimeException {
+            @Detail private String detail() { return "some detail"; }
+        }
+        SomeMessageException exception = new SomeMessageException();
+
+        assertEquals("some detail", plan(exception).getDetail(exception));
+    }
+
+    @Test void shouldMapPrivateDetailFieldOverridingMessage() {
+        class SomeMessageException extends RuntimeException {
+            @Detail private String detail = "some detail";
+
+            SomeMessageException(String message) { super(message); }
+        }
+        SomeMessageException exception = new SomeMessageException("overwritten");
+
+        assertEquals("some detail", plan(exception).getDetail(exception));
+    }
+
+    @Test void shouldMapStaticDetailField() {
+        SomeStaticDetailException exception = new SomeStaticDetailException();
+
+        assertEquals("static detail", plan(exception).getDetail(exception));
+    }
+
+    static class SomeStaticDetailException extends RuntimeException {
+        @Detail static String detail = "static detail";
+    }
+
+    @Test void shouldJoinMixedDetailsSkippingNull() {
+        class SomeMessageException extends RuntimeException {
+            @Detail public String detail0() { return "detail a"; }
+
+            @Detail public String detail1 = null;
+            @Detail public String detail2 = "detail c";
+        }
+        SomeMessageException exception = new SomeMessageException();
+
+        assertEquals("detail a. detail c", plan(exception).getDetail(exception));
+    }
+
+    @Test void shouldJoinDetailsOrderedByName() {
+        class SomeMessageException extends RuntimeException {
+            @Detail String zeta = "zeta";
+
+            @Detail String beta() { return "beta"; }
+
+            @Detail String alpha = "alpha";
+        }
+        SomeMessageException exception = new SomeMessageException();
+
+        assertEquals("alpha. beta. zeta", plan(exception).getDetail(exception));
+    }
+
+    @Test void shouldMapAllNullDetailsToNull() {
+        class SomeMessageException extends RuntimeException {
+            @Detail String detail = null;
+
+            SomeMessageException(String message) { super(message); }
+        }
+        SomeMessageException exception = new SomeMessageException("overwritten");
+
+        assertNull(plan(exception).getDetail(exception));
+    }
+
+    @Test void shouldMapFailingDetailMethod() {
+        class FailingDetailException extends RuntimeException {
+            @Detail public String failingDetail() { throw new RuntimeException("inner"); }
+        }
+        FailingDetailException exception = new FailingDetailException();
+
+        assertEquals("could not invoke FailingDetailException.failingDetail: java.lang.RuntimeException: inner",
+            plan(exception).getDetail(exception));
+    }
+
+    @Test void shouldMapDetailMethodWithArgument() {
+        class SomeMessageException extends RuntimeException {
+            @Detail public String detail(String foo) { return "some " + foo; }
+        }
+        SomeMessageException exception = new SomeMessageException();
+
+        assertEquals("could not invoke SomeMessageException.detail: expected no args but got 1",
+            plan(exception).getDetail(exception));
+    }
+
+
+    @Test void shouldMapInheritedPrivateMembers() {
+        SomeSubException exception = new SomeSubException();
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals("base detail. sub detail", plan.getDetail(exception));
+        assertEquals(URI.create("urn:some-instance"), plan.getInstance(exception));
+        assertEquals(map("code", "base code", "sub", "sub extension"), plan.getExtensions(exception));
+        assertEquals(URI.create("urn:problem-type:some-sub"), plan.getType(exception));
+    }
+
+    static class SomeBaseException extends RuntimeException {
+        @Detail private String base = "base detail";
+        @Extension private String code = "base code";
+
+        @Instance private String instance() { return "urn:some-instance"; }
+    }
+
+    static class SomeSubException extends SomeBaseException {
+        @Detail private String sub = "sub detail";
+        @Extension("sub") private String subExtension = "sub extension";
+    }
+
+    @Test void shouldReplaceOverriddenMemberAtItsPosition() {
+        SomeOverridingException exception = new SomeOverridingException();
+
+        assertEquals("overridden first. second", plan(exception).getDetail(exception));
+    }
+
+    static class SomeOverriddenException extends RuntimeException {
+        @Detail public String first() { return "first"; }
+
+        @Detail public String second = "second";
+    }
+
+    static class SomeOverridingException extends SomeOverriddenException {
+        @Override @Detail public String first() { return "overridden first"; }
+    }
+
+
+    @Test void shouldMapExtensionsOrderedByName() {
+        class SomeMessageException extends RuntimeException {
+            @Extension String m1() { return "method 1"; }
+
+            @Extension("m2") String method() { return "method 2"; }
+
+            @Extension String f1 = "field 1";
+            @Extension("f2") String field = "field 2";
+            @Extension Integer nothing = null;
+        }
+        SomeMessageException exception = new SomeMessageException();
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals(5, plan.getExtensionCount());
+        assertEquals(Arrays.asList("f1", "f2", "m1", "m2", "nothing"), Arrays.asList(
+            plan.getExtensionName(0), plan.getExtensionName(1), plan.getExtensionName(2),
+            plan.getExtensionName(3), plan.getExtensionName(4)));
+        assertEquals("method 2", plan.getExtension(3, exception));
+        assertNull(plan.getExtension(4, exception));
+        assertNull(plan.getDetail(exception));
+        assertUuidInstance(plan, exception);
+        assertFalse(plan.isConstant());
+    }
+
+    @Test void shouldMapUriInstance() {
+        class SomeException extends RuntimeException {
+            @Instance URI instance() { return URI.create("foobar"); }
+        }
+        SomeException exception = new SomeException();
+
+        assertEquals(URI.create("foobar"), plan(exception).getInstance(exception));
+    }
+
+    @Test void shouldGenerateInstanceForNullInstanceMember() {
+        class SomeException extends RuntimeException {
+            @Instance String instance = null;
+        }
+        SomeException exception = new SomeException();
+
+        assertUuidInstance(plan(exception), exception);
+    }
+
+    @Test void shouldReadMembersWithIndexedMapper() {
+        MappedException exception = new MappedException();
+
+        ProblemPlan plan = plan(exception);
+
+        assertEquals("mapped detail", plan.getDetail(exception));
+        assertEquals(map("code", "mapped code"), plan.getExtensions(exception));
+    }
+
+    @Test void shouldReadMembersReflectivelyIfMapperIsBroken() {
+        BrokenMapperException exception = new BrokenMapperException();
+
+        assertEquals("detail", plan(exception).getDetail(exception));
+    }
+
+    @Test void shouldReadMembersReflectivelyIfMapperIsMissing() {
+        MissingMapperException exception = new MissingMapperException();
+
+        assertEquals("detail", plan(exception).getDetail(exception));
+    }
+
+    /** Listed in the service index in the test resources, like the other two */
+    static class MappedException extends RuntimeException {
+        @Detail String detail = "detail";
+        @Extension String code = "code";
+    }
+
+    static class BrokenMapperException extends RuntimeException {
+        @Detail String detail = "detail";
+    }
+
+    static class MissingMapperException extends RuntimeException {
+        @Detail String detail = "detail";
+    }
+
+    private static Map<String, Object> map(Object... keyValues) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2)
+            map.put((String) keyValues[i], keyValues[i + 1]);
+        return map;
+    }
+}
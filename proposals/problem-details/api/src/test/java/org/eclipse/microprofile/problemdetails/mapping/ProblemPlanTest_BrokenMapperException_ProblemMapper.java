@@ -0,0 +1,6 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+/** A mapper that can't be instantiated */
+public final class ProblemPlanTest_BrokenMapperException_ProblemMapper {
+    public ProblemPlanTest_BrokenMapperException_ProblemMapper() { throw new IllegalStateException("broken mapper"); }
+}
@@ -0,0 +1,22 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+import org.eclipse.microprofile.problemdetails.mapping.ProblemPlanTest.MappedException;
+
+/** Like a generated mapper, but with values that differ from the fields */
+public final class ProblemPlanTest_MappedException_ProblemMapper implements ProblemMapper<MappedException> {
+    @Override public Class<MappedException> getExceptionType() { return MappedException.class; }
+
+    @Override public String[] getDetailMembers() { return new String[]{"MappedException.detail"}; }
+
+    @Override public Object getDetail(int index, MappedException exception) { return "mapped " + exception.detail; }
+
+    @Override public String[] getExtensionNames() { return new String[]{"code"}; }
+
+    @Override public String[] getExtensionMembers() { return new String[]{"MappedException.code"}; }
+
+    @Override public Object getExtension(int index, MappedException exception) { return "mapped " + exception.code; }
+
+    @Override public String getInstanceMember() { return null; }
+
+    @Override public Object getInstance(MappedException exception) { return null; }
+}
@@ -0,0 +1,128 @@
+package org.eclipse.microprofile.problemdetails.mapping;
+
+import org.eclipse.microprofile.problemdetails.Detail;
+import org.eclipse.microprofile.problemdetails.Extension;
+import org.eclipse.microprofile.problemdetails.Instance;
+import org.eclipse.microprofile.problemdetails.Title;
+import org.eclipse.microprofile.problemdetails.mapping.ProblemJsonWriterTest.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import javax.ws.rs.core.MediaType;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.microprofile.problemdetails.mapping.ProblemJsonWriterTest.repeat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProblemXmlWriterTest {
+    private static final MediaType PROBLEM_XML = new MediaType("application", "problem+xml");
+    private static final String START = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<problem xmlns=\"urn:ietf:rfc:7807\">";
+
+    static String write(Throwable exception) throws IOException { return write(exception, new RecordingStream()); }
+
+    static String write(Throwable exception, RecordingStream out) throws IOException {
+        new ProblemXmlWriter().writeTo(Problem.of(exception), Problem.class, Problem.class, new Annotation[0],
+            PROBLEM_XML, null, out);
+        String xml = new String(out.toByteArray(), UTF_8);
+        parse(xml);
+        return xml;
+    }
+
+    private static Document parse(String xml) {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            return factory.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+        } catch (Exception e) {
+            throw new AssertionError("not well-formed: " + xml, e);
+        }
+    }
+
+
+    @Test void shouldWriteMessageAsDetail() throws IOException {
+        IllegalStateException exception = new IllegalStateException("some message") {
+            @Instance String instance = "urn:some-instance";
+        };
+
+        assertEquals(START + "<type>urn:problem-type:illegal-state</type><title>Illegal State</title><status>500</status>" +
+            "<detail>some message</detail><instance>urn:some-instance</instance></problem>", write(exception));
+    }
+
+    @Test void shouldEscapeText() throws IOException {
+        String xml = write(new EscapingException());
+
+        assertEquals(START + "<type>urn:problem-type:escaping</type><title>Tom &amp; &lt;Jerry&gt;</title>" +
+            "<status>500</status>" +
+            "<detail>a &lt;b&gt; &amp; \"c\" ?? é € 😀</detail>" +
+            "<instance>urn:some-instance</instance>" +
+            "<markup>&lt;/problem&gt;</markup></problem>", xml);
+        assertEquals("a <b> & \"c\" ?? é € 😀",
+            parse(xml).getElementsByTagNameNS("urn:ietf:rfc:7807", "detail").item(0).getTextContent());
+    }
+
+    @Title("Tom & <Jerry>")
+    static class EscapingException extends RuntimeException {
+        @Detail String detail = "a <b> & \"c\" \u0001\u001f é € 😀";
+        @Extension String markup = "</problem>";
+        @Instance String instance = "urn:some-instance";
+    }
+
+    @Test void shouldWriteEmptyAndOmitAbsentMembers() throws IOException {
+        assertEquals(START + "<type>urn:problem-type:null-members</type><title>Null Members</title><status>500</status>" +
+            "<instance>urn:some-instance</instance><empty></empty><nothing></nothing></problem>",
+            write(new NullMembersException()));
+    }
+
+    static class NullMembersException extends RuntimeException {
+        @Detail String detail = null;
+        @Extension String nothing = null;
+        @Extension String empty = "";
+        @Instance String instance = "urn:some-instance";
+    }
+
+    @Test void shouldWriteStructuredExtensions() throws IOException {
+        assertEquals(START + "<type>urn:problem-type:structured</type><title>Structured</title><status>500</status>" +
+            "<instance>urn:some-instance</instance>" +
+            "<array><i>1</i><i>2</i></array>" +
+            "<list><i>a</i><i>1</i><i></i><i>2.5</i></list>" +
+            "<map><k>v</k><nested><i><deep>1</deep></i></nested></map></problem>", write(new StructuredException()));
+    }
+
+    static class StructuredException extends RuntimeException {
+        @Extension int[] array = {1, 2};
+        @Extension List<Object> list = Arrays.asList("a", 1, null, 2.5);
+        @Extension Map<String, Object> map = new LinkedHashMap<>();
+        @Instance String instance = "urn:some-instance";
+
+        StructuredException() {
+            map.put("k", "v");
+            map.put("nested", Arrays.asList(ProblemJsonWriterTest.singletonMap("deep", 1)));
+        }
+    }
+
+    @Test void shouldStreamLongDocumentInPieces() throws IOException {
+        RecordingStream out = new RecordingStream();
+        LongDetailException exception = new LongDetailException();
+
+        String xml = write(exception, out);
+
+        assertEquals(START + "<type>urn:problem-type:long-detail</type><title>Long Detail</title><status>500</status>" +
+            "<detail>" + exception.detail + "</detail><instance>urn:some-instance</instance></problem>", xml);
+        assertTrue(out.writes > 1, "writes: " + out.writes);
+    }
+
+    static class LongDetailException extends RuntimeException {
+        @Detail String detail = repeat("détail ", 1000);
+        @Instance String instance = "urn:some-instance";
+    }
+}
@@ -0,0 +1,241 @@
+package org.eclipse.microprofile.problemdetails.processor;
+
+import org.eclipse.microprofile.problemdetails.mapping.ProblemMapper;
+import org.eclipse.microprofile.problemdetails.mapping.ProblemPlan;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles exception classes once with the processor and once without,
+ * and compares the problem details read by the generated mappers with those read reflectively.
+ */
+class ProblemMapperProcessorTest {
+    private static final String PUBLIC_MEMBERS = "" +
+        "package com.example;\n" +
+        "import org.eclipse.microprofile.problemdetails.*;\n" +
+        "public class PublicMembersException extends RuntimeException {\n" +
+        "    @Detail public String detail() { return \"method detail\"; }\n" +
+        "    @Detail String field = \"field \\\"detail\\\"\";\n" +
+        "    @Extension(\"code\") public int code = 42;\n" +
+        "    @Extension String name() { return \"some name\"; }\n" +
+        "    @Extension static String nothing = null;\n" +
+        "    @Instance public String instance = \"urn:some-instance\";\n" +
+        "\n" +
+        "    public static class NestedException extends PublicMembersException {\n" +
+        "        @Detail @Override public String detail() { return \"overridden detail\"; }\n" +
+        "        @Extension public long more() { return 7L; }\n" +
+        "    }\n" +
+        "}\n";
+    private static final String INHERITED_MEMBERS = "" +
+        "package com.example;\n" +
+        "public class InheritedMembersException extends PublicMembersException {\n" +
+        "    public InheritedMembersException() { super(); }\n" +
+        "}\n";
+    private static final String FAILING_MEMBER = "" +
+        "package com.example;\n" +
+        "import org.eclipse.microprofile.problemdetails.*;\n" +
+        "public class FailingMemberException extends RuntimeException {\n" +
+        "    @Detail public String failing() { throw new IllegalStateException(\"inner\"); }\n" +
+        "}\n";
+    private static final String UNORDERED_DETAILS = "" +
+        "package com.example;\n" +
+        "import org.eclipse.microprofile.problemdetails.*;\n" +
+        "public class UnorderedDetailsException extends RuntimeException {\n" +
+        "    @Detail public String zeta = \"zeta\";\n" +
+        "    @Detail public String beta() { return \"beta\"; }\n" +
+        "    @Detail public String alpha = \"alpha\";\n" +
+        "}\n";
+    private static final String PRIVATE_MEMBERS = "" +
+        "package com.example;\n" +
+        "import org.eclipse.microprofile.problemdetails.*;\n" +
+        "public class PrivateMembersException extends RuntimeException {\n" +
+        "    @Detail private String detail = \"private detail\";\n" +
+        "    @Extension private int balance = 30;\n" +
+        "    @Instance private String instance = \"urn:private-instance\";\n" +
+        "}\n";
+    private static final String MEMBER_WITH_ARGS = "" +
+        "package com.example;\n" +
+        "import org.eclipse.microprofile.problemdetails.*;\n" +
+        "public class MemberWithArgsException extends RuntimeException {\n" +
+        "    @Detail public String detail(String foo) { return \"some \" + foo; }\n" +
+        "}\n";
+
+    private static final List<String> MAPPED = Arrays.asList(
+        "com.example.PublicMembersException",
+        "com.example.PublicMembersException$NestedException",
+        "com.example.InheritedMembersException",
+        "com.example.FailingMemberException",
+        "com.example.UnorderedDetailsException");
+    private static final List<String> UNMAPPED = Arrays.asList(
+        "com.example.PrivateMembersException",
+        "com.example.MemberWithArgsException");
+
+    private static Path processed;
+    private static List<Diagnostic<? extends JavaFileObject>> diagnostics;
+    private static ClassLoader withMappers;
+    private static ClassLoader withoutMappers;
+
+    @BeforeAll static void compile(@TempDir Path dir) throws IOException {
+        Path sources = Files.createDirectories(dir.resolve("src/com/example"));
+        write(sources, "PublicMembersException", PUBLIC_MEMBERS);
+        write(sources, "InheritedMembersException", INHERITED_MEMBERS);
+        write(sources, "FailingMemberException", FAILING_MEMBER);
+        write(sources, "UnorderedDetailsException", UNORDERED_DETAILS);
+        write(sources, "PrivateMembersException", PRIVATE_MEMBERS);
+        write(sources, "MemberWithArgsException", MEMBER_WITH_ARGS);
+
+        processed = dir.resolve("processed");
+        diagnostics = compile(sources, processed, true);
+        Path reflective = dir.resolve("reflective");
+        compile(sources, reflective, false);
+
+        withMappers = new URLClassLoader(new URL[]{processed.toUri().toURL()}, ProblemMapperProcessorTest.class.getClassLoader());
+        withoutMappers = new URLClassLoader(new URL[]{reflective.toUri().toURL()}, ProblemMapperProcessorTest.class.getClassLoader());
+    }
+
+    private static void write(Path dir, String className, String source) throws IOException {
+        Files.write(dir.resolve(className + ".java"), source.getBytes(UTF_8));
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(Path sources, Path out, boolean process) throws IOException {
+        Files.createDirectories(out);
+        List<File> files = new ArrayList<>();
+        try (Stream<Path> list = Files.list(sources)) {
+            list.forEach(path -> files.add(path.toFile()));
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(collector, null, UTF_8)) {
+            List<String> options = new ArrayList<>(Arrays.asList(
+                "-d", out.toString(), "-classpath", System.getProperty("java.class.path")));
+            if (!process)
+                options.add("-proc:none");
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, collector, options, null,
+                fileManager.getJavaFileObjectsFromFiles(files));
+            if (process)
+                task.setProcessors(Collections.singletonList(new ProblemMapperProcessor()));
+            assertTrue(task.call(), () -> "compilation failed: " + collector.getDiagnostics());
+        }
+        return collector.getDiagnostics();
+    }
+
+    private static String mapperName(String exceptionName) { return exceptionName.replace('$', '_') + "_ProblemMapper"; }
+
+    private static Throwable exception(ClassLoader loader, String className) throws ReflectiveOperationException {
+        return (Throwable) Class.forName(className, true, loader).getConstructor().newInstance();
+    }
+
+
+    @Test void shouldGenerateMappersForAccessibleMembers() throws IOException {
+        for (String exception : MAPPED)
+            assertTrue(Files.exists(processed.resolve(mapperName(exception).replace('.', '/') + ".class")), exception);
+        for (String exception : UNMAPPED)
+            assertFalse(Files.exists(processed.resolve(mapperName(exception).replace('.', '/') + ".class")), exception);
+    }
+
+    @Test void shouldIndexGeneratedMappers() throws IOException {
+        List<String> index = Files.readAllLines(processed.resolve(ProblemMapperProcessor.SERVICE_FILE), UTF_8);
+
+        List<String> expected = new ArrayList<>();
+        for (String exception : MAPPED)
+            expected.add(mapperName(exception));
+        Collections.sort(expected);
+        assertEquals(expected, index);
+    }
+
+    @Test void shouldReportWhyClassesAreNotMapped() {
+        List<String> messages = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics)
+            messages.add(diagnostic.getKind() + " " + diagnostic.getMessage(null));
+
+        assertTrue(messages.contains("NOTE PrivateMembersException.detail is private, "
+            + "so the problem details of com.example.PrivateMembersException are read reflectively"), messages::toString);
+        assertTrue(messages.contains("WARNING MemberWithArgsException.detail expects arguments, "
+            + "so the problem details of com.example.MemberWithArgsException are read reflectively"), messages::toString);
+    }
+
+    @Test void shouldMapLikeReflection() throws ReflectiveOperationException {
+        for (String className : concat(MAPPED, UNMAPPED)) {
+            Throwable mapped = exception(withMappers, className);
+            Throwable reflected = exception(withoutMappers, className);
+            ProblemPlan mappedPlan = ProblemPlan.of(mapped.getClass());
+            ProblemPlan reflectedPlan = ProblemPlan.of(reflected.getClass());
+
+            assertEquals(reflectedPlan.getType(reflected), mappedPlan.getType(mapped), className);
+            assertEquals(reflectedPlan.getTitle(reflected), mappedPlan.getTitle(mapped), className);
+            assertEquals(reflectedPlan.getStatus(reflected), mappedPlan.getStatus(mapped), className);
+            assertEquals(reflectedPlan.getDetail(reflected), mappedPlan.getDetail(mapped), className);
+            assertEquals(reflectedPlan.getExtensions(reflected), mappedPlan.getExtensions(mapped), className);
+            if (!reflectedPlan.getInstance(reflected).toString().startsWith("urn:uuid:"))
+                assertEquals(reflectedPlan.getInstance(reflected), mappedPlan.getInstance(mapped), className);
+        }
+    }
+
+    @Test void shouldReadMembersWithGeneratedMapper() throws ReflectiveOperationException {
+        Throwable exception = exception(withMappers, "com.example.PublicMembersException$NestedException");
+        @SuppressWarnings("unchecked") ProblemMapper<Throwable> mapper = (ProblemMapper<Throwable>)
+            Class.forName(mapperName(exception.getClass().getName()), true, withMappers).getConstructor().newInstance();
+
+        assertEquals(exception.getClass(), mapper.getExceptionType());
+        assertArrayEquals(new String[]{"NestedException.detail", "PublicMembersException.field"}, mapper.getDetailMembers());
+        assertEquals("overridden detail", mapper.getDetail(0, exception));
+        assertEquals("field \"detail\"", mapper.getDetail(1, exception));
+        assertArrayEquals(new String[]{"code", "more", "name", "nothing"}, mapper.getExtensionNames());
+        assertEquals(42, mapper.getExtension(0, exception));
+        assertEquals(7L, mapper.getExtension(1, exception));
+        assertEquals("some name", mapper.getExtension(2, exception));
+        assertNull(mapper.getExtension(3, exception));
+        assertEquals("PublicMembersException.instance", mapper.getInstanceMember());
+        assertEquals("urn:some-instance", mapper.getInstance(exception));
+
+        ProblemPlan plan = ProblemPlan.of(exception.getClass());
+        assertEquals("overridden detail. field \"detail\"", plan.getDetail(exception));
+    }
+
+    @Test void shouldJoinDetailsOrderedByName() throws ReflectiveOperationException {
+        for (ClassLoader loader : Arrays.asList(withMappers, withoutMappers)) {
+            Throwable exception = exception(loader, "com.example.UnorderedDetailsException");
+
+            assertEquals("alpha. beta. zeta", ProblemPlan.of(exception.getClass()).getDetail(exception));
+        }
+    }
+
+    @Test void shouldReportFailingMemberOfMapper() throws ReflectiveOperationException {
+        Throwable exception = exception(withMappers, "com.example.FailingMemberException");
+
+        assertEquals("could not invoke FailingMemberException.failing: java.lang.IllegalStateException: inner",
+            ProblemPlan.of(exception.getClass()).getDetail(exception));
+    }
+
+    private static List<String> concat(List<String> a, List<String> b) {
+        List<String> list = new ArrayList<>(a);
+        list.addAll(b);
+        return list;
+    }
+}